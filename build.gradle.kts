@@ -11,6 +11,7 @@ plugins {
     alias(libs.plugins.spotless)
     alias(libs.plugins.release)
     alias(libs.plugins.spotbugs)
+    alias(libs.plugins.jmh)
     alias(libs.plugins.spring)
     alias(libs.plugins.springboot) apply false
 }
@@ -52,6 +53,16 @@ spotless {
     }
 }
 
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    resultsFile = rootProject.layout.buildDirectory.file("reports/jmh/${project.name}/results.json")
+    humanOutputFile = rootProject.layout.buildDirectory.file("reports/jmh/${project.name}/human.txt")
+    // e.g. ./gradlew jmh -PjmhIncludes=ConverterBenchmark
+    (project.findProperty("jmhIncludes") as String?)?.let { includes = listOf(it) }
+}
+
 pmd {
     toolVersion = "7.0.0"
     rulesMinimumPriority = 5
@@ -116,6 +127,15 @@ tasks {
     checkstyleTest {
         enabled = false
     }
+    spotbugsJmh {
+        enabled = false
+    }
+    pmdJmh {
+        enabled = false
+    }
+    checkstyleJmh {
+        enabled = false
+    }
 
     withType<JavaCompile>() {
         options.encoding = "UTF-8"
@@ -140,14 +160,20 @@ dependencies {
     api(libs.resilience4j.circuitbreaker)
     api(libs.resilience4j.retry)
     optional(libs.spring.boot.web)
+    optional(libs.spring.webflux)
+    optional(libs.spring.boot.actuator)
+    optional(libs.spring.cloud.context)
+    optional(libs.caffeine)
     optional(libs.retrofit2.jackson)
     optional(libs.retrofit2.gson)
     optional(libs.retrofit2.scalars)
     optional(libs.retrofit2.xml)
+    optional(libs.dsl.json)
     optional(libs.okhttp3.logging.interceptor)
     optional(libs.micrometer.core)
     optional(libs.micrometer.tracing)
     optional(libs.micrometer.otel)
+    optional(libs.micrometer.context.propagation)
 
     compileOnly(libs.findbugs)
     compileOnly(libs.spotbugs.annotations)
@@ -167,6 +193,11 @@ dependencies {
 
     testCompileOnly(libs.lombok)
     testAnnotationProcessor(libs.lombok)
+
+    jmh(libs.spring.boot.test)
+    jmh(libs.okhttp3.mockwebserver)
+    jmh(libs.jaxb.runtime)
+    jmh(libs.jaxb.bind)
 }
 
 tasks {
@@ -0,0 +1,112 @@
+package in.abilng.springboot.retrofit.convertor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+import retrofit2.converter.jackson.JacksonConverterFactory;
+
+/**
+ * Throughput and allocation of the Jackson, Gson and DSL-JSON converter factories, from raw bytes to objects
+ * and back, on payloads of a few fields up to a large list of nested objects.
+ * <br/>
+ * e.g. {@code ./gradlew jmh -PjmhIncludes=JsonConverterBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JsonConverterBenchmark {
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    @Param({"jackson", "gson", "dsl-json"})
+    public String codec;
+
+    @Param({"1", "100", "10000"})
+    public int items;
+
+    private byte[] json;
+    private Payload payload;
+    private Converter<ResponseBody, ?> decoder;
+    private Converter<Payload, RequestBody> encoder;
+
+    /**
+     * JSON payload.
+     */
+    public static class Payload {
+        public String id;
+        public long total;
+        public List<Item> items = new ArrayList<>();
+    }
+
+    /**
+     * JSON payload item.
+     */
+    public static class Item {
+        public int id;
+        public String name;
+        public double price;
+        public boolean available;
+        public List<String> tags = new ArrayList<>();
+    }
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws IOException {
+        final Converter.Factory factory =
+                switch (codec) {
+                    case "jackson" -> JacksonConverterFactory.create();
+                    case "gson" -> GsonConverterFactory.create();
+                    default -> DslJsonConverterFactory.create();
+                };
+        final Retrofit retrofit =
+                new Retrofit.Builder().baseUrl("http://localhost/").addConverterFactory(factory).build();
+        final Annotation[] annotations = new Annotation[0];
+        decoder = factory.responseBodyConverter(Payload.class, annotations, retrofit);
+        encoder =
+                (Converter<Payload, RequestBody>)
+                        factory.requestBodyConverter(Payload.class, annotations, annotations, retrofit);
+
+        payload = new Payload();
+        payload.id = "order-1";
+        payload.total = items;
+        for (int i = 0; i < items; i++) {
+            final Item item = new Item();
+            item.id = i;
+            item.name = "item-" + i;
+            item.price = i * 1.25;
+            item.available = i % 2 == 0;
+            item.tags.add("tag-" + (i % 7));
+            item.tags.add("tag-" + (i % 11));
+            payload.items.add(item);
+        }
+        // the same bytes for every codec
+        json = new ObjectMapper().writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return decoder.convert(ResponseBody.create(json, JSON));
+    }
+
+    @Benchmark
+    public RequestBody encode() throws IOException {
+        return encoder.convert(payload);
+    }
+}
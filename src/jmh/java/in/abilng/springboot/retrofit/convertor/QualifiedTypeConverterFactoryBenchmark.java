@@ -0,0 +1,155 @@
+package in.abilng.springboot.retrofit.convertor;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import in.abilng.springboot.retrofit.annotation.Json;
+import in.abilng.springboot.retrofit.annotation.Xml;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import retrofit2.converter.jackson.JacksonConverterFactory;
+import retrofit2.converter.jaxb3.JaxbConverterFactory;
+
+/**
+ * Throughput and allocation of the JSON and XML paths of {@link QualifiedTypeConverterFactory},
+ * from raw bytes to objects and back, without any network in between.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class QualifiedTypeConverterFactoryBenchmark {
+
+    private static final MediaType JSON = MediaType.get("application/json");
+    private static final MediaType XML = MediaType.get("application/xml");
+
+    @Param({"1", "100"})
+    public int items;
+
+    private byte[] json;
+    private byte[] xml;
+    private JsonPayload jsonPayload;
+    private Converter<ResponseBody, ?> jsonDecoder;
+    private Converter<JsonPayload, RequestBody> jsonEncoder;
+    private Converter<ResponseBody, ?> xmlDecoder;
+
+    /**
+     * JSON payload.
+     */
+    public static class JsonPayload {
+        @JsonProperty("items")
+        public List<JsonItem> items = new ArrayList<>();
+    }
+
+    /**
+     * JSON payload item.
+     */
+    public static class JsonItem {
+        @JsonProperty("id")
+        public int id;
+
+        @JsonProperty("name")
+        public String name;
+    }
+
+    /**
+     * XML payload.
+     */
+    @XmlRootElement(name = "PayLoad")
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class XmlPayload {
+        @XmlElement(name = "Item")
+        public List<String> items = new ArrayList<>();
+    }
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        QualifiedTypeConverterFactory factory =
+                new QualifiedTypeConverterFactory(
+                        JacksonConverterFactory.create(), JaxbConverterFactory.create());
+        Retrofit retrofit =
+                new Retrofit.Builder().baseUrl("http://localhost/").addConverterFactory(factory).build();
+
+        Annotation[] jsonAnnotations = {JsonAnnotation.INSTANCE};
+        Annotation[] xmlAnnotations = {XmlAnnotation.INSTANCE};
+        jsonDecoder = factory.responseBodyConverter(JsonPayload.class, jsonAnnotations, retrofit);
+        jsonEncoder =
+                (Converter<JsonPayload, RequestBody>)
+                        factory.requestBodyConverter(
+                                JsonPayload.class, jsonAnnotations, new Annotation[0], retrofit);
+        xmlDecoder = factory.responseBodyConverter(XmlPayload.class, xmlAnnotations, retrofit);
+
+        StringBuilder jsonText = new StringBuilder("{\"items\":[");
+        StringBuilder xmlText = new StringBuilder("<PayLoad>");
+        jsonPayload = new JsonPayload();
+        for (int i = 0; i < items; i++) {
+            jsonText.append(i == 0 ? "" : ",")
+                    .append("{\"id\":")
+                    .append(i)
+                    .append(",\"name\":\"item-")
+                    .append(i)
+                    .append("\"}");
+            xmlText.append("<Item>item-").append(i).append("</Item>");
+            JsonItem item = new JsonItem();
+            item.id = i;
+            item.name = "item-" + i;
+            jsonPayload.items.add(item);
+        }
+        json = jsonText.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+        xml = xmlText.append("</PayLoad>").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object decodeJson() throws IOException {
+        return jsonDecoder.convert(ResponseBody.create(json, JSON));
+    }
+
+    @Benchmark
+    public RequestBody encodeJson() throws IOException {
+        return jsonEncoder.convert(jsonPayload);
+    }
+
+    @Benchmark
+    public Object decodeXml() throws IOException {
+        return xmlDecoder.convert(ResponseBody.create(xml, XML));
+    }
+
+    @SuppressWarnings("ClassExplicitlyAnnotation")
+    private static final class JsonAnnotation implements Json {
+        static final Json INSTANCE = new JsonAnnotation();
+
+        @Override
+        public Class<? extends Annotation> annotationType() {
+            return Json.class;
+        }
+    }
+
+    @SuppressWarnings("ClassExplicitlyAnnotation")
+    private static final class XmlAnnotation implements Xml {
+        static final Xml INSTANCE = new XmlAnnotation();
+
+        @Override
+        public Class<? extends Annotation> annotationType() {
+            return Xml.class;
+        }
+    }
+}
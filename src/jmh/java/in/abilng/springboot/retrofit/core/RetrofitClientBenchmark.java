@@ -0,0 +1,112 @@
+package in.abilng.springboot.retrofit.core;
+
+import in.abilng.springboot.retrofit.resilience4j.CircuitBreakerCallAdapter;
+import in.abilng.springboot.retrofit.resilience4j.RetryCallAdapter;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.scalars.ScalarsConverterFactory;
+import retrofit2.http.GET;
+
+/**
+ * End-to-end throughput and allocation of a Retrofit proxy call against an in-process
+ * {@link MockWebServer}, with and without the resilience decorators the starter installs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RetrofitClientBenchmark {
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    private OkHttpClient client;
+    private TestApi plain;
+    private TestApi decorated;
+
+    /**
+     * Service under benchmark.
+     */
+    public interface TestApi {
+        @GET("/test")
+        Call<String> test();
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        mockWebServer.setDispatcher(
+                new Dispatcher() {
+                    @NotNull
+                    @Override
+                    public MockResponse dispatch(@NotNull RecordedRequest recordedRequest) {
+                        return new MockResponse().setBody("Hello");
+                    }
+                });
+        mockWebServer.start();
+        client = new OkHttpClient.Builder().build();
+
+        plain = builder().build().create(TestApi.class);
+        decorated =
+                builder()
+                        .addCallAdapterFactory(
+                                RetryCallAdapter.of(
+                                        Retry.of(
+                                                "bench",
+                                                RetryConfig.<Response<?>>custom()
+                                                        .waitDuration(Duration.ZERO)
+                                                        .retryOnResult(response -> response.code() >= 500)
+                                                        .build())))
+                        .addCallAdapterFactory(CircuitBreakerCallAdapter.of(CircuitBreaker.ofDefaults("bench")))
+                        .build()
+                        .create(TestApi.class);
+    }
+
+    private Retrofit.Builder builder() {
+        return new Retrofit.Builder()
+                .baseUrl(mockWebServer.url("/"))
+                .addConverterFactory(ScalarsConverterFactory.create())
+                .client(client)
+                .validateEagerly(true);
+    }
+
+    @TearDown
+    public void teardown() throws IOException {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+        mockWebServer.shutdown();
+    }
+
+    @Benchmark
+    public Call<String> proxyInvocation() {
+        return plain.test();
+    }
+
+    @Benchmark
+    public String execute() throws IOException {
+        return plain.test().execute().body();
+    }
+
+    @Benchmark
+    public String executeDecorated() throws IOException {
+        return decorated.test().execute().body();
+    }
+}
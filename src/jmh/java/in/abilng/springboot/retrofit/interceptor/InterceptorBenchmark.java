@@ -0,0 +1,180 @@
+package in.abilng.springboot.retrofit.interceptor;
+
+import in.abilng.springboot.retrofit.autoconfigure.RetrofitAutoConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import retrofit2.Retrofit;
+import retrofit2.converter.scalars.ScalarsConverterFactory;
+import retrofit2.http.GET;
+import retrofit2.http.Path;
+
+/**
+ * Per-request overhead of the interceptors the starter installs, measured against a chain that
+ * answers in memory.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InterceptorBenchmark {
+
+    private Interceptor authorization;
+    private Interceptor observation;
+    private Request request;
+    private OkHttpClient client;
+
+    /**
+     * Service whose invocation tags the request.
+     */
+    public interface TestApi {
+        @GET("/test/{id}")
+        retrofit2.Call<String> test(@Path("id") String id);
+    }
+
+    @Setup
+    public void setup() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+        servletRequest.addHeader("Authorization", "Bearer token");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(servletRequest));
+        authorization = AuthorizationInterceptor.getInstance();
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry
+                .observationConfig()
+                .observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("observationRegistry", observationRegistry);
+        observation =
+                new RetrofitAutoConfiguration.InterceptorConfiguration()
+                        .observationInterceptor(beanFactory.getBeanProvider(ObservationRegistry.class));
+
+        client = new OkHttpClient();
+        request =
+                new Retrofit.Builder()
+                        .baseUrl("http://localhost/")
+                        .addConverterFactory(ScalarsConverterFactory.create())
+                        .callFactory(client)
+                        .build()
+                        .create(TestApi.class)
+                        .test("42")
+                        .request();
+    }
+
+    @TearDown
+    public void teardown() {
+        RequestContextHolder.resetRequestAttributes();
+        client.dispatcher().executorService().shutdown();
+    }
+
+    @Benchmark
+    public Response authorization() throws IOException {
+        return authorization.intercept(new StubChain(request, client));
+    }
+
+    @Benchmark
+    public Response observation() throws IOException {
+        return observation.intercept(new StubChain(request, client));
+    }
+
+    /**
+     * Chain whose {@link #proceed(Request)} answers immediately.
+     */
+    private static final class StubChain implements Interceptor.Chain {
+        private final Request request;
+        private final OkHttpClient client;
+
+        StubChain(Request request, OkHttpClient client) {
+            this.request = request;
+            this.client = client;
+        }
+
+        @NotNull
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @NotNull
+        @Override
+        public Response proceed(@NotNull Request request) {
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(200)
+                    .message("OK")
+                    .body(ResponseBody.create("Hello", null))
+                    .build();
+        }
+
+        @Nullable
+        @Override
+        public Connection connection() {
+            return null;
+        }
+
+        @NotNull
+        @Override
+        public Call call() {
+            return client.newCall(request);
+        }
+
+        @Override
+        public int connectTimeoutMillis() {
+            return 0;
+        }
+
+        @NotNull
+        @Override
+        public Interceptor.Chain withConnectTimeout(int timeout, @NotNull TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int readTimeoutMillis() {
+            return 0;
+        }
+
+        @NotNull
+        @Override
+        public Interceptor.Chain withReadTimeout(int timeout, @NotNull TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int writeTimeoutMillis() {
+            return 0;
+        }
+
+        @NotNull
+        @Override
+        public Interceptor.Chain withWriteTimeout(int timeout, @NotNull TimeUnit unit) {
+            return this;
+        }
+    }
+}
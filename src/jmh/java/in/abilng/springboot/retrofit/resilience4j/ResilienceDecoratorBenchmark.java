@@ -0,0 +1,175 @@
+package in.abilng.springboot.retrofit.resilience4j;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.Timeout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Measures throughput and allocation of the {@link RetrofitCircuitBreaker} and {@link RetrofitRetry}
+ * decorators against an in-memory call, so only the decorator overhead is on the profile.
+ * <br/>
+ * Run with {@code ./gradlew jmh}; the {@code gc} profiler reports {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResilienceDecoratorBenchmark {
+
+    private static final Request REQUEST = new Request.Builder().url("http://localhost/bench").build();
+
+    private CircuitBreaker circuitBreaker;
+    private Retry retry;
+    private Response<String> success;
+    private Response<String> serverError;
+
+    @Setup
+    public void setup() {
+        circuitBreaker =
+                CircuitBreaker.of(
+                        "bench",
+                        CircuitBreakerConfig.custom()
+                                .recordExceptions(IOException.class, TimeoutException.class)
+                                .build());
+        retry =
+                Retry.of(
+                        "bench",
+                        RetryConfig.<Response<?>>custom()
+                                .maxAttempts(3)
+                                .waitDuration(Duration.ZERO)
+                                .retryOnResult(response -> response.code() >= 500)
+                                .retryExceptions(IOException.class, TimeoutException.class)
+                                .failAfterMaxAttempts(false)
+                                .build());
+        success = Response.success("OK");
+        serverError =
+                Response.error(503, ResponseBody.create("", MediaType.get("text/plain")));
+    }
+
+    @Benchmark
+    public Response<String> circuitBreakerExecuteSuccess() throws IOException {
+        return RetrofitCircuitBreaker.decorateCall(
+                        circuitBreaker, new CompletedCall<>(success), Response<?>::isSuccessful)
+                .execute();
+    }
+
+    @Benchmark
+    public Response<String> circuitBreakerExecuteError() throws IOException {
+        return RetrofitCircuitBreaker.decorateCall(
+                        circuitBreaker, new CompletedCall<>(serverError), Response<?>::isSuccessful)
+                .execute();
+    }
+
+    @Benchmark
+    public void circuitBreakerEnqueueError(Blackhole blackhole) {
+        RetrofitCircuitBreaker.decorateCall(
+                        circuitBreaker, new CompletedCall<>(serverError), Response<?>::isSuccessful)
+                .enqueue(new BlackholeCallback<>(blackhole));
+    }
+
+    @Benchmark
+    public Response<String> retryExecuteSuccess() throws IOException {
+        return RetrofitRetry.decorateCall(retry, new CompletedCall<>(success)).execute();
+    }
+
+    @Benchmark
+    public void retryEnqueueSuccess(Blackhole blackhole) {
+        RetrofitRetry.decorateCall(retry, new CompletedCall<>(success))
+                .enqueue(new BlackholeCallback<>(blackhole));
+    }
+
+    @Benchmark
+    public void retryEnqueueExhausted(Blackhole blackhole) {
+        RetrofitRetry.decorateCall(retry, new CompletedCall<>(serverError))
+                .enqueue(new BlackholeCallback<>(blackhole));
+    }
+
+    /**
+     * Callback that hands every outcome to the {@link Blackhole}.
+     */
+    private record BlackholeCallback<T>(Blackhole blackhole) implements Callback<T> {
+        @Override
+        public void onResponse(Call<T> call, Response<T> response) {
+            blackhole.consume(response);
+        }
+
+        @Override
+        public void onFailure(Call<T> call, Throwable t) {
+            blackhole.consume(t);
+        }
+    }
+
+    /**
+     * Call which completes synchronously with a fixed response.
+     */
+    private static final class CompletedCall<T> implements Call<T> {
+        private final Response<T> response;
+        private boolean executed;
+
+        CompletedCall(Response<T> response) {
+            this.response = response;
+        }
+
+        @Override
+        public Response<T> execute() {
+            executed = true;
+            return response;
+        }
+
+        @Override
+        public void enqueue(Callback<T> callback) {
+            executed = true;
+            callback.onResponse(this, response);
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed;
+        }
+
+        @Override
+        public void cancel() {
+            // nothing in flight
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return false;
+        }
+
+        @Override
+        @SuppressWarnings("MethodDoesntCallSuperMethod")
+        public Call<T> clone() {
+            return new CompletedCall<>(response);
+        }
+
+        @Override
+        public Request request() {
+            return REQUEST;
+        }
+
+        @Override
+        public Timeout timeout() {
+            return Timeout.NONE;
+        }
+    }
+}
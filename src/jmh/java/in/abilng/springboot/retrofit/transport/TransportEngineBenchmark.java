@@ -0,0 +1,105 @@
+package in.abilng.springboot.retrofit.transport;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import retrofit2.Call;
+import retrofit2.Retrofit;
+import retrofit2.converter.scalars.ScalarsConverterFactory;
+import retrofit2.http.GET;
+
+/**
+ * Throughput and allocation of the same Retrofit call sent by the okhttp and the jdk engines against an
+ * in-process {@link MockWebServer}, from one thread and from concurrent callers sharing the client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TransportEngineBenchmark {
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    private OkHttpClient client;
+    private TestApi okHttp;
+    private TestApi jdk;
+
+    /**
+     * Service under benchmark.
+     */
+    public interface TestApi {
+        @GET("/test")
+        Call<String> test();
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        mockWebServer.setDispatcher(
+                new Dispatcher() {
+                    @NotNull
+                    @Override
+                    public MockResponse dispatch(@NotNull RecordedRequest recordedRequest) {
+                        return new MockResponse().setBody("Hello");
+                    }
+                });
+        mockWebServer.start();
+        client = new OkHttpClient.Builder().build();
+
+        okHttp = builder().client(client).build().create(TestApi.class);
+        jdk =
+                builder()
+                        .callFactory(
+                                new JdkHttpCallFactory(client, JdkHttpCallFactory.newHttpClientBuilder(client).build()))
+                        .build()
+                        .create(TestApi.class);
+    }
+
+    private Retrofit.Builder builder() {
+        return new Retrofit.Builder()
+                .baseUrl(mockWebServer.url("/"))
+                .addConverterFactory(ScalarsConverterFactory.create())
+                .validateEagerly(true);
+    }
+
+    @TearDown
+    public void teardown() throws IOException {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+        mockWebServer.shutdown();
+    }
+
+    @Benchmark
+    public String okHttpExecute() throws IOException {
+        return okHttp.test().execute().body();
+    }
+
+    @Benchmark
+    public String jdkExecute() throws IOException {
+        return jdk.test().execute().body();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String okHttpExecuteConcurrent() throws IOException {
+        return okHttp.test().execute().body();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String jdkExecuteConcurrent() throws IOException {
+        return jdk.test().execute().body();
+    }
+}
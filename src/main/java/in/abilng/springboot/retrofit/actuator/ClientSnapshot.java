@@ -0,0 +1,84 @@
+package in.abilng.springboot.retrofit.actuator;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * State of a Retrofit client, as served by the {@link RetrofitClientsEndpoint}.
+ *
+ * @param baseUrl        the base url of the service
+ * @param timeouts       the timeouts of the client
+ * @param connectionPool the occupancy of the connection pool, null before the client is created
+ * @param dispatcher     the occupancy of the dispatcher, null before the client is created
+ * @param circuitBreaker the circuit breaker, null when disabled
+ * @param retry          the retry counts, null when disabled
+ * @param methods        the latency percentiles by method name
+ */
+public record ClientSnapshot(
+        String baseUrl,
+        Timeouts timeouts,
+        ConnectionPool connectionPool,
+        Dispatcher dispatcher,
+        CircuitBreaker circuitBreaker,
+        Retry retry,
+        Map<String, Latency> methods) {
+
+    /**
+     * The effective timeouts of a client.
+     *
+     * @param connect the connect timeout
+     * @param read    the read timeout
+     * @param write   the write timeout
+     * @param call    the call timeout, zero for none
+     */
+    public record Timeouts(Duration connect, Duration read, Duration write, Duration call) {}
+
+    /**
+     * The occupancy of a connection pool.
+     *
+     * @param idle  the idle connections
+     * @param total the connections
+     */
+    public record ConnectionPool(int idle, int total) {}
+
+    /**
+     * The occupancy of a dispatcher.
+     *
+     * @param queued  the calls waiting for dispatch
+     * @param running the running calls
+     */
+    public record Dispatcher(int queued, int running) {}
+
+    /**
+     * The state of a circuit breaker.
+     *
+     * @param state           the state
+     * @param failureRate     the failure rate percentage, -1 until the minimum number of calls is recorded
+     * @param slowCallRate    the slow call rate percentage, -1 until the minimum number of calls is recorded
+     * @param bufferedCalls   the calls in the sliding window
+     * @param notPermitted    the calls not permitted while open
+     */
+    public record CircuitBreaker(
+            String state, float failureRate, float slowCallRate, int bufferedCalls, long notPermitted) {}
+
+    /**
+     * The counts of a retry.
+     *
+     * @param successfulWithoutRetry the calls successful on the first attempt
+     * @param successfulWithRetry    the calls successful after retries
+     * @param failedWithoutRetry     the calls failed without retries
+     * @param failedWithRetry        the calls failed after all retries
+     */
+    public record Retry(
+            long successfulWithoutRetry, long successfulWithRetry, long failedWithoutRetry, long failedWithRetry) {}
+
+    /**
+     * The recent latency percentiles of a method, over 10% wide buckets.
+     *
+     * @param count the calls in the window
+     * @param p50   the median latency in milliseconds
+     * @param p90   the 90th percentile latency in milliseconds
+     * @param p99   the 99th percentile latency in milliseconds
+     */
+    public record Latency(long count, long p50, long p90, long p99) {}
+}
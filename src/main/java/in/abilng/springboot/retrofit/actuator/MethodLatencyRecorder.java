@@ -0,0 +1,63 @@
+package in.abilng.springboot.retrofit.actuator;
+
+import in.abilng.springboot.retrofit.config.RetroFitProperties;
+import in.abilng.springboot.retrofit.core.OkHttpClientCustomizer;
+import in.abilng.springboot.retrofit.timeout.LatencySketch;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import okhttp3.OkHttpClient;
+import retrofit2.Invocation;
+
+/**
+ * Records the latency of the calls of each method of the Retrofit clients, for the {@link RetrofitClientsEndpoint}.
+ * <br/>
+ * Latencies are measured until the response headers are received, and kept in a {@link LatencySketch} per method,
+ * so recording is lock-free and the memory does not grow with the number of calls.
+ */
+public class MethodLatencyRecorder implements OkHttpClientCustomizer {
+
+    private final Duration window;
+
+    private final Map<String, Map<String, LatencySketch>> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Method latency recorder.
+     *
+     * @param window the window of the latency percentiles
+     */
+    public MethodLatencyRecorder(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    public void customize(
+            String name, RetroFitProperties.ServiceProperties properties, OkHttpClient.Builder builder) {
+        final Map<String, LatencySketch> methods = latencies.computeIfAbsent(name, key -> new ConcurrentHashMap<>());
+        builder.addInterceptor(
+                chain -> {
+                    final Invocation invocation = chain.request().tag(Invocation.class);
+                    if (invocation == null) {
+                        return chain.proceed(chain.request());
+                    }
+                    final long start = System.nanoTime();
+                    try {
+                        return chain.proceed(chain.request());
+                    } finally {
+                        methods.computeIfAbsent(invocation.method().getName(), key -> new LatencySketch(window))
+                                .record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    }
+                });
+    }
+
+    /**
+     * Gets the latencies of the methods of a client.
+     *
+     * @param name the name of the Retrofit client
+     * @return the latency sketches by method name
+     */
+    public Map<String, LatencySketch> getLatencies(String name) {
+        return latencies.getOrDefault(name, Map.of());
+    }
+}
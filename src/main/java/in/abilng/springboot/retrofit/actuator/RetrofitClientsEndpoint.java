@@ -0,0 +1,172 @@
+package in.abilng.springboot.retrofit.actuator;
+
+import in.abilng.springboot.retrofit.config.RetroFitProperties;
+import in.abilng.springboot.retrofit.core.RetrofitClientFactoryBean;
+import in.abilng.springboot.retrofit.dispatch.FairQueueDispatcherExecutor;
+import in.abilng.springboot.retrofit.dispatch.PriorityDispatcherExecutor;
+import in.abilng.springboot.retrofit.timeout.LatencySketch;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import okhttp3.OkHttpClient;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * The {@code retrofit} actuator endpoint, listing the state of each Retrofit client: base url, timeouts, connection
+ * pool and dispatcher occupancy, circuit breaker state, retry counts and recent latency percentiles per method.
+ * <br/>
+ * Reads are served from a snapshot of all clients, taken again when it is older than the snapshot interval.
+ */
+@Endpoint(id = "retrofit")
+public class RetrofitClientsEndpoint {
+
+    private final ApplicationContext applicationContext;
+
+    private final MethodLatencyRecorder latencyRecorder;
+
+    private final long snapshotIntervalNanos;
+
+    private volatile Snapshot latest;
+
+    /**
+     * Instantiates a new Retrofit clients endpoint.
+     *
+     * @param applicationContext the application context
+     * @param latencyRecorder    the method latency recorder
+     * @param snapshotInterval   the maximum age of the snapshot
+     */
+    public RetrofitClientsEndpoint(
+            ApplicationContext applicationContext, MethodLatencyRecorder latencyRecorder, Duration snapshotInterval) {
+        this.applicationContext = applicationContext;
+        this.latencyRecorder = latencyRecorder;
+        this.snapshotIntervalNanos = snapshotInterval.toNanos();
+    }
+
+    /**
+     * The state of all clients.
+     *
+     * @return the client snapshots by client name
+     */
+    @ReadOperation
+    public Map<String, ClientSnapshot> clients() {
+        return snapshot().clients();
+    }
+
+    /**
+     * The state of a client.
+     *
+     * @param name the name of the Retrofit client
+     * @return the client snapshot, null when there is no such client
+     */
+    @ReadOperation
+    public ClientSnapshot client(@Selector String name) {
+        return snapshot().clients().get(name);
+    }
+
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    private Snapshot snapshot() {
+        final Snapshot current = latest;
+        final long now = System.nanoTime();
+        if (current != null && now - current.takenAt() < snapshotIntervalNanos) {
+            return current;
+        }
+        synchronized (this) {
+            // retakes the snapshot unless another thread replaced the one read above
+            if (latest == null || latest == current) {
+                latest = new Snapshot(takeSnapshot(), now);
+            }
+            return latest;
+        }
+    }
+
+    private Map<String, ClientSnapshot> takeSnapshot() {
+        final Map<String, ClientSnapshot> clients = new TreeMap<>();
+        applicationContext
+                .getBeansOfType(RetrofitClientFactoryBean.class)
+                .values()
+                .forEach(factoryBean -> clients.put(factoryBean.getName(), snapshotOf(factoryBean)));
+        return Collections.unmodifiableMap(clients);
+    }
+
+    private ClientSnapshot snapshotOf(RetrofitClientFactoryBean factoryBean) {
+        final OkHttpClient client = factoryBean.getActiveClient().orElse(null);
+        final RetroFitProperties.ServiceConnectionProperties connection =
+                factoryBean.getProperties().getConnection();
+        final ClientSnapshot.Timeouts timeouts =
+                client == null
+                        ? new ClientSnapshot.Timeouts(
+                                connection.getConnectTimeout(),
+                                connection.getReadTimeout(),
+                                connection.getWriteTimeout(),
+                                Duration.ZERO)
+                        : new ClientSnapshot.Timeouts(
+                                Duration.ofMillis(client.connectTimeoutMillis()),
+                                Duration.ofMillis(client.readTimeoutMillis()),
+                                Duration.ofMillis(client.writeTimeoutMillis()),
+                                Duration.ofMillis(client.callTimeoutMillis()));
+        return new ClientSnapshot(
+                factoryBean.getProperties().getBaseUrl(),
+                timeouts,
+                client == null ? null : connectionPoolOf(client),
+                client == null ? null : dispatcherOf(client),
+                factoryBean.getActiveCircuitBreaker().map(RetrofitClientsEndpoint::circuitBreakerOf).orElse(null),
+                factoryBean.getActiveRetry().map(RetrofitClientsEndpoint::retryOf).orElse(null),
+                latenciesOf(factoryBean.getName()));
+    }
+
+    private static ClientSnapshot.ConnectionPool connectionPoolOf(OkHttpClient client) {
+        return new ClientSnapshot.ConnectionPool(
+                client.connectionPool().idleConnectionCount(), client.connectionPool().connectionCount());
+    }
+
+    private static ClientSnapshot.Dispatcher dispatcherOf(OkHttpClient client) {
+        final okhttp3.Dispatcher dispatcher = client.dispatcher();
+        if (dispatcher.executorService() instanceof PriorityDispatcherExecutor executor) {
+            return new ClientSnapshot.Dispatcher(executor.getQueuedCount(), executor.getRunningCount());
+        }
+        if (dispatcher.executorService() instanceof FairQueueDispatcherExecutor executor) {
+            return new ClientSnapshot.Dispatcher(executor.getQueuedCount(), executor.getRunningCount());
+        }
+        return new ClientSnapshot.Dispatcher(dispatcher.queuedCallsCount(), dispatcher.runningCallsCount());
+    }
+
+    private static ClientSnapshot.CircuitBreaker circuitBreakerOf(
+            io.github.resilience4j.circuitbreaker.CircuitBreaker circuitBreaker) {
+        final io.github.resilience4j.circuitbreaker.CircuitBreaker.Metrics metrics = circuitBreaker.getMetrics();
+        return new ClientSnapshot.CircuitBreaker(
+                circuitBreaker.getState().name(),
+                metrics.getFailureRate(),
+                metrics.getSlowCallRate(),
+                metrics.getNumberOfBufferedCalls(),
+                metrics.getNumberOfNotPermittedCalls());
+    }
+
+    private static ClientSnapshot.Retry retryOf(io.github.resilience4j.retry.Retry retry) {
+        final io.github.resilience4j.retry.Retry.Metrics metrics = retry.getMetrics();
+        return new ClientSnapshot.Retry(
+                metrics.getNumberOfSuccessfulCallsWithoutRetryAttempt(),
+                metrics.getNumberOfSuccessfulCallsWithRetryAttempt(),
+                metrics.getNumberOfFailedCallsWithoutRetryAttempt(),
+                metrics.getNumberOfFailedCallsWithRetryAttempt());
+    }
+
+    private Map<String, ClientSnapshot.Latency> latenciesOf(String name) {
+        final Map<String, ClientSnapshot.Latency> methods = new TreeMap<>();
+        latencyRecorder.getLatencies(name).forEach((method, sketch) -> methods.put(method, latencyOf(sketch)));
+        return Collections.unmodifiableMap(methods);
+    }
+
+    private static ClientSnapshot.Latency latencyOf(LatencySketch sketch) {
+        return new ClientSnapshot.Latency(
+                sketch.count(), sketch.quantile(0.5), sketch.quantile(0.9), sketch.quantile(0.99));
+    }
+
+    /**
+     * The client snapshots and when they were taken.
+     */
+    private record Snapshot(Map<String, ClientSnapshot> clients, long takenAt) {}
+}
@@ -0,0 +1,27 @@
+package in.abilng.springboot.retrofit.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caches the decoded body of the successful responses of a Retrofit method.
+ * <br/>
+ * Responses are kept per request (method and url) and served without a call while they are younger than the
+ * {@link #ttl()}. Stale responses are revalidated with {@code If-None-Match} or {@code If-Modified-Since}, and
+ * served again on a {@code 304 Not Modified}. Cached bodies are shared, so they must not be modified.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Cached {
+
+    /**
+     * The time a response is served without revalidation, eg: {@code 30s} or {@code 5m}.
+     *
+     * @return the time to live
+     */
+    String ttl() default "1m";
+}
@@ -0,0 +1,50 @@
+package in.abilng.springboot.retrofit.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Adds a static low-cardinality tag to the observations of a Retrofit method.
+ * <br/>
+ * When placed on the interface, the tag applies to every method; method level tags win on the same key.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Repeatable(ObservationTag.List.class)
+public @interface ObservationTag {
+
+    /**
+     * Tag key.
+     *
+     * @return the key
+     */
+    String key();
+
+    /**
+     * Tag value.
+     *
+     * @return the value
+     */
+    String value();
+
+    /**
+     * Container of repeated {@link ObservationTag}.
+     */
+    @Target({ElementType.TYPE, ElementType.METHOD})
+    @Retention(RetentionPolicy.RUNTIME)
+    @Documented
+    @interface List {
+
+        /**
+         * Repeated tags.
+         *
+         * @return the tags
+         */
+        ObservationTag[] value();
+    }
+}
@@ -0,0 +1,50 @@
+package in.abilng.springboot.retrofit.annotation;
+
+import in.abilng.springboot.retrofit.pagination.Page;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Pages through a paginated Retrofit method returning {@code Stream<T>} or {@code Iterable<T>} of the items.
+ * <br/>
+ * The next page is given by the {@link Page#next()} of the response body, or else by the {@code Link} header
+ * with {@code rel="next"}. Pages are fetched lazily, and up to {@link #prefetch()} pages are fetched ahead while
+ * the current one is consumed.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Paginated {
+
+    /**
+     * The response body type, implementing {@link Page}. By default the body is a list of the items.
+     *
+     * @return the page type
+     */
+    @SuppressWarnings("rawtypes")
+    Class<? extends Page> page() default Page.class;
+
+    /**
+     * The query parameter set to the cursor of the next page. When empty the cursor is the url of the next page.
+     *
+     * @return the cursor query parameter
+     */
+    String cursorParam() default "";
+
+    /**
+     * The number of pages fetched ahead of the consumed page.
+     *
+     * @return the prefetch depth
+     */
+    int prefetch() default 1;
+
+    /**
+     * The number of fetched items not yet consumed above which no page is fetched ahead.
+     *
+     * @return the maximum number of buffered items
+     */
+    int maxBufferedItems() default 10_000;
+}
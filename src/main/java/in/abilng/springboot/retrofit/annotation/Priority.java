@@ -0,0 +1,32 @@
+package in.abilng.springboot.retrofit.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Dispatch priority of the enqueued calls of a Retrofit method, when priority lanes are enabled for the service.
+ * <br/>
+ * Calls with a higher value are dispatched first, calls of the same priority in order. When placed on the
+ * interface, the priority applies to every method without one. A call can be given its own priority with a
+ * {@code @Tag CallPriority} parameter.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Priority {
+
+    /**
+     * Default priority of calls.
+     */
+    int DEFAULT = 0;
+
+    /**
+     * Priority value, higher is dispatched first.
+     *
+     * @return the priority
+     */
+    int value();
+}
@@ -0,0 +1,19 @@
+package in.abilng.springboot.retrofit.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Serves the last successful response of a Retrofit method when the circuit breaker is open or the call fails.
+ * <br/>
+ * The response is kept per request (method and url) and served while it is younger than the
+ * {@code stale-fallback.max-stale} of the service. Served responses carry a {@code Warning: 110} header.
+ * Intended for idempotent read methods.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface StaleFallback {}
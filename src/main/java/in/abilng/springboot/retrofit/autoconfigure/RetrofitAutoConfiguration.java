@@ -1,16 +1,32 @@
 package in.abilng.springboot.retrofit.autoconfigure;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import in.abilng.springboot.retrofit.actuator.MethodLatencyRecorder;
+import in.abilng.springboot.retrofit.actuator.RetrofitClientsEndpoint;
+import in.abilng.springboot.retrofit.cache.ResponseCacheRegistry;
 import in.abilng.springboot.retrofit.config.RetroFitProperties;
+import in.abilng.springboot.retrofit.convertor.DslJsonConverterFactory;
 import in.abilng.springboot.retrofit.convertor.QualifiedTypeConverterFactory;
+import in.abilng.springboot.retrofit.core.RetrofitClientsRefresher;
 import in.abilng.springboot.retrofit.core.RetrofitClientsRegistrar;
+import in.abilng.springboot.retrofit.metrics.OkHttpClientMetrics;
+import in.abilng.springboot.retrofit.metrics.ResponseCacheMetrics;
+import in.abilng.springboot.retrofit.metrics.RetryBudgetMetrics;
+import in.abilng.springboot.retrofit.observation.RetrofitObservationConvention;
+import in.abilng.springboot.retrofit.propagation.HeaderPropagationWebFilter;
+import in.abilng.springboot.retrofit.propagation.ServletHeaderResolver;
+import in.abilng.springboot.retrofit.resilience4j.RetryBudgetRegistry;
+import in.abilng.springboot.retrofit.tls.TlsContextRegistry;
 import in.abilng.springboot.retrofit.utils.ObservationUtils;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.binder.okhttp3.OkHttpObservationInterceptor;
 import io.micrometer.observation.ObservationRegistry;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
 import okhttp3.logging.HttpLoggingInterceptor;
@@ -22,13 +38,18 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Scope;
 import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
 import retrofit2.Converter;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
@@ -42,7 +63,7 @@ import retrofit2.converter.scalars.ScalarsConverterFactory;
 @AutoConfiguration
 @AutoConfigureAfter(JacksonAutoConfiguration.class)
 @Import(RetrofitClientsRegistrar.class)
-@EnableConfigurationProperties({RetrofitAutoConfiguration.class})
+@EnableConfigurationProperties({RetroFitProperties.class})
 public class RetrofitAutoConfiguration {
 
     /**
@@ -64,6 +85,11 @@ public class RetrofitAutoConfiguration {
          * The constant SCALAR_CONVERTER_FACTORY.
          */
         public static final String SCALAR_CONVERTER_FACTORY = "scalarConverterFactory";
+
+        /**
+         * The constant DSL_JSON_CONVERTER_FACTORY.
+         */
+        public static final String DSL_JSON_CONVERTER_FACTORY = "dslJsonConverterFactory";
     }
 
     /**
@@ -112,6 +138,114 @@ public class RetrofitAutoConfiguration {
         return builder;
     }
 
+    /**
+     * Registry of the retry budgets of the clients.
+     *
+     * @return the retry budget registry
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RetryBudgetRegistry retryBudgetRegistry() {
+        return new RetryBudgetRegistry();
+    }
+
+    /**
+     * Registry of the response caches of the clients.
+     *
+     * @return the response cache registry
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ResponseCacheRegistry responseCacheRegistry() {
+        return new ResponseCacheRegistry();
+    }
+
+    /**
+     * Registry of the SSL contexts shared by the clients.
+     *
+     * @return the TLS context registry
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TlsContextRegistry tlsContextRegistry() {
+        return new TlsContextRegistry();
+    }
+
+    /**
+     * Refresher reconfiguring the clients from the current environment.
+     *
+     * @param applicationContext the application context
+     * @return the retrofit clients refresher
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RetrofitClientsRefresher retrofitClientsRefresher(ApplicationContext applicationContext) {
+        return new RetrofitClientsRefresher(applicationContext);
+    }
+
+    /**
+     * The live reconfiguration configuration for Spring Cloud Context.
+     */
+    @Configuration
+    @ConditionalOnClass(name = "org.springframework.cloud.context.environment.EnvironmentChangeEvent")
+    public static class RefreshConfiguration {
+
+        /**
+         * Listener reconfiguring the clients when {@code retrofit.*} properties of the environment changed,
+         * e.g. on a {@code /actuator/refresh}.
+         *
+         * @param refresher the retrofit clients refresher
+         * @return the application listener
+         */
+        @Bean
+        public ApplicationListener<EnvironmentChangeEvent> retrofitEnvironmentChangeListener(
+                RetrofitClientsRefresher refresher) {
+            return event -> {
+                if (event.getKeys().stream().anyMatch(key -> key.startsWith(RetroFitProperties.PROPERTY_PREFIX))) {
+                    refresher.refresh();
+                }
+            };
+        }
+    }
+
+    /**
+     * The actuator endpoint configuration.
+     */
+    @Configuration
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    public static class EndpointConfiguration {
+
+        /**
+         * Recorder of the latency of the methods of each Retrofit client.
+         *
+         * @param properties the retrofit properties
+         * @return the method latency recorder
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public MethodLatencyRecorder methodLatencyRecorder(RetroFitProperties properties) {
+            return new MethodLatencyRecorder(properties.getEndpoint().getLatencyWindow());
+        }
+
+        /**
+         * The {@code retrofit} actuator endpoint.
+         *
+         * @param applicationContext the application context
+         * @param latencyRecorder    the method latency recorder
+         * @param properties         the retrofit properties
+         * @return the retrofit clients endpoint
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public RetrofitClientsEndpoint retrofitClientsEndpoint(
+                ApplicationContext applicationContext,
+                MethodLatencyRecorder latencyRecorder,
+                RetroFitProperties properties) {
+            return new RetrofitClientsEndpoint(
+                    applicationContext, latencyRecorder, properties.getEndpoint().getSnapshotInterval());
+        }
+    }
+
     /**
      * The okhttp3 Interceptor configurations.
      */
@@ -162,10 +296,113 @@ public class RetrofitAutoConfiguration {
             return OkHttpObservationInterceptor.builder(
                             observationRegistry.getIfAvailable(), "http.client.request")
                     .uriMapper(ObservationUtils::getUri)
+                    .observationConvention(new RetrofitObservationConvention("http.client.request"))
                     .build();
         }
     }
 
+    /**
+     * The okhttp3 client metrics configuration.
+     */
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    public static class MetricsConfiguration {
+
+        /**
+         * Connection pool and dispatcher metrics of each Retrofit client, bound when a
+         * {@link MeterRegistry} is present.
+         *
+         * @param meterRegistry the meter registry
+         * @param properties    the retrofit properties
+         * @return the ok http client customizer
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public OkHttpClientMetrics okHttpClientMetrics(
+                ObjectProvider<MeterRegistry> meterRegistry, RetroFitProperties properties) {
+            return new OkHttpClientMetrics(meterRegistry::getIfAvailable, properties.getMetrics());
+        }
+
+        /**
+         * Retry budget metrics.
+         *
+         * @param retryBudgetRegistry the retry budget registry
+         * @return the retry budget metrics
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public RetryBudgetMetrics retryBudgetMetrics(RetryBudgetRegistry retryBudgetRegistry) {
+            return new RetryBudgetMetrics(retryBudgetRegistry);
+        }
+
+        /**
+         * Response cache metrics.
+         *
+         * @param responseCacheRegistry the response cache registry
+         * @return the response cache metrics
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public ResponseCacheMetrics responseCacheMetrics(ResponseCacheRegistry responseCacheRegistry) {
+            return new ResponseCacheMetrics(responseCacheRegistry);
+        }
+    }
+
+    /**
+     * The header propagation configuration for servlet applications.
+     */
+    @Configuration
+    @ConditionalOnClass(
+            name = {
+                "jakarta.servlet.http.HttpServletRequest",
+                "org.springframework.web.context.request.RequestContextHolder"
+            })
+    public static class ServletHeaderPropagationConfiguration {
+
+        /**
+         * Servlet header resolver.
+         *
+         * @return the header resolver
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public ServletHeaderResolver servletHeaderResolver() {
+            return new ServletHeaderResolver();
+        }
+    }
+
+    /**
+     * The header propagation configuration for WebFlux applications.
+     */
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @ConditionalOnClass(name = "org.springframework.web.server.WebFilter")
+    public static class ReactiveHeaderPropagationConfiguration {
+
+        /**
+         * Web filter writing the propagated headers of all services to the Reactor context.
+         *
+         * @param properties the retrofit properties
+         * @return the header propagation web filter
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public HeaderPropagationWebFilter headerPropagationWebFilter(RetroFitProperties properties) {
+            final Set<String> headerNames = new LinkedHashSet<>();
+            properties
+                    .getServices()
+                    .values()
+                    .forEach(
+                            service -> {
+                                headerNames.addAll(service.getPropagateHeaders());
+                                if (service.isPropagateAuthHeader()) {
+                                    headerNames.add(HttpHeaders.AUTHORIZATION);
+                                }
+                            });
+            return new HeaderPropagationWebFilter(headerNames);
+        }
+    }
+
     /**
      * The Jackson converter factory configuration.
      */
@@ -236,6 +473,27 @@ public class RetrofitAutoConfiguration {
         }
     }
 
+    /**
+     * The DSL-JSON converter factory configuration.
+     */
+    @Configuration
+    @ConditionalOnClass(name = "com.dslplatform.json.DslJson")
+    public static class DslJsonConverterFactoryConfiguration {
+        /**
+         * DSL-JSON converter factory, selected per service with
+         * {@code retrofit.services.<name>.json-converter-factory=dslJsonConverterFactory}.
+         * <br/>
+         * It is not a default candidate, so it is not added to the converters of every service.
+         *
+         * @return the converter factory
+         */
+        @Bean(name = BeanNames.DSL_JSON_CONVERTER_FACTORY, defaultCandidate = false)
+        @ConditionalOnMissingBean(name = BeanNames.DSL_JSON_CONVERTER_FACTORY)
+        public Converter.Factory dslJsonConverterFactory() {
+            return DslJsonConverterFactory.create();
+        }
+    }
+
     /**
      * The Scalar factory configuration.
      */
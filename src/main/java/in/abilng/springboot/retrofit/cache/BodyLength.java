@@ -0,0 +1,20 @@
+package in.abilng.springboot.retrofit.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Length of a response body, counted by the {@link CacheRevalidationInterceptor} while the converter reads it.
+ * Carried as a tag of the request.
+ */
+final class BodyLength {
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    void add(long read) {
+        bytes.addAndGet(read);
+    }
+
+    long get() {
+        return bytes.get();
+    }
+}
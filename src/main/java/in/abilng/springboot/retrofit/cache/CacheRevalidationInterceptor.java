@@ -0,0 +1,103 @@
+package in.abilng.springboot.retrofit.cache;
+
+import in.abilng.springboot.retrofit.annotation.Cached;
+import java.io.IOException;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import retrofit2.Invocation;
+
+/**
+ * Interceptor adding the validators of the cached response to the requests of {@link Cached} methods, so that
+ * the server answers {@code 304 Not Modified} when it did not change. It also counts the bytes of the response
+ * bodies, the weight of the cached responses.
+ */
+public class CacheRevalidationInterceptor implements Interceptor {
+
+    private final ResponseObjectCache cache;
+
+    /**
+     * Instantiates a new Cache revalidation interceptor.
+     *
+     * @param cache the response cache
+     */
+    public CacheRevalidationInterceptor(ResponseObjectCache cache) {
+        this.cache = cache;
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        final Request request = chain.request();
+        final Invocation invocation = request.tag(Invocation.class);
+        if (invocation == null || !invocation.method().isAnnotationPresent(Cached.class)) {
+            return chain.proceed(request);
+        }
+        final BodyLength length = new BodyLength();
+        final Request.Builder builder = request.newBuilder().tag(BodyLength.class, length);
+        // keyed by the request of the call, as the call adapter sees it, before the headers of interceptors
+        final CachedEntry entry = cache.get(chain.call().request());
+        if (entry != null) {
+            if (entry.etag() != null && request.header("If-None-Match") == null) {
+                builder.header("If-None-Match", entry.etag());
+            }
+            if (entry.lastModified() != null && request.header("If-Modified-Since") == null) {
+                builder.header("If-Modified-Since", entry.lastModified());
+            }
+        }
+        final Response response = chain.proceed(builder.build());
+        final ResponseBody body = response.body();
+        return body == null ? response : response.newBuilder().body(new CountingBody(body, length)).build();
+    }
+
+    /**
+     * Body counting the bytes read from it.
+     */
+    private static final class CountingBody extends ResponseBody {
+
+        private final ResponseBody delegate;
+
+        private final BufferedSource counted;
+
+        private CountingBody(ResponseBody delegate, BodyLength length) {
+            this.delegate = delegate;
+            this.counted =
+                    Okio.buffer(
+                            new ForwardingSource(delegate.source()) {
+                                @Override
+                                public long read(@NotNull Buffer sink, long byteCount) throws IOException {
+                                    final long read = super.read(sink, byteCount);
+                                    if (read > 0) {
+                                        length.add(read);
+                                    }
+                                    return read;
+                                }
+                            });
+        }
+
+        @Nullable
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @NotNull
+        @Override
+        public BufferedSource source() {
+            return counted;
+        }
+    }
+}
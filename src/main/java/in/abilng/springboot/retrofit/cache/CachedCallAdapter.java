@@ -0,0 +1,191 @@
+package in.abilng.springboot.retrofit.cache;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import in.abilng.springboot.retrofit.annotation.Cached;
+import in.abilng.springboot.retrofit.resilience4j.internal.DelegateCall;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.time.Clock;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import org.springframework.boot.convert.DurationStyle;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+/**
+ * Creates a Retrofit {@link CallAdapter.Factory} serving the decoded responses of {@link Cached} methods from a
+ * {@link ResponseObjectCache}.
+ * <br/>
+ * Fresh responses are served without a call, so the body is not decoded again. A stale response is revalidated by
+ * the {@link CacheRevalidationInterceptor}, which must be added to the client, and served again on a
+ * {@code 304 Not Modified}. It must be the last call adapter factory, so that hits skip retries and the circuit
+ * breaker. See {@link ResponseObjectCache} for the responses kept and the requests they are served to.
+ */
+public final class CachedCallAdapter extends CallAdapter.Factory {
+
+    /**
+     * Status code of a revalidated response.
+     */
+    public static final int NOT_MODIFIED = 304;
+
+    private final ResponseObjectCache cache;
+    private final Clock clock;
+
+    private CachedCallAdapter(ResponseObjectCache cache, Clock clock) {
+        this.cache = cache;
+        this.clock = clock;
+    }
+
+    /**
+     * Create a cached call adapter.
+     *
+     * @param cache the response cache
+     * @return a {@link CallAdapter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static CachedCallAdapter of(ResponseObjectCache cache) {
+        return of(cache, Clock.systemUTC());
+    }
+
+    /**
+     * Create a cached call adapter.
+     *
+     * @param cache the response cache
+     * @param clock the clock of response ages
+     * @return a {@link CallAdapter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static CachedCallAdapter of(ResponseObjectCache cache, Clock clock) {
+        return new CachedCallAdapter(cache, clock);
+    }
+
+    @Override
+    public CallAdapter<?, ?> get(Type returnType, Annotation[] annotations, Retrofit retrofit) {
+        @SuppressWarnings("unchecked")
+        CallAdapter<Object, Object> nextAdapter =
+                (CallAdapter<Object, Object>) retrofit.nextCallAdapter(this, returnType, annotations);
+
+        final Cached cached = findCached(annotations);
+        if (cached == null || getRawType(returnType) != Call.class) {
+            return nextAdapter;
+        }
+        final long ttlMillis = DurationStyle.detectAndParse(cached.ttl()).toMillis();
+
+        return new CallAdapter<Object, Object>() {
+            @Override
+            public Type responseType() {
+                return nextAdapter.responseType();
+            }
+
+            @Override
+            public Object adapt(Call<Object> call) {
+                return nextAdapter.adapt(new CachedCall<>(call, ttlMillis));
+            }
+        };
+    }
+
+    private static Cached findCached(Annotation... annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof Cached cached) {
+                return cached;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Call served from the cache while fresh.
+     *
+     * @param <T> the response type parameter
+     */
+    final class CachedCall<T> extends DelegateCall<T> {
+
+        private final long ttlMillis;
+
+        CachedCall(Call<T> delegate, long ttlMillis) {
+            super(delegate);
+            this.ttlMillis = ttlMillis;
+        }
+
+        @Override
+        public Response<T> execute() throws IOException {
+            final Response<T> fresh = fresh();
+            return fresh != null ? fresh : onResponse(delegate.execute());
+        }
+
+        @Override
+        public void enqueue(Callback<T> callback) {
+            final Response<T> fresh = fresh();
+            if (fresh != null) {
+                callback.onResponse(this, fresh);
+                return;
+            }
+            delegate.enqueue(
+                    new Callback<T>() {
+                        @Override
+                        public void onResponse(Call<T> call, Response<T> response) {
+                            callback.onResponse(call, CachedCall.this.onResponse(response));
+                        }
+
+                        @Override
+                        public void onFailure(Call<T> call, Throwable throwable) {
+                            callback.onFailure(call, throwable);
+                        }
+                    });
+        }
+
+        private Response<T> fresh() {
+            final CachedEntry entry = cache.get(request());
+            if (entry == null || clock.millis() - entry.storedAtMillis() >= ttlMillis) {
+                return null;
+            }
+            cache.recordHit();
+            return toResponse(entry);
+        }
+
+        private Response<T> onResponse(Response<T> response) {
+            final Request request = request();
+            if (response.code() == NOT_MODIFIED) {
+                final CachedEntry entry = cache.get(request);
+                if (entry != null) {
+                    final CachedEntry revalidated = entry.revalidated(response.headers(), clock.millis());
+                    cache.put(request, revalidated);
+                    cache.recordRevalidation();
+                    return toResponse(revalidated);
+                }
+            }
+            cache.recordMiss();
+            if (response.isSuccessful()
+                    && response.body() != null
+                    && ResponseObjectCache.isCacheable(response.raw())) {
+                cache.put(request, CachedEntry.of(response, request, clock.millis()));
+            }
+            return response;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Response<T> toResponse(CachedEntry entry) {
+            final okhttp3.Response rawResponse =
+                    new okhttp3.Response.Builder()
+                            .request(request())
+                            .protocol(Protocol.HTTP_1_1)
+                            .code(entry.code())
+                            .message(entry.message())
+                            .headers(entry.headers())
+                            .build();
+            return Response.success((T) entry.body(), rawResponse);
+        }
+
+        @Override
+        @SuppressWarnings({
+            "PMD.ProperCloneImplementation",
+            "PMD.CloneMethodReturnTypeMustMatchClassName"
+        })
+        @SuppressFBWarnings("CN_IDIOM_NO_SUPER_CALL")
+        public Call<T> clone() {
+            return new CachedCall<>(delegate.clone(), ttlMillis);
+        }
+    }
+}
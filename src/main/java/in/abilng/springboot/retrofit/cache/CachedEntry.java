@@ -0,0 +1,101 @@
+package in.abilng.springboot.retrofit.cache;
+
+import okhttp3.Headers;
+import okhttp3.Request;
+import retrofit2.Response;
+
+/**
+ * A cached response.
+ *
+ * @param body           the decoded body
+ * @param code           the HTTP status code
+ * @param message        the HTTP status message
+ * @param headers        the headers
+ * @param varying        the values of the request headers named by the {@code Vary} of the response
+ * @param storedAtMillis the time the response was received or revalidated, in epoch millis
+ * @param weight         the length of the encoded body
+ */
+record CachedEntry(
+        Object body,
+        int code,
+        String message,
+        Headers headers,
+        Headers varying,
+        long storedAtMillis,
+        int weight) {
+
+    private static final String ETAG = "ETag";
+
+    private static final String LAST_MODIFIED = "Last-Modified";
+
+    /**
+     * Weight of a body whose length was neither counted nor sent, an approximation of a typical JSON document.
+     */
+    private static final int UNKNOWN_LENGTH_WEIGHT = 16 * 1024;
+
+    static CachedEntry of(Response<?> response, Request request, long nowMillis) {
+        final Headers.Builder varying = new Headers.Builder();
+        for (String vary : response.headers().values("Vary")) {
+            for (String name : vary.split(",")) {
+                if (!name.isBlank()) {
+                    varying.add(name.trim(), String.join(",", request.headers(name.trim())));
+                }
+            }
+        }
+        return new CachedEntry(
+                response.body(),
+                response.code(),
+                response.message(),
+                response.headers(),
+                varying.build(),
+                nowMillis,
+                (int) Math.min(lengthOf(response), Integer.MAX_VALUE));
+    }
+
+    /**
+     * Length of the body as counted by the {@link CacheRevalidationInterceptor}, else as sent.
+     */
+    private static long lengthOf(Response<?> response) {
+        final BodyLength counted = response.raw().request().tag(BodyLength.class);
+        if (counted != null) {
+            return counted.get();
+        }
+        final long contentLength = response.raw().body() == null ? -1 : response.raw().body().contentLength();
+        return contentLength < 0 ? UNKNOWN_LENGTH_WEIGHT : contentLength;
+    }
+
+    /**
+     * Whether the response may be served to a request, which has the same values of the headers named by its
+     * {@code Vary}.
+     */
+    boolean matches(Request request) {
+        for (int i = 0; i < varying.size(); i++) {
+            if (!varying.value(i).equals(String.join(",", request.headers(varying.name(i))))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    String etag() {
+        return headers.get(ETAG);
+    }
+
+    String lastModified() {
+        return headers.get(LAST_MODIFIED);
+    }
+
+    /**
+     * The entry revalidated by a {@code 304 Not Modified}, with its updated validators.
+     */
+    CachedEntry revalidated(Headers notModified, long nowMillis) {
+        final Headers.Builder builder = headers.newBuilder();
+        for (String name : new String[] {ETAG, LAST_MODIFIED}) {
+            final String value = notModified.get(name);
+            if (value != null) {
+                builder.set(name, value);
+            }
+        }
+        return new CachedEntry(body, code, message, builder.build(), varying, nowMillis, weight);
+    }
+}
@@ -0,0 +1,55 @@
+package in.abilng.springboot.retrofit.cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the {@link ResponseObjectCache}s of the Retrofit clients.
+ */
+public class ResponseCacheRegistry {
+
+    private final Map<String, ResponseObjectCache> caches = new ConcurrentHashMap<>();
+
+    private final List<Consumer<ResponseObjectCache>> consumers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Gets the cache of the given name, creating it if absent.
+     *
+     * @param name    the name of the cache
+     * @param factory the factory creating the cache
+     * @return the response cache
+     */
+    public ResponseObjectCache cache(String name, Supplier<ResponseObjectCache> factory) {
+        return caches.computeIfAbsent(
+                name,
+                key -> {
+                    final ResponseObjectCache cache = factory.get();
+                    consumers.forEach(consumer -> consumer.accept(cache));
+                    return cache;
+                });
+    }
+
+    /**
+     * Gets all caches.
+     *
+     * @return the caches
+     */
+    public Collection<ResponseObjectCache> getAllCaches() {
+        return List.copyOf(caches.values());
+    }
+
+    /**
+     * Registers a consumer of the caches, called for the existing and the caches created later.
+     *
+     * @param consumer the consumer
+     */
+    public void onCache(Consumer<ResponseObjectCache> consumer) {
+        consumers.add(consumer);
+        caches.values().forEach(consumer);
+    }
+}
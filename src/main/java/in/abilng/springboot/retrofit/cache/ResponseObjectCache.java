@@ -0,0 +1,177 @@
+package in.abilng.springboot.retrofit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import okhttp3.Request;
+import okhttp3.Response;
+import retrofit2.Invocation;
+
+/**
+ * Cache of the decoded responses of the {@link in.abilng.springboot.retrofit.annotation.Cached} methods of a
+ * Retrofit client.
+ * <br/>
+ * Backed by a Caffeine cache bounded by the length of the response bodies, evicting by frequency and recency
+ * (W-TinyLFU). Stale responses are kept until evicted, so that they can be revalidated.
+ * <br/>
+ * A response is kept per service method, url, credentials ({@code Authorization}, {@code Proxy-Authorization} and
+ * {@code Cookie}) and key headers, such as the propagated headers, and is only served to requests with the same
+ * values of the headers named by its {@code Vary}. Responses with {@code Cache-Control: no-store} or
+ * {@code private} are not kept.
+ */
+public class ResponseObjectCache {
+
+    /**
+     * Request headers always part of the key, the response to other credentials may differ.
+     */
+    private static final List<String> CREDENTIAL_HEADERS = List.of("Authorization", "Proxy-Authorization", "Cookie");
+
+    private final String name;
+
+    private final List<String> keyHeaders;
+
+    private final Cache<String, CachedEntry> cache;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder revalidations = new LongAdder();
+
+    /**
+     * Instantiates a new Response object cache.
+     *
+     * @param name         the name of the Retrofit client
+     * @param maxSizeBytes the maximum length of the cached bodies
+     */
+    public ResponseObjectCache(String name, long maxSizeBytes) {
+        this(name, maxSizeBytes, List.of());
+    }
+
+    /**
+     * Instantiates a new Response object cache.
+     *
+     * @param name         the name of the Retrofit client
+     * @param maxSizeBytes the maximum length of the cached bodies
+     * @param keyHeaders   the request headers, besides the credentials, the responses are kept by
+     */
+    public ResponseObjectCache(String name, long maxSizeBytes, Collection<String> keyHeaders) {
+        this.name = name;
+        final List<String> headers = new ArrayList<>(CREDENTIAL_HEADERS);
+        keyHeaders.stream().filter(header -> !headers.contains(header)).forEach(headers::add);
+        this.keyHeaders = List.copyOf(headers);
+        this.cache =
+                Caffeine.newBuilder()
+                        .maximumWeight(maxSizeBytes)
+                        .weigher((String key, CachedEntry entry) -> entry.weight())
+                        .recordStats()
+                        .build();
+    }
+
+    /**
+     * Key of a request, the same url of different methods may decode to different types.
+     */
+    String keyOf(Request request) {
+        final Invocation invocation = request.tag(Invocation.class);
+        final StringBuilder key =
+                new StringBuilder(invocation == null ? "" : invocation.method().toGenericString())
+                        .append(' ')
+                        .append(request.method())
+                        .append(' ')
+                        .append(request.url());
+        for (String header : keyHeaders) {
+            for (String value : request.headers(header)) {
+                key.append('\n').append(header).append(": ").append(value);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Whether a response may be kept.
+     */
+    static boolean isCacheable(Response response) {
+        return !response.cacheControl().noStore()
+                && !response.cacheControl().isPrivate()
+                && !response.request().cacheControl().noStore()
+                && response.headers("Vary").stream().noneMatch(vary -> vary.contains("*"));
+    }
+
+    CachedEntry get(Request request) {
+        final CachedEntry entry = cache.getIfPresent(keyOf(request));
+        return entry == null || !entry.matches(request) ? null : entry;
+    }
+
+    void put(Request request, CachedEntry entry) {
+        cache.put(keyOf(request), entry);
+    }
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordRevalidation() {
+        revalidations.increment();
+    }
+
+    /**
+     * Gets the name of the Retrofit client.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Responses served from the cache without a call.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Responses received from the server.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Responses served from the cache after a {@code 304 Not Modified}.
+     *
+     * @return the revalidation count
+     */
+    public long getRevalidationCount() {
+        return revalidations.sum();
+    }
+
+    /**
+     * Responses evicted to stay within the maximum size.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * Approximate length of the cached bodies.
+     *
+     * @return the size in bytes
+     */
+    public long getSize() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+}
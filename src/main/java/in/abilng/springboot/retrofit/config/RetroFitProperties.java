@@ -1,8 +1,11 @@
 package in.abilng.springboot.retrofit.config;
 
+import in.abilng.springboot.retrofit.interceptor.FaultInjectionInterceptor;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -12,6 +15,7 @@ import java.util.concurrent.TimeoutException;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
 /**
  * The Retro fit properties.
@@ -31,6 +35,16 @@ public class RetroFitProperties {
      */
     private Log log = new Log();
 
+    /**
+     * Client metrics properties.
+     */
+    private Metrics metrics = new Metrics();
+
+    /**
+     * Actuator endpoint properties.
+     */
+    private Endpoint endpoint = new Endpoint();
+
     /**
      * Service properties.
      */
@@ -51,11 +65,40 @@ public class RetroFitProperties {
          */
         private boolean propagateAuthHeader = false;
 
+        /**
+         * Headers of the inbound request to propagate, eg: tenant or trace headers.
+         * <br/>
+         * Values are captured when the Retrofit method is invoked, so they are also sent by
+         * enqueued and retried calls.
+         */
+        private List<String> propagateHeaders = new ArrayList<>();
+
+        /**
+         * Name of the JSON converter factory bean of this service, eg: dslJsonConverterFactory.
+         * Defaults to the jsonConverterFactory bean.
+         */
+        private String jsonConverterFactory;
+
+        /**
+         * Engine sending the requests of this service.
+         */
+        private Engine engine = Engine.OKHTTP;
+
         /**
          * Connection Properties of this service.
          */
         private ServiceConnectionProperties connection = new ServiceConnectionProperties();
 
+        /**
+         * TLS Properties of this service.
+         */
+        private TlsProperties tls = new TlsProperties();
+
+        /**
+         * Dispatcher Properties of this service.
+         */
+        private DispatcherProperties dispatcher = new DispatcherProperties();
+
         /**
          * Retry Properties of this service.
          */
@@ -65,6 +108,190 @@ public class RetroFitProperties {
          * Retry Properties of this service.
          */
         private CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
+
+        /**
+         * Stale fallback Properties of the {@link in.abilng.springboot.retrofit.annotation.StaleFallback} methods
+         * of this service.
+         */
+        private StaleFallbackProperties staleFallback = new StaleFallbackProperties();
+
+        /**
+         * Response cache Properties of the {@link in.abilng.springboot.retrofit.annotation.Cached} methods of this
+         * service.
+         */
+        private ResponseCacheProperties cache = new ResponseCacheProperties();
+
+        /**
+         * Fault injection Properties of this service, for load tests.
+         */
+        private FaultInjectionProperties faultInjection = new FaultInjectionProperties();
+    }
+
+    /**
+     * The engine sending the requests of a service.
+     */
+    public enum Engine {
+        /**
+         * OkHttp, which supports every feature of the client.
+         */
+        OKHTTP,
+
+        /**
+         * The {@link java.net.http.HttpClient} of the JDK, see
+         * {@link in.abilng.springboot.retrofit.transport.JdkHttpCallFactory}.
+         */
+        JDK
+    }
+
+    /**
+     * The Fault injection properties.
+     */
+    @Data
+    public static class FaultInjectionProperties {
+        /**
+         * To enable fault injection.
+         */
+        private Boolean enabled = false;
+
+        /**
+         * Profiles fault injection can not be enabled with, the application fails to start when one is active.
+         */
+        private List<String> forbiddenProfiles = new ArrayList<>(List.of("prod", "production"));
+
+        /**
+         * Faults of the methods without their own.
+         */
+        private FaultProperties defaults = new FaultProperties();
+
+        /**
+         * Faults per Retrofit method name.
+         */
+        private Map<String, FaultProperties> methods = new HashMap<>();
+    }
+
+    /**
+     * The injected Fault properties, rates are between 0 and 1.
+     */
+    @Data
+    public static class FaultProperties {
+        /**
+         * Rate of calls delayed by an injected latency.
+         */
+        private double latencyRate;
+
+        /**
+         * Distribution of the injected latency.
+         */
+        private FaultInjectionInterceptor.LatencyDistribution latencyDistribution =
+                FaultInjectionInterceptor.LatencyDistribution.UNIFORM;
+
+        /**
+         * Minimum injected latency.
+         */
+        private Duration latencyMin = Duration.ZERO;
+
+        /**
+         * Maximum injected latency.
+         */
+        private Duration latencyMax = Duration.ofSeconds(1);
+
+        /**
+         * Rate of calls answered with an error response, without sending the request.
+         */
+        private double errorRate;
+
+        /**
+         * Status code of the injected error responses.
+         */
+        private int errorCode = 503;
+
+        /**
+         * Rate of calls failing with a connection reset, without sending the request.
+         */
+        private double resetRate;
+
+        /**
+         * Rate of responses with a body truncated after half of its content length.
+         */
+        private double truncateRate;
+    }
+
+    /**
+     * The TLS properties.
+     */
+    @Data
+    public static class TlsProperties {
+        /**
+         * To share the SSL context, and so its TLS sessions, with the clients of the same bundle and session
+         * settings, instead of a context per client. By default, the context is shared when the bundle or session
+         * settings are set, else the SSL socket factory of the client builder is kept; true to also share the
+         * default context.
+         */
+        private Boolean sharedContext;
+
+        /**
+         * Name of the Spring Boot SSL bundle providing the trust material and client certificate.
+         * Defaults to the JVM trust store.
+         */
+        private String bundle;
+
+        /**
+         * Maximum number of TLS sessions cached for resumption, 0 for no limit. Defaults to the JVM default.
+         */
+        private Integer sessionCacheSize;
+
+        /**
+         * Time a cached TLS session can be resumed. Defaults to the JVM default.
+         */
+        private Duration sessionTimeout;
+
+        /**
+         * Enabled cipher suites, eg: TLS_AES_128_GCM_SHA256. Defaults to the OkHttp modern TLS suites.
+         */
+        private List<String> cipherSuites = new ArrayList<>();
+
+        /**
+         * Enabled TLS versions, eg: TLSv1.3. Defaults to the OkHttp modern TLS versions.
+         */
+        private List<String> protocols = new ArrayList<>();
+    }
+
+    /**
+     * The Response cache properties.
+     */
+    @Data
+    public static class ResponseCacheProperties {
+        /**
+         * Maximum size of the cached responses, weighed by the length of their bodies.
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(10);
+    }
+
+    /**
+     * The Stale fallback properties.
+     */
+    @Data
+    public static class StaleFallbackProperties {
+        /**
+         * Maximum number of responses kept in memory.
+         */
+        private int maxEntries = 1000;
+
+        /**
+         * Maximum age of a served response.
+         */
+        private Duration maxStale = Duration.ofMinutes(10);
+
+        /**
+         * Directory responses evicted from memory are spilled to, a sub directory per service.
+         * Only responses with a serializable body are spilled.
+         */
+        private Path spillDirectory;
+
+        /**
+         * Maximum number of responses kept on disk.
+         */
+        private int maxDiskEntries = 10000;
     }
 
     /**
@@ -169,6 +396,104 @@ public class RetroFitProperties {
          * Connection Timeout. Default Value 10s (10000ms).
          */
         private Duration connectTimeout = Duration.ofMillis(10000L);
+
+        /**
+         * Path of a Unix domain socket to connect to instead of the host of the base url, eg: a local sidecar proxy.
+         * The host of the base url is then only sent as the Host header.
+         */
+        private Path unixSocket;
+
+        /**
+         * Adaptive call timeout, derived from the observed latency of each method.
+         */
+        private AdaptiveTimeoutProperties adaptiveTimeout = new AdaptiveTimeoutProperties();
+    }
+
+    /**
+     * The Dispatcher properties.
+     */
+    @Data
+    public static class DispatcherProperties {
+        /**
+         * To dispatch enqueued calls by {@link in.abilng.springboot.retrofit.annotation.Priority}.
+         */
+        private Boolean priorityLanes = false;
+
+        /**
+         * To share the dispatcher between keys, such as tenants, by weighted round robin.
+         */
+        private Boolean fairQueuing = false;
+
+        /**
+         * Maximum number of concurrent enqueued calls, when priority lanes or fair queuing are enabled.
+         */
+        private int maxRequests = 64;
+
+        /**
+         * Maximum number of concurrent calls to a host, when priority lanes or fair queuing are enabled.
+         */
+        private int maxRequestsPerHost = 5;
+
+        /**
+         * Maximum time an enqueued call may wait for dispatch before it is dropped, when priority lanes are enabled.
+         */
+        private Duration queueDeadline;
+
+        /**
+         * Header holding the fair queuing key of a call, also resolved from the inbound request.
+         */
+        private String fairQueueKeyHeader = "X-Tenant-Id";
+
+        /**
+         * Maximum number of concurrent enqueued calls of a fair queuing key.
+         */
+        private int maxRequestsPerKey = 16;
+
+        /**
+         * Weights of the fair queuing keys, the calls dispatched per turn (1 by default).
+         */
+        private Map<String, Integer> keyWeights = new HashMap<>();
+    }
+
+    /**
+     * The Adaptive timeout properties.
+     */
+    @Data
+    public static class AdaptiveTimeoutProperties {
+        /**
+         * To enable adaptive call timeouts.
+         */
+        private Boolean enabled = false;
+
+        /**
+         * Latency quantile the timeout is derived from.
+         */
+        private double quantile = 0.99;
+
+        /**
+         * Multiplier of the latency quantile.
+         */
+        private double multiplier = 3.0;
+
+        /**
+         * Minimum call timeout.
+         */
+        private Duration minTimeout = Duration.ofMillis(100);
+
+        /**
+         * Maximum call timeout, also used until enough samples are observed.
+         */
+        private Duration maxTimeout = Duration.ofSeconds(10);
+
+        /**
+         * Samples of a method needed before adapting its timeout.
+         */
+        private long minSamples = 100;
+
+        /**
+         * Window of observed latencies, the timeout follows latency changes within two windows.
+         */
+        private Duration window = Duration.ofMinutes(1);
     }
 
     /**
@@ -188,6 +513,43 @@ public class RetroFitProperties {
         private String level = "NONE";
     }
 
+    /**
+     * The client metrics properties.
+     */
+    @Data
+    public static class Metrics {
+        /**
+         * To record the latency of call phases (dns, connect, tls, connection acquire, time to first byte).
+         */
+        private Boolean phasesEnabled = true;
+
+        /**
+         * Fraction of calls, between 0 and 1, for which phases are recorded.
+         */
+        private double phaseSampleRate = 0.01;
+
+        /**
+         * Maximum number of fair queuing keys with their own queue depth gauge, the others are tagged "other".
+         */
+        private int maxFairQueueKeys = 100;
+    }
+
+    /**
+     * The actuator endpoint properties.
+     */
+    @Data
+    public static class Endpoint {
+        /**
+         * Maximum age of the client snapshots served by the {@code retrofit} actuator endpoint.
+         */
+        private Duration snapshotInterval = Duration.ofSeconds(5);
+
+        /**
+         * Window of the latency percentiles of the methods, the percentiles cover the last one or two windows.
+         */
+        private Duration latencyWindow = Duration.ofMinutes(1);
+    }
+
     /**
      * The Retry properties.
      */
@@ -220,8 +582,56 @@ public class RetroFitProperties {
         private Boolean retryOn5xx = true;
 
         /**
-         * Wait Duration.
+         * Retry on 429 (Too Many Requests) and 503 (Service Unavailable) responses,
+         * waiting for their Retry-After header when present.
+         */
+        private Boolean retryOnThrottled = false;
+
+        /**
+         * Hold new requests of this service until the Retry-After of a throttled response has passed.
+         */
+        private Boolean holdOnThrottled = false;
+
+        /**
+         * Longest Retry-After waited for: a throttled response asking for longer is returned without a retry,
+         * and requests are held for at most this long.
+         */
+        private Duration maxRetryAfter = Duration.ofSeconds(5);
+
+        /**
+         * Wait Duration, unless a throttled response gives a Retry-After.
          */
         private Duration waitDuration = Duration.ofMillis(100);
+
+        /**
+         * Retry budget of this service.
+         */
+        private RetryBudgetProperties budget = new RetryBudgetProperties();
+    }
+
+    /**
+     * The Retry budget properties.
+     */
+    @Data
+    public static class RetryBudgetProperties {
+        /**
+         * To enable the retry budget.
+         */
+        private Boolean enabled = false;
+
+        /**
+         * Ratio of retries to first attempts allowed over the ttl, eg: 0.2 allows 1 retry per 5 first attempts.
+         */
+        private double ratio = 0.2;
+
+        /**
+         * Retries per second allowed regardless of the first attempts.
+         */
+        private int minRetriesPerSecond = 10;
+
+        /**
+         * Time a first attempt counts towards the budget.
+         */
+        private Duration ttl = Duration.ofSeconds(10);
     }
 }
@@ -0,0 +1,95 @@
+package in.abilng.springboot.retrofit.convertor;
+
+import com.dslplatform.json.DslJson;
+import com.dslplatform.json.JsonWriter;
+import com.dslplatform.json.runtime.Settings;
+import in.abilng.springboot.retrofit.annotation.Xml;
+import jakarta.annotation.Nullable;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * JSON converter factory backed by <a href="https://github.com/ngs-doo/dsl-json">DSL-JSON</a>.
+ * <br/>
+ * Types with converters generated by the DSL-JSON annotation processor ({@code @CompiledJson}) are decoded
+ * without reflection, others are analyzed once at runtime. Types DSL-JSON can not handle and {@link Xml}
+ * qualified types are left to the next converter factory.
+ */
+public final class DslJsonConverterFactory extends Converter.Factory {
+
+    private static final MediaType MEDIA_TYPE = MediaType.get("application/json; charset=UTF-8");
+
+    private final DslJson<Object> dslJson;
+
+    private DslJsonConverterFactory(DslJson<Object> dslJson) {
+        this.dslJson = dslJson;
+    }
+
+    /**
+     * Create a DSL-JSON converter factory with runtime analysis and the generated converters on the classpath.
+     *
+     * @return a {@link Converter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static DslJsonConverterFactory create() {
+        return create(new DslJson<>(Settings.withRuntime().includeServiceLoader()));
+    }
+
+    /**
+     * Create a DSL-JSON converter factory.
+     *
+     * @param dslJson the DSL-JSON instance
+     * @return a {@link Converter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static DslJsonConverterFactory create(DslJson<Object> dslJson) {
+        return new DslJsonConverterFactory(dslJson);
+    }
+
+    @Override
+    public @Nullable Converter<ResponseBody, ?> responseBodyConverter(
+            @NotNull Type type, @NotNull Annotation[] annotations, @NotNull Retrofit retrofit) {
+        if (isXml(annotations) || dslJson.tryFindReader(type) == null) {
+            return null;
+        }
+        return body -> {
+            try (body) {
+                // streamed through the thread local reader and buffer of DSL-JSON
+                return dslJson.deserialize(type, body.byteStream());
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @Nullable Converter<?, RequestBody> requestBodyConverter(
+            @NotNull Type type,
+            @NotNull Annotation[] parameterAnnotations,
+            @NotNull Annotation[] methodAnnotations,
+            @NotNull Retrofit retrofit) {
+        final JsonWriter.WriteObject<Object> encoder =
+                isXml(parameterAnnotations) ? null : (JsonWriter.WriteObject<Object>) dslJson.tryFindWriter(type);
+        if (encoder == null) {
+            return null;
+        }
+        return value -> {
+            final JsonWriter writer = dslJson.newWriter();
+            encoder.write(writer, value);
+            // the body is created from the buffer of the writer, no copy is made
+            return RequestBody.create(writer.getByteBuffer(), MEDIA_TYPE, 0, writer.size());
+        };
+    }
+
+    private static boolean isXml(Annotation... annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof Xml) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
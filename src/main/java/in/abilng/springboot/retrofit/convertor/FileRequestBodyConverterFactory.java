@@ -0,0 +1,139 @@
+package in.abilng.springboot.retrofit.convertor;
+
+import jakarta.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Supplier;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+import org.jetbrains.annotations.NotNull;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Converter factory of streamed request bodies, for {@code @Body} or {@code @Part} parameters of type {@link Path},
+ * {@link File} or {@code Supplier<InputStream>}.
+ * <br/>
+ * Files are written with {@link FileChannel#transferTo} and report their size as content length, so they are
+ * neither read into memory nor sent chunked. An {@code InputStream} is obtained from the supplier each time the
+ * body is written, so the body can be replayed by retries as long as the supplier returns a new stream.
+ * <br/>
+ * Retrofit expands {@code @Part} parameters that are {@link Iterable}, which a {@link Path} is, so multipart
+ * parts are declared as {@link File} instead.
+ * <br/>
+ * It must come before the other converter factories, which may claim any type.
+ */
+public final class FileRequestBodyConverterFactory extends Converter.Factory {
+
+    private static final MediaType OCTET_STREAM = MediaType.get("application/octet-stream");
+
+    private FileRequestBodyConverterFactory() {}
+
+    /**
+     * Create the file request body converter factory.
+     *
+     * @return a {@link Converter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static FileRequestBodyConverterFactory create() {
+        return new FileRequestBodyConverterFactory();
+    }
+
+    @Override
+    public @Nullable Converter<?, RequestBody> requestBodyConverter(
+            @NotNull Type type,
+            @NotNull Annotation[] parameterAnnotations,
+            @NotNull Annotation[] methodAnnotations,
+            @NotNull Retrofit retrofit) {
+        final Class<?> rawType = getRawType(type);
+        if (Path.class.isAssignableFrom(rawType)) {
+            return (Path path) -> new PathRequestBody(path);
+        }
+        if (rawType == File.class) {
+            return (File file) -> new PathRequestBody(file.toPath());
+        }
+        if (rawType == Supplier.class
+                && type instanceof ParameterizedType parameterizedType
+                && InputStream.class.isAssignableFrom(getRawType(getParameterUpperBound(0, parameterizedType)))) {
+            return (Supplier<? extends InputStream> supplier) -> new InputStreamRequestBody(supplier);
+        }
+        return null;
+    }
+
+    /**
+     * Body of a file.
+     */
+    static final class PathRequestBody extends RequestBody {
+
+        private final Path path;
+
+        PathRequestBody(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        public MediaType contentType() {
+            try {
+                final String contentType = Files.probeContentType(path);
+                return contentType == null ? OCTET_STREAM : MediaType.get(contentType);
+            } catch (IOException | IllegalArgumentException e) {
+                return OCTET_STREAM;
+            }
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return Files.size(path);
+        }
+
+        @Override
+        public void writeTo(@NotNull BufferedSink sink) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                final long size = channel.size();
+                long position = 0;
+                while (position < size) {
+                    // okio sinks are channels, the file is copied into their segments without a heap array
+                    final long transferred = channel.transferTo(position, size - position, sink);
+                    if (transferred <= 0) {
+                        throw new IOException("%s was truncated while being sent".formatted(path));
+                    }
+                    position += transferred;
+                }
+            }
+        }
+    }
+
+    /**
+     * Body of an input stream, obtained each time it is written.
+     */
+    static final class InputStreamRequestBody extends RequestBody {
+
+        private final Supplier<? extends InputStream> supplier;
+
+        InputStreamRequestBody(Supplier<? extends InputStream> supplier) {
+            this.supplier = supplier;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return OCTET_STREAM;
+        }
+
+        @Override
+        public void writeTo(@NotNull BufferedSink sink) throws IOException {
+            try (Source source = Okio.source(supplier.get())) {
+                sink.writeAll(source);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package in.abilng.springboot.retrofit.core;
+
+import in.abilng.springboot.retrofit.annotation.ObservationTag;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import retrofit2.http.DELETE;
+import retrofit2.http.GET;
+import retrofit2.http.HEAD;
+import retrofit2.http.HTTP;
+import retrofit2.http.OPTIONS;
+import retrofit2.http.PATCH;
+import retrofit2.http.POST;
+import retrofit2.http.PUT;
+
+/**
+ * Static metadata of a Retrofit interface method, resolved once from its annotations.
+ *
+ * @param clientName  the {@link in.abilng.springboot.retrofit.annotation.Retrofit} name, {@code null} if the
+ *                    interface was not created by the starter
+ * @param methodName  the method name qualified by its interface, eg: {@code IOpenLibClient.search}
+ * @param httpMethod  the HTTP verb, eg: {@code GET}
+ * @param uriTemplate the relative URI template, eg: {@code /users/{id}}
+ * @param tags        the tags declared with {@link ObservationTag}
+ */
+public record MethodMetadata(
+        String clientName,
+        String methodName,
+        String httpMethod,
+        String uriTemplate,
+        Map<String, String> tags) {
+
+    /**
+     * Placeholder for values that can not be resolved.
+     */
+    public static final String UNKNOWN = "unknown";
+
+    /**
+     * Resolves metadata of a Retrofit interface method.
+     *
+     * @param clientName the client name, may be null
+     * @param method     the interface method
+     * @return the method metadata
+     */
+    public static MethodMetadata of(String clientName, Method method) {
+        String httpMethod = UNKNOWN;
+        String uriTemplate = UNKNOWN;
+        // Retrofit allows a single HTTP method annotation per method
+        for (Annotation annotation : method.getAnnotations()) {
+            if (annotation instanceof GET get) {
+                httpMethod = "GET";
+                uriTemplate = get.value();
+            } else if (annotation instanceof POST post) {
+                httpMethod = "POST";
+                uriTemplate = post.value();
+            } else if (annotation instanceof PUT put) {
+                httpMethod = "PUT";
+                uriTemplate = put.value();
+            } else if (annotation instanceof PATCH patch) {
+                httpMethod = "PATCH";
+                uriTemplate = patch.value();
+            } else if (annotation instanceof DELETE delete) {
+                httpMethod = "DELETE";
+                uriTemplate = delete.value();
+            } else if (annotation instanceof HEAD head) {
+                httpMethod = "HEAD";
+                uriTemplate = head.value();
+            } else if (annotation instanceof OPTIONS options) {
+                httpMethod = "OPTIONS";
+                uriTemplate = options.value();
+            } else if (annotation instanceof HTTP http) {
+                httpMethod = http.method();
+                uriTemplate = http.path();
+            }
+        }
+        return new MethodMetadata(
+                clientName,
+                method.getDeclaringClass().getSimpleName() + "." + method.getName(),
+                httpMethod,
+                uriTemplate.isEmpty() ? "/" : uriTemplate,
+                tags(method));
+    }
+
+    private static Map<String, String> tags(Method method) {
+        ObservationTag[] typeTags = method.getDeclaringClass().getAnnotationsByType(ObservationTag.class);
+        ObservationTag[] methodTags = method.getAnnotationsByType(ObservationTag.class);
+        if (typeTags.length == 0 && methodTags.length == 0) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (ObservationTag tag : typeTags) {
+            tags.put(tag.key(), tag.value());
+        }
+        for (ObservationTag tag : methodTags) {
+            tags.put(tag.key(), tag.value());
+        }
+        return Collections.unmodifiableMap(tags);
+    }
+}
@@ -0,0 +1,80 @@
+package in.abilng.springboot.retrofit.core;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import okhttp3.Request;
+import retrofit2.Invocation;
+
+/**
+ * Registry of {@link MethodMetadata} for every Retrofit interface method.
+ * <br/>
+ * Clients created by {@link RetrofitClientFactoryBean} are registered up front, so interceptors
+ * resolve the metadata of a request with a single map lookup. Methods of interfaces created elsewhere
+ * are resolved on first use.
+ */
+public final class MethodMetadataRegistry {
+
+    private final Map<Method, MethodMetadata> metadata = new ConcurrentHashMap<>();
+
+    private MethodMetadataRegistry() {}
+
+    /**
+     * Registers all methods of a Retrofit interface.
+     *
+     * @param clientName the client name
+     * @param type       the Retrofit interface
+     */
+    public void register(String clientName, Class<?> type) {
+        for (Method method : type.getMethods()) {
+            if (!method.isDefault() && !Modifier.isStatic(method.getModifiers())) {
+                metadata.put(method, MethodMetadata.of(clientName, method));
+            }
+        }
+    }
+
+    /**
+     * Gets metadata of a Retrofit interface method.
+     *
+     * @param method the method
+     * @return the method metadata
+     */
+    public MethodMetadata get(Method method) {
+        MethodMetadata methodMetadata = metadata.get(method);
+        if (methodMetadata == null) {
+            methodMetadata = metadata.computeIfAbsent(method, key -> MethodMetadata.of(null, key));
+        }
+        return methodMetadata;
+    }
+
+    /**
+     * Gets metadata of the Retrofit method which created the request.
+     *
+     * @param request the request
+     * @return the method metadata, {@code null} if the request was not created by Retrofit
+     */
+    public MethodMetadata get(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        return invocation == null ? null : get(invocation.method());
+    }
+
+    /**
+     * SingletonHolder for MethodMetadataRegistry.
+     */
+    private static class SingletonHolder {
+        /**
+         * static Singleton instance.
+         */
+        public static final MethodMetadataRegistry instance = new MethodMetadataRegistry();
+    }
+
+    /**
+     * Gets instance.
+     *
+     * @return the instance
+     */
+    public static MethodMetadataRegistry getInstance() {
+        return SingletonHolder.instance;
+    }
+}
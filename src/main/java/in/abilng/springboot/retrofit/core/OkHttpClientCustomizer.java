@@ -0,0 +1,44 @@
+package in.abilng.springboot.retrofit.core;
+
+import in.abilng.springboot.retrofit.config.RetroFitProperties;
+import okhttp3.OkHttpClient;
+
+/**
+ * Callback to customize the {@link OkHttpClient} of each Retrofit client.
+ * <br/>
+ * Beans of this type are applied, in order, by {@link RetrofitClientFactoryBean} after the service
+ * properties have been applied to the builder.
+ */
+public interface OkHttpClientCustomizer {
+
+    /**
+     * Customize the client builder of a Retrofit client.
+     *
+     * @param name       the name of the Retrofit client
+     * @param properties the properties of the Retrofit client
+     * @param builder    the client builder
+     */
+    void customize(String name, RetroFitProperties.ServiceProperties properties, OkHttpClient.Builder builder);
+
+    /**
+     * Decorates the client of a Retrofit client once it is built, before {@link #clientCreated}.
+     * <br/>
+     * Meant for the components wrapping what the client was configured with, such as its event listener factory or
+     * SSL socket factory, which the builder does not expose.
+     *
+     * @param name   the name of the Retrofit client
+     * @param client the client
+     * @return the client to use, derived from {@code client} with {@link OkHttpClient#newBuilder()}
+     */
+    default OkHttpClient decorate(String name, OkHttpClient client) {
+        return client;
+    }
+
+    /**
+     * Called once the client of a Retrofit client is built.
+     *
+     * @param name   the name of the Retrofit client
+     * @param client the client
+     */
+    default void clientCreated(String name, OkHttpClient client) {}
+}
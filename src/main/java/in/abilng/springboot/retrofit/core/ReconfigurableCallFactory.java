@@ -0,0 +1,79 @@
+package in.abilng.springboot.retrofit.core;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Call factory of a Retrofit client whose {@link OkHttpClient} can be swapped while it is in use.
+ * <br/>
+ * Calls are created by the client current at that time, so calls in flight keep the client they were created
+ * with. Clients derived with {@link OkHttpClient#newBuilder()} share the connection pool and dispatcher.
+ * <br/>
+ * The calls can be sent by another engine than OkHttp, which is then created again from each new client.
+ */
+public class ReconfigurableCallFactory implements Call.Factory {
+
+    private final Function<OkHttpClient, Call.Factory> engine;
+
+    private final AtomicReference<Active> active;
+
+    /**
+     * Instantiates a new Reconfigurable call factory.
+     *
+     * @param client the initial client
+     */
+    public ReconfigurableCallFactory(OkHttpClient client) {
+        this(client, okHttpClient -> okHttpClient);
+    }
+
+    /**
+     * Instantiates a new Reconfigurable call factory sending the calls with another engine.
+     *
+     * @param client the initial client
+     * @param engine the function creating the call factory of the engine from a client
+     */
+    public ReconfigurableCallFactory(OkHttpClient client, Function<OkHttpClient, Call.Factory> engine) {
+        this.engine = engine;
+        this.active = new AtomicReference<>(new Active(client, engine.apply(client)));
+    }
+
+    @NotNull
+    @Override
+    public Call newCall(@NotNull Request request) {
+        return active.get().callFactory().newCall(request);
+    }
+
+    /**
+     * The current client.
+     *
+     * @return the client
+     */
+    public OkHttpClient getClient() {
+        return active.get().client();
+    }
+
+    /**
+     * Replaces the client with one derived from the current one.
+     *
+     * @param reconfigure the function deriving the new client from the current one
+     * @return the new client
+     */
+    public OkHttpClient reconfigure(UnaryOperator<OkHttpClient> reconfigure) {
+        return active.updateAndGet(
+                        current -> {
+                            final OkHttpClient client = reconfigure.apply(current.client());
+                            return new Active(client, engine.apply(client));
+                        })
+                .client();
+    }
+
+    /**
+     * The current client and the call factory of the engine created from it.
+     */
+    private record Active(OkHttpClient client, Call.Factory callFactory) {}
+}
@@ -1,32 +1,82 @@
 package in.abilng.springboot.retrofit.core;
 
+import in.abilng.springboot.retrofit.annotation.Cached;
+import in.abilng.springboot.retrofit.annotation.Paginated;
+import in.abilng.springboot.retrofit.annotation.StaleFallback;
+import in.abilng.springboot.retrofit.cache.CacheRevalidationInterceptor;
+import in.abilng.springboot.retrofit.cache.CachedCallAdapter;
+import in.abilng.springboot.retrofit.cache.ResponseCacheRegistry;
+import in.abilng.springboot.retrofit.cache.ResponseObjectCache;
 import in.abilng.springboot.retrofit.config.RetroFitProperties;
-import in.abilng.springboot.retrofit.interceptor.AuthorizationInterceptor;
+import in.abilng.springboot.retrofit.convertor.FileRequestBodyConverterFactory;
+import in.abilng.springboot.retrofit.convertor.QualifiedTypeConverterFactory;
+import in.abilng.springboot.retrofit.dispatch.FairQueueDispatcherExecutor;
+import in.abilng.springboot.retrofit.dispatch.PriorityDispatcherExecutor;
+import in.abilng.springboot.retrofit.download.DownloadCallAdapter;
+import in.abilng.springboot.retrofit.download.DownloadRangeInterceptor;
+import in.abilng.springboot.retrofit.fallback.StaleFallbackCallAdapter;
+import in.abilng.springboot.retrofit.fallback.StaleResponseStore;
+import in.abilng.springboot.retrofit.interceptor.FaultInjectionInterceptor;
+import in.abilng.springboot.retrofit.pagination.PaginatedCallAdapter;
+import in.abilng.springboot.retrofit.propagation.HeaderPropagatingCallFactory;
+import in.abilng.springboot.retrofit.propagation.HeaderPropagationCallAdapter;
+import in.abilng.springboot.retrofit.propagation.HeaderPropagationContext;
+import in.abilng.springboot.retrofit.propagation.HeaderResolver;
 import in.abilng.springboot.retrofit.resilience4j.CircuitBreakerCallAdapter;
+import in.abilng.springboot.retrofit.resilience4j.RetryAfter;
+import in.abilng.springboot.retrofit.resilience4j.RetryBudget;
+import in.abilng.springboot.retrofit.resilience4j.RetryBudgetRegistry;
 import in.abilng.springboot.retrofit.resilience4j.RetryCallAdapter;
+import in.abilng.springboot.retrofit.resilience4j.ThrottleGate;
+import in.abilng.springboot.retrofit.streaming.EventStreamCallAdapter;
+import in.abilng.springboot.retrofit.timeout.AdaptiveTimeoutCallAdapter;
+import in.abilng.springboot.retrofit.tls.TlsContext;
+import in.abilng.springboot.retrofit.tls.TlsContextRegistry;
+import in.abilng.springboot.retrofit.transport.JdkHttpCallFactory;
+import in.abilng.springboot.retrofit.transport.UnixDomainSocketFactory;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryConfig;
 import io.github.resilience4j.retry.RetryRegistry;
+import java.lang.reflect.Method;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import javax.net.ssl.SSLParameters;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.ConnectionSpec;
 import okhttp3.OkHttpClient;
+import okhttp3.Request;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.ssl.SslBundles;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Profiles;
+import org.springframework.http.HttpHeaders;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import retrofit2.Converter;
 import retrofit2.Response;
 import retrofit2.Retrofit;
 
@@ -46,6 +96,22 @@ public class RetrofitClientFactoryBean implements FactoryBean<Object>, Applicati
 
     private ApplicationContext applicationContext;
 
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ReconfigurableCallFactory callFactory;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicReference<Retry> currentRetry = new AtomicReference<>();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicReference<CircuitBreaker> currentCircuitBreaker = new AtomicReference<>();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ResponseObjectCache responseCache;
+
     @Override
     public Object getObject() throws Exception {
 
@@ -58,13 +124,26 @@ public class RetrofitClientFactoryBean implements FactoryBean<Object>, Applicati
         OkHttpClient.Builder clientBuilder = clientBuilder();
 
         if (clientBuilder != null) {
-            if (properties.isPropagateAuthHeader()) {
-                clientBuilder.addInterceptor(AuthorizationInterceptor.getInstance());
+            final List<OkHttpClientCustomizer> customizers =
+                    applicationContext.getBeanProvider(OkHttpClientCustomizer.class).orderedStream().toList();
+            customizers.forEach(customizer -> customizer.customize(this.name, properties, clientBuilder));
+            OkHttpClient decorated = clientBuilder.build();
+            for (OkHttpClientCustomizer customizer : customizers) {
+                decorated = customizer.decorate(this.name, decorated);
             }
-            builder.client(clientBuilder.build());
+            final OkHttpClient client = decorated;
+            customizers.forEach(customizer -> customizer.clientCreated(this.name, client));
+            this.callFactory =
+                    properties.getEngine() == RetroFitProperties.Engine.JDK
+                            ? new ReconfigurableCallFactory(client, this::jdkCallFactory)
+                            : new ReconfigurableCallFactory(client);
+            final Call.Factory scheduled = scheduledCallFactory(client, this.callFactory);
+            builder.callFactory(
+                    getPropagatedHeaders().isEmpty() ? scheduled : new HeaderPropagatingCallFactory(scheduled));
         }
 
         Retrofit retrofit = buildAndSave(builder);
+        MethodMetadataRegistry.getInstance().register(this.name, this.type);
         return retrofit.create(this.type);
     }
 
@@ -87,16 +166,226 @@ public class RetrofitClientFactoryBean implements FactoryBean<Object>, Applicati
         Retrofit.Builder builder =
                 getBean(Retrofit.Builder.class).baseUrl(baseUrl).validateEagerly(true);
 
-        getRetry().ifPresent(retry -> builder.addCallAdapterFactory(RetryCallAdapter.of(retry)));
+        // the json converter of the service, xml qualified types are left to the xml converter
+        final String jsonConverterFactory = properties.getJsonConverterFactory();
+        if (jsonConverterFactory != null) {
+            builder.converterFactories()
+                    .add(
+                            0,
+                            new QualifiedTypeConverterFactory(
+                                    applicationContext.getBean(jsonConverterFactory, Converter.Factory.class),
+                                    new Converter.Factory() {}));
+        }
 
-        getCircuitBreaker()
-                .ifPresent(
-                        circuitBreaker ->
-                                builder.addCallAdapterFactory(CircuitBreakerCallAdapter.of(circuitBreaker)));
+        // before the json and xml converters, which claim any type
+        builder.converterFactories().add(0, FileRequestBodyConverterFactory.create());
+
+        // added first so that retries cover the transfer of downloaded bodies
+        if (hasMethod(RetrofitClientFactoryBean::isDownload)) {
+            builder.converterFactories().add(0, DownloadCallAdapter.converterFactory());
+            builder.addCallAdapterFactory(DownloadCallAdapter.of());
+        }
+
+        // added first so that the circuit breaker records the streamed calls
+        if (hasMethod(method -> EventStreamCallAdapter.isEventStream(method.getGenericReturnType()))) {
+            builder.converterFactories().add(0, EventStreamCallAdapter.converterFactory());
+            builder.addCallAdapterFactory(EventStreamCallAdapter.of());
+        }
+
+        // added first so that retries and circuit breaker apply to each page
+        if (hasMethod(method -> method.isAnnotationPresent(Paginated.class))) {
+            builder.addCallAdapterFactory(PaginatedCallAdapter.of());
+        }
+
+        // added first so that retries and circuit breaker wrap the header capturing and timed calls
+        final List<String> propagatedHeaders = getPropagatedHeaders();
+        if (!propagatedHeaders.isEmpty()) {
+            builder.addCallAdapterFactory(
+                    HeaderPropagationCallAdapter.of(propagatedHeaders, getHeaderResolvers()));
+        }
+
+        final RetroFitProperties.AdaptiveTimeoutProperties adaptiveTimeout =
+                properties.getConnection().getAdaptiveTimeout();
+        if (adaptiveTimeout.getEnabled()) {
+            builder.addCallAdapterFactory(
+                    AdaptiveTimeoutCallAdapter.of(
+                            adaptiveTimeout.getQuantile(),
+                            adaptiveTimeout.getMultiplier(),
+                            adaptiveTimeout.getMinTimeout(),
+                            adaptiveTimeout.getMaxTimeout(),
+                            adaptiveTimeout.getMinSamples(),
+                            adaptiveTimeout.getWindow()));
+        }
+
+        // always added, so that retry and circuit breaker can be enabled by reconfigure
+        currentRetry.set(getRetry().orElse(null));
+        builder.addCallAdapterFactory(
+                RetryCallAdapter.of(
+                        currentRetry::get,
+                        getRetryBudget().orElse(null),
+                        getThrottleGate().orElse(null),
+                        properties.getRetry().getMaxRetryAfter()));
+
+        currentCircuitBreaker.set(getCircuitBreaker().orElse(null));
+        // a revalidated response is a success of the service
+        builder.addCallAdapterFactory(
+                CircuitBreakerCallAdapter.of(
+                        currentCircuitBreaker::get,
+                        response -> response.isSuccessful() || response.code() == CachedCallAdapter.NOT_MODIFIED));
+
+        // added last so that it only falls back once the circuit breaker and retries gave up
+        if (hasMethod(method -> method.isAnnotationPresent(StaleFallback.class))) {
+            final RetroFitProperties.StaleFallbackProperties staleFallback = properties.getStaleFallback();
+            builder.addCallAdapterFactory(
+                    StaleFallbackCallAdapter.of(
+                            getStaleResponseStore(), staleFallback.getMaxStale(), getPropagatedHeaders()));
+        }
+
+        // added last so that cache hits skip the circuit breaker, retries and stale fallback
+        if (hasMethod(method -> method.isAnnotationPresent(Cached.class))) {
+            builder.addCallAdapterFactory(CachedCallAdapter.of(getResponseCache()));
+        }
 
         return builder;
     }
 
+    /**
+     * Applies changed properties to the client while it is in use.
+     * <br/>
+     * Connection timeouts are applied to a client derived from the current one, which keeps its connection pool and
+     * dispatcher, and the retry and circuit breaker are replaced from their new configs; the state of a replaced
+     * circuit breaker is reset. Calls already created keep the client, retry and circuit breaker they were created
+     * with. Other properties take effect when the application is restarted.
+     *
+     * @param serviceProperties the new properties of the service
+     */
+    public synchronized void reconfigure(RetroFitProperties.ServiceProperties serviceProperties) {
+        Assert.notNull(
+                serviceProperties, "retrofit.services.%s.* properties are missing.".formatted(this.name));
+        final RetroFitProperties.ServiceProperties previous = this.properties;
+        if (serviceProperties.equals(previous)) {
+            return;
+        }
+        this.properties = serviceProperties;
+
+        final RetroFitProperties.ServiceConnectionProperties connection = serviceProperties.getConnection();
+        if (this.callFactory != null && !connection.equals(previous.getConnection())) {
+            this.callFactory.reconfigure(
+                    client ->
+                            client.newBuilder()
+                                    .readTimeout(connection.getReadTimeout())
+                                    .writeTimeout(connection.getWriteTimeout())
+                                    .connectTimeout(connection.getConnectTimeout())
+                                    .build());
+            log.info("Reconfigured the connection of {}", this.name);
+        }
+        if (!serviceProperties.getRetry().equals(previous.getRetry())) {
+            getOptionalBean(RetryRegistry.class).ifPresent(registry -> registry.remove(this.name));
+            currentRetry.set(getRetry().orElse(null));
+            log.info("Reconfigured the retry of {}", this.name);
+        }
+        if (!serviceProperties.getCircuitBreaker().equals(previous.getCircuitBreaker())) {
+            getOptionalBean(CircuitBreakerRegistry.class).ifPresent(registry -> registry.remove(this.name));
+            currentCircuitBreaker.set(getCircuitBreaker().orElse(null));
+            log.info("Reconfigured the circuit breaker of {}", this.name);
+        }
+    }
+
+    /**
+     * Gets the client the calls are currently made with.
+     *
+     * @return the client, empty before the client is created or when the service does not use the client builder
+     */
+    public Optional<OkHttpClient> getActiveClient() {
+        return Optional.ofNullable(this.callFactory).map(ReconfigurableCallFactory::getClient);
+    }
+
+    /**
+     * Gets the retry the calls are currently decorated with.
+     *
+     * @return the retry, empty when retries are disabled
+     */
+    public Optional<Retry> getActiveRetry() {
+        return Optional.ofNullable(currentRetry.get());
+    }
+
+    /**
+     * Gets the circuit breaker the calls are currently decorated with.
+     *
+     * @return the circuit breaker, empty when the circuit breaker is disabled
+     */
+    public Optional<CircuitBreaker> getActiveCircuitBreaker() {
+        return Optional.ofNullable(currentCircuitBreaker.get());
+    }
+
+    private boolean hasMethod(Predicate<Method> predicate) {
+        return Arrays.stream(this.type.getMethods()).anyMatch(predicate);
+    }
+
+    private static boolean isDownload(Method method) {
+        return DownloadCallAdapter.isDownload(method.getGenericReturnType());
+    }
+
+    /**
+     * Gets the store of the last successful responses of the {@link StaleFallback} methods.
+     *
+     * @return the stale response store
+     */
+    protected StaleResponseStore getStaleResponseStore() {
+        final RetroFitProperties.StaleFallbackProperties staleFallback = properties.getStaleFallback();
+        final Path spillDirectory = staleFallback.getSpillDirectory();
+        return new StaleResponseStore(
+                staleFallback.getMaxEntries(),
+                spillDirectory == null ? null : spillDirectory.resolve(this.name),
+                staleFallback.getMaxDiskEntries());
+    }
+
+    /**
+     * Gets the cache of the decoded responses of the {@link Cached} methods, shared by the call adapter and the
+     * revalidation interceptor.
+     *
+     * @return the response cache
+     */
+    protected ResponseObjectCache getResponseCache() {
+        if (this.responseCache == null) {
+            Assert.state(
+                    ClassUtils.isPresent("com.github.benmanes.caffeine.cache.Caffeine", null),
+                    "com.github.ben-manes.caffeine:caffeine is required by the @Cached methods of " + this.name);
+            final long maxSize = properties.getCache().getMaxSize().toBytes();
+            final List<String> keyHeaders = getPropagatedHeaders();
+            this.responseCache =
+                    getOptionalBean(ResponseCacheRegistry.class)
+                            .orElseGet(ResponseCacheRegistry::new)
+                            .cache(this.name, () -> new ResponseObjectCache(this.name, maxSize, keyHeaders));
+        }
+        return this.responseCache;
+    }
+
+    /**
+     * Gets the names of the headers to propagate.
+     *
+     * @return the header names
+     */
+    protected List<String> getPropagatedHeaders() {
+        final Set<String> headers = new LinkedHashSet<>(properties.getPropagateHeaders());
+        if (properties.isPropagateAuthHeader()) {
+            headers.add(HttpHeaders.AUTHORIZATION);
+        }
+        return List.copyOf(headers);
+    }
+
+    /**
+     * Gets the resolvers of propagated header values, in order of precedence.
+     *
+     * @return the header resolvers
+     */
+    protected List<HeaderResolver> getHeaderResolvers() {
+        final List<HeaderResolver> resolvers = new ArrayList<>();
+        resolvers.add(HeaderPropagationContext.resolver());
+        applicationContext.getBeanProvider(HeaderResolver.class).orderedStream().forEach(resolvers::add);
+        return resolvers;
+    }
+
     private Optional<CircuitBreaker> getCircuitBreaker() {
         final RetroFitProperties.CircuitBreakerProperties cbProperties =
                 this.properties.getCircuitBreaker();
@@ -145,8 +434,12 @@ public class RetrofitClientFactoryBean implements FactoryBean<Object>, Applicati
         if (retryProperties.getEnabled()) {
             final Integer maxAttempts = retryProperties.getMaxAttempts();
             final Duration waitDuration = retryProperties.getWaitDuration();
+            final boolean retryOn5xx = retryProperties.getRetryOn5xx();
+            final boolean retryOnThrottled = retryProperties.getRetryOnThrottled();
             final Predicate<Response<?>> responsePredicate =
-                    retryProperties.getRetryOn5xx() ? response -> response.code() >= 500 : response -> false;
+                    response ->
+                            retryOn5xx && response.code() >= 500
+                                    || retryOnThrottled && RetryAfter.isThrottled(response);
 
             final Class<? extends Throwable>[] retryExceptions =
                     toClassArray(retryProperties.getRetryExceptions());
@@ -157,7 +450,7 @@ public class RetrofitClientFactoryBean implements FactoryBean<Object>, Applicati
             final RetryConfig retryConfig =
                     RetryConfig.<Response<?>>custom()
                             .maxAttempts(maxAttempts)
-                            .waitDuration(waitDuration)
+                            .intervalBiFunction(RetryAfter.intervalBiFunction(waitDuration))
                             .retryOnResult(responsePredicate)
                             .retryExceptions(retryExceptions)
                             .ignoreExceptions(ignoreExceptions)
@@ -172,18 +465,213 @@ public class RetrofitClientFactoryBean implements FactoryBean<Object>, Applicati
         }
     }
 
+    /**
+     * Gets retry budget.
+     *
+     * @return the retry budget
+     */
+    protected Optional<RetryBudget> getRetryBudget() {
+        final RetroFitProperties.RetryBudgetProperties budgetProperties =
+                this.properties.getRetry().getBudget();
+        if (budgetProperties.getEnabled()) {
+            final RetryBudgetRegistry registry =
+                    getOptionalBean(RetryBudgetRegistry.class).orElseGet(RetryBudgetRegistry::new);
+            return Optional.of(
+                    registry.budget(
+                            this.name,
+                            () ->
+                                    RetryBudget.of(
+                                            this.name,
+                                            budgetProperties.getRatio(),
+                                            budgetProperties.getMinRetriesPerSecond(),
+                                            budgetProperties.getTtl())));
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Gets the throttle gate holding requests while the service is throttling.
+     *
+     * @return the throttle gate
+     */
+    protected Optional<ThrottleGate> getThrottleGate() {
+        return this.properties.getRetry().getHoldOnThrottled()
+                ? Optional.of(new ThrottleGate(this.properties.getRetry().getMaxRetryAfter()))
+                : Optional.empty();
+    }
+
     /**
      * ok http client builder.
      *
      * @return the ok http client builder
      */
     protected OkHttpClient.Builder clientBuilder() {
-        return getOptionalBean(OkHttpClient.Builder.class)
-                .orElseGet(OkHttpClient.Builder::new)
-                .readTimeout(properties.getConnection().getReadTimeout())
-                .writeTimeout(properties.getConnection().getWriteTimeout())
-                .connectTimeout(properties.getConnection().getConnectTimeout())
-                .retryOnConnectionFailure(true);
+        final OkHttpClient.Builder builder =
+                getOptionalBean(OkHttpClient.Builder.class)
+                        .orElseGet(OkHttpClient.Builder::new)
+                        .readTimeout(properties.getConnection().getReadTimeout())
+                        .writeTimeout(properties.getConnection().getWriteTimeout())
+                        .connectTimeout(properties.getConnection().getConnectTimeout())
+                        .retryOnConnectionFailure(true);
+        if (properties.getConnection().getUnixSocket() != null) {
+            Assert.state(
+                    properties.getEngine() == RetroFitProperties.Engine.OKHTTP,
+                    "retrofit.services.%s.connection.unix-socket requires the okhttp engine".formatted(this.name));
+            UnixDomainSocketFactory.configure(builder, properties.getConnection().getUnixSocket());
+        }
+
+        getTlsContext()
+                .ifPresent(
+                        context ->
+                                builder.sslSocketFactory(
+                                        context.sslContext().getSocketFactory(), context.trustManager()));
+        final RetroFitProperties.TlsProperties tls = properties.getTls();
+        if (!tls.getCipherSuites().isEmpty() || !tls.getProtocols().isEmpty()) {
+            final ConnectionSpec.Builder spec = new ConnectionSpec.Builder(ConnectionSpec.MODERN_TLS);
+            if (!tls.getCipherSuites().isEmpty()) {
+                spec.cipherSuites(tls.getCipherSuites().toArray(String[]::new));
+            }
+            if (!tls.getProtocols().isEmpty()) {
+                spec.tlsVersions(tls.getProtocols().toArray(String[]::new));
+            }
+            builder.connectionSpecs(List.of(spec.build(), ConnectionSpec.CLEARTEXT));
+        }
+
+        final RetroFitProperties.DispatcherProperties dispatcher = properties.getDispatcher();
+        Assert.state(
+                !(dispatcher.getPriorityLanes() && dispatcher.getFairQueuing()),
+                "retrofit.services.%s.dispatcher can not enable both priority-lanes and fair-queuing"
+                        .formatted(this.name));
+        Assert.state(
+                !(dispatcher.getPriorityLanes() || dispatcher.getFairQueuing())
+                        || properties.getEngine() == RetroFitProperties.Engine.OKHTTP,
+                "retrofit.services.%s.dispatcher priority-lanes and fair-queuing require the okhttp engine"
+                        .formatted(this.name));
+        if (dispatcher.getFairQueuing()) {
+            builder.dispatcher(
+                    new FairQueueDispatcherExecutor(
+                                    dispatcher.getMaxRequests(),
+                                    dispatcher.getMaxRequestsPerHost(),
+                                    dispatcher.getMaxRequestsPerKey(),
+                                    dispatcher.getKeyWeights(),
+                                    fairQueueKeyResolver(dispatcher.getFairQueueKeyHeader()))
+                            .dispatcher());
+        }
+        if (dispatcher.getPriorityLanes()) {
+            builder.dispatcher(
+                    new PriorityDispatcherExecutor(
+                                    dispatcher.getMaxRequests(),
+                                    dispatcher.getMaxRequestsPerHost(),
+                                    dispatcher.getQueueDeadline())
+                            .dispatcher());
+        }
+        if (hasMethod(RetrofitClientFactoryBean::isDownload)) {
+            builder.addInterceptor(new DownloadRangeInterceptor());
+        }
+        if (hasMethod(method -> method.isAnnotationPresent(Cached.class))) {
+            builder.addInterceptor(new CacheRevalidationInterceptor(getResponseCache()));
+        }
+        final RetroFitProperties.FaultInjectionProperties faultInjection = properties.getFaultInjection();
+        if (faultInjection.getEnabled()) {
+            final String[] forbiddenProfiles = faultInjection.getForbiddenProfiles().toArray(String[]::new);
+            Assert.state(
+                    forbiddenProfiles.length == 0
+                            || !applicationContext.getEnvironment().acceptsProfiles(Profiles.of(forbiddenProfiles)),
+                    "retrofit.services.%s.fault-injection can not be enabled with the profiles %s"
+                            .formatted(this.name, faultInjection.getForbiddenProfiles()));
+            log.warn("Fault injection is enabled for {}", this.name);
+            builder.addInterceptor(new FaultInjectionInterceptor(faultInjection));
+        }
+        return builder;
+    }
+
+    /**
+     * Call factory holding the enqueued calls of the client for the priority lanes or the fair queuing of its
+     * dispatcher.
+     *
+     * @param client      the client
+     * @param callFactory the call factory of the client
+     * @return the call factory
+     */
+    protected Call.Factory scheduledCallFactory(OkHttpClient client, Call.Factory callFactory) {
+        final ExecutorService executor = client.dispatcher().executorService();
+        if (executor instanceof PriorityDispatcherExecutor priorityLanes) {
+            return priorityLanes.callFactory(callFactory);
+        }
+        if (executor instanceof FairQueueDispatcherExecutor fairQueue) {
+            return fairQueue.callFactory(callFactory);
+        }
+        return callFactory;
+    }
+
+    /**
+     * Call factory of the jdk engine, sending the calls of the client with a {@link HttpClient} that has its
+     * timeouts and the TLS settings of the service.
+     *
+     * @param client the client
+     * @return the call factory
+     */
+    protected Call.Factory jdkCallFactory(OkHttpClient client) {
+        final HttpClient.Builder builder = JdkHttpCallFactory.newHttpClientBuilder(client);
+        getTlsContext().ifPresent(context -> builder.sslContext(context.sslContext()));
+        final RetroFitProperties.TlsProperties tls = properties.getTls();
+        if (!tls.getCipherSuites().isEmpty() || !tls.getProtocols().isEmpty()) {
+            final SSLParameters parameters = new SSLParameters();
+            if (!tls.getCipherSuites().isEmpty()) {
+                parameters.setCipherSuites(tls.getCipherSuites().toArray(String[]::new));
+            }
+            if (!tls.getProtocols().isEmpty()) {
+                parameters.setProtocols(tls.getProtocols().toArray(String[]::new));
+            }
+            builder.sslParameters(parameters);
+        }
+        return new JdkHttpCallFactory(client, builder.build());
+    }
+
+    /**
+     * Gets the SSL context of the client, shared with the clients of the same TLS settings.
+     *
+     * @return the TLS context, empty to keep the SSL socket factory of the client builder
+     */
+    protected Optional<TlsContext> getTlsContext() {
+        final RetroFitProperties.TlsProperties tls = properties.getTls();
+        final boolean configured =
+                tls.getBundle() != null || tls.getSessionCacheSize() != null || tls.getSessionTimeout() != null;
+        if (!configured && !Boolean.TRUE.equals(tls.getSharedContext())) {
+            return Optional.empty();
+        }
+        final SslBundles sslBundles = getOptionalBean(SslBundles.class).orElse(null);
+        if (Boolean.FALSE.equals(tls.getSharedContext())) {
+            return Optional.of(new TlsContextRegistry().context(tls, sslBundles));
+        }
+        return Optional.of(
+                getOptionalBean(TlsContextRegistry.class)
+                        .orElseGet(TlsContextRegistry::new)
+                        .context(tls, sslBundles));
+    }
+
+    /**
+     * Resolves the fair queuing key of a request from its header, else from the inbound request.
+     *
+     * @param header the header holding the key
+     * @return the key resolver
+     */
+    protected Function<Request, String> fairQueueKeyResolver(String header) {
+        final List<HeaderResolver> resolvers = getHeaderResolvers();
+        return request -> {
+            final String key = request.header(header);
+            if (key != null) {
+                return key;
+            }
+            for (HeaderResolver resolver : resolvers) {
+                final String resolved = resolver.resolve(header);
+                if (resolved != null) {
+                    return resolved;
+                }
+            }
+            return null;
+        };
     }
 
     /**
@@ -0,0 +1,54 @@
+package in.abilng.springboot.retrofit.core;
+
+import in.abilng.springboot.retrofit.config.RetroFitProperties;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Reconfigures the Retrofit clients from the current environment.
+ * <br/>
+ * The {@code retrofit.*} properties are bound again and the properties of each service are applied with
+ * {@link RetrofitClientFactoryBean#reconfigure}. It is called on an {@code EnvironmentChangeEvent} when Spring Cloud
+ * Context is on the classpath, and can be called after the environment is changed by other means.
+ */
+@Slf4j
+public class RetrofitClientsRefresher {
+
+    private final ApplicationContext applicationContext;
+
+    /**
+     * Instantiates a new Retrofit clients refresher.
+     *
+     * @param applicationContext the application context
+     */
+    public RetrofitClientsRefresher(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * Reconfigures the clients with the properties of their services.
+     * Clients whose service is no longer configured are left unchanged.
+     */
+    public synchronized void refresh() {
+        final RetroFitProperties properties =
+                Binder.get(applicationContext.getEnvironment())
+                        .bind(RetroFitProperties.PROPERTY_PREFIX, RetroFitProperties.class)
+                        .orElseGet(RetroFitProperties::new);
+
+        final Map<String, RetrofitClientFactoryBean> factoryBeans =
+                applicationContext.getBeansOfType(RetrofitClientFactoryBean.class);
+        factoryBeans.values().forEach(
+                factoryBean -> {
+                    final RetroFitProperties.ServiceProperties serviceProperties =
+                            properties.getServices().get(factoryBean.getName());
+                    if (serviceProperties == null) {
+                        log.warn("retrofit.services.{}.* properties are missing, not reconfigured",
+                                factoryBean.getName());
+                    } else {
+                        factoryBean.reconfigure(serviceProperties);
+                    }
+                });
+    }
+}
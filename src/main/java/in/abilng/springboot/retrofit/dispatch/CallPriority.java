@@ -0,0 +1,9 @@
+package in.abilng.springboot.retrofit.dispatch;
+
+/**
+ * Dispatch priority of a single call, passed as a {@code @Tag CallPriority} parameter. Takes precedence over
+ * {@link in.abilng.springboot.retrofit.annotation.Priority}.
+ *
+ * @param value the priority, higher is dispatched first
+ */
+public record CallPriority(int value) {}
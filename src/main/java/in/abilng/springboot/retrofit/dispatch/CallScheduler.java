@@ -0,0 +1,15 @@
+package in.abilng.springboot.retrofit.dispatch;
+
+/**
+ * Scheduler of the calls enqueued through a {@link ScheduledCallFactory}.
+ */
+@FunctionalInterface
+interface CallScheduler {
+
+    /**
+     * Queues a call until it is its turn, then {@link ScheduledCall#dispatch dispatches} it.
+     *
+     * @param call the call
+     */
+    void schedule(ScheduledCall call);
+}
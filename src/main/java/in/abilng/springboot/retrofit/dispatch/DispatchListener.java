@@ -0,0 +1,23 @@
+package in.abilng.springboot.retrofit.dispatch;
+
+/**
+ * Listener of the calls dispatched by a {@link PriorityDispatcherExecutor}.
+ */
+public interface DispatchListener {
+
+    /**
+     * Called when a call leaves the queue and is dispatched.
+     *
+     * @param priority  the priority of the call
+     * @param waitNanos the time the call waited in the queue
+     */
+    default void onDispatched(int priority, long waitNanos) {}
+
+    /**
+     * Called when a call waited in the queue past the deadline and is dropped.
+     *
+     * @param priority  the priority of the call
+     * @param waitNanos the time the call waited in the queue
+     */
+    default void onDropped(int priority, long waitNanos) {}
+}
@@ -0,0 +1,301 @@
+package in.abilng.springboot.retrofit.dispatch;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import okhttp3.Call;
+import okhttp3.Dispatcher;
+import okhttp3.Request;
+
+/**
+ * Executor of an OkHttp {@link Dispatcher} sharing the dispatcher between keys, such as tenants, by deficit round
+ * robin.
+ * <br/>
+ * Like the {@link PriorityDispatcherExecutor}, the calls enqueued through the {@link #callFactory call factory} of
+ * this executor are held before they reach the dispatcher, and at most {@code maxRequests} of them, and
+ * {@code maxRequestsPerHost} of them per host, are enqueued on it at once. Enqueued calls wait in a queue per key,
+ * and the keys with waiting calls take turns: a key dispatches up to its weight (1 by default) of calls per turn,
+ * and never runs more than {@code maxRequestsPerKey} calls, so that the bulk calls of one key can not hold every
+ * slot. A key whose next call is to a host without a free slot skips its turn.
+ * <br/>
+ * The key is taken from a {@code @Tag FairQueueKey} parameter, else from the key resolver, which is called on the
+ * thread enqueuing the call, else it is {@value #DEFAULT_KEY}.
+ * <br/>
+ * The dispatcher created by {@link #dispatcher} limits each host to {@code maxRequests}, the per host limit being
+ * enforced by this executor.
+ */
+public final class FairQueueDispatcherExecutor extends ThreadPoolExecutor {
+
+    /**
+     * Key of the calls without a key.
+     */
+    public static final String DEFAULT_KEY = "default";
+
+    private static final int DEFAULT_WEIGHT = 1;
+
+    private final int maxRequests;
+
+    private final int maxRequestsPerKey;
+
+    private final Map<String, Integer> weights;
+
+    private final Function<Request, String> keyResolver;
+
+    private final HostSlots hostSlots;
+
+    /**
+     * The lanes with queued or running calls.
+     */
+    private final Map<String, Lane> lanes = new HashMap<>();
+
+    /**
+     * The lanes with queued calls, in turn order.
+     */
+    private final Deque<Lane> turns = new ArrayDeque<>();
+
+    private int running;
+
+    private int queued;
+
+    private volatile Consumer<String> keyListener = key -> {};
+
+    /**
+     * Instantiates a new Fair queue dispatcher executor, with the per host limit of the OkHttp {@link Dispatcher}.
+     *
+     * @param maxRequests       the maximum number of concurrent calls
+     * @param maxRequestsPerKey the maximum number of concurrent calls of a key
+     * @param weights           the weights of the keys, the calls dispatched per turn
+     * @param keyResolver       resolves the key of a request, may return null
+     */
+    public FairQueueDispatcherExecutor(
+            int maxRequests,
+            int maxRequestsPerKey,
+            Map<String, Integer> weights,
+            Function<Request, String> keyResolver) {
+        this(maxRequests, HostSlots.DEFAULT_MAX_REQUESTS_PER_HOST, maxRequestsPerKey, weights, keyResolver);
+    }
+
+    /**
+     * Instantiates a new Fair queue dispatcher executor.
+     *
+     * @param maxRequests        the maximum number of concurrent calls
+     * @param maxRequestsPerHost the maximum number of concurrent calls to a host
+     * @param maxRequestsPerKey  the maximum number of concurrent calls of a key
+     * @param weights            the weights of the keys, the calls dispatched per turn
+     * @param keyResolver        resolves the key of a request, may return null
+     */
+    public FairQueueDispatcherExecutor(
+            int maxRequests,
+            int maxRequestsPerHost,
+            int maxRequestsPerKey,
+            Map<String, Integer> weights,
+            Function<Request, String> keyResolver) {
+        super(
+                0,
+                Integer.MAX_VALUE,
+                60,
+                TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "OkHttp Dispatcher");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        if (maxRequests < 1 || maxRequestsPerKey < 1) {
+            throw new IllegalArgumentException("maxRequests and maxRequestsPerKey must be positive");
+        }
+        this.maxRequests = maxRequests;
+        this.maxRequestsPerKey = maxRequestsPerKey;
+        this.weights = Map.copyOf(weights);
+        this.keyResolver = keyResolver;
+        this.hostSlots = new HostSlots(maxRequestsPerHost);
+    }
+
+    /**
+     * Creates a dispatcher using this executor.
+     *
+     * @return the dispatcher
+     */
+    public Dispatcher dispatcher() {
+        final Dispatcher dispatcher = new Dispatcher(this);
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequests);
+        return dispatcher;
+    }
+
+    /**
+     * Creates a call factory whose enqueued calls are dispatched by fair queuing. The client of the calls must use
+     * the {@link #dispatcher} of this executor.
+     *
+     * @param delegate the call factory of the client
+     * @return the call factory
+     */
+    public Call.Factory callFactory(Call.Factory delegate) {
+        return new ScheduledCallFactory(delegate, this::schedule);
+    }
+
+    /**
+     * Sets the listener of the keys, called when a key without queued or running calls enqueues a call.
+     *
+     * @param keyListener the key listener
+     */
+    public void setKeyListener(Consumer<String> keyListener) {
+        this.keyListener = keyListener;
+    }
+
+    /**
+     * Gets the number of calls waiting for dispatch.
+     *
+     * @return the queued count
+     */
+    public synchronized int getQueuedCount() {
+        return queued;
+    }
+
+    /**
+     * Gets the number of calls of a key waiting for dispatch.
+     *
+     * @param key the key
+     * @return the queued count
+     */
+    public synchronized int getQueuedCount(String key) {
+        final Lane lane = lanes.get(key);
+        return lane == null ? 0 : lane.queue.size();
+    }
+
+    /**
+     * Gets the number of dispatched calls whose callback did not return yet.
+     *
+     * @return the running count
+     */
+    public synchronized int getRunningCount() {
+        return running;
+    }
+
+    private void schedule(ScheduledCall call) {
+        if (isShutdown()) {
+            throw new RejectedExecutionException("Executor is shut down");
+        }
+        final String key = keyOf(call.request());
+        final boolean newKey;
+        synchronized (this) {
+            newKey = !lanes.containsKey(key);
+            final Lane lane = lanes.computeIfAbsent(key, Lane::new);
+            if (lane.queue.isEmpty()) {
+                turns.addLast(lane);
+            }
+            lane.queue.add(call);
+            queued++;
+        }
+        if (newKey) {
+            keyListener.accept(key);
+        }
+        dispatch();
+    }
+
+    private String keyOf(Request request) {
+        final FairQueueKey callKey = request.tag(FairQueueKey.class);
+        if (callKey != null && callKey.value() != null) {
+            return callKey.value();
+        }
+        return Objects.requireNonNullElse(keyResolver.apply(request), DEFAULT_KEY);
+    }
+
+    /**
+     * Starts the next calls while there are free slots.
+     */
+    private void dispatch() {
+        while (true) {
+            final Lane lane;
+            final ScheduledCall call;
+            synchronized (this) {
+                if (running >= maxRequests) {
+                    return;
+                }
+                lane = nextLane();
+                if (lane == null) {
+                    return;
+                }
+                call = lane.queue.poll();
+                queued--;
+                running++;
+                lane.running++;
+                hostSlots.acquire(call.host());
+                endTurn(lane);
+            }
+            call.dispatch(() -> release(lane, call.host()));
+        }
+    }
+
+    /**
+     * Finds the lane whose turn it is, skipping the lanes at their limit or whose next call is to a busy host.
+     *
+     * @return the lane, null if no lane can dispatch
+     */
+    private Lane nextLane() {
+        for (int i = turns.size(); i > 0; i--) {
+            final Lane lane = turns.pollFirst();
+            if (lane.running < maxRequestsPerKey && hostSlots.isFree(lane.queue.peekFirst().host())) {
+                return lane;
+            }
+            turns.addLast(lane);
+        }
+        return null;
+    }
+
+    /**
+     * Keeps the turn of a lane that dispatched a call until it dispatched its weight of calls.
+     */
+    private void endTurn(Lane lane) {
+        if (lane.deficit == 0) {
+            lane.deficit = weights.getOrDefault(lane.key, DEFAULT_WEIGHT);
+        }
+        lane.deficit--;
+        if (lane.queue.isEmpty()) {
+            // a lane without queued calls loses its remaining turn
+            lane.deficit = 0;
+        } else if (lane.deficit > 0) {
+            turns.addFirst(lane);
+        } else {
+            turns.addLast(lane);
+        }
+    }
+
+    private void release(Lane lane, String host) {
+        synchronized (this) {
+            running--;
+            lane.running--;
+            hostSlots.release(host);
+            if (lane.running == 0 && lane.queue.isEmpty()) {
+                lanes.remove(lane.key);
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * The queued and running calls of a key.
+     */
+    private static final class Lane {
+
+        private final String key;
+
+        private final Deque<ScheduledCall> queue = new ArrayDeque<>();
+
+        private int running;
+
+        private int deficit;
+
+        private Lane(String key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package in.abilng.springboot.retrofit.dispatch;
+
+/**
+ * Fair queuing key of a single call, such as a tenant or caller id, passed as a {@code @Tag FairQueueKey}
+ * parameter. Takes precedence over the key resolved by the {@link FairQueueDispatcherExecutor}.
+ *
+ * @param value the key
+ */
+public record FairQueueKey(String value) {}
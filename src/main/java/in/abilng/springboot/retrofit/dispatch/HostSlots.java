@@ -0,0 +1,43 @@
+package in.abilng.springboot.retrofit.dispatch;
+
+import java.util.HashMap;
+import java.util.Map;
+import okhttp3.Dispatcher;
+
+/**
+ * Running calls per host of an executor holding the enqueued calls, limited as the OkHttp {@link Dispatcher} limits
+ * them, so that no call waits in the FIFO queue of the dispatcher. Guarded by the executor.
+ */
+final class HostSlots {
+
+    /**
+     * Default maximum number of concurrent calls per host, the one of the OkHttp {@link Dispatcher}.
+     */
+    static final int DEFAULT_MAX_REQUESTS_PER_HOST = 5;
+
+    private final int maxRequestsPerHost;
+
+    private final Map<String, Integer> running = new HashMap<>();
+
+    HostSlots(int maxRequestsPerHost) {
+        if (maxRequestsPerHost <= 0) {
+            throw new IllegalArgumentException("maxRequestsPerHost must be positive");
+        }
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    /**
+     * Whether a call to the host can start.
+     */
+    boolean isFree(String host) {
+        return running.getOrDefault(host, 0) < maxRequestsPerHost;
+    }
+
+    void acquire(String host) {
+        running.merge(host, 1, Integer::sum);
+    }
+
+    void release(String host) {
+        running.computeIfPresent(host, (key, count) -> count == 1 ? null : count - 1);
+    }
+}
@@ -0,0 +1,270 @@
+package in.abilng.springboot.retrofit.dispatch;
+
+import in.abilng.springboot.retrofit.annotation.Priority;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.Dispatcher;
+import okhttp3.Request;
+import retrofit2.Invocation;
+
+/**
+ * Executor of an OkHttp {@link Dispatcher} dispatching enqueued calls by priority.
+ * <br/>
+ * The dispatcher queues in FIFO order once {@code maxRequests} or {@code maxRequestsPerHost} is reached, so the
+ * calls are held before they reach it: the calls enqueued through the {@link #callFactory call factory} of this
+ * executor wait in a queue per host by {@link Priority}, then in order. The call of highest priority among the hosts
+ * running less than {@code maxRequestsPerHost} calls is enqueued on the dispatcher next, while fewer than
+ * {@code maxRequests} calls run. A call that waited longer than the queue deadline is cancelled before it is sent;
+ * it is still enqueued so that its callback gets the failure.
+ * <br/>
+ * The dispatcher created by {@link #dispatcher} limits each host to {@code maxRequests}, the per host limit being
+ * enforced by this executor.
+ */
+public final class PriorityDispatcherExecutor extends ThreadPoolExecutor {
+
+    private static final long NO_DEADLINE = 0;
+
+    private final int maxRequests;
+
+    private final long queueDeadlineNanos;
+
+    private final Map<Method, Integer> methodPriorities = new ConcurrentHashMap<>();
+
+    /**
+     * The queued calls by host, without empty queues.
+     */
+    private final Map<String, Queue<PrioritizedCall>> queues = new HashMap<>();
+
+    private final HostSlots hostSlots;
+
+    private long sequence;
+
+    private int queued;
+
+    private int running;
+
+    private volatile DispatchListener listener = new DispatchListener() {};
+
+    /**
+     * Instantiates a new Priority dispatcher executor, with the per host limit of the OkHttp {@link Dispatcher}.
+     *
+     * @param maxRequests   the maximum number of concurrent calls
+     * @param queueDeadline the maximum time a call may wait in the queue, null for no limit
+     */
+    public PriorityDispatcherExecutor(int maxRequests, Duration queueDeadline) {
+        this(maxRequests, HostSlots.DEFAULT_MAX_REQUESTS_PER_HOST, queueDeadline);
+    }
+
+    /**
+     * Instantiates a new Priority dispatcher executor.
+     *
+     * @param maxRequests        the maximum number of concurrent calls
+     * @param maxRequestsPerHost the maximum number of concurrent calls to a host
+     * @param queueDeadline      the maximum time a call may wait in the queue, null for no limit
+     */
+    public PriorityDispatcherExecutor(int maxRequests, int maxRequestsPerHost, Duration queueDeadline) {
+        super(
+                0,
+                Integer.MAX_VALUE,
+                60,
+                TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "OkHttp Dispatcher");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.maxRequests = maxRequests;
+        this.hostSlots = new HostSlots(maxRequestsPerHost);
+        this.queueDeadlineNanos = queueDeadline == null ? NO_DEADLINE : queueDeadline.toNanos();
+    }
+
+    /**
+     * Creates a dispatcher using this executor.
+     *
+     * @return the dispatcher
+     */
+    public Dispatcher dispatcher() {
+        final Dispatcher dispatcher = new Dispatcher(this);
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequests);
+        return dispatcher;
+    }
+
+    /**
+     * Creates a call factory whose enqueued calls are dispatched by priority. The client of the calls must use the
+     * {@link #dispatcher} of this executor.
+     *
+     * @param delegate the call factory of the client
+     * @return the call factory
+     */
+    public Call.Factory callFactory(Call.Factory delegate) {
+        return new ScheduledCallFactory(delegate, this::schedule);
+    }
+
+    /**
+     * Sets the dispatch listener.
+     *
+     * @param listener the listener
+     */
+    public void setDispatchListener(DispatchListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the number of calls waiting for dispatch.
+     *
+     * @return the queued count
+     */
+    public synchronized int getQueuedCount() {
+        return queued;
+    }
+
+    /**
+     * Gets the number of dispatched calls whose callback did not return yet.
+     *
+     * @return the running count
+     */
+    public synchronized int getRunningCount() {
+        return running;
+    }
+
+    private void schedule(ScheduledCall call) {
+        if (isShutdown()) {
+            throw new RejectedExecutionException("Executor is shut down");
+        }
+        final int priority = priorityOf(call.request());
+        final String host = call.host();
+        synchronized (this) {
+            queues.computeIfAbsent(host, key -> new PriorityQueue<>())
+                    .add(new PrioritizedCall(call, host, priority, sequence++));
+            queued++;
+        }
+        dispatch();
+    }
+
+    private int priorityOf(Request request) {
+        final CallPriority callPriority = request.tag(CallPriority.class);
+        if (callPriority != null) {
+            return callPriority.value();
+        }
+        final Invocation invocation = request.tag(Invocation.class);
+        if (invocation != null) {
+            return methodPriorities.computeIfAbsent(invocation.method(), PriorityDispatcherExecutor::priorityOf);
+        }
+        return Priority.DEFAULT;
+    }
+
+    private static int priorityOf(Method method) {
+        Priority priority = method.getAnnotation(Priority.class);
+        if (priority == null) {
+            priority = method.getDeclaringClass().getAnnotation(Priority.class);
+        }
+        return priority == null ? Priority.DEFAULT : priority.value();
+    }
+
+    /**
+     * Dispatches the next calls while there are free slots.
+     */
+    private void dispatch() {
+        while (true) {
+            final PrioritizedCall next;
+            synchronized (this) {
+                if (running >= maxRequests) {
+                    return;
+                }
+                next = nextCall();
+                if (next == null) {
+                    return;
+                }
+                queued--;
+                running++;
+                hostSlots.acquire(next.host);
+            }
+            final long waitNanos = System.nanoTime() - next.enqueuedAt;
+            if (queueDeadlineNanos != NO_DEADLINE && waitNanos > queueDeadlineNanos) {
+                next.call.cancel();
+                listener.onDropped(next.priority, waitNanos);
+            } else {
+                listener.onDispatched(next.priority, waitNanos);
+            }
+            next.call.dispatch(() -> release(next.host));
+        }
+    }
+
+    /**
+     * Takes the call of highest priority among the hosts with a free slot.
+     *
+     * @return the call, null if no host can dispatch
+     */
+    private PrioritizedCall nextCall() {
+        Queue<PrioritizedCall> best = null;
+        for (Map.Entry<String, Queue<PrioritizedCall>> entry : queues.entrySet()) {
+            if (hostSlots.isFree(entry.getKey())
+                    && (best == null || entry.getValue().peek().compareTo(best.peek()) < 0)) {
+                best = entry.getValue();
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        final PrioritizedCall next = best.poll();
+        if (best.isEmpty()) {
+            queues.remove(next.host);
+        }
+        return next;
+    }
+
+    private void release(String host) {
+        synchronized (this) {
+            running--;
+            hostSlots.release(host);
+        }
+        dispatch();
+    }
+
+    /**
+     * Call ordered by priority, then by submission.
+     */
+    private static final class PrioritizedCall implements Comparable<PrioritizedCall> {
+
+        private final ScheduledCall call;
+        private final String host;
+        private final int priority;
+        private final long order;
+        private final long enqueuedAt = System.nanoTime();
+
+        private PrioritizedCall(ScheduledCall call, String host, int priority, long order) {
+            this.call = call;
+            this.host = host;
+            this.priority = priority;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(PrioritizedCall other) {
+            final int byPriority = Integer.compare(other.priority, priority);
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof PrioritizedCall prioritized && prioritized.order == order;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(order);
+        }
+    }
+}
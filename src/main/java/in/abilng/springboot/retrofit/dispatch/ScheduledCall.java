@@ -0,0 +1,129 @@
+package in.abilng.springboot.retrofit.dispatch;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Timeout;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link Call} of a {@link ScheduledCallFactory}.
+ * <br/>
+ * {@link #enqueue} hands the call to the scheduler, which enqueues it on the dispatcher once it is its turn; the
+ * scheduler is told when the callback returned, so that it can start the next call.
+ */
+final class ScheduledCall implements Call {
+
+    private final Call delegate;
+
+    private final CallScheduler scheduler;
+
+    private final AtomicBoolean enqueued = new AtomicBoolean();
+
+    private volatile Callback callback;
+
+    ScheduledCall(Call delegate, CallScheduler scheduler) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+    }
+
+    @NotNull
+    @Override
+    public Request request() {
+        return delegate.request();
+    }
+
+    @NotNull
+    @Override
+    public Response execute() throws IOException {
+        if (enqueued.get()) {
+            throw new IllegalStateException("Already Executed");
+        }
+        return delegate.execute();
+    }
+
+    @Override
+    public void enqueue(@NotNull Callback responseCallback) {
+        if (delegate.isExecuted() || !enqueued.compareAndSet(false, true)) {
+            throw new IllegalStateException("Already Executed");
+        }
+        this.callback = responseCallback;
+        scheduler.schedule(this);
+    }
+
+    /**
+     * Gets the host the dispatcher limits the call by.
+     *
+     * @return the host of the request
+     */
+    String host() {
+        return delegate.request().url().host();
+    }
+
+    /**
+     * Enqueues the call on the dispatcher of the client. A cancelled call is still enqueued so that its callback
+     * gets the failure.
+     *
+     * @param release called once the callback returned
+     */
+    void dispatch(Runnable release) {
+        delegate.enqueue(
+                new Callback() {
+                    @Override
+                    public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                        try {
+                            callback.onFailure(ScheduledCall.this, e);
+                        } finally {
+                            release.run();
+                        }
+                    }
+
+                    @Override
+                    public void onResponse(@NotNull Call call, @NotNull Response response) throws IOException {
+                        try {
+                            callback.onResponse(ScheduledCall.this, response);
+                        } finally {
+                            release.run();
+                        }
+                    }
+                });
+    }
+
+    @Override
+    public void cancel() {
+        delegate.cancel();
+    }
+
+    @Override
+    public boolean isExecuted() {
+        return enqueued.get() || delegate.isExecuted();
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return delegate.isCanceled();
+    }
+
+    @NotNull
+    @Override
+    public Timeout timeout() {
+        return delegate.timeout();
+    }
+
+    @NotNull
+    @Override
+    @SuppressFBWarnings("CN_IDIOM_NO_SUPER_CALL")
+    @SuppressWarnings("PMD.CloneMethodReturnTypeMustMatchClassName")
+    public Call clone() {
+        return new ScheduledCall(delegate.clone(), scheduler);
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduledCall[" + delegate + "]";
+    }
+}
@@ -0,0 +1,27 @@
+package in.abilng.springboot.retrofit.dispatch;
+
+import okhttp3.Call;
+import okhttp3.Request;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link Call.Factory} whose enqueued calls are held by a {@link CallScheduler} before they are enqueued on the
+ * dispatcher of the client. Executed calls are not scheduled.
+ */
+final class ScheduledCallFactory implements Call.Factory {
+
+    private final Call.Factory delegate;
+
+    private final CallScheduler scheduler;
+
+    ScheduledCallFactory(Call.Factory delegate, CallScheduler scheduler) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+    }
+
+    @NotNull
+    @Override
+    public Call newCall(@NotNull Request request) {
+        return new ScheduledCall(delegate.newCall(request), scheduler);
+    }
+}
@@ -0,0 +1,253 @@
+package in.abilng.springboot.retrofit.download;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import in.abilng.springboot.retrofit.resilience4j.internal.DelegateCall;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import org.jetbrains.annotations.NotNull;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Converter;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+/**
+ * Creates a Retrofit {@link CallAdapter.Factory} for methods returning {@code Call<Path>}, which stream the
+ * response body into a file instead of the heap.
+ * <br/>
+ * The file is given by a {@code @Tag DownloadTarget} parameter, or else a temporary file is created. The body is
+ * transferred from the okio source to a {@link FileChannel}, then its checksum is verified when one is given.
+ * Resumed downloads need the {@link DownloadRangeInterceptor} on the client, and append the {@code 206 Partial
+ * Content} of the range to the file.
+ * <br/>
+ * It must be the first call adapter factory, so that retries cover the transfer of the body, and the
+ * {@link #converterFactory()} must come before the other converter factories.
+ */
+public final class DownloadCallAdapter extends CallAdapter.Factory {
+
+    private static final int PARTIAL_CONTENT = 206;
+
+    private static final String BYTES_UNIT = "bytes ";
+
+    private static final int DIGEST_BUFFER_SIZE = 64 * 1024;
+
+    private DownloadCallAdapter() {}
+
+    /**
+     * Create a download call adapter.
+     *
+     * @return a {@link CallAdapter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static DownloadCallAdapter of() {
+        return new DownloadCallAdapter();
+    }
+
+    /**
+     * Create the converter factory giving the unbuffered response body to download calls.
+     *
+     * @return a {@link Converter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static Converter.Factory converterFactory() {
+        return new StreamingBodyConverterFactory();
+    }
+
+    /**
+     * Whether a method return type is a download.
+     *
+     * @param returnType the return type
+     * @return true for {@code Call<Path>}
+     */
+    public static boolean isDownload(Type returnType) {
+        return getRawType(returnType) == Call.class
+                && returnType instanceof ParameterizedType parameterizedType
+                && getParameterUpperBound(0, parameterizedType) == Path.class;
+    }
+
+    @Override
+    public CallAdapter<?, ?> get(Type returnType, Annotation[] annotations, Retrofit retrofit) {
+        @SuppressWarnings("unchecked")
+        CallAdapter<Object, Object> nextAdapter =
+                (CallAdapter<Object, Object>) retrofit.nextCallAdapter(this, returnType, annotations);
+
+        if (!isDownload(returnType)) {
+            return nextAdapter;
+        }
+
+        return new CallAdapter<StreamingBody, Object>() {
+            @Override
+            public Type responseType() {
+                return StreamingBody.class;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object adapt(Call<StreamingBody> call) {
+                return nextAdapter.adapt((Call<Object>) (Call<?>) new DownloadCall(call));
+            }
+        };
+    }
+
+    /**
+     * The response body, not buffered.
+     *
+     * @param body the body
+     */
+    record StreamingBody(ResponseBody body) {}
+
+    /**
+     * Converter factory of {@link StreamingBody}.
+     */
+    private static final class StreamingBodyConverterFactory extends Converter.Factory {
+        @Override
+        public Converter<ResponseBody, ?> responseBodyConverter(
+                @NotNull Type type, @NotNull Annotation[] annotations, @NotNull Retrofit retrofit) {
+            return type == StreamingBody.class ? StreamingBody::new : null;
+        }
+    }
+
+    /**
+     * Call writing the response body to the target file.
+     */
+    static final class DownloadCall extends DelegateCall<Path> {
+
+        private final Call<StreamingBody> call;
+
+        @SuppressWarnings("unchecked")
+        DownloadCall(Call<StreamingBody> call) {
+            super((Call<Path>) (Call<?>) call);
+            this.call = call;
+        }
+
+        @Override
+        public Response<Path> execute() throws IOException {
+            return download(call.execute());
+        }
+
+        @Override
+        public void enqueue(Callback<Path> callback) {
+            call.enqueue(
+                    new Callback<StreamingBody>() {
+                        @Override
+                        public void onResponse(Call<StreamingBody> attempt, Response<StreamingBody> response) {
+                            final Response<Path> downloaded;
+                            try {
+                                downloaded = download(response);
+                            } catch (IOException e) {
+                                callback.onFailure(DownloadCall.this, e);
+                                return;
+                            }
+                            callback.onResponse(DownloadCall.this, downloaded);
+                        }
+
+                        @Override
+                        public void onFailure(Call<StreamingBody> attempt, Throwable throwable) {
+                            callback.onFailure(DownloadCall.this, throwable);
+                        }
+                    });
+        }
+
+        private Response<Path> download(Response<StreamingBody> response) throws IOException {
+            if (!response.isSuccessful()) {
+                return Response.error(response.errorBody(), response.raw());
+            }
+            final DownloadTarget target = request().tag(DownloadTarget.class);
+            final Path file =
+                    target == null ? Files.createTempFile("retrofit", ".download") : target.getFile();
+            final long position =
+                    response.code() == PARTIAL_CONTENT ? rangeStart(response.headers().get("Content-Range")) : 0;
+            final StreamingBody streamingBody = response.body();
+            try (ResponseBody body = streamingBody == null ? null : streamingBody.body()) {
+                // 204 and 205 responses have no body, the file is emptied
+                transfer(body == null ? new Buffer() : body.source(), file, position);
+            } catch (IOException e) {
+                if (target == null) {
+                    Files.deleteIfExists(file);
+                }
+                throw e;
+            }
+            if (target != null && target.getChecksum() != null) {
+                verify(file, target.getChecksumAlgorithm(), target.getChecksum());
+            }
+            return Response.success(file, response.raw());
+        }
+
+        @Override
+        @SuppressWarnings({
+            "PMD.ProperCloneImplementation",
+            "PMD.CloneMethodReturnTypeMustMatchClassName"
+        })
+        @SuppressFBWarnings("CN_IDIOM_NO_SUPER_CALL")
+        public Call<Path> clone() {
+            return new DownloadCall(call.clone());
+        }
+    }
+
+    /**
+     * Transfers the source to the file from a position, truncating what follows.
+     */
+    static void transfer(BufferedSource source, Path file, long position) throws IOException {
+        try (FileChannel channel =
+                FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (position > channel.size()) {
+                throw new IOException("Range starting at %d is past the end of %s".formatted(position, file));
+            }
+            channel.truncate(position);
+            long written = position;
+            while (!source.exhausted()) {
+                // okio sources are channels, the buffered segments are copied without a heap array
+                written += channel.transferFrom(source, written, Long.MAX_VALUE);
+            }
+        }
+    }
+
+    /**
+     * Start of a {@code Content-Range: bytes start-end/size} header.
+     */
+    static long rangeStart(String contentRange) throws IOException {
+        final int dash = contentRange == null ? -1 : contentRange.indexOf('-');
+        if (dash < 0 || !contentRange.startsWith(BYTES_UNIT)) {
+            throw new IOException("Invalid Content-Range: " + contentRange);
+        }
+        try {
+            return Long.parseLong(contentRange.substring(BYTES_UNIT.length(), dash).trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid Content-Range: " + contentRange, e);
+        }
+    }
+
+    private static void verify(Path file, String algorithm, String expected) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Unsupported checksum algorithm " + algorithm, e);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(DIGEST_BUFFER_SIZE);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        final String actual = HexFormat.of().formatHex(digest.digest());
+        if (!actual.equalsIgnoreCase(expected)) {
+            Files.deleteIfExists(file);
+            throw new IOException("%s checksum of %s is %s, expected %s".formatted(algorithm, file, actual, expected));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package in.abilng.springboot.retrofit.download;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Interceptor requesting the missing range of a resumed download, from the size of its target file.
+ * <br/>
+ * As it is evaluated for every attempt, a retried download continues from where the previous attempt stopped.
+ */
+public class DownloadRangeInterceptor implements Interceptor {
+
+    /**
+     * The Range header.
+     */
+    static final String RANGE = "Range";
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        final Request request = chain.request();
+        final DownloadTarget target = request.tag(DownloadTarget.class);
+        if (target == null || !target.isResume() || request.header(RANGE) != null) {
+            return chain.proceed(request);
+        }
+        final long size = Files.exists(target.getFile()) ? Files.size(target.getFile()) : 0;
+        if (size == 0) {
+            return chain.proceed(request);
+        }
+        return chain.proceed(request.newBuilder().header(RANGE, "bytes=" + size + "-").build());
+    }
+}
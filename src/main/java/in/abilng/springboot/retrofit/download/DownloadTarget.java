@@ -0,0 +1,98 @@
+package in.abilng.springboot.retrofit.download;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Target file of a download, passed as a {@code @Tag DownloadTarget} parameter of a method returning
+ * {@code Call<Path>}.
+ * <br/>
+ * For example:
+ * <pre>
+ * &#64;GET("/artifacts/{name}")
+ * Call&lt;Path&gt; download(&#64;Path("name") String name, &#64;Tag DownloadTarget target);
+ *
+ * client.download("app.tar.gz", DownloadTarget.to(file).resume().verify("SHA-256", sha256)).execute();
+ * </pre>
+ */
+public final class DownloadTarget {
+
+    private final Path file;
+    private final boolean resuming;
+    private final String checksumAlgorithm;
+    private final String checksum;
+
+    private DownloadTarget(Path file, boolean resuming, String checksumAlgorithm, String checksum) {
+        this.file = Objects.requireNonNull(file, "file must be non null");
+        this.resuming = resuming;
+        this.checksumAlgorithm = checksumAlgorithm;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Download to a file, replacing its content.
+     *
+     * @param file the file
+     * @return the download target
+     */
+    public static DownloadTarget to(Path file) {
+        return new DownloadTarget(file, false, null, null);
+    }
+
+    /**
+     * Resume the download from the size of the existing file with a {@code Range} request. The file is replaced
+     * when the server does not support ranges.
+     *
+     * @return a download target resuming the download
+     */
+    public DownloadTarget resume() {
+        return new DownloadTarget(file, true, checksumAlgorithm, checksum);
+    }
+
+    /**
+     * Verify the checksum of the downloaded file. The file is deleted when it does not match.
+     *
+     * @param algorithm the {@link java.security.MessageDigest} algorithm, eg: SHA-256
+     * @param checksum  the expected checksum, hex encoded
+     * @return a download target verifying the checksum
+     */
+    public DownloadTarget verify(String algorithm, String checksum) {
+        return new DownloadTarget(file, resuming, algorithm, checksum);
+    }
+
+    /**
+     * The target file.
+     *
+     * @return the file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Whether to resume the download.
+     *
+     * @return true to resume
+     */
+    public boolean isResume() {
+        return resuming;
+    }
+
+    /**
+     * The checksum algorithm.
+     *
+     * @return the algorithm, null for no verification
+     */
+    public String getChecksumAlgorithm() {
+        return checksumAlgorithm;
+    }
+
+    /**
+     * The expected checksum, hex encoded.
+     *
+     * @return the checksum, null for no verification
+     */
+    public String getChecksum() {
+        return checksum;
+    }
+}
@@ -0,0 +1,16 @@
+package in.abilng.springboot.retrofit.fallback;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A successful response kept by the {@link StaleResponseStore}.
+ *
+ * @param body           the decoded body
+ * @param code           the status code
+ * @param message        the status message
+ * @param headers        the header names and values, alternating
+ * @param storedAtMillis the time the response was received
+ */
+public record StaleEntry(Object body, int code, String message, List<String> headers, long storedAtMillis)
+        implements Serializable {}
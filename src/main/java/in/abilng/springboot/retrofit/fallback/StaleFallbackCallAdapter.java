@@ -0,0 +1,313 @@
+package in.abilng.springboot.retrofit.fallback;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import in.abilng.springboot.retrofit.annotation.StaleFallback;
+import in.abilng.springboot.retrofit.resilience4j.internal.DelegateCall;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.retry.MaxRetriesExceededException;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Headers;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Invocation;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+/**
+ * Creates a Retrofit {@link CallAdapter.Factory} serving the last successful response of {@link StaleFallback}
+ * methods when the circuit breaker is open, the retries are exhausted, the call fails with an {@link IOException}
+ * or a server error.
+ * <br/>
+ * A response is kept per service method, url, request body, credentials ({@code Authorization},
+ * {@code Proxy-Authorization} and {@code Cookie}) and key headers, such as the propagated headers. Requests with a
+ * one-shot body are not kept.
+ * <br/>
+ * It must be added after the circuit breaker and retry call adapter factories, so that it only falls back once
+ * they gave up. Responses older than {@code maxStale} are not served. Served responses carry a
+ * {@code Warning: 110 - "Response is Stale"} and an {@code Age} header, see {@link #isStale(Response)}.
+ */
+public final class StaleFallbackCallAdapter extends CallAdapter.Factory {
+
+    /**
+     * Warning header of served stale responses.
+     */
+    public static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    private static final String WARNING = "Warning";
+
+    private static final String AGE = "Age";
+
+    private static final int SERVER_ERROR = 500;
+
+    /**
+     * Request headers always part of the key, the response to other credentials may differ.
+     */
+    private static final List<String> CREDENTIAL_HEADERS = List.of("Authorization", "Proxy-Authorization", "Cookie");
+
+    private final StaleResponseStore store;
+    private final long maxStaleMillis;
+    private final Clock clock;
+    private final List<String> keyHeaders;
+
+    private StaleFallbackCallAdapter(
+            StaleResponseStore store, Duration maxStale, Clock clock, Collection<String> keyHeaders) {
+        this.store = store;
+        this.maxStaleMillis = maxStale.toMillis();
+        this.clock = clock;
+        final List<String> headers = new ArrayList<>(CREDENTIAL_HEADERS);
+        keyHeaders.stream().filter(header -> !headers.contains(header)).forEach(headers::add);
+        this.keyHeaders = List.copyOf(headers);
+    }
+
+    /**
+     * Create a stale fallback call adapter.
+     *
+     * @param store    the store of last successful responses
+     * @param maxStale the maximum age of a served response
+     * @return a {@link CallAdapter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static StaleFallbackCallAdapter of(StaleResponseStore store, Duration maxStale) {
+        return of(store, maxStale, Clock.systemUTC());
+    }
+
+    /**
+     * Create a stale fallback call adapter.
+     *
+     * @param store    the store of last successful responses
+     * @param maxStale the maximum age of a served response
+     * @param clock    the clock of response ages
+     * @return a {@link CallAdapter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static StaleFallbackCallAdapter of(StaleResponseStore store, Duration maxStale, Clock clock) {
+        return new StaleFallbackCallAdapter(store, maxStale, clock, List.of());
+    }
+
+    /**
+     * Create a stale fallback call adapter.
+     *
+     * @param store      the store of last successful responses
+     * @param maxStale   the maximum age of a served response
+     * @param keyHeaders the request headers, besides the credentials, the responses are kept by
+     * @return a {@link CallAdapter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static StaleFallbackCallAdapter of(
+            StaleResponseStore store, Duration maxStale, Collection<String> keyHeaders) {
+        return new StaleFallbackCallAdapter(store, maxStale, Clock.systemUTC(), keyHeaders);
+    }
+
+    /**
+     * Whether a response was served from the stale fallback store.
+     *
+     * @param response the response
+     * @return true if the response is stale
+     */
+    public static boolean isStale(Response<?> response) {
+        return STALE_WARNING.equals(response.headers().get(WARNING));
+    }
+
+    @Override
+    public CallAdapter<?, ?> get(Type returnType, Annotation[] annotations, Retrofit retrofit) {
+        @SuppressWarnings("unchecked")
+        CallAdapter<Object, Object> nextAdapter =
+                (CallAdapter<Object, Object>) retrofit.nextCallAdapter(this, returnType, annotations);
+
+        if (!isAnnotated(annotations)) {
+            return nextAdapter;
+        }
+
+        return new CallAdapter<Object, Object>() {
+            @Override
+            public Type responseType() {
+                return nextAdapter.responseType();
+            }
+
+            @Override
+            public Object adapt(Call<Object> call) {
+                return nextAdapter.adapt(new StaleFallbackCall<>(call, nextAdapter.responseType()));
+            }
+        };
+    }
+
+    private static boolean isAnnotated(Annotation... annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof StaleFallback) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Key of a request, the same url of different methods may decode to different types.
+     *
+     * @return the key, null if the request body can not be read again
+     */
+    private String keyOf(Request request) {
+        final Invocation invocation = request.tag(Invocation.class);
+        final StringBuilder key =
+                new StringBuilder(invocation == null ? "" : invocation.method().toGenericString())
+                        .append(' ')
+                        .append(request.method())
+                        .append(' ')
+                        .append(request.url());
+        for (String header : keyHeaders) {
+            for (String value : request.headers(header)) {
+                key.append('\n').append(header).append(": ").append(value);
+            }
+        }
+        final RequestBody body = request.body();
+        if (body != null) {
+            if (body.isOneShot() || body.isDuplex()) {
+                return null;
+            }
+            try (Buffer buffer = new Buffer()) {
+                body.writeTo(buffer);
+                key.append('\n').append(buffer.sha256().hex());
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        return key.toString();
+    }
+
+    private static boolean isFallbackFor(Throwable throwable) {
+        return throwable instanceof IOException
+                || throwable instanceof CallNotPermittedException
+                || throwable instanceof MaxRetriesExceededException;
+    }
+
+    /**
+     * Call storing successful responses and serving them when it fails.
+     *
+     * @param <T> the response type parameter
+     */
+    final class StaleFallbackCall<T> extends DelegateCall<T> {
+
+        /**
+         * The body type, the only type besides the entry read back from a spilled file.
+         */
+        private final Type responseType;
+
+        StaleFallbackCall(Call<T> delegate, Type responseType) {
+            super(delegate);
+            this.responseType = responseType;
+        }
+
+        @Override
+        public Response<T> execute() throws IOException {
+            final Response<T> response;
+            try {
+                response = delegate.execute();
+            } catch (IOException | CallNotPermittedException | MaxRetriesExceededException e) {
+                final Optional<Response<T>> stale = stale();
+                if (stale.isPresent()) {
+                    return stale.get();
+                }
+                throw e;
+            }
+            return onResponse(response);
+        }
+
+        @Override
+        public void enqueue(Callback<T> callback) {
+            delegate.enqueue(
+                    new Callback<T>() {
+                        @Override
+                        public void onResponse(Call<T> call, Response<T> response) {
+                            callback.onResponse(call, StaleFallbackCall.this.onResponse(response));
+                        }
+
+                        @Override
+                        public void onFailure(Call<T> call, Throwable throwable) {
+                            final Optional<Response<T>> stale =
+                                    isFallbackFor(throwable) ? stale() : Optional.empty();
+                            if (stale.isPresent()) {
+                                callback.onResponse(call, stale.get());
+                            } else {
+                                callback.onFailure(call, throwable);
+                            }
+                        }
+                    });
+        }
+
+        private Response<T> onResponse(Response<T> response) {
+            final String key = keyOf(request());
+            if (key != null && response.isSuccessful() && response.body() != null) {
+                final Headers headers = response.headers();
+                final List<String> namesAndValues = new ArrayList<>(headers.size() * 2);
+                headers.forEach(
+                        header -> {
+                            namesAndValues.add(header.getFirst());
+                            namesAndValues.add(header.getSecond());
+                        });
+                store.put(
+                        key,
+                        new StaleEntry(
+                                response.body(),
+                                response.code(),
+                                response.message(),
+                                List.copyOf(namesAndValues),
+                                clock.millis()));
+                return response;
+            }
+            if (response.code() >= SERVER_ERROR) {
+                return stale().orElse(response);
+            }
+            return response;
+        }
+
+        private Optional<Response<T>> stale() {
+            final String key = keyOf(request());
+            if (key == null || isCanceled()) {
+                return Optional.empty();
+            }
+            final long now = clock.millis();
+            return store.get(key, responseType)
+                    .filter(entry -> now - entry.storedAtMillis() <= maxStaleMillis)
+                    .map(entry -> toResponse(entry, now));
+        }
+
+        @SuppressWarnings("unchecked")
+        private Response<T> toResponse(StaleEntry entry, long now) {
+            final Headers headers =
+                    Headers.of(entry.headers().toArray(String[]::new))
+                            .newBuilder()
+                            .set(WARNING, STALE_WARNING)
+                            .set(AGE, String.valueOf(TimeUnit.MILLISECONDS.toSeconds(now - entry.storedAtMillis())))
+                            .build();
+            final okhttp3.Response rawResponse =
+                    new okhttp3.Response.Builder()
+                            .request(request())
+                            .protocol(Protocol.HTTP_1_1)
+                            .code(entry.code())
+                            .message(entry.message())
+                            .headers(headers)
+                            .build();
+            return Response.success((T) entry.body(), rawResponse);
+        }
+
+        @Override
+        @SuppressWarnings({
+            "PMD.ProperCloneImplementation",
+            "PMD.CloneMethodReturnTypeMustMatchClassName"
+        })
+        @SuppressFBWarnings("CN_IDIOM_NO_SUPER_CALL")
+        public Call<T> clone() {
+            return new StaleFallbackCall<>(delegate.clone(), responseType);
+        }
+    }
+}
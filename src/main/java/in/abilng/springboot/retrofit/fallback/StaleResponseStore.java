@@ -0,0 +1,331 @@
+package in.abilng.springboot.retrofit.fallback;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded store of the last successful responses of a service, least recently used first out.
+ * <br/>
+ * When a spill directory is given, entries evicted from memory are written there if their body is
+ * {@link Serializable}, and read back on a miss. The directory is bounded to {@code maxDiskEntries} files. Files
+ * left by a previous run are served as well, so the last known good response survives a restart.
+ * <br/>
+ * The directory must be private to the application, only it may read or write there: the files hold response
+ * bodies and are deserialized. Credential headers, such as {@code Set-Cookie} and {@code WWW-Authenticate}, are not
+ * written, and a file is read back through a filter rejecting any class besides the entry, its headers and the
+ * classes declared by the expected body type.
+ */
+@Slf4j
+public final class StaleResponseStore {
+
+    private static final String SUFFIX = ".stale";
+
+    /**
+     * Headers carrying credentials, lower case, left out of spilled entries.
+     */
+    private static final Set<String> CREDENTIAL_HEADERS =
+            Set.of(
+                    "authorization",
+                    "cookie",
+                    "proxy-authenticate",
+                    "proxy-authorization",
+                    "set-cookie",
+                    "set-cookie2",
+                    "www-authenticate");
+
+    /**
+     * Classes of a spilled entry besides its body, {@code Object} standing for the array of the header list.
+     */
+    private static final Set<Class<?>> ENTRY_CLASSES =
+            Set.of(StaleEntry.class, ArrayList.class, String.class, Object.class);
+
+    private final Map<String, StaleEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final int maxEntries;
+
+    private final Path spillDirectory;
+
+    private final int maxDiskEntries;
+
+    /**
+     * Spilled files, oldest first.
+     */
+    private final Deque<Path> spilled = new ArrayDeque<>();
+
+    /**
+     * Deserialization filters by body type.
+     */
+    private final Map<Type, ObjectInputFilter> filters = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new in memory Stale response store.
+     *
+     * @param maxEntries the maximum number of entries kept in memory
+     */
+    public StaleResponseStore(int maxEntries) {
+        this(maxEntries, null, 0);
+    }
+
+    /**
+     * Instantiates a new Stale response store spilling to disk.
+     *
+     * @param maxEntries     the maximum number of entries kept in memory
+     * @param spillDirectory the directory of evicted entries, null to not spill
+     * @param maxDiskEntries the maximum number of entries kept on disk
+     */
+    public StaleResponseStore(int maxEntries, Path spillDirectory, int maxDiskEntries) {
+        this.maxEntries = maxEntries;
+        this.spillDirectory = spillDirectory;
+        this.maxDiskEntries = maxDiskEntries;
+        if (spillDirectory != null) {
+            loadSpilled();
+        }
+    }
+
+    /**
+     * Stores the last successful response of a request.
+     *
+     * @param key   the request key
+     * @param entry the entry
+     */
+    public void put(String key, StaleEntry entry) {
+        Map.Entry<String, StaleEntry> evicted = null;
+        synchronized (entries) {
+            entries.put(key, entry);
+            if (entries.size() > maxEntries) {
+                final Iterator<Map.Entry<String, StaleEntry>> eldest = entries.entrySet().iterator();
+                evicted = eldest.next();
+                eldest.remove();
+            }
+        }
+        // written outside the lock, evictions do not hold back other calls
+        if (evicted != null && spillDirectory != null && evicted.getValue().body() instanceof Serializable) {
+            spill(evicted.getKey(), evicted.getValue());
+        }
+    }
+
+    /**
+     * Gets the last successful response of a request, reading back spilled {@code String} bodies only.
+     *
+     * @param key the request key
+     * @return the entry, if any
+     */
+    public Optional<StaleEntry> get(String key) {
+        return get(key, String.class);
+    }
+
+    /**
+     * Gets the last successful response of a request.
+     *
+     * @param key      the request key
+     * @param bodyType the body type, the classes it declares are the only ones read back from a spilled entry
+     * @return the entry, if any
+     */
+    public Optional<StaleEntry> get(String key, Type bodyType) {
+        synchronized (entries) {
+            final StaleEntry entry = entries.get(key);
+            if (entry != null) {
+                return Optional.of(entry);
+            }
+        }
+        return spillDirectory == null ? Optional.empty() : readSpilled(key, bodyType);
+    }
+
+    /**
+     * Number of entries kept in memory.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void spill(String key, StaleEntry entry) {
+        final Path file = fileOf(key);
+        try {
+            final Path temp = Files.createTempFile(spillDirectory, null, null);
+            try (OutputStream out = Files.newOutputStream(temp);
+                    ObjectOutputStream objects = new ObjectOutputStream(out)) {
+                objects.writeObject(withoutCredentials(entry));
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Unable to spill stale response to {}", file, e);
+            return;
+        }
+        Path removed = null;
+        synchronized (spilled) {
+            spilled.remove(file);
+            spilled.addLast(file);
+            if (spilled.size() > maxDiskEntries) {
+                removed = spilled.removeFirst();
+            }
+        }
+        if (removed != null) {
+            delete(removed);
+        }
+    }
+
+    private Optional<StaleEntry> readSpilled(String key, Type bodyType) {
+        final Path file = fileOf(key);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try (InputStream in = Files.newInputStream(file);
+                ObjectInputStream objects = new ObjectInputStream(in)) {
+            objects.setObjectInputFilter(filters.computeIfAbsent(bodyType, StaleResponseStore::filterOf));
+            return Optional.of((StaleEntry) objects.readObject());
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            log.warn("Unable to read stale response from {}", file, e);
+            delete(file);
+            return Optional.empty();
+        }
+    }
+
+    private static StaleEntry withoutCredentials(StaleEntry entry) {
+        final List<String> namesAndValues = entry.headers();
+        final List<String> headers = new ArrayList<>(namesAndValues.size());
+        for (int i = 0; i + 1 < namesAndValues.size(); i += 2) {
+            if (!CREDENTIAL_HEADERS.contains(namesAndValues.get(i).toLowerCase(Locale.ROOT))) {
+                headers.add(namesAndValues.get(i));
+                headers.add(namesAndValues.get(i + 1));
+            }
+        }
+        return new StaleEntry(entry.body(), entry.code(), entry.message(), headers, entry.storedAtMillis());
+    }
+
+    /**
+     * Filter allowing the entry classes and the classes declared by the body type.
+     */
+    private static ObjectInputFilter filterOf(Type bodyType) {
+        final Set<Class<?>> allowed = new HashSet<>(ENTRY_CLASSES);
+        addClasses(bodyType, allowed);
+        return info -> {
+            Class<?> serialClass = info.serialClass();
+            if (serialClass == null) {
+                return ObjectInputFilter.Status.UNDECIDED;
+            }
+            while (serialClass.isArray()) {
+                serialClass = serialClass.getComponentType();
+            }
+            return serialClass.isPrimitive() || allowed.contains(serialClass)
+                    ? ObjectInputFilter.Status.ALLOWED
+                    : ObjectInputFilter.Status.REJECTED;
+        };
+    }
+
+    /**
+     * Adds the classes of a type, its type arguments, its serializable superclasses and, outside of the JDK, the
+     * types of its serialized fields. Type variables are not resolved.
+     */
+    private static void addClasses(Type type, Set<Class<?>> classes) {
+        if (type instanceof ParameterizedType parameterized) {
+            addClasses(parameterized.getRawType(), classes);
+            for (Type argument : parameterized.getActualTypeArguments()) {
+                addClasses(argument, classes);
+            }
+        } else if (type instanceof GenericArrayType array) {
+            addClasses(array.getGenericComponentType(), classes);
+        } else if (type instanceof WildcardType wildcard) {
+            for (Type bound : wildcard.getUpperBounds()) {
+                addClasses(bound, classes);
+            }
+        } else if (type instanceof Class<?> clazz) {
+            Class<?> component = clazz;
+            while (component.isArray()) {
+                component = component.getComponentType();
+            }
+            if (!classes.add(component)) {
+                return;
+            }
+            final Class<?> superclass = component.getSuperclass();
+            if (superclass != null && Serializable.class.isAssignableFrom(superclass)) {
+                addClasses(component.getGenericSuperclass(), classes);
+            }
+            if (!component.getName().startsWith("java.")) {
+                for (Field field : component.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
+                        addClasses(field.getGenericType(), classes);
+                    }
+                }
+            }
+        }
+    }
+
+    private void loadSpilled() {
+        try {
+            Files.createDirectories(spillDirectory);
+            try (Stream<Path> files = Files.list(spillDirectory)) {
+                files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                        .sorted(Comparator.comparing(StaleResponseStore::lastModified))
+                        .forEach(spilled::addLast);
+            }
+        } catch (IOException e) {
+            log.warn("Unable to list stale responses of {}", spillDirectory, e);
+        }
+        while (spilled.size() > maxDiskEntries) {
+            delete(spilled.removeFirst());
+        }
+    }
+
+    private Path fileOf(String key) {
+        try {
+            final byte[] digest =
+                    MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return spillDirectory.resolve(HexFormat.of().formatHex(digest) + SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Unable to delete stale response {}", file, e);
+        }
+    }
+}
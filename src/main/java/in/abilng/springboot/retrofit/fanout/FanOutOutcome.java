@@ -0,0 +1,34 @@
+package in.abilng.springboot.retrofit.fanout;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * The outcome of one call of a fan-out.
+ *
+ * @param <T>      the response body type
+ * @param index    the position of the call in the fanned out calls
+ * @param call     the call
+ * @param response the response, null when the call failed
+ * @param failure  the failure, null when a response was received
+ */
+public record FanOutOutcome<T>(int index, Call<T> call, Response<T> response, Throwable failure) {
+
+    /**
+     * Whether a successful response was received.
+     *
+     * @return true if the response is successful
+     */
+    public boolean isSuccessful() {
+        return response != null && response.isSuccessful();
+    }
+
+    /**
+     * The body of the response.
+     *
+     * @return the body, null when the call failed or the response is not successful
+     */
+    public T body() {
+        return response == null ? null : response.body();
+    }
+}
@@ -0,0 +1,41 @@
+package in.abilng.springboot.retrofit.fanout;
+
+import java.util.List;
+
+/**
+ * The gathered outcomes of a fan-out, in completion order.
+ *
+ * @param <T>           the response body type
+ * @param outcomes      the outcomes of the completed calls
+ * @param calls         the number of fanned out calls
+ * @param quorumReached whether the required number of successful responses was received
+ */
+public record FanOutResult<T>(List<FanOutOutcome<T>> outcomes, int calls, boolean quorumReached) {
+
+    /**
+     * Whether every call completed before the deadline or quorum.
+     *
+     * @return true if complete
+     */
+    public boolean isComplete() {
+        return outcomes.size() == calls;
+    }
+
+    /**
+     * The bodies of the successful responses.
+     *
+     * @return the bodies
+     */
+    public List<T> successes() {
+        return outcomes.stream().filter(FanOutOutcome::isSuccessful).map(FanOutOutcome::body).toList();
+    }
+
+    /**
+     * The outcomes of the failed calls and unsuccessful responses.
+     *
+     * @return the failures
+     */
+    public List<FanOutOutcome<T>> failures() {
+        return outcomes.stream().filter(outcome -> !outcome.isSuccessful()).toList();
+    }
+}
@@ -0,0 +1,258 @@
+package in.abilng.springboot.retrofit.fanout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.springframework.util.Assert;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Runs many calls, e.g. the same method for many ids, with bounded concurrency and an overall deadline.
+ * <br/>
+ * Calls are enqueued, at most {@code maxConcurrency} at a time over all fan-outs of this instance, so an instance
+ * per service bounds the load on that service. Outcomes are returned as the calls complete. Once the deadline has
+ * passed, the quorum is reached or the stream is closed, calls in flight are cancelled and the others are not sent.
+ * <br/>
+ * For example:
+ * <br/>
+ * <code>
+ * FanOutResult&lt;Book&gt; result = fanOut.gather(ids.stream().map(client::book).toList(), 3);
+ * </code>
+ */
+public final class RetrofitFanOut {
+
+    private static final long NO_DEADLINE = 0;
+
+    private final Semaphore permits;
+
+    private final Duration deadline;
+
+    private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+
+    private RetrofitFanOut(int maxConcurrency, Duration deadline) {
+        this.permits = new Semaphore(maxConcurrency);
+        this.deadline = deadline;
+    }
+
+    /**
+     * Creates a fan-out.
+     *
+     * @param maxConcurrency the maximum number of calls in flight
+     * @param deadline       the time after which the remaining calls of a fan-out are cancelled, null for no limit
+     * @return the retrofit fan-out
+     */
+    public static RetrofitFanOut of(int maxConcurrency, Duration deadline) {
+        Assert.isTrue(maxConcurrency > 0, "maxConcurrency must be > 0");
+        Assert.isTrue(deadline == null || !(deadline.isNegative() || deadline.isZero()), "deadline must be positive");
+        return new RetrofitFanOut(maxConcurrency, deadline);
+    }
+
+    /**
+     * Runs the calls and returns their outcomes as they complete.
+     * <br/>
+     * The stream ends when every call completed or at the deadline. Closing the stream cancels the calls that are
+     * still running.
+     *
+     * @param <T>   the response body type
+     * @param calls the calls, not yet executed
+     * @return the stream of outcomes, in completion order
+     */
+    public <T> Stream<FanOutOutcome<T>> stream(Collection<? extends Call<T>> calls) {
+        final Execution<T> execution = new Execution<>(List.copyOf(calls));
+        execution.start();
+        return StreamSupport.stream(execution, false).onClose(execution::close);
+    }
+
+    /**
+     * Runs the calls and waits for all of them, or until the deadline.
+     *
+     * @param <T>   the response body type
+     * @param calls the calls, not yet executed
+     * @return the outcomes of the calls completed by the deadline, the quorum is reached when all are successful
+     */
+    public <T> FanOutResult<T> gather(Collection<? extends Call<T>> calls) {
+        try (Stream<FanOutOutcome<T>> stream = stream(calls)) {
+            final List<FanOutOutcome<T>> outcomes = stream.toList();
+            return new FanOutResult<>(
+                    outcomes,
+                    calls.size(),
+                    outcomes.size() == calls.size() && outcomes.stream().allMatch(FanOutOutcome::isSuccessful));
+        }
+    }
+
+    /**
+     * Runs the calls until {@code quorum} successful responses are received, the quorum can no longer be reached,
+     * or the deadline. The remaining calls are cancelled.
+     *
+     * @param <T>    the response body type
+     * @param calls  the calls, not yet executed
+     * @param quorum the number of successful responses to wait for
+     * @return the outcomes of the calls completed before the quorum or deadline
+     */
+    public <T> FanOutResult<T> gather(Collection<? extends Call<T>> calls, int quorum) {
+        final List<FanOutOutcome<T>> outcomes = new ArrayList<>();
+        int successes = 0;
+        try (Stream<FanOutOutcome<T>> stream = stream(calls)) {
+            final Iterator<FanOutOutcome<T>> iterator = stream.iterator();
+            while (successes < quorum && iterator.hasNext()) {
+                final FanOutOutcome<T> outcome = iterator.next();
+                outcomes.add(outcome);
+                if (outcome.isSuccessful()) {
+                    successes++;
+                } else if (successes + calls.size() - outcomes.size() < quorum) {
+                    break;
+                }
+            }
+        }
+        return new FanOutResult<>(List.copyOf(outcomes), calls.size(), successes >= quorum);
+    }
+
+    /**
+     * Sends pending calls while permits are available.
+     */
+    private void drain() {
+        while (!pending.isEmpty() && permits.tryAcquire()) {
+            final Pending next = pending.poll();
+            if (next == null || !next.execution().send(next.index())) {
+                permits.release();
+            }
+        }
+    }
+
+    private void release() {
+        permits.release();
+        drain();
+    }
+
+    /**
+     * A call waiting for a permit.
+     */
+    private record Pending(Execution<?> execution, int index) {}
+
+    /**
+     * The calls of one fan-out, consumed in completion order.
+     */
+    private final class Execution<T> implements Spliterator<FanOutOutcome<T>> {
+
+        private final List<Call<T>> calls;
+
+        private final long deadlineNanos;
+
+        private final BlockingQueue<FanOutOutcome<T>> completed = new LinkedBlockingQueue<>();
+
+        private final Set<Call<T>> inFlight = ConcurrentHashMap.newKeySet();
+
+        private volatile boolean closed;
+
+        private int received;
+
+        @SuppressWarnings("unchecked")
+        private Execution(List<? extends Call<T>> calls) {
+            this.calls = (List<Call<T>>) calls;
+            this.deadlineNanos = deadline == null ? NO_DEADLINE : System.nanoTime() + deadline.toNanos();
+        }
+
+        private void start() {
+            for (int index = 0; index < calls.size(); index++) {
+                pending.add(new Pending(this, index));
+            }
+            drain();
+        }
+
+        /**
+         * Enqueues a call, unless the fan-out is closed.
+         *
+         * @return true if the call was enqueued and holds a permit
+         */
+        private boolean send(int index) {
+            final Call<T> call = calls.get(index);
+            inFlight.add(call);
+            if (closed) {
+                inFlight.remove(call);
+                return false;
+            }
+            // the callback may be given another call, such as the last attempt of a retried call
+            call.enqueue(
+                    new Callback<>() {
+                        @Override
+                        public void onResponse(Call<T> attempt, Response<T> response) {
+                            complete(new FanOutOutcome<>(index, call, response, null));
+                        }
+
+                        @Override
+                        public void onFailure(Call<T> attempt, Throwable failure) {
+                            complete(new FanOutOutcome<>(index, call, null, failure));
+                        }
+                    });
+            return true;
+        }
+
+        private void complete(FanOutOutcome<T> outcome) {
+            inFlight.remove(outcome.call());
+            completed.add(outcome);
+            release();
+        }
+
+        private void close() {
+            closed = true;
+            pending.removeIf(next -> equals(next.execution()));
+            inFlight.forEach(Call::cancel);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super FanOutOutcome<T>> action) {
+            if (closed || received == calls.size()) {
+                return false;
+            }
+            final FanOutOutcome<T> outcome;
+            try {
+                outcome =
+                        deadlineNanos == NO_DEADLINE
+                                ? completed.take()
+                                : completed.poll(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                return false;
+            }
+            if (outcome == null) {
+                close();
+                return false;
+            }
+            received++;
+            action.accept(outcome);
+            return true;
+        }
+
+        @Override
+        public Spliterator<FanOutOutcome<T>> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return calls.size() - received;
+        }
+
+        @Override
+        public int characteristics() {
+            return NONNULL;
+        }
+    }
+}
@@ -3,7 +3,6 @@ package in.abilng.springboot.retrofit.interceptor;
 import jakarta.servlet.http.HttpServletRequest;
 import java.io.IOException;
 import java.util.List;
-import java.util.Optional;
 import lombok.NonNull;
 import okhttp3.Interceptor;
 import okhttp3.Request;
@@ -14,6 +13,9 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 
 /**
  * okHttp Interceptor to pass through auth Headers.
+ * <br/>
+ * The header is read on the thread executing the interceptor, so it is only found for synchronous calls.
+ * Prefer {@code retrofit.services.<name>.propagate-headers}, which captures headers when the call is created.
  */
 public class AuthorizationInterceptor implements Interceptor {
     private static final List<String> PASS_THROUGH_HEADERS = List.of("Authorization");
@@ -22,24 +24,28 @@ public class AuthorizationInterceptor implements Interceptor {
     @Override
     public Response intercept(@NonNull Interceptor.Chain chain) throws IOException {
         final Request request = chain.request();
-        final Request.Builder newRequestBuilder = request.newBuilder();
-        PASS_THROUGH_HEADERS.stream()
-                .filter(header -> Optional.ofNullable(request.header(header)).isEmpty())
-                .forEach(header -> setHeader(header, newRequestBuilder));
-        return chain.proceed(newRequestBuilder.build());
-    }
-
-    private static void setHeader(String header, Request.Builder newRequestBuilder) {
-        getRequestHeader(header).ifPresent(value -> newRequestBuilder.addHeader(header, value));
+        Request.Builder newRequestBuilder = null;
+        for (String header : PASS_THROUGH_HEADERS) {
+            if (request.header(header) == null) {
+                final String value = getRequestHeader(header);
+                if (value != null) {
+                    if (newRequestBuilder == null) {
+                        newRequestBuilder = request.newBuilder();
+                    }
+                    newRequestBuilder.addHeader(header, value);
+                }
+            }
+        }
+        return chain.proceed(newRequestBuilder == null ? request : newRequestBuilder.build());
     }
 
-    private static Optional<String> getRequestHeader(String key) {
+    private static String getRequestHeader(String key) {
         RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
-        if (attributes != null) {
-            HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
-            return Optional.ofNullable(request.getHeader(key));
+        if (attributes instanceof ServletRequestAttributes servletRequestAttributes) {
+            HttpServletRequest request = servletRequestAttributes.getRequest();
+            return request.getHeader(key);
         } else {
-            return Optional.empty();
+            return null;
         }
     }
 
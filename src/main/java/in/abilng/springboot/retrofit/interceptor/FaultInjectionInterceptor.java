@@ -0,0 +1,158 @@
+package in.abilng.springboot.retrofit.interceptor;
+
+import in.abilng.springboot.retrofit.config.RetroFitProperties;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.NonNull;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import retrofit2.Invocation;
+
+/**
+ * okHttp Interceptor injecting latency, error responses, connection resets and truncated bodies, to reproduce
+ * slow and flaky backends in load tests.
+ * <br/>
+ * Faults are drawn independently at the configured rates for each attempt, with the faults of the Retrofit
+ * method when configured, else the default faults of the service. Error responses and resets are injected
+ * without sending the request.
+ */
+public class FaultInjectionInterceptor implements Interceptor {
+
+    private static final long SLEEP_SLICE_MILLIS = 10;
+
+    private static final String INJECTED = "Injected fault";
+
+    private final RetroFitProperties.FaultInjectionProperties properties;
+
+    /**
+     * Instantiates a new Fault injection interceptor.
+     *
+     * @param properties the fault injection properties
+     */
+    public FaultInjectionInterceptor(RetroFitProperties.FaultInjectionProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Distribution of injected latencies.
+     */
+    public enum LatencyDistribution {
+        /**
+         * Uniform between the minimum and maximum latency.
+         */
+        UNIFORM,
+        /**
+         * The minimum latency with an exponential tail, a quarter of the range on average, capped at the maximum.
+         */
+        EXPONENTIAL
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Interceptor.Chain chain) throws IOException {
+        final Request request = chain.request();
+        final RetroFitProperties.FaultProperties faults = faultsOf(request);
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        if (random.nextDouble() < faults.getLatencyRate()) {
+            sleep(chain, latencyMillis(faults, random));
+        }
+        if (random.nextDouble() < faults.getResetRate()) {
+            throw new SocketException("Connection reset (" + INJECTED + ")");
+        }
+        if (random.nextDouble() < faults.getErrorRate()) {
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(faults.getErrorCode())
+                    .message(INJECTED)
+                    .body(ResponseBody.create(INJECTED, MediaType.get("text/plain")))
+                    .build();
+        }
+        final Response response = chain.proceed(request);
+        if (random.nextDouble() < faults.getTruncateRate() && response.body() != null) {
+            return truncate(response);
+        }
+        return response;
+    }
+
+    private RetroFitProperties.FaultProperties faultsOf(Request request) {
+        final Invocation invocation = request.tag(Invocation.class);
+        final RetroFitProperties.FaultProperties methodFaults =
+                invocation == null ? null : properties.getMethods().get(invocation.method().getName());
+        return methodFaults == null ? properties.getDefaults() : methodFaults;
+    }
+
+    private static long latencyMillis(RetroFitProperties.FaultProperties faults, ThreadLocalRandom random) {
+        final long min = faults.getLatencyMin().toMillis();
+        final long max = Math.max(min, faults.getLatencyMax().toMillis());
+        if (faults.getLatencyDistribution() == LatencyDistribution.EXPONENTIAL) {
+            final double mean = (max - min) / 4.0;
+            return Math.min(max, min + (long) (-mean * Math.log(1 - random.nextDouble())));
+        }
+        return min + (long) (random.nextDouble() * (max - min));
+    }
+
+    /**
+     * Sleeps in slices, so that a cancelled or timed out call does not wait for the whole latency.
+     */
+    private static void sleep(Interceptor.Chain chain, long millis) throws IOException {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        try {
+            long remaining = millis;
+            while (remaining > 0) {
+                if (chain.call().isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+                Thread.sleep(Math.min(remaining, SLEEP_SLICE_MILLIS));
+                remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException exception = new InterruptedIOException("Interrupted while injecting latency");
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
+    /**
+     * The response with a body ending after half of its content length, with an unexpected end of stream.
+     * The original body is closed with the truncated one.
+     */
+    @SuppressWarnings("PMD.CloseResource")
+    private static Response truncate(Response response) {
+        final ResponseBody body = response.body();
+        final long limit = Math.max(0, body.contentLength() / 2);
+        final BufferedSource truncated =
+                Okio.buffer(
+                        new ForwardingSource(body.source()) {
+                            private long remaining = limit;
+
+                            @Override
+                            public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+                                if (remaining == 0) {
+                                    throw new IOException("unexpected end of stream (" + INJECTED + ")");
+                                }
+                                final long read = super.read(sink, Math.min(byteCount, remaining));
+                                if (read > 0) {
+                                    remaining -= read;
+                                }
+                                return read;
+                            }
+                        });
+        return response.newBuilder()
+                .body(ResponseBody.create(truncated, body.contentType(), body.contentLength()))
+                .build();
+    }
+}
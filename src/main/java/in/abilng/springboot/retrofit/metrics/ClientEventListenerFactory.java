@@ -0,0 +1,113 @@
+package in.abilng.springboot.retrofit.metrics;
+
+import in.abilng.springboot.retrofit.core.MethodMetadata;
+import in.abilng.springboot.retrofit.core.MethodMetadataRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link EventListener.Factory} of a Retrofit client.
+ * <br/>
+ * Sampled calls get a {@link PhaseEventListener}; the others share the {@link DispatcherQueueTimer},
+ * so unsampled calls do not allocate a listener. The events are also forwarded to the listener the client builder
+ * already had.
+ * <br/>
+ * As the last application interceptor, it starts the first exchange of the sampled calls. Listeners are only
+ * tracked from the start to the end of their call, as calls are also created without being run, for instance by
+ * Retrofit to read the request of a call.
+ */
+class ClientEventListenerFactory implements EventListener.Factory, Interceptor {
+
+    private final String name;
+
+    private final MeterRegistry registry;
+
+    private final DispatcherQueueTimer queueTimer;
+
+    private final double sampleRate;
+
+    private final EventListener.Factory delegate;
+
+    private final Map<String, PhaseMeters> meters = new ConcurrentHashMap<>();
+
+    private final Map<Call, PhaseEventListener> running = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Client event listener factory.
+     *
+     * @param name       the Retrofit client name
+     * @param registry   the meter registry
+     * @param queueTimer the dispatcher queue timer of the client
+     * @param sampleRate the fraction of calls for which phases are recorded
+     * @param delegate   the listener factory of the client builder
+     */
+    ClientEventListenerFactory(
+            String name,
+            MeterRegistry registry,
+            DispatcherQueueTimer queueTimer,
+            double sampleRate,
+            EventListener.Factory delegate) {
+        this.name = name;
+        this.registry = registry;
+        this.queueTimer = queueTimer;
+        this.sampleRate = sampleRate;
+        this.delegate = delegate;
+    }
+
+    @NotNull
+    @Override
+    public EventListener create(@NotNull Call call) {
+        final EventListener metrics = metricsListener(call);
+        final EventListener configured = delegate.create(call);
+        return EventListener.NONE.equals(configured) ? metrics : new CompositeEventListener(metrics, configured);
+    }
+
+    private EventListener metricsListener(Call call) {
+        if (sampleRate <= 0 || sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return queueTimer;
+        }
+        final MethodMetadata metadata = MethodMetadataRegistry.getInstance().get(call.request());
+        final String method = metadata == null ? MethodMetadata.UNKNOWN : metadata.methodName();
+        final PhaseEventListener listener =
+                new PhaseEventListener(
+                        queueTimer,
+                        meters.computeIfAbsent(
+                                method,
+                                key ->
+                                        PhaseMeters.register(
+                                                registry,
+                                                Tags.of(
+                                                        OkHttpClientMetrics.CLIENT_TAG, name,
+                                                        OkHttpClientMetrics.METHOD_TAG, key))),
+                        running);
+        return listener;
+    }
+
+    /**
+     * Gets the number of sampled calls running.
+     *
+     * @return the number of running calls holding a phase listener
+     */
+    int getRunningCount() {
+        return running.size();
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        final PhaseEventListener listener = running.get(chain.call());
+        if (listener != null) {
+            listener.exchangeStart();
+        }
+        return chain.proceed(chain.request());
+    }
+}
@@ -0,0 +1,225 @@
+package in.abilng.springboot.retrofit.metrics;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@link EventListener} forwarding the events of a call to the listener recording the client metrics, then to
+ * the listener of the client builder the metrics were added to.
+ */
+@SuppressWarnings("PMD.ExcessivePublicCount")
+class CompositeEventListener extends EventListener {
+
+    private final EventListener metrics;
+
+    private final EventListener delegate;
+
+    /**
+     * Instantiates a new Composite event listener.
+     *
+     * @param metrics  the listener recording the client metrics
+     * @param delegate the listener of the client builder
+     */
+    CompositeEventListener(EventListener metrics, EventListener delegate) {
+        this.metrics = metrics;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void callStart(@NotNull Call call) {
+        metrics.callStart(call);
+        delegate.callStart(call);
+    }
+
+    @Override
+    public void proxySelectStart(@NotNull Call call, @NotNull HttpUrl url) {
+        metrics.proxySelectStart(call, url);
+        delegate.proxySelectStart(call, url);
+    }
+
+    @Override
+    public void proxySelectEnd(@NotNull Call call, @NotNull HttpUrl url, @NotNull List<Proxy> proxies) {
+        metrics.proxySelectEnd(call, url, proxies);
+        delegate.proxySelectEnd(call, url, proxies);
+    }
+
+    @Override
+    public void dnsStart(@NotNull Call call, @NotNull String domainName) {
+        metrics.dnsStart(call, domainName);
+        delegate.dnsStart(call, domainName);
+    }
+
+    @Override
+    public void dnsEnd(
+            @NotNull Call call, @NotNull String domainName, @NotNull List<InetAddress> inetAddressList) {
+        metrics.dnsEnd(call, domainName, inetAddressList);
+        delegate.dnsEnd(call, domainName, inetAddressList);
+    }
+
+    @Override
+    public void connectStart(
+            @NotNull Call call, @NotNull InetSocketAddress inetSocketAddress, @NotNull Proxy proxy) {
+        metrics.connectStart(call, inetSocketAddress, proxy);
+        delegate.connectStart(call, inetSocketAddress, proxy);
+    }
+
+    @Override
+    public void secureConnectStart(@NotNull Call call) {
+        metrics.secureConnectStart(call);
+        delegate.secureConnectStart(call);
+    }
+
+    @Override
+    public void secureConnectEnd(@NotNull Call call, @Nullable Handshake handshake) {
+        metrics.secureConnectEnd(call, handshake);
+        delegate.secureConnectEnd(call, handshake);
+    }
+
+    @Override
+    public void connectEnd(
+            @NotNull Call call,
+            @NotNull InetSocketAddress inetSocketAddress,
+            @NotNull Proxy proxy,
+            @Nullable Protocol protocol) {
+        metrics.connectEnd(call, inetSocketAddress, proxy, protocol);
+        delegate.connectEnd(call, inetSocketAddress, proxy, protocol);
+    }
+
+    @Override
+    public void connectFailed(
+            @NotNull Call call,
+            @NotNull InetSocketAddress inetSocketAddress,
+            @NotNull Proxy proxy,
+            @Nullable Protocol protocol,
+            @NotNull IOException ioe) {
+        metrics.connectFailed(call, inetSocketAddress, proxy, protocol, ioe);
+        delegate.connectFailed(call, inetSocketAddress, proxy, protocol, ioe);
+    }
+
+    @Override
+    public void connectionAcquired(@NotNull Call call, @NotNull Connection connection) {
+        metrics.connectionAcquired(call, connection);
+        delegate.connectionAcquired(call, connection);
+    }
+
+    @Override
+    public void connectionReleased(@NotNull Call call, @NotNull Connection connection) {
+        metrics.connectionReleased(call, connection);
+        delegate.connectionReleased(call, connection);
+    }
+
+    @Override
+    public void requestHeadersStart(@NotNull Call call) {
+        metrics.requestHeadersStart(call);
+        delegate.requestHeadersStart(call);
+    }
+
+    @Override
+    public void requestHeadersEnd(@NotNull Call call, @NotNull Request request) {
+        metrics.requestHeadersEnd(call, request);
+        delegate.requestHeadersEnd(call, request);
+    }
+
+    @Override
+    public void requestBodyStart(@NotNull Call call) {
+        metrics.requestBodyStart(call);
+        delegate.requestBodyStart(call);
+    }
+
+    @Override
+    public void requestBodyEnd(@NotNull Call call, long byteCount) {
+        metrics.requestBodyEnd(call, byteCount);
+        delegate.requestBodyEnd(call, byteCount);
+    }
+
+    @Override
+    public void requestFailed(@NotNull Call call, @NotNull IOException ioe) {
+        metrics.requestFailed(call, ioe);
+        delegate.requestFailed(call, ioe);
+    }
+
+    @Override
+    public void responseHeadersStart(@NotNull Call call) {
+        metrics.responseHeadersStart(call);
+        delegate.responseHeadersStart(call);
+    }
+
+    @Override
+    public void responseHeadersEnd(@NotNull Call call, @NotNull Response response) {
+        metrics.responseHeadersEnd(call, response);
+        delegate.responseHeadersEnd(call, response);
+    }
+
+    @Override
+    public void responseBodyStart(@NotNull Call call) {
+        metrics.responseBodyStart(call);
+        delegate.responseBodyStart(call);
+    }
+
+    @Override
+    public void responseBodyEnd(@NotNull Call call, long byteCount) {
+        metrics.responseBodyEnd(call, byteCount);
+        delegate.responseBodyEnd(call, byteCount);
+    }
+
+    @Override
+    public void responseFailed(@NotNull Call call, @NotNull IOException ioe) {
+        metrics.responseFailed(call, ioe);
+        delegate.responseFailed(call, ioe);
+    }
+
+    @Override
+    public void callEnd(@NotNull Call call) {
+        metrics.callEnd(call);
+        delegate.callEnd(call);
+    }
+
+    @Override
+    public void callFailed(@NotNull Call call, @NotNull IOException ioe) {
+        metrics.callFailed(call, ioe);
+        delegate.callFailed(call, ioe);
+    }
+
+    @Override
+    public void canceled(@NotNull Call call) {
+        metrics.canceled(call);
+        delegate.canceled(call);
+    }
+
+    @Override
+    public void satisfactionFailure(@NotNull Call call, @NotNull Response response) {
+        metrics.satisfactionFailure(call, response);
+        delegate.satisfactionFailure(call, response);
+    }
+
+    @Override
+    public void cacheHit(@NotNull Call call, @NotNull Response response) {
+        metrics.cacheHit(call, response);
+        delegate.cacheHit(call, response);
+    }
+
+    @Override
+    public void cacheMiss(@NotNull Call call) {
+        metrics.cacheMiss(call);
+        delegate.cacheMiss(call);
+    }
+
+    @Override
+    public void cacheConditionalHit(@NotNull Call call, @NotNull Response cachedResponse) {
+        metrics.cacheConditionalHit(call, cachedResponse);
+        delegate.cacheConditionalHit(call, cachedResponse);
+    }
+}
@@ -0,0 +1,63 @@
+package in.abilng.springboot.retrofit.metrics;
+
+import in.abilng.springboot.retrofit.dispatch.DispatchListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the queue wait and the dropped calls of each priority lane of a client.
+ */
+class DispatchLaneMetrics implements DispatchListener {
+
+    private static final String PRIORITY_TAG = "priority";
+
+    private final MeterRegistry registry;
+
+    private final Tags tags;
+
+    private final Map<Integer, Timer> waits = new ConcurrentHashMap<>();
+
+    private final Map<Integer, Counter> dropped = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Dispatch lane metrics.
+     *
+     * @param registry the meter registry
+     * @param tags     the tags of the client
+     */
+    DispatchLaneMetrics(MeterRegistry registry, Tags tags) {
+        this.registry = registry;
+        this.tags = tags;
+    }
+
+    @Override
+    public void onDispatched(int priority, long waitNanos) {
+        waits.computeIfAbsent(priority, this::waitTimer).record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onDropped(int priority, long waitNanos) {
+        dropped.computeIfAbsent(priority, this::droppedCounter).increment();
+    }
+
+    private Timer waitTimer(int priority) {
+        return Timer.builder("okhttp.dispatcher.lane.wait")
+                .description("Time enqueued calls waited in their priority lane")
+                .tags(tags)
+                .tag(PRIORITY_TAG, String.valueOf(priority))
+                .register(registry);
+    }
+
+    private Counter droppedCounter(int priority) {
+        return Counter.builder("okhttp.dispatcher.lane.dropped")
+                .description("Calls dropped after waiting past the queue deadline")
+                .tags(tags)
+                .tag(PRIORITY_TAG, String.valueOf(priority))
+                .register(registry);
+    }
+}
@@ -0,0 +1,62 @@
+package in.abilng.springboot.retrofit.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Records the time enqueued calls wait in the {@link okhttp3.Dispatcher} before they start executing.
+ * <br/>
+ * The wait starts at {@link #callStart(Call)} and ends when the call reaches the first application
+ * interceptor. Synchronous calls, which run on the thread that started them, are not recorded.
+ * A single instance is shared by all calls of a client.
+ */
+class DispatcherQueueTimer extends EventListener implements Interceptor {
+
+    private final Timer timer;
+
+    private final Map<Call, Enqueued> enqueued = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Dispatcher queue timer.
+     *
+     * @param timer the timer to record to
+     */
+    DispatcherQueueTimer(Timer timer) {
+        this.timer = timer;
+    }
+
+    @Override
+    public void callStart(@NotNull Call call) {
+        enqueued.put(call, new Enqueued(Thread.currentThread(), System.nanoTime()));
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        final Enqueued start = enqueued.remove(chain.call());
+        if (start != null && !start.thread().equals(Thread.currentThread())) {
+            timer.record(System.nanoTime() - start.nanos(), TimeUnit.NANOSECONDS);
+        }
+        return chain.proceed(chain.request());
+    }
+
+    @Override
+    public void callEnd(@NotNull Call call) {
+        enqueued.remove(call);
+    }
+
+    @Override
+    public void callFailed(@NotNull Call call, @NotNull IOException ioe) {
+        enqueued.remove(call);
+    }
+
+    private record Enqueued(Thread thread, long nanos) {}
+}
@@ -0,0 +1,80 @@
+package in.abilng.springboot.retrofit.metrics;
+
+import in.abilng.springboot.retrofit.dispatch.FairQueueDispatcherExecutor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the queue depth of each key of a fair queuing client.
+ * <br/>
+ * Keys get their own gauge up to a maximum number of keys, so that keys such as tenant ids do not grow the number
+ * of meters without bound; the calls of the other keys are counted under the key {@value #OTHER_KEY}.
+ */
+class FairQueueMetrics {
+
+    /**
+     * Key of the calls of the keys past the maximum.
+     */
+    static final String OTHER_KEY = "other";
+
+    private static final String KEY_TAG = "key";
+
+    private static final String QUEUED = "okhttp.dispatcher.key.queued";
+
+    private final MeterRegistry registry;
+
+    private final Tags tags;
+
+    private final FairQueueDispatcherExecutor executor;
+
+    private final int maxKeys;
+
+    private final Set<String> keys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Instantiates a new Fair queue metrics.
+     *
+     * @param registry the meter registry
+     * @param tags     the tags of the client
+     * @param executor the executor of the client
+     * @param maxKeys  the maximum number of keys with their own gauge
+     */
+    FairQueueMetrics(MeterRegistry registry, Tags tags, FairQueueDispatcherExecutor executor, int maxKeys) {
+        this.registry = registry;
+        this.tags = tags;
+        this.executor = executor;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Registers the gauge of the other keys and the gauges of the keys as they appear.
+     */
+    void bind() {
+        Gauge.builder(QUEUED, this, FairQueueMetrics::otherQueued)
+                .description("Calls waiting for dispatch per fair queuing key")
+                .tags(tags.and(KEY_TAG, OTHER_KEY))
+                .register(registry);
+        executor.setKeyListener(this::onKey);
+    }
+
+    private void onKey(String key) {
+        if (keys.size() >= maxKeys || OTHER_KEY.equals(key) || !keys.add(key)) {
+            return;
+        }
+        Gauge.builder(QUEUED, executor, e -> e.getQueuedCount(key))
+                .description("Calls waiting for dispatch per fair queuing key")
+                .tags(tags.and(KEY_TAG, key))
+                .register(registry);
+    }
+
+    private double otherQueued() {
+        int tagged = 0;
+        for (String key : keys) {
+            tagged += executor.getQueuedCount(key);
+        }
+        return Math.max(0, executor.getQueuedCount() - tagged);
+    }
+}
@@ -0,0 +1,162 @@
+package in.abilng.springboot.retrofit.metrics;
+
+import in.abilng.springboot.retrofit.config.RetroFitProperties;
+import in.abilng.springboot.retrofit.core.OkHttpClientCustomizer;
+import in.abilng.springboot.retrofit.dispatch.FairQueueDispatcherExecutor;
+import in.abilng.springboot.retrofit.dispatch.PriorityDispatcherExecutor;
+import in.abilng.springboot.retrofit.observation.RetrofitObservationConvention;
+import in.abilng.springboot.retrofit.tls.HandshakeCountingSocketFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import okhttp3.ConnectionPool;
+import okhttp3.ConnectionSpec;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+/**
+ * Binds connection pool and dispatcher metrics of each Retrofit client.
+ * <br/>
+ * Meters are tagged with the Retrofit client name ({@value #CLIENT_TAG}):
+ * <ul>
+ *     <li>{@code okhttp.pool.connections} with {@code state} idle or total</li>
+ *     <li>{@code okhttp.dispatcher.calls} with {@code state} queued or running</li>
+ *     <li>{@code okhttp.dispatcher.queue.wait} time enqueued calls waited for the dispatcher</li>
+ *     <li>{@code okhttp.phase} with {@code phase} dns, connect, tls, connection.acquire or ttfb,
+ *     also tagged with the method ({@value #METHOD_TAG}), for a sample of the calls</li>
+ *     <li>{@code okhttp.connection.acquired} with {@code reused} true or false, for the same sample</li>
+ *     <li>{@code okhttp.dispatcher.lane.wait} and {@code okhttp.dispatcher.lane.dropped} with {@code priority},
+ *     when priority lanes are enabled</li>
+ *     <li>{@code okhttp.dispatcher.key.queued} with {@code key}, when fair queuing is enabled</li>
+ *     <li>{@code okhttp.tls.handshakes} with {@code resumed} true or false</li>
+ * </ul>
+ * Note: the event listener factory of the client is composed with the one recording these, and its SSL socket
+ * factory is wrapped to count the handshakes.
+ */
+public class OkHttpClientMetrics implements OkHttpClientCustomizer {
+
+    /**
+     * Tag holding the Retrofit client name.
+     */
+    public static final String CLIENT_TAG = RetrofitObservationConvention.CLIENT_KEY;
+
+    /**
+     * Tag holding the Retrofit interface method.
+     */
+    public static final String METHOD_TAG = RetrofitObservationConvention.METHOD_KEY;
+
+    private static final String STATE_TAG = "state";
+
+    private final Supplier<MeterRegistry> meterRegistry;
+
+    private final RetroFitProperties.Metrics metricsProperties;
+
+    /**
+     * Instantiates a new Ok http client metrics.
+     *
+     * @param meterRegistry     supplier of the meter registry, may supply null when metrics are not available
+     * @param metricsProperties the metrics properties
+     */
+    public OkHttpClientMetrics(
+            Supplier<MeterRegistry> meterRegistry, RetroFitProperties.Metrics metricsProperties) {
+        this.meterRegistry = meterRegistry;
+        this.metricsProperties = metricsProperties;
+    }
+
+    @Override
+    public void customize(
+            String name, RetroFitProperties.ServiceProperties properties, OkHttpClient.Builder builder) {
+        // the client is decorated once built, as the builder does not expose its listener and socket factories
+    }
+
+    @Override
+    public OkHttpClient decorate(String name, OkHttpClient client) {
+        final MeterRegistry registry = meterRegistry.get();
+        if (registry == null) {
+            return client;
+        }
+        final Timer queueWait =
+                Timer.builder("okhttp.dispatcher.queue.wait")
+                        .description("Time enqueued calls waited for the dispatcher")
+                        .tag(CLIENT_TAG, name)
+                        .register(registry);
+        final DispatcherQueueTimer queueTimer = new DispatcherQueueTimer(queueWait);
+        final double sampleRate =
+                metricsProperties.getPhasesEnabled() ? metricsProperties.getPhaseSampleRate() : 0;
+        final ClientEventListenerFactory listenerFactory =
+                new ClientEventListenerFactory(name, registry, queueTimer, sampleRate, client.eventListenerFactory());
+        final OkHttpClient.Builder builder = client.newBuilder().eventListenerFactory(listenerFactory);
+        builder.interceptors().add(0, queueTimer);
+        builder.addInterceptor(listenerFactory);
+        if (client.connectionSpecs().stream().anyMatch(ConnectionSpec::isTls) && client.x509TrustManager() != null) {
+            builder.sslSocketFactory(
+                    new HandshakeCountingSocketFactory(client.sslSocketFactory()), client.x509TrustManager());
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void clientCreated(String name, OkHttpClient client) {
+        final MeterRegistry registry = meterRegistry.get();
+        if (registry == null) {
+            return;
+        }
+        final Tags tags = Tags.of(CLIENT_TAG, name);
+        final ConnectionPool pool = client.connectionPool();
+        Gauge.builder("okhttp.pool.connections", pool, ConnectionPool::idleConnectionCount)
+                .description("Connections in the pool")
+                .tags(tags.and(STATE_TAG, "idle"))
+                .register(registry);
+        Gauge.builder("okhttp.pool.connections", pool, ConnectionPool::connectionCount)
+                .description("Connections in the pool")
+                .tags(tags.and(STATE_TAG, "total"))
+                .register(registry);
+
+        if (client.connectionSpecs().stream().anyMatch(ConnectionSpec::isTls)
+                && client.sslSocketFactory() instanceof HandshakeCountingSocketFactory socketFactory) {
+            bindHandshakes(
+                    registry, tags, "false", socketFactory, HandshakeCountingSocketFactory::getFullHandshakeCount);
+            bindHandshakes(
+                    registry, tags, "true", socketFactory, HandshakeCountingSocketFactory::getResumedHandshakeCount);
+        }
+
+        final Dispatcher dispatcher = client.dispatcher();
+        if (dispatcher.executorService() instanceof PriorityDispatcherExecutor executor) {
+            // the executor holds the enqueued calls before they reach the dispatcher
+            executor.setDispatchListener(new DispatchLaneMetrics(registry, tags));
+            bindDispatcherCalls(registry, tags, "queued", executor, PriorityDispatcherExecutor::getQueuedCount);
+            bindDispatcherCalls(registry, tags, "running", executor, PriorityDispatcherExecutor::getRunningCount);
+        } else if (dispatcher.executorService() instanceof FairQueueDispatcherExecutor executor) {
+            new FairQueueMetrics(registry, tags, executor, metricsProperties.getMaxFairQueueKeys()).bind();
+            bindDispatcherCalls(registry, tags, "queued", executor, FairQueueDispatcherExecutor::getQueuedCount);
+            bindDispatcherCalls(registry, tags, "running", executor, FairQueueDispatcherExecutor::getRunningCount);
+        } else {
+            bindDispatcherCalls(registry, tags, "queued", dispatcher, Dispatcher::queuedCallsCount);
+            bindDispatcherCalls(registry, tags, "running", dispatcher, Dispatcher::runningCallsCount);
+        }
+    }
+
+    private static void bindHandshakes(
+            MeterRegistry registry,
+            Tags tags,
+            String resumed,
+            HandshakeCountingSocketFactory socketFactory,
+            ToDoubleFunction<HandshakeCountingSocketFactory> handshakes) {
+        FunctionCounter.builder("okhttp.tls.handshakes", socketFactory, handshakes)
+                .description("TLS handshakes, full or resumed from a cached session")
+                .tags(tags.and("resumed", resumed))
+                .register(registry);
+    }
+
+    private static <T> void bindDispatcherCalls(
+            MeterRegistry registry, Tags tags, String state, T dispatcher, ToDoubleFunction<T> calls) {
+        Gauge.builder("okhttp.dispatcher.calls", dispatcher, calls)
+                .description("Calls of the dispatcher")
+                .tags(tags.and(STATE_TAG, state))
+                .register(registry);
+    }
+}
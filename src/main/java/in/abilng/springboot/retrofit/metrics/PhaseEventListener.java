@@ -0,0 +1,190 @@
+package in.abilng.springboot.retrofit.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Records the latency of the phases of a sampled call: DNS, connect, TLS, connection acquisition and
+ * time to first byte, as well as whether the connection was reused.
+ * <br/>
+ * One instance is created per sampled call; the call lifecycle events are forwarded to the
+ * {@link DispatcherQueueTimer} of the client. Connection acquisition is measured per exchange, from
+ * {@link #exchangeStart()} or the end of the previous exchange, without the time spent resolving and connecting,
+ * so it excludes the dispatcher queue, the application interceptors and the previous exchanges of the call.
+ */
+class PhaseEventListener extends EventListener {
+
+    private final DispatcherQueueTimer queueTimer;
+
+    private final PhaseMeters meters;
+
+    private final Map<Call, PhaseEventListener> running;
+
+    private long exchangeStarted;
+    private long establishing;
+    private long dnsStarted;
+    private long connectStarted;
+    private long secureConnectStarted;
+    private long requestSent;
+    private boolean connected;
+
+    /**
+     * Instantiates a new Phase event listener.
+     *
+     * @param queueTimer the dispatcher queue timer of the client
+     * @param meters     the meters of the called method
+     * @param running    the listeners of the running calls, this one is held from the start to the end of its call
+     */
+    PhaseEventListener(DispatcherQueueTimer queueTimer, PhaseMeters meters, Map<Call, PhaseEventListener> running) {
+        this.queueTimer = queueTimer;
+        this.meters = meters;
+        this.running = running;
+    }
+
+    /**
+     * Starts the first exchange of the call, once it passed the application interceptors.
+     */
+    void exchangeStart() {
+        exchangeStarted = System.nanoTime();
+        establishing = 0;
+    }
+
+    @Override
+    public void callStart(@NotNull Call call) {
+        running.put(call, this);
+        queueTimer.callStart(call);
+    }
+
+    @Override
+    public void dnsStart(@NotNull Call call, @NotNull String domainName) {
+        dnsStarted = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(
+            @NotNull Call call, @NotNull String domainName, @NotNull List<InetAddress> inetAddressList) {
+        establishing += record(meters.dns(), dnsStarted);
+    }
+
+    @Override
+    public void connectStart(
+            @NotNull Call call, @NotNull InetSocketAddress inetSocketAddress, @NotNull Proxy proxy) {
+        connectStarted = System.nanoTime();
+        connected = true;
+    }
+
+    @Override
+    public void secureConnectStart(@NotNull Call call) {
+        secureConnectStarted = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(@NotNull Call call, @Nullable Handshake handshake) {
+        record(meters.tls(), secureConnectStarted);
+    }
+
+    @Override
+    public void connectEnd(
+            @NotNull Call call,
+            @NotNull InetSocketAddress inetSocketAddress,
+            @NotNull Proxy proxy,
+            @Nullable Protocol protocol) {
+        establishing += record(meters.connect(), connectStarted);
+    }
+
+    @Override
+    public void connectFailed(
+            @NotNull Call call,
+            @NotNull InetSocketAddress inetSocketAddress,
+            @NotNull Proxy proxy,
+            @Nullable Protocol protocol,
+            @NotNull IOException ioe) {
+        establishing += System.nanoTime() - connectStarted;
+    }
+
+    @Override
+    public void connectionAcquired(@NotNull Call call, @NotNull Connection connection) {
+        if (exchangeStarted != 0) {
+            meters.acquire()
+                    .record(System.nanoTime() - exchangeStarted - establishing, TimeUnit.NANOSECONDS);
+            exchangeStarted = 0;
+        }
+        if (connected) {
+            meters.created().increment();
+        } else {
+            meters.reused().increment();
+        }
+        connected = false;
+    }
+
+    @Override
+    public void connectionReleased(@NotNull Call call, @NotNull Connection connection) {
+        // a follow-up or retried exchange may start next
+        exchangeStart();
+    }
+
+    @Override
+    public void requestFailed(@NotNull Call call, @NotNull IOException ioe) {
+        exchangeStart();
+    }
+
+    @Override
+    public void responseFailed(@NotNull Call call, @NotNull IOException ioe) {
+        exchangeStart();
+    }
+
+    @Override
+    public void requestHeadersEnd(@NotNull Call call, @NotNull Request request) {
+        requestSent = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(@NotNull Call call, long byteCount) {
+        requestSent = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(@NotNull Call call) {
+        record(meters.timeToFirstByte(), requestSent);
+    }
+
+    @Override
+    public void callEnd(@NotNull Call call) {
+        running.remove(call);
+        queueTimer.callEnd(call);
+    }
+
+    @Override
+    public void callFailed(@NotNull Call call, @NotNull IOException ioe) {
+        running.remove(call);
+        queueTimer.callFailed(call, ioe);
+    }
+
+    /**
+     * Records the time since start.
+     *
+     * @return the recorded nanoseconds, 0 when the phase did not start
+     */
+    private static long record(Timer timer, long start) {
+        if (start == 0) {
+            return 0;
+        }
+        final long elapsed = System.nanoTime() - start;
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+        return elapsed;
+    }
+}
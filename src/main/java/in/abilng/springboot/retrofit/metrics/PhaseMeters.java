@@ -0,0 +1,71 @@
+package in.abilng.springboot.retrofit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters of the phases of calls to one method of a Retrofit client, resolved once and reused by all calls.
+ *
+ * @param dns           time to resolve the host
+ * @param connect       time to establish a connection, including the TLS handshake
+ * @param tls           time of the TLS handshake
+ * @param acquire       time of an exchange to acquire a connection, without establishing a new one
+ * @param timeToFirstByte time from the request being sent until the response headers started to arrive
+ * @param reused        connections acquired from the pool
+ * @param created       connections established for the call
+ */
+record PhaseMeters(
+        Timer dns,
+        Timer connect,
+        Timer tls,
+        Timer acquire,
+        Timer timeToFirstByte,
+        Counter reused,
+        Counter created) {
+
+    /**
+     * Name of the phase timer.
+     */
+    static final String PHASE_METER = "okhttp.phase";
+
+    /**
+     * Name of the connection acquisition counter.
+     */
+    static final String CONNECTION_METER = "okhttp.connection.acquired";
+
+    /**
+     * Register the meters of a method.
+     *
+     * @param registry the meter registry
+     * @param tags     the tags of the client and method
+     * @return the phase meters
+     */
+    static PhaseMeters register(MeterRegistry registry, Tags tags) {
+        return new PhaseMeters(
+                phase(registry, tags, "dns"),
+                phase(registry, tags, "connect"),
+                phase(registry, tags, "tls"),
+                phase(registry, tags, "connection.acquire"),
+                phase(registry, tags, "ttfb"),
+                connection(registry, tags, true),
+                connection(registry, tags, false));
+    }
+
+    private static Timer phase(MeterRegistry registry, Tags tags, String phase) {
+        return Timer.builder(PHASE_METER)
+                .description("Time spent in a phase of the call")
+                .tags(tags)
+                .tag("phase", phase)
+                .register(registry);
+    }
+
+    private static Counter connection(MeterRegistry registry, Tags tags, boolean reused) {
+        return Counter.builder(CONNECTION_METER)
+                .description("Connections acquired by calls")
+                .tags(tags)
+                .tag("reused", String.valueOf(reused))
+                .register(registry);
+    }
+}
@@ -0,0 +1,66 @@
+package in.abilng.springboot.retrofit.metrics;
+
+import in.abilng.springboot.retrofit.cache.ResponseCacheRegistry;
+import in.abilng.springboot.retrofit.cache.ResponseObjectCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.function.ToDoubleFunction;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Binds the metrics of the {@link ResponseObjectCache}s of the Retrofit clients, including caches created after
+ * binding. Meters are tagged with the Retrofit client name ({@value OkHttpClientMetrics#CLIENT_TAG}):
+ * <ul>
+ *     <li>{@code retrofit.cache.requests} responses by {@code result}: hit, miss or revalidated</li>
+ *     <li>{@code retrofit.cache.evictions} responses evicted to stay within the maximum size</li>
+ *     <li>{@code retrofit.cache.size} approximate length of the cached bodies</li>
+ * </ul>
+ */
+public class ResponseCacheMetrics implements MeterBinder {
+
+    private final ResponseCacheRegistry cacheRegistry;
+
+    /**
+     * Instantiates a new Response cache metrics.
+     *
+     * @param cacheRegistry the cache registry
+     */
+    public ResponseCacheMetrics(ResponseCacheRegistry cacheRegistry) {
+        this.cacheRegistry = cacheRegistry;
+    }
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        cacheRegistry.onCache(cache -> bind(cache, registry));
+    }
+
+    private static void bind(ResponseObjectCache cache, MeterRegistry registry) {
+        requests(cache, registry, "hit", ResponseObjectCache::getHitCount);
+        requests(cache, registry, "miss", ResponseObjectCache::getMissCount);
+        requests(cache, registry, "revalidated", ResponseObjectCache::getRevalidationCount);
+        FunctionCounter.builder("retrofit.cache.evictions", cache, ResponseObjectCache::getEvictionCount)
+                .description("Responses evicted from the response cache")
+                .tag(OkHttpClientMetrics.CLIENT_TAG, cache.getName())
+                .register(registry);
+        Gauge.builder("retrofit.cache.size", cache, ResponseObjectCache::getSize)
+                .description("Approximate length of the bodies of the cached responses")
+                .baseUnit(BaseUnits.BYTES)
+                .tag(OkHttpClientMetrics.CLIENT_TAG, cache.getName())
+                .register(registry);
+    }
+
+    private static void requests(
+            ResponseObjectCache cache,
+            MeterRegistry registry,
+            String result,
+            ToDoubleFunction<ResponseObjectCache> count) {
+        FunctionCounter.builder("retrofit.cache.requests", cache, count)
+                .description("Responses of the cached methods")
+                .tag(OkHttpClientMetrics.CLIENT_TAG, cache.getName())
+                .tag("result", result)
+                .register(registry);
+    }
+}
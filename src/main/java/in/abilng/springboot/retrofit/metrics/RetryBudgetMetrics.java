@@ -0,0 +1,48 @@
+package in.abilng.springboot.retrofit.metrics;
+
+import in.abilng.springboot.retrofit.resilience4j.RetryBudget;
+import in.abilng.springboot.retrofit.resilience4j.RetryBudgetRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Binds the metrics of the {@link RetryBudget}s of the Retrofit clients, including budgets created after
+ * binding. Meters are tagged with the Retrofit client name ({@value OkHttpClientMetrics#CLIENT_TAG}):
+ * <ul>
+ *     <li>{@code retrofit.retry.budget.exhausted} retries denied by the budget</li>
+ *     <li>{@code retrofit.retry.budget.available} retries currently allowed</li>
+ * </ul>
+ */
+public class RetryBudgetMetrics implements MeterBinder {
+
+    private final RetryBudgetRegistry budgetRegistry;
+
+    /**
+     * Instantiates a new Retry budget metrics.
+     *
+     * @param budgetRegistry the budget registry
+     */
+    public RetryBudgetMetrics(RetryBudgetRegistry budgetRegistry) {
+        this.budgetRegistry = budgetRegistry;
+    }
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        budgetRegistry.onBudget(budget -> bind(budget, registry));
+    }
+
+    private static void bind(RetryBudget budget, MeterRegistry registry) {
+        FunctionCounter.builder(
+                        "retrofit.retry.budget.exhausted", budget, RetryBudget::getExhaustedCount)
+                .description("Retries denied by the retry budget")
+                .tag(OkHttpClientMetrics.CLIENT_TAG, budget.getName())
+                .register(registry);
+        Gauge.builder("retrofit.retry.budget.available", budget, RetryBudget::getAvailableRetries)
+                .description("Retries currently allowed by the retry budget")
+                .tag(OkHttpClientMetrics.CLIENT_TAG, budget.getName())
+                .register(registry);
+    }
+}
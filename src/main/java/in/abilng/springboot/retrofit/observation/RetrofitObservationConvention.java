@@ -0,0 +1,73 @@
+package in.abilng.springboot.retrofit.observation;
+
+import in.abilng.springboot.retrofit.core.MethodMetadata;
+import in.abilng.springboot.retrofit.core.MethodMetadataRegistry;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.binder.okhttp3.DefaultOkHttpObservationConvention;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpContext;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import okhttp3.Request;
+import retrofit2.Invocation;
+
+/**
+ * Observation convention which adds the Retrofit client, method and {@link
+ * in.abilng.springboot.retrofit.annotation.ObservationTag} tags to the default OkHttp key values.
+ * <br/>
+ * Tag values only come from {@link MethodMetadata}, so their cardinality is bounded by the number of
+ * interface methods; the key values of a method are built once and reused.
+ */
+public class RetrofitObservationConvention extends DefaultOkHttpObservationConvention {
+
+    /**
+     * Key of the client name tag.
+     */
+    public static final String CLIENT_KEY = "retrofit.client";
+
+    /**
+     * Key of the interface method tag.
+     */
+    public static final String METHOD_KEY = "retrofit.method";
+
+    private final Map<Method, KeyValues> keyValues = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Retrofit observation convention.
+     *
+     * @param metricName the metric name
+     */
+    public RetrofitObservationConvention(String metricName) {
+        super(metricName);
+    }
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(OkHttpContext context) {
+        KeyValues defaults = super.getLowCardinalityKeyValues(context);
+        Request request = context.getOriginalRequest();
+        Invocation invocation = request == null ? null : request.tag(Invocation.class);
+        if (invocation == null) {
+            return defaults;
+        }
+        KeyValues methodKeyValues = keyValues.get(invocation.method());
+        if (methodKeyValues == null) {
+            methodKeyValues = keyValues.computeIfAbsent(invocation.method(), this::toKeyValues);
+        }
+        return defaults.and(methodKeyValues);
+    }
+
+    private KeyValues toKeyValues(Method method) {
+        MethodMetadata metadata = MethodMetadataRegistry.getInstance().get(method);
+        List<KeyValue> values = new ArrayList<>(metadata.tags().size() + 2);
+        values.add(
+                KeyValue.of(
+                        CLIENT_KEY,
+                        metadata.clientName() == null ? MethodMetadata.UNKNOWN : metadata.clientName()));
+        values.add(KeyValue.of(METHOD_KEY, metadata.methodName()));
+        metadata.tags().forEach((key, value) -> values.add(KeyValue.of(key, value)));
+        return KeyValues.of(values);
+    }
+}
@@ -0,0 +1,26 @@
+package in.abilng.springboot.retrofit.pagination;
+
+import in.abilng.springboot.retrofit.annotation.Paginated;
+import java.util.List;
+
+/**
+ * A page of a cursor paginated response body, see {@link Paginated#page()}.
+ *
+ * @param <T> the item type
+ */
+public interface Page<T> {
+
+    /**
+     * The items of the page.
+     *
+     * @return the items
+     */
+    List<T> items();
+
+    /**
+     * The cursor, or url, of the next page.
+     *
+     * @return the next page, null or empty on the last page
+     */
+    String next();
+}
@@ -0,0 +1,112 @@
+package in.abilng.springboot.retrofit.pagination;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.IOException;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.Timeout;
+import org.jetbrains.annotations.NotNull;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Converter;
+import retrofit2.Response;
+
+/**
+ * Retrofit call of a next page, for a request built from the previous page instead of the method arguments.
+ */
+final class PageCall implements Call<Object> {
+
+    private static final int NO_CONTENT = 204;
+
+    private static final int RESET_CONTENT = 205;
+
+    private final okhttp3.Call.Factory callFactory;
+
+    private final Request originalRequest;
+
+    private final Converter<ResponseBody, Object> converter;
+
+    private final okhttp3.Call rawCall;
+
+    PageCall(okhttp3.Call.Factory callFactory, Request request, Converter<ResponseBody, Object> converter) {
+        this.callFactory = callFactory;
+        this.originalRequest = request;
+        this.converter = converter;
+        this.rawCall = callFactory.newCall(request);
+    }
+
+    @Override
+    public Response<Object> execute() throws IOException {
+        return parse(rawCall.execute());
+    }
+
+    @Override
+    public void enqueue(Callback<Object> callback) {
+        rawCall.enqueue(
+                new okhttp3.Callback() {
+                    @Override
+                    public void onResponse(@NotNull okhttp3.Call call, @NotNull okhttp3.Response raw) {
+                        final Response<Object> response;
+                        try {
+                            response = parse(raw);
+                        } catch (IOException | RuntimeException e) {
+                            callback.onFailure(PageCall.this, e);
+                            return;
+                        }
+                        callback.onResponse(PageCall.this, response);
+                    }
+
+                    @Override
+                    public void onFailure(@NotNull okhttp3.Call call, @NotNull IOException e) {
+                        callback.onFailure(PageCall.this, e);
+                    }
+                });
+    }
+
+    private Response<Object> parse(okhttp3.Response raw) throws IOException {
+        try (ResponseBody body = raw.body()) {
+            if (!raw.isSuccessful()) {
+                return Response.error(ResponseBody.create(body.bytes(), body.contentType()), raw);
+            }
+            if (raw.code() == NO_CONTENT || raw.code() == RESET_CONTENT) {
+                return Response.success(null, raw);
+            }
+            return Response.success(converter.convert(body), raw);
+        }
+    }
+
+    @Override
+    public boolean isExecuted() {
+        return rawCall.isExecuted();
+    }
+
+    @Override
+    public void cancel() {
+        rawCall.cancel();
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return rawCall.isCanceled();
+    }
+
+    @Override
+    @SuppressWarnings({
+        "PMD.ProperCloneImplementation",
+        "PMD.CloneMethodReturnTypeMustMatchClassName"
+    })
+    @SuppressFBWarnings("CN_IDIOM_NO_SUPER_CALL")
+    public Call<Object> clone() {
+        return new PageCall(callFactory, originalRequest, converter);
+    }
+
+    @Override
+    public Request request() {
+        return originalRequest;
+    }
+
+    @Override
+    public Timeout timeout() {
+        return rawCall.timeout();
+    }
+}
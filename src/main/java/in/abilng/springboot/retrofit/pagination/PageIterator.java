@@ -0,0 +1,178 @@
+package in.abilng.springboot.retrofit.pagination;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+/**
+ * Iterator over the items of the pages of a {@link PaginatedCallAdapter.Pager}.
+ * <br/>
+ * Pages are enqueued one at a time, in order. The first page is fetched when the first item is requested, and the
+ * next pages while less than {@code prefetch} pages and {@code maxBufferedItems} items are waiting to be consumed.
+ * A failed page, or an unsuccessful response, is thrown when its items are requested.
+ */
+final class PageIterator implements Iterator<Object>, AutoCloseable {
+
+    private final PaginatedCallAdapter.Pager pager;
+
+    private final Deque<List<?>> pages = new ArrayDeque<>();
+
+    private Iterator<?> current = Collections.emptyIterator();
+
+    /**
+     * The call of the page being fetched, or of the next page when there are more pages.
+     */
+    private Call<Object> pageCall;
+
+    private boolean fetching;
+
+    private boolean morePages = true;
+
+    private int bufferedItems;
+
+    private Throwable failure;
+
+    private boolean closed;
+
+    PageIterator(PaginatedCallAdapter.Pager pager, Call<Object> first) {
+        this.pager = pager;
+        this.pageCall = first;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            synchronized (this) {
+                while (pages.isEmpty()) {
+                    if (failure != null) {
+                        throw asUnchecked(failure);
+                    }
+                    if (closed || !fetching && !morePages) {
+                        return false;
+                    }
+                    fetch(true);
+                    awaitPage();
+                }
+                final List<?> page = pages.poll();
+                bufferedItems -= page.size();
+                current = page.iterator();
+                fetch(false);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Object next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * Cancels the page in flight.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        pages.clear();
+        if (fetching) {
+            pageCall.cancel();
+        }
+        notifyAll();
+    }
+
+    private void awaitPage() {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            final InterruptedIOException exception = new InterruptedIOException("Interrupted while waiting");
+            exception.initCause(e);
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Enqueues the next page, when demanded by the consumer or within the prefetch bounds.
+     */
+    private void fetch(boolean demanded) {
+        if (fetching || !morePages || closed || failure != null) {
+            return;
+        }
+        if (!demanded
+                && (pages.size() >= pager.paginated().prefetch()
+                        || bufferedItems >= pager.paginated().maxBufferedItems())) {
+            return;
+        }
+        fetching = true;
+        morePages = false;
+        pageCall.enqueue(
+                new Callback<>() {
+                    @Override
+                    public void onResponse(Call<Object> call, Response<Object> response) {
+                        onPage(call, response);
+                    }
+
+                    @Override
+                    public void onFailure(Call<Object> call, Throwable throwable) {
+                        onFailed(throwable);
+                    }
+                });
+    }
+
+    private synchronized void onPage(Call<Object> call, Response<Object> response) {
+        fetching = false;
+        if (closed) {
+            return;
+        }
+        try {
+            if (!response.isSuccessful()) {
+                throw new HttpException(response);
+            }
+            final List<?> items = pager.items(response.body());
+            final Call<Object> next = pager.nextCall(call.request(), response);
+            if (next != null) {
+                pageCall = next;
+                morePages = true;
+            }
+            pages.add(items);
+            bufferedItems += items.size();
+            fetch(false);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        notifyAll();
+    }
+
+    private synchronized void onFailed(Throwable throwable) {
+        fetching = false;
+        failure = throwable;
+        notifyAll();
+    }
+
+    private static RuntimeException asUnchecked(Throwable throwable) {
+        if (throwable instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (throwable instanceof IOException ioException) {
+            return new UncheckedIOException(ioException);
+        }
+        if (throwable instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(throwable);
+    }
+}
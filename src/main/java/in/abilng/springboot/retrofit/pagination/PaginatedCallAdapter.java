@@ -0,0 +1,205 @@
+package in.abilng.springboot.retrofit.pagination;
+
+import in.abilng.springboot.retrofit.annotation.Paginated;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Converter;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+/**
+ * Creates a Retrofit {@link CallAdapter.Factory} for {@link Paginated} methods, which return a lazy
+ * {@code Stream<T>} or {@code Iterable<T>} of the items of all pages.
+ * <br/>
+ * Each page is a call adapted by the next call adapters, so retries and circuit breaker apply per page. The next
+ * page copies the request of the previous one, with the url of the next page.
+ * <br/>
+ * It must be the first call adapter factory.
+ */
+public final class PaginatedCallAdapter extends CallAdapter.Factory {
+
+    private static final Pattern LINK = Pattern.compile("<([^>]*)>([^,<]*)");
+
+    private static final Pattern REL = Pattern.compile("rel\\s*=\\s*\"?([^\";]*)\"?");
+
+    private PaginatedCallAdapter() {}
+
+    /**
+     * Create a paginated call adapter.
+     *
+     * @return a {@link CallAdapter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static PaginatedCallAdapter of() {
+        return new PaginatedCallAdapter();
+    }
+
+    @Override
+    public CallAdapter<?, ?> get(Type returnType, Annotation[] annotations, Retrofit retrofit) {
+        final Paginated paginated =
+                Arrays.stream(annotations)
+                        .filter(Paginated.class::isInstance)
+                        .map(Paginated.class::cast)
+                        .findFirst()
+                        .orElse(null);
+        if (paginated == null) {
+            return retrofit.nextCallAdapter(this, returnType, annotations);
+        }
+        final Class<?> rawType = getRawType(returnType);
+        if (rawType != Stream.class && rawType != Iterable.class
+                || !(returnType instanceof ParameterizedType parameterizedType)) {
+            throw new IllegalArgumentException("@Paginated methods must return Stream<T> or Iterable<T>");
+        }
+
+        final Type pageType =
+                paginated.page() == Page.class
+                        ? new ParameterizedTypeImpl(List.class, getParameterUpperBound(0, parameterizedType))
+                        : paginated.page();
+        @SuppressWarnings("unchecked")
+        final CallAdapter<Object, Call<Object>> pageAdapter =
+                (CallAdapter<Object, Call<Object>>)
+                        retrofit.nextCallAdapter(this, new ParameterizedTypeImpl(Call.class, pageType), annotations);
+        final Pager pager =
+                new Pager(
+                        paginated,
+                        pageAdapter,
+                        retrofit.callFactory(),
+                        retrofit.responseBodyConverter(pageType, annotations));
+
+        return new CallAdapter<Object, Object>() {
+            @Override
+            public Type responseType() {
+                return pageAdapter.responseType();
+            }
+
+            @Override
+            public Object adapt(Call<Object> call) {
+                final Call<Object> first = pageAdapter.adapt(call);
+                if (rawType == Iterable.class) {
+                    return (Iterable<Object>) () -> new PageIterator(pager, first.isExecuted() ? first.clone() : first);
+                }
+                final PageIterator iterator = new PageIterator(pager, first);
+                return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                        .onClose(iterator::close);
+            }
+        };
+    }
+
+    /**
+     * Url of the {@code Link} with {@code rel="next"}.
+     *
+     * @param links the values of the {@code Link} headers
+     * @return the url, null if there is none
+     */
+    static String nextLink(List<String> links) {
+        for (String link : links) {
+            final Matcher matcher = LINK.matcher(link);
+            while (matcher.find()) {
+                final Matcher rel = REL.matcher(matcher.group(2));
+                if (rel.find() && Arrays.asList(rel.group(1).trim().split("\\s+")).contains("next")) {
+                    return matcher.group(1);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The pagination of a method.
+     *
+     * @param paginated   the annotation of the method
+     * @param pageAdapter the next call adapter of the page calls
+     * @param callFactory the call factory of the retrofit client
+     * @param converter   the converter of the page bodies
+     */
+    record Pager(
+            Paginated paginated,
+            CallAdapter<Object, Call<Object>> pageAdapter,
+            okhttp3.Call.Factory callFactory,
+            Converter<ResponseBody, Object> converter) {
+
+        List<?> items(Object body) {
+            if (body instanceof Page<?> page) {
+                return Objects.requireNonNullElse(page.items(), List.of());
+            }
+            return body == null ? List.of() : (List<?>) body;
+        }
+
+        /**
+         * The call of the page following a response.
+         *
+         * @return the call, null on the last page
+         */
+        Call<Object> nextCall(Request request, Response<Object> response) {
+            final HttpUrl next = nextUrl(response);
+            return next == null
+                    ? null
+                    : pageAdapter.adapt(new PageCall(callFactory, request.newBuilder().url(next).build(), converter));
+        }
+
+        private HttpUrl nextUrl(Response<Object> response) {
+            final HttpUrl url = response.raw().request().url();
+            final String cursor = response.body() instanceof Page<?> page ? page.next() : null;
+            if (cursor != null && !cursor.isEmpty()) {
+                return paginated.cursorParam().isEmpty()
+                        ? url.resolve(cursor)
+                        : url.newBuilder().setQueryParameter(paginated.cursorParam(), cursor).build();
+            }
+            final String link = nextLink(response.headers().values("Link"));
+            return link == null ? null : url.resolve(link);
+        }
+    }
+
+    /**
+     * Simple {@link ParameterizedType} of a class.
+     */
+    private record ParameterizedTypeImpl(Class<?> rawType, Type typeArgument) implements ParameterizedType {
+
+        @Override
+        public Type[] getActualTypeArguments() {
+            return new Type[] {typeArgument};
+        }
+
+        @Override
+        public Type getRawType() {
+            return rawType;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return null;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ParameterizedType type
+                    && rawType.equals(type.getRawType())
+                    && type.getOwnerType() == null
+                    && Arrays.equals(getActualTypeArguments(), type.getActualTypeArguments());
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(getActualTypeArguments()) ^ rawType.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return rawType.getName() + "<" + typeArgument.getTypeName() + ">";
+        }
+    }
+}
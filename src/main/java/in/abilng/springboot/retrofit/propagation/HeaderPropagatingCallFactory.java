@@ -0,0 +1,60 @@
+package in.abilng.springboot.retrofit.propagation;
+
+import okhttp3.Call;
+import okhttp3.Headers;
+import okhttp3.Request;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link Call.Factory} which adds the headers captured by {@link HeaderPropagationCallAdapter} to the
+ * request. The request is only rebuilt when at least one captured header is not already set.
+ */
+public class HeaderPropagatingCallFactory implements Call.Factory {
+
+    private static final ThreadLocal<Headers> PENDING = new ThreadLocal<>();
+
+    private final Call.Factory delegate;
+
+    /**
+     * Instantiates a new Header propagating call factory.
+     *
+     * @param delegate the delegate
+     */
+    public HeaderPropagatingCallFactory(Call.Factory delegate) {
+        this.delegate = delegate;
+    }
+
+    static Headers bind(Headers headers) {
+        final Headers previous = PENDING.get();
+        PENDING.set(headers);
+        return previous;
+    }
+
+    static void restore(Headers previous) {
+        if (previous == null) {
+            PENDING.remove();
+        } else {
+            PENDING.set(previous);
+        }
+    }
+
+    @NotNull
+    @Override
+    public Call newCall(@NotNull Request request) {
+        final Headers headers = PENDING.get();
+        if (headers == null) {
+            return delegate.newCall(request);
+        }
+        Request.Builder builder = null;
+        for (int i = 0; i < headers.size(); i++) {
+            final String name = headers.name(i);
+            if (request.header(name) == null) {
+                if (builder == null) {
+                    builder = request.newBuilder();
+                }
+                builder.addHeader(name, headers.value(i));
+            }
+        }
+        return delegate.newCall(builder == null ? request : builder.build());
+    }
+}
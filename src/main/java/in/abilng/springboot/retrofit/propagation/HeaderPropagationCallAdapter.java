@@ -0,0 +1,163 @@
+package in.abilng.springboot.retrofit.propagation;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import in.abilng.springboot.retrofit.resilience4j.internal.DelegateCall;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+import okhttp3.Headers;
+import okhttp3.Request;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+/**
+ * Creates a Retrofit {@link CallAdapter.Factory} that captures the configured headers on the thread
+ * invoking the Retrofit method, so they are still sent when the call is enqueued, retried or executed
+ * on another thread.
+ * <br/>
+ * It must be the first call adapter factory, so that retries clone the capturing call, and used
+ * together with {@link HeaderPropagatingCallFactory} which adds the captured headers to the request.
+ */
+public final class HeaderPropagationCallAdapter extends CallAdapter.Factory {
+
+    private final String[] headerNames;
+    private final List<HeaderResolver> resolvers;
+
+    private HeaderPropagationCallAdapter(List<String> headerNames, List<HeaderResolver> resolvers) {
+        this.headerNames = headerNames.toArray(String[]::new);
+        this.resolvers = List.copyOf(resolvers);
+    }
+
+    /**
+     * Create a header propagating call adapter.
+     *
+     * @param headerNames the headers to propagate
+     * @param resolvers   the resolvers of header values, in order of precedence
+     * @return a {@link CallAdapter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static HeaderPropagationCallAdapter of(
+            List<String> headerNames, List<HeaderResolver> resolvers) {
+        return new HeaderPropagationCallAdapter(headerNames, resolvers);
+    }
+
+    @Override
+    public CallAdapter<?, ?> get(Type returnType, Annotation[] annotations, Retrofit retrofit) {
+        @SuppressWarnings("unchecked")
+        CallAdapter<Object, Object> nextAdapter =
+                (CallAdapter<Object, Object>) retrofit.nextCallAdapter(this, returnType, annotations);
+
+        return new CallAdapter<Object, Object>() {
+            @Override
+            public Type responseType() {
+                return nextAdapter.responseType();
+            }
+
+            @Override
+            public Object adapt(Call<Object> call) {
+                final Headers captured = capture();
+                return nextAdapter.adapt(
+                        captured == null ? call : new HeaderPropagatingCall<>(call, captured));
+            }
+        };
+    }
+
+    /**
+     * Captures the configured headers from the current thread.
+     *
+     * @return the captured headers, null if none of them is present
+     */
+    Headers capture() {
+        Headers.Builder builder = null;
+        for (String headerName : headerNames) {
+            final String value = resolve(headerName);
+            if (value != null) {
+                if (builder == null) {
+                    builder = new Headers.Builder();
+                }
+                builder.add(headerName, value);
+            }
+        }
+        return builder == null ? null : builder.build();
+    }
+
+    private String resolve(String headerName) {
+        for (HeaderResolver resolver : resolvers) {
+            final String value = resolver.resolve(headerName);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Call which hands its captured headers to {@link HeaderPropagatingCallFactory} whenever the
+     * underlying OkHttp call may be created.
+     *
+     * @param <T> the response type parameter
+     */
+    static final class HeaderPropagatingCall<T> extends DelegateCall<T> {
+
+        private final Headers headers;
+
+        HeaderPropagatingCall(Call<T> delegate, Headers headers) {
+            super(delegate);
+            this.headers = headers;
+        }
+
+        @Override
+        public Response<T> execute() throws IOException {
+            final Headers previous = HeaderPropagatingCallFactory.bind(headers);
+            try {
+                return delegate.execute();
+            } finally {
+                HeaderPropagatingCallFactory.restore(previous);
+            }
+        }
+
+        @Override
+        public void enqueue(Callback<T> callback) {
+            final Headers previous = HeaderPropagatingCallFactory.bind(headers);
+            try {
+                delegate.enqueue(callback);
+            } finally {
+                HeaderPropagatingCallFactory.restore(previous);
+            }
+        }
+
+        @Override
+        public Request request() {
+            final Headers previous = HeaderPropagatingCallFactory.bind(headers);
+            try {
+                return delegate.request();
+            } finally {
+                HeaderPropagatingCallFactory.restore(previous);
+            }
+        }
+
+        @Override
+        public Timeout timeout() {
+            final Headers previous = HeaderPropagatingCallFactory.bind(headers);
+            try {
+                return delegate.timeout();
+            } finally {
+                HeaderPropagatingCallFactory.restore(previous);
+            }
+        }
+
+        @Override
+        @SuppressWarnings({
+            "PMD.ProperCloneImplementation",
+            "PMD.CloneMethodReturnTypeMustMatchClassName"
+        })
+        @SuppressFBWarnings("CN_IDIOM_NO_SUPER_CALL")
+        public Call<T> clone() {
+            return new HeaderPropagatingCall<>(delegate.clone(), headers);
+        }
+    }
+}
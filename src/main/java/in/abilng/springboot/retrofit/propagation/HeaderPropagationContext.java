@@ -0,0 +1,95 @@
+package in.abilng.springboot.retrofit.propagation;
+
+import jakarta.annotation.Nullable;
+import okhttp3.Headers;
+
+/**
+ * Thread bound headers to propagate when no servlet request is available, eg: in WebFlux handlers,
+ * message listeners or scheduled jobs.
+ * <br/>
+ * In WebFlux applications the headers are written to the Reactor context under {@link #CONTEXT_KEY} and
+ * restored on the executing thread through context-propagation, when automatic context propagation is
+ * enabled ({@code spring.reactor.context-propagation=auto}).
+ * For example:
+ * <br/>
+ * <code>
+ * try (var scope = HeaderPropagationContext.bind(Headers.of("X-Tenant-Id", tenant))) {
+ * client.call().execute();
+ * }
+ * </code>
+ */
+public final class HeaderPropagationContext implements HeaderResolver {
+
+    /**
+     * Key of the headers in the Reactor context and context-propagation registry.
+     */
+    public static final String CONTEXT_KEY = "retrofit.propagated-headers";
+
+    private static final ThreadLocal<Headers> BOUND_HEADERS = new ThreadLocal<>();
+
+    private static final HeaderPropagationContext INSTANCE = new HeaderPropagationContext();
+
+    private HeaderPropagationContext() {}
+
+    /**
+     * Binds headers to the current thread until the returned scope is closed.
+     *
+     * @param headers the headers
+     * @return the scope
+     */
+    public static Scope bind(Headers headers) {
+        final Headers previous = BOUND_HEADERS.get();
+        BOUND_HEADERS.set(headers);
+        return () -> {
+            if (previous == null) {
+                BOUND_HEADERS.remove();
+            } else {
+                BOUND_HEADERS.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Gets the headers bound to the current thread.
+     *
+     * @return the headers, null if none are bound
+     */
+    @Nullable
+    public static Headers current() {
+        return BOUND_HEADERS.get();
+    }
+
+    /**
+     * Thread local backing this context, to register with context-propagation.
+     *
+     * @return the thread local
+     */
+    static ThreadLocal<Headers> threadLocal() {
+        return BOUND_HEADERS;
+    }
+
+    /**
+     * Resolver reading headers bound to the current thread.
+     *
+     * @return the header resolver
+     */
+    public static HeaderResolver resolver() {
+        return INSTANCE;
+    }
+
+    @Nullable
+    @Override
+    public String resolve(String name) {
+        final Headers headers = BOUND_HEADERS.get();
+        return headers == null ? null : headers.get(name);
+    }
+
+    /**
+     * Scope of bound headers.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,31 @@
+package in.abilng.springboot.retrofit.propagation;
+
+import io.micrometer.context.ThreadLocalAccessor;
+import okhttp3.Headers;
+
+/**
+ * context-propagation {@link ThreadLocalAccessor} restoring the headers of {@link HeaderPropagationContext}
+ * from the Reactor context, registered through {@code META-INF/services}.
+ */
+public class HeaderPropagationThreadLocalAccessor implements ThreadLocalAccessor<Headers> {
+
+    @Override
+    public Object key() {
+        return HeaderPropagationContext.CONTEXT_KEY;
+    }
+
+    @Override
+    public Headers getValue() {
+        return HeaderPropagationContext.threadLocal().get();
+    }
+
+    @Override
+    public void setValue(Headers value) {
+        HeaderPropagationContext.threadLocal().set(value);
+    }
+
+    @Override
+    public void setValue() {
+        HeaderPropagationContext.threadLocal().remove();
+    }
+}
@@ -0,0 +1,49 @@
+package in.abilng.springboot.retrofit.propagation;
+
+import java.util.Collection;
+import java.util.List;
+import okhttp3.Headers;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link WebFilter} which writes the inbound headers to propagate into the Reactor context under
+ * {@link HeaderPropagationContext#CONTEXT_KEY}.
+ */
+public class HeaderPropagationWebFilter implements WebFilter {
+
+    private final List<String> headerNames;
+
+    /**
+     * Instantiates a new Header propagation web filter.
+     *
+     * @param headerNames the names of the headers to capture
+     */
+    public HeaderPropagationWebFilter(Collection<String> headerNames) {
+        this.headerNames = List.copyOf(headerNames);
+    }
+
+    @NotNull
+    @Override
+    public Mono<Void> filter(@NotNull ServerWebExchange exchange, @NotNull WebFilterChain chain) {
+        Headers.Builder builder = null;
+        for (String headerName : headerNames) {
+            final String value = exchange.getRequest().getHeaders().getFirst(headerName);
+            if (value != null) {
+                if (builder == null) {
+                    builder = new Headers.Builder();
+                }
+                builder.add(headerName, value);
+            }
+        }
+        if (builder == null) {
+            return chain.filter(exchange);
+        }
+        final Headers headers = builder.build();
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(HeaderPropagationContext.CONTEXT_KEY, headers));
+    }
+}
@@ -0,0 +1,22 @@
+package in.abilng.springboot.retrofit.propagation;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Resolves the value of an inbound header from the context of the calling thread.
+ * <br/>
+ * Resolvers are consulted in order when a Retrofit method is invoked; the first non-null value wins.
+ * Declare a bean of this type to propagate headers from other sources.
+ */
+@FunctionalInterface
+public interface HeaderResolver {
+
+    /**
+     * Resolve header value.
+     *
+     * @param name the header name
+     * @return the header value, null if not available
+     */
+    @Nullable
+    String resolve(String name);
+}
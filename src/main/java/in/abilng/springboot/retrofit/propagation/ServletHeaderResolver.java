@@ -0,0 +1,22 @@
+package in.abilng.springboot.retrofit.propagation;
+
+import jakarta.annotation.Nullable;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Resolves headers from the servlet request bound to the calling thread.
+ */
+public class ServletHeaderResolver implements HeaderResolver {
+
+    @Nullable
+    @Override
+    public String resolve(String name) {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletRequestAttributes) {
+            return servletRequestAttributes.getRequest().getHeader(name);
+        }
+        return null;
+    }
+}
@@ -4,6 +4,7 @@ import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import retrofit2.Call;
 import retrofit2.CallAdapter;
 import retrofit2.Response;
@@ -15,11 +16,11 @@ import retrofit2.Retrofit;
  */
 public final class CircuitBreakerCallAdapter extends CallAdapter.Factory {
 
-    private final CircuitBreaker circuitBreaker;
+    private final Supplier<CircuitBreaker> circuitBreaker;
     private final Predicate<Response> successResponse;
 
     private CircuitBreakerCallAdapter(
-            final CircuitBreaker circuitBreaker, final Predicate<Response> successResponse) {
+            final Supplier<CircuitBreaker> circuitBreaker, final Predicate<Response> successResponse) {
         this.circuitBreaker = circuitBreaker;
         this.successResponse = successResponse;
     }
@@ -44,6 +45,31 @@ public final class CircuitBreakerCallAdapter extends CallAdapter.Factory {
      */
     public static CircuitBreakerCallAdapter of(
             final CircuitBreaker circuitBreaker, final Predicate<Response> successResponse) {
+        return new CircuitBreakerCallAdapter(() -> circuitBreaker, successResponse);
+    }
+
+    /**
+     * Create a circuit-breaking call adapter that decorates retrofit calls with the circuit breaker current when
+     * each call is created, so that the circuit breaker can be replaced while the client is in use.
+     *
+     * @param circuitBreaker the supplier of the current circuit breaker, which may supply null to not decorate
+     * @return a {@link CallAdapter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static CircuitBreakerCallAdapter of(final Supplier<CircuitBreaker> circuitBreaker) {
+        return of(circuitBreaker, Response::isSuccessful);
+    }
+
+    /**
+     * Create a circuit-breaking call adapter that decorates retrofit calls with the circuit breaker current when
+     * each call is created.
+     *
+     * @param circuitBreaker  the supplier of the current circuit breaker, which may supply null to not decorate
+     * @param successResponse {@link Predicate} that determines whether the {@link Call} {@link
+     *                        Response} should be considered successful
+     * @return a {@link CallAdapter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static CircuitBreakerCallAdapter of(
+            final Supplier<CircuitBreaker> circuitBreaker, final Predicate<Response> successResponse) {
         return new CircuitBreakerCallAdapter(circuitBreaker, successResponse);
     }
 
@@ -61,8 +87,11 @@ public final class CircuitBreakerCallAdapter extends CallAdapter.Factory {
 
             @Override
             public Object adapt(Call<Object> call) {
+                final CircuitBreaker current = circuitBreaker.get();
                 return nextAdapter.adapt(
-                        RetrofitCircuitBreaker.decorateCall(circuitBreaker, call, successResponse));
+                        current == null
+                                ? call
+                                : RetrofitCircuitBreaker.decorateCall(current, call, successResponse));
             }
         };
     }
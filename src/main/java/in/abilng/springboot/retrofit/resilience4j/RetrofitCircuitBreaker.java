@@ -2,9 +2,9 @@ package in.abilng.springboot.retrofit.resilience4j;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import in.abilng.springboot.retrofit.resilience4j.internal.DelegateCall;
+import in.abilng.springboot.retrofit.resilience4j.internal.UnsuccessfulResponseException;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
-import io.github.resilience4j.core.StopWatch;
 import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
@@ -80,10 +80,8 @@ public interface RetrofitCircuitBreaker {
                             if (responseSuccess.test(response)) {
                                 circuitBreaker.onResult(System.nanoTime() - start, TimeUnit.NANOSECONDS, response);
                             } else {
-                                final Throwable throwable =
-                                        new Throwable(
-                                                "Response error: HTTP " + response.code() + " - " + response.message());
-                                circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, throwable);
+                                circuitBreaker.onError(
+                                        System.nanoTime() - start, TimeUnit.NANOSECONDS, asError(response));
                             }
                             callback.onResponse(call, response);
                         }
@@ -103,16 +101,15 @@ public interface RetrofitCircuitBreaker {
         @Override
         public Response<T> execute() throws IOException {
             circuitBreaker.acquirePermission();
-            final StopWatch stopWatch = StopWatch.start();
+            final long start = System.nanoTime();
             try {
                 final Response<T> response = delegate.execute();
 
                 if (responseSuccess.test(response)) {
-                    circuitBreaker.onResult(stopWatch.stop().toNanos(), TimeUnit.NANOSECONDS, response);
+                    circuitBreaker.onResult(System.nanoTime() - start, TimeUnit.NANOSECONDS, response);
                 } else {
-                    final Throwable throwable =
-                            new Throwable("Response error: HTTP " + response.code() + " - " + response.message());
-                    circuitBreaker.onError(stopWatch.stop().toNanos(), TimeUnit.NANOSECONDS, throwable);
+                    circuitBreaker.onError(
+                            System.nanoTime() - start, TimeUnit.NANOSECONDS, asError(response));
                 }
 
                 return response;
@@ -120,12 +117,19 @@ public interface RetrofitCircuitBreaker {
                 if (delegate.isCanceled()) {
                     circuitBreaker.releasePermission();
                 } else {
-                    circuitBreaker.onError(stopWatch.stop().toNanos(), TimeUnit.NANOSECONDS, exception);
+                    circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, exception);
                 }
                 throw exception;
             }
         }
 
+        /**
+         * Stackless error signal for an unsuccessful response; the message is formatted lazily.
+         */
+        private static Throwable asError(Response<?> response) {
+            return new UnsuccessfulResponseException(response.code(), response.message());
+        }
+
         @Override
         @SuppressWarnings({
             "PMD.ProperCloneImplementation",
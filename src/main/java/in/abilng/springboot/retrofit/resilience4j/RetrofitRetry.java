@@ -2,9 +2,14 @@ package in.abilng.springboot.retrofit.resilience4j;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import in.abilng.springboot.retrofit.resilience4j.internal.DelegateCall;
+import in.abilng.springboot.retrofit.resilience4j.internal.RetryScheduler;
 import io.github.resilience4j.retry.Retry;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 import okhttp3.Request;
+import okio.Timeout;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -32,17 +37,72 @@ public interface RetrofitRetry {
         return new RetryCall<>(call, retry);
     }
 
+    /**
+     * Decorate {@link Call}s allow Retry functionality, limited by a {@link RetryBudget} and held by a
+     * {@link ThrottleGate}.
+     *
+     * @param <T>          The response type parameter
+     * @param retry        Retry to apply
+     * @param budget       the retry budget, null for no limit
+     * @param throttleGate the throttle gate, null to not hold requests
+     * @param call         Call to decorate
+     * @return Original Call decorated with Retry
+     */
+    static <T> Call<T> decorateCall(
+            final Retry retry,
+            final RetryBudget budget,
+            final ThrottleGate throttleGate,
+            final Call<T> call) {
+        return new RetryCall<>(call, retry, budget, throttleGate);
+    }
+
+    /**
+     * Decorate {@link Call}s allow Retry functionality, limited by a {@link RetryBudget} and held by a
+     * {@link ThrottleGate}, not retrying throttled responses whose {@code Retry-After} is too long.
+     *
+     * @param <T>           The response type parameter
+     * @param retry         Retry to apply
+     * @param budget        the retry budget, null for no limit
+     * @param throttleGate  the throttle gate, null to not hold requests
+     * @param maxRetryAfter the longest Retry-After waited for before a retry
+     * @param call          Call to decorate
+     * @return Original Call decorated with Retry
+     */
+    static <T> Call<T> decorateCall(
+            final Retry retry,
+            final RetryBudget budget,
+            final ThrottleGate throttleGate,
+            final Duration maxRetryAfter,
+            final Call<T> call) {
+        return new RetryCall<>(call, retry, budget, throttleGate, maxRetryAfter);
+    }
+
     /**
      * The Retry call.
+     * <br/>
+     * The wait between attempts is taken from the retry interval, which honours {@code Retry-After} when
+     * configured with {@link RetryAfter#intervalBiFunction}. Asynchronous calls schedule the next attempt instead
+     * of blocking a thread. No attempt is made when the wait would exceed the call deadline or timeout, nor when
+     * a throttled response asks for a longer wait than the max Retry-After, whose response is then returned.
+     * The retry context is completed on every outcome, so the Retry metrics and events count every call.
      *
      * @param <T> The response type parameter
      */
     @SuppressWarnings("unused")
     class RetryCall<T> extends DelegateCall<T> {
 
+        private static final long NO_DEADLINE = 0;
+
         private final Call<T> call;
         private final Retry retry;
-        private final Retry.Context<Response<T>> context;
+        private final RetryBudget budget;
+        private final ThrottleGate throttleGate;
+        private final long maxRetryAfterMillis;
+
+        /**
+         * The attempt in flight, cancelled together with this call.
+         */
+        private volatile Call<T> current;
 
         /**
          * Instantiates a new Retry call.
@@ -51,51 +111,147 @@ public interface RetrofitRetry {
          * @param retry the retry
          */
         public RetryCall(Call<T> call, Retry retry) {
+            this(call, retry, null, null);
+        }
+
+        /**
+         * Instantiates a new Retry call limited by a retry budget and held by a throttle gate.
+         *
+         * @param call         the call
+         * @param retry        the retry
+         * @param budget       the retry budget, null for no limit
+         * @param throttleGate the throttle gate, null to not hold requests
+         */
+        public RetryCall(Call<T> call, Retry retry, RetryBudget budget, ThrottleGate throttleGate) {
+            this(call, retry, budget, throttleGate, RetryAfter.DEFAULT_MAX_DELAY);
+        }
+
+        /**
+         * Instantiates a new Retry call limited by a retry budget and held by a throttle gate.
+         *
+         * @param call          the call
+         * @param retry         the retry
+         * @param budget        the retry budget, null for no limit
+         * @param throttleGate  the throttle gate, null to not hold requests
+         * @param maxRetryAfter the longest Retry-After waited for before a retry
+         */
+        public RetryCall(
+                Call<T> call, Retry retry, RetryBudget budget, ThrottleGate throttleGate, Duration maxRetryAfter) {
             super(call);
             this.call = call;
             this.retry = retry;
-            this.context = retry.context();
-        }
-
-        private Callback<T> retriedCallback(Callback<T> callback) {
-            return new Callback<T>() {
-
-                /**
-                 * Invoked for a received HTTP response.
-                 */
-                @Override
-                public void onResponse(Call<T> call, Response<T> response) {
-                    if (context.onResult(response)) {
-                        executableCall().enqueue(retriedCallback(callback));
-                    } else {
-                        context.onComplete();
-                        callback.onResponse(call, response);
-                    }
+            this.budget = budget;
+            this.throttleGate = throttleGate;
+            this.maxRetryAfterMillis = maxRetryAfter.toMillis();
+        }
+
+        /**
+         * Withdraws a retry from the budget, once everything else allows it.
+         * A denied retry fails fast with the outcome of the last attempt.
+         */
+        private boolean withdrawRetry() {
+            return budget == null || budget.tryWithdraw();
+        }
+
+        /**
+         * Whether the response asks for a longer wait than the max Retry-After, so it is not retried.
+         */
+        private boolean exceedsMaxRetryAfter(Response<T> response) {
+            return RetryAfter.delayMillis(response) > maxRetryAfterMillis;
+        }
+
+        private void onResponse(Response<T> response) {
+            if (throttleGate != null) {
+                throttleGate.onResponse(response);
+            }
+        }
+
+        /**
+         * Deadline of all attempts, from the deadline or timeout of the call.
+         */
+        private long deadline() {
+            final Timeout timeout = call.timeout();
+            if (timeout.hasDeadline()) {
+                return timeout.deadlineNanoTime();
+            }
+            if (timeout.timeoutNanos() > 0) {
+                return System.nanoTime() + timeout.timeoutNanos();
+            }
+            return NO_DEADLINE;
+        }
+
+        private static boolean exceedsDeadline(long deadline, long delayMillis) {
+            return deadline != NO_DEADLINE
+                    && System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis) - deadline > 0;
+        }
+
+        /**
+         * Callback shared by every attempt of a single {@link #enqueue(Callback)}.
+         */
+        private final class RetryingCallback implements Callback<T> {
+
+            private final Callback<T> callback;
+
+            private final Retry.AsyncContext<Response<T>> retryContext = retry.asyncContext();
+
+            private final long deadline = deadline();
+
+            private RetryingCallback(Callback<T> callback) {
+                this.callback = callback;
+            }
+
+            /**
+             * Invoked for a received HTTP response.
+             */
+            @Override
+            public void onResponse(Call<T> attempt, Response<T> response) {
+                RetryCall.this.onResponse(response);
+                final long delay =
+                        isCanceled() || exceedsMaxRetryAfter(response) ? -1 : retryContext.onResult(response);
+                if (delay >= 0 && !exceedsDeadline(deadline, delay) && withdrawRetry()) {
+                    retryAfter(delay);
+                    return;
+                }
+                try {
+                    retryContext.onComplete();
+                } catch (RuntimeException exception) {
+                    // max attempts exhausted with failAfterMaxAttempts, same as the synchronous path
+                    callback.onFailure(attempt, exception);
+                    return;
                 }
+                callback.onResponse(attempt, response);
+            }
 
-                /**
-                 * Invoked when a network exception occurred talking to the server or when an unexpected
-                 * exception occurred creating the request or processing the response.
-                 */
-                @Override
-                public void onFailure(Call<T> call, Throwable throwable) {
-                    try {
-                        context.onError(asException(throwable));
-                        executableCall().enqueue(retriedCallback(callback));
-                    } catch (Exception exception) {
-                        callback.onFailure(call, exception);
-                    }
+            /**
+             * Invoked when a network exception occurred talking to the server or when an unexpected
+             * exception occurred creating the request or processing the response.
+             */
+            @Override
+            public void onFailure(Call<T> attempt, Throwable throwable) {
+                final long delay = retryContext.onError(throwable);
+                if (isCanceled() || delay < 0 || exceedsDeadline(deadline, delay) || !withdrawRetry()) {
+                    callback.onFailure(attempt, throwable);
+                    return;
+                }
+                retryAfter(delay);
+            }
+
+            private void retryAfter(long delay) {
+                if (delay == 0) {
+                    executableCall().enqueue(this);
+                } else {
+                    RetryScheduler.schedule(this::retry, delay);
                 }
+            }
 
-                /**
-                 * resilience4j accepts exceptions only.
-                 */
-                private Exception asException(Throwable throwable) {
-                    return throwable instanceof Exception
-                            ? (Exception) throwable
-                            : new RuntimeException("Throwable", throwable);
+            private void retry() {
+                final Call<T> attempt = executableCall();
+                if (isCanceled()) {
+                    callback.onFailure(attempt, new IOException("Canceled"));
+                } else {
+                    attempt.enqueue(this);
                 }
-            };
+            }
         }
 
         /**
@@ -104,7 +260,16 @@ public interface RetrofitRetry {
          */
         @Override
         public void enqueue(final Callback<T> callback) {
-            call.enqueue(retriedCallback(callback));
+            if (budget != null) {
+                budget.deposit();
+            }
+            final RetryingCallback retryingCallback = new RetryingCallback(callback);
+            final long hold = throttleGate == null ? 0 : throttleGate.remainingMillis();
+            if (hold > 0) {
+                RetryScheduler.schedule(() -> call.enqueue(retryingCallback), hold);
+            } else {
+                call.enqueue(retryingCallback);
+            }
         }
 
         /**
@@ -112,16 +277,50 @@ public interface RetrofitRetry {
          */
         @Override
         public Response<T> execute() throws IOException {
-            Response<T> response = null;
+            if (throttleGate != null) {
+                sleep(throttleGate.remainingMillis());
+            }
+            if (budget != null) {
+                budget.deposit();
+            }
+            final Retry.AsyncContext<Response<T>> retryContext = retry.asyncContext();
+            final long deadline = deadline();
+            while (true) {
+                final Response<T> response;
+                try {
+                    response = executableCall().execute();
+                } catch (IOException | RuntimeException exception) {
+                    final long delay = retryContext.onError(exception);
+                    if (isCanceled() || delay < 0 || exceedsDeadline(deadline, delay) || !withdrawRetry()) {
+                        throw exception;
+                    }
+                    sleep(delay);
+                    continue;
+                }
+                onResponse(response);
+                final long delay =
+                        isCanceled() || exceedsMaxRetryAfter(response) ? -1 : retryContext.onResult(response);
+                if (delay < 0 || exceedsDeadline(deadline, delay) || !withdrawRetry()) {
+                    // completes the retry context whichever way the retries stopped
+                    retryContext.onComplete();
+                    return response;
+                }
+                sleep(delay);
+            }
+        }
 
+        private static void sleep(long millis) throws InterruptedIOException {
+            if (millis <= 0) {
+                return;
+            }
             try {
-                response = retry.executeCallable(() -> executableCall().execute());
-            } catch (IOException | RuntimeException ioe) {
-                throw ioe;
-            } catch (Exception t) {
-                throw new RuntimeException("Exception executing call", t);
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                final InterruptedIOException exception = new InterruptedIOException("Interrupted while waiting");
+                exception.initCause(e);
+                throw exception;
             }
-            return response;
         }
 
         /**
@@ -129,10 +328,9 @@ public interface RetrofitRetry {
          * #enqueue(Callback) enqueued} already else would return the actual call.
          */
         private Call<T> executableCall() {
-            if (call.isExecuted()) {
-                return call.clone();
-            }
-            return call;
+            final Call<T> executable = call.isExecuted() ? call.clone() : call;
+            current = executable;
+            return executable;
         }
 
         /**
@@ -146,7 +344,12 @@ public interface RetrofitRetry {
         })
         @SuppressFBWarnings("CN_IDIOM_NO_SUPER_CALL")
         public Call<T> clone() {
-            return (new RetryCall<>(executableCall(), retry));
+            return new RetryCall<>(
+                    call.isExecuted() ? call.clone() : call,
+                    retry,
+                    budget,
+                    throttleGate,
+                    Duration.ofMillis(maxRetryAfterMillis));
         }
 
         /**
@@ -173,6 +376,10 @@ public interface RetrofitRetry {
         @Override
         public void cancel() {
             call.cancel();
+            final Call<T> attempt = current;
+            if (attempt != null) {
+                attempt.cancel();
+            }
         }
 
         /**
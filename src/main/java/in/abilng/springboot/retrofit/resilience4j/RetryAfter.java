@@ -0,0 +1,107 @@
+package in.abilng.springboot.retrofit.resilience4j;
+
+import io.github.resilience4j.core.IntervalBiFunction;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import retrofit2.Response;
+
+/**
+ * Support for the {@code Retry-After} header of throttled ({@code 429 Too Many Requests}) and unavailable
+ * ({@code 503 Service Unavailable}) responses.
+ */
+public final class RetryAfter {
+
+    /**
+     * The Retry-After header name.
+     */
+    public static final String HEADER = "Retry-After";
+
+    /**
+     * HTTP status code of too many requests.
+     */
+    public static final int TOO_MANY_REQUESTS = 429;
+
+    /**
+     * HTTP status code of service unavailable.
+     */
+    public static final int SERVICE_UNAVAILABLE = 503;
+
+    /**
+     * Longest {@code Retry-After} waited for by default; a throttled response asking for longer is not retried.
+     */
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(5);
+
+    private static final long NO_DELAY = -1;
+
+    private RetryAfter() {}
+
+    /**
+     * Whether the response is throttled, ie: 429 or 503.
+     *
+     * @param response the response
+     * @return true if throttled
+     */
+    public static boolean isThrottled(Response<?> response) {
+        return response.code() == TOO_MANY_REQUESTS || response.code() == SERVICE_UNAVAILABLE;
+    }
+
+    /**
+     * Delay requested by the {@code Retry-After} header of a throttled response.
+     *
+     * @param response the response
+     * @return the delay in milliseconds, -1 if the response is not throttled or has no valid header
+     */
+    public static long delayMillis(Response<?> response) {
+        if (!isThrottled(response)) {
+            return NO_DELAY;
+        }
+        return parseMillis(response.headers().get(HEADER), Clock.systemUTC());
+    }
+
+    /**
+     * Parse a {@code Retry-After} value, either delay seconds or an HTTP date.
+     *
+     * @param value the header value
+     * @param clock the clock to compute the delay until an HTTP date
+     * @return the delay in milliseconds, -1 if the value is absent or invalid
+     */
+    public static long parseMillis(String value, Clock clock) {
+        if (value == null || value.isBlank()) {
+            return NO_DELAY;
+        }
+        final String trimmed = value.trim();
+        try {
+            final long seconds = Long.parseLong(trimmed);
+            return seconds < 0 ? NO_DELAY : Duration.ofSeconds(seconds).toMillis();
+        } catch (NumberFormatException e) {
+            try {
+                final ZonedDateTime date = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(clock.instant(), date.toInstant()).toMillis());
+            } catch (DateTimeParseException dateTimeParseException) {
+                return NO_DELAY;
+            }
+        }
+    }
+
+    /**
+     * Retry interval honouring {@code Retry-After}, falling back to a fixed wait duration.
+     *
+     * @param waitDuration the wait duration used when no Retry-After is given
+     * @return the interval bi function
+     */
+    public static IntervalBiFunction<Response<?>> intervalBiFunction(Duration waitDuration) {
+        final long waitMillis = waitDuration.toMillis();
+        return (attempt, either) -> {
+            if (either.isRight()) {
+                final long delay = delayMillis(either.get());
+                if (delay >= 0) {
+                    return delay;
+                }
+            }
+            return waitMillis;
+        };
+    }
+}
@@ -0,0 +1,137 @@
+package in.abilng.springboot.retrofit.resilience4j;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket limiting retries to a ratio of recent first attempts plus a minimum rate, so that a failing
+ * backend does not receive a multiple of its normal load.
+ * <br/>
+ * Every first attempt deposits {@code ratio} tokens, every retry withdraws one. Deposits expire after the
+ * {@code ttl}, and {@code minRetriesPerSecond * ttl} tokens are always available, so services with low traffic
+ * can still retry. Counts are kept in one-second buckets and are approximate under contention.
+ */
+public final class RetryBudget {
+
+    private static final long BUCKET_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private static final double RETRY_COST = 1.0;
+
+    private final String name;
+    private final double ratio;
+    private final long reserve;
+    private final int buckets;
+
+    private final long origin = System.nanoTime();
+
+    private final AtomicLongArray epochs;
+    private final AtomicLongArray deposits;
+    private final AtomicLongArray withdrawals;
+    private final LongAdder exhausted = new LongAdder();
+
+    private RetryBudget(String name, double ratio, int minRetriesPerSecond, Duration ttl) {
+        if (ratio < 0) {
+            throw new IllegalArgumentException("ratio must be >= 0");
+        }
+        if (minRetriesPerSecond < 0) {
+            throw new IllegalArgumentException("minRetriesPerSecond must be >= 0");
+        }
+        this.name = name;
+        this.ratio = ratio;
+        this.buckets = (int) Math.max(1, ttl.toSeconds());
+        this.reserve = (long) minRetriesPerSecond * buckets;
+        this.epochs = new AtomicLongArray(buckets);
+        this.deposits = new AtomicLongArray(buckets);
+        this.withdrawals = new AtomicLongArray(buckets);
+    }
+
+    /**
+     * Create a retry budget.
+     *
+     * @param name                the name of the budget
+     * @param ratio               the ratio of retries to first attempts
+     * @param minRetriesPerSecond the retries per second allowed regardless of the first attempts
+     * @param ttl                 the window of first attempts that can be retried
+     * @return the retry budget
+     */
+    public static RetryBudget of(String name, double ratio, int minRetriesPerSecond, Duration ttl) {
+        return new RetryBudget(name, ratio, minRetriesPerSecond, ttl);
+    }
+
+    /**
+     * Gets the name of the budget.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Record a first attempt.
+     */
+    public void deposit() {
+        deposits.incrementAndGet(bucket(epoch()));
+    }
+
+    /**
+     * Try to withdraw a token for a retry.
+     *
+     * @return true if the retry is allowed
+     */
+    public boolean tryWithdraw() {
+        final long epoch = epoch();
+        final int bucket = bucket(epoch);
+        if (available(epoch) >= RETRY_COST) {
+            withdrawals.incrementAndGet(bucket);
+            return true;
+        }
+        exhausted.increment();
+        return false;
+    }
+
+    /**
+     * Gets the number of retries currently allowed.
+     *
+     * @return the available retries
+     */
+    public long getAvailableRetries() {
+        return Math.max(0, (long) available(epoch()));
+    }
+
+    /**
+     * Gets the number of retries denied since the budget was created.
+     *
+     * @return the exhausted count
+     */
+    public long getExhaustedCount() {
+        return exhausted.sum();
+    }
+
+    private double available(long epoch) {
+        long deposited = 0;
+        long withdrawn = 0;
+        for (int i = 0; i < buckets; i++) {
+            if (epoch - epochs.get(i) < buckets) {
+                deposited += deposits.get(i);
+                withdrawn += withdrawals.get(i);
+            }
+        }
+        return deposited * ratio + reserve - withdrawn;
+    }
+
+    private int bucket(long epoch) {
+        final int bucket = (int) (epoch % buckets);
+        final long current = epochs.get(bucket);
+        if (current != epoch && epochs.compareAndSet(bucket, current, epoch)) {
+            deposits.set(bucket, 0);
+            withdrawals.set(bucket, 0);
+        }
+        return bucket;
+    }
+
+    private long epoch() {
+        return (System.nanoTime() - origin) / BUCKET_NANOS;
+    }
+}
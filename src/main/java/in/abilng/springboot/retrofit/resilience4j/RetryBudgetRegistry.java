@@ -0,0 +1,55 @@
+package in.abilng.springboot.retrofit.resilience4j;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the {@link RetryBudget}s of the Retrofit clients.
+ */
+public class RetryBudgetRegistry {
+
+    private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+
+    private final List<Consumer<RetryBudget>> consumers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Gets the budget of the given name, creating it if absent.
+     *
+     * @param name    the name of the budget
+     * @param factory the factory creating the budget
+     * @return the retry budget
+     */
+    public RetryBudget budget(String name, Supplier<RetryBudget> factory) {
+        return budgets.computeIfAbsent(
+                name,
+                key -> {
+                    final RetryBudget budget = factory.get();
+                    consumers.forEach(consumer -> consumer.accept(budget));
+                    return budget;
+                });
+    }
+
+    /**
+     * Gets all budgets.
+     *
+     * @return the budgets
+     */
+    public Collection<RetryBudget> getAllBudgets() {
+        return List.copyOf(budgets.values());
+    }
+
+    /**
+     * Registers a consumer of the budgets, called for the existing and the budgets created later.
+     *
+     * @param consumer the consumer
+     */
+    public void onBudget(Consumer<RetryBudget> consumer) {
+        consumers.add(consumer);
+        budgets.values().forEach(consumer);
+    }
+}
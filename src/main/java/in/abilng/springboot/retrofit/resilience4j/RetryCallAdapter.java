@@ -1,8 +1,11 @@
 package in.abilng.springboot.retrofit.resilience4j;
 
+import in.abilng.springboot.retrofit.streaming.EventStreamCallAdapter;
 import io.github.resilience4j.retry.Retry;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.function.Supplier;
 import retrofit2.Call;
 import retrofit2.CallAdapter;
 import retrofit2.Retrofit;
@@ -13,10 +16,23 @@ import retrofit2.Retrofit;
  */
 public final class RetryCallAdapter extends CallAdapter.Factory {
 
-    private final Retry retry;
+    private final Supplier<Retry> retry;
 
-    private RetryCallAdapter(final Retry retry) {
+    private final RetryBudget budget;
+
+    private final ThrottleGate throttleGate;
+
+    private final Duration maxRetryAfter;
+
+    private RetryCallAdapter(
+            final Supplier<Retry> retry,
+            final RetryBudget budget,
+            final ThrottleGate throttleGate,
+            final Duration maxRetryAfter) {
         this.retry = retry;
+        this.budget = budget;
+        this.throttleGate = throttleGate;
+        this.maxRetryAfter = maxRetryAfter;
     }
 
     /**
@@ -26,7 +42,59 @@ public final class RetryCallAdapter extends CallAdapter.Factory {
      * @return a {@link CallAdapter.Factory} that can be passed into the {@link Retrofit.Builder}
      */
     public static RetryCallAdapter of(Retry retry) {
-        return new RetryCallAdapter(retry);
+        return new RetryCallAdapter(() -> retry, null, null, RetryAfter.DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * Create a retry call adapter that decorates retrofit calls, limiting retries with a budget.
+     *
+     * @param retry  the retry
+     * @param budget the retry budget
+     * @return a {@link CallAdapter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static RetryCallAdapter of(Retry retry, RetryBudget budget) {
+        return new RetryCallAdapter(() -> retry, budget, null, RetryAfter.DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * Create a retry call adapter that decorates retrofit calls, limiting retries with a budget and holding
+     * requests while the service is throttling.
+     *
+     * @param retry        the retry
+     * @param budget       the retry budget, null for no limit
+     * @param throttleGate the throttle gate, null to not hold requests
+     * @return a {@link CallAdapter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static RetryCallAdapter of(Retry retry, RetryBudget budget, ThrottleGate throttleGate) {
+        return new RetryCallAdapter(() -> retry, budget, throttleGate, RetryAfter.DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * Create a retry call adapter that decorates retrofit calls with the retry current when each call is created,
+     * so that the retry can be replaced while the client is in use.
+     *
+     * @param retry        the supplier of the current retry, which may supply null to not retry
+     * @param budget       the retry budget, null for no limit
+     * @param throttleGate the throttle gate, null to not hold requests
+     * @return a {@link CallAdapter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static RetryCallAdapter of(Supplier<Retry> retry, RetryBudget budget, ThrottleGate throttleGate) {
+        return new RetryCallAdapter(retry, budget, throttleGate, RetryAfter.DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * Create a retry call adapter that decorates retrofit calls with the retry current when each call is created,
+     * not retrying throttled responses whose {@code Retry-After} is longer than the max Retry-After.
+     *
+     * @param retry         the supplier of the current retry, which may supply null to not retry
+     * @param budget        the retry budget, null for no limit
+     * @param throttleGate  the throttle gate, null to not hold requests
+     * @param maxRetryAfter the longest Retry-After waited for before a retry
+     * @return a {@link CallAdapter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static RetryCallAdapter of(
+            Supplier<Retry> retry, RetryBudget budget, ThrottleGate throttleGate, Duration maxRetryAfter) {
+        return new RetryCallAdapter(retry, budget, throttleGate, maxRetryAfter);
     }
 
     @Override
@@ -35,6 +103,11 @@ public final class RetryCallAdapter extends CallAdapter.Factory {
         CallAdapter<Object, Object> nextAdapter =
                 (CallAdapter<Object, Object>) retrofit.nextCallAdapter(this, returnType, annotations);
 
+        // event streams are consumed after the call completed, they can not be replayed
+        if (EventStreamCallAdapter.isEventStreamCall(returnType)) {
+            return nextAdapter;
+        }
+
         return new CallAdapter<Object, Object>() {
             @Override
             public Type responseType() {
@@ -43,7 +116,10 @@ public final class RetryCallAdapter extends CallAdapter.Factory {
 
             @Override
             public Object adapt(Call<Object> call) {
-                return nextAdapter.adapt(RetrofitRetry.decorateCall(retry, call));
+                final Retry current = retry.get();
+                return nextAdapter.adapt(
+                        current == null ? call : RetrofitRetry.decorateCall(
+                                current, budget, throttleGate, maxRetryAfter, call));
             }
         };
     }
@@ -0,0 +1,63 @@
+package in.abilng.springboot.retrofit.resilience4j;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import retrofit2.Response;
+
+/**
+ * Holds new requests of a service until the {@code Retry-After} of the last throttled response has passed,
+ * so that a throttling backend is not hit by requests that would be rejected anyway.
+ * <br/>
+ * Requests are held for at most the max hold, whatever the {@code Retry-After}.
+ */
+public final class ThrottleGate {
+
+    private final long createdAt = System.nanoTime();
+
+    /**
+     * Nanos after {@link #createdAt} until which requests are held.
+     */
+    private final AtomicLong closedUntil = new AtomicLong();
+
+    private final long maxHoldMillis;
+
+    /**
+     * Instantiates a new Throttle gate holding requests for at most {@link RetryAfter#DEFAULT_MAX_DELAY}.
+     */
+    public ThrottleGate() {
+        this(RetryAfter.DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * Instantiates a new Throttle gate.
+     *
+     * @param maxHold the longest time requests are held
+     */
+    public ThrottleGate(Duration maxHold) {
+        this.maxHoldMillis = maxHold.toMillis();
+    }
+
+    /**
+     * Record a response, closing the gate for its {@code Retry-After} when throttled.
+     *
+     * @param response the response
+     */
+    public void onResponse(Response<?> response) {
+        final long delay = Math.min(RetryAfter.delayMillis(response), maxHoldMillis);
+        if (delay > 0) {
+            final long until = System.nanoTime() - createdAt + TimeUnit.MILLISECONDS.toNanos(delay);
+            closedUntil.accumulateAndGet(until, Math::max);
+        }
+    }
+
+    /**
+     * Time new requests should be held.
+     *
+     * @return the remaining delay in milliseconds, 0 if the gate is open
+     */
+    public long remainingMillis() {
+        final long remaining = closedUntil.get() - (System.nanoTime() - createdAt);
+        return remaining > 0 ? TimeUnit.NANOSECONDS.toMillis(remaining) : 0;
+    }
+}
@@ -0,0 +1,47 @@
+package in.abilng.springboot.retrofit.resilience4j.internal;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules delayed retry attempts of enqueued calls, so that no thread is blocked while waiting.
+ * Scheduled tasks only enqueue the next attempt, a single daemon thread is enough.
+ */
+public final class RetryScheduler {
+
+    private RetryScheduler() {}
+
+    /**
+     * Run a task after a delay.
+     *
+     * @param task        the task
+     * @param delayMillis the delay in milliseconds
+     */
+    public static void schedule(Runnable task, long delayMillis) {
+        SingletonHolder.instance.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * SingletonHolder for the scheduler.
+     */
+    private static class SingletonHolder {
+        /**
+         * static Singleton instance.
+         */
+        public static final ScheduledExecutorService instance = create();
+
+        private static ScheduledExecutorService create() {
+            final ScheduledThreadPoolExecutor executor =
+                    new ScheduledThreadPoolExecutor(
+                            1,
+                            runnable -> {
+                                final Thread thread = new Thread(runnable, "retrofit-retry-scheduler");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package in.abilng.springboot.retrofit.resilience4j.internal;
+
+/**
+ * Lightweight error signal for a {@link retrofit2.Response} that is not considered successful.
+ * <br/>
+ * The stack trace is never filled in and the message is only formatted when it is read, so signalling
+ * a failed response to a circuit breaker costs a single small allocation.
+ */
+public final class UnsuccessfulResponseException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int code;
+
+    private final String reason;
+
+    /**
+     * Instantiates a new Unsuccessful response exception.
+     *
+     * @param code   the HTTP status code
+     * @param reason the HTTP status message
+     */
+    public UnsuccessfulResponseException(int code, String reason) {
+        super(null, null, false, false);
+        this.code = code;
+        this.reason = reason;
+    }
+
+    /**
+     * HTTP status code of the response.
+     *
+     * @return the status code
+     */
+    public int getCode() {
+        return code;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Response error: HTTP " + code + " - " + reason;
+    }
+}
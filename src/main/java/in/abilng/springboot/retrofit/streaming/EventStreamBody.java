@@ -0,0 +1,40 @@
+package in.abilng.springboot.retrofit.streaming;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+
+/**
+ * The response body of an event stream, not buffered.
+ *
+ * @param body the body
+ */
+record EventStreamBody(ResponseBody body) {
+
+    /**
+     * The type {@code Call<EventStreamBody>}.
+     */
+    static final Type CALL_TYPE =
+            new ParameterizedType() {
+                @Override
+                public Type[] getActualTypeArguments() {
+                    return new Type[] {EventStreamBody.class};
+                }
+
+                @Override
+                public Type getRawType() {
+                    return Call.class;
+                }
+
+                @Override
+                public Type getOwnerType() {
+                    return null;
+                }
+
+                @Override
+                public String toString() {
+                    return Call.class.getName() + "<" + EventStreamBody.class.getName() + ">";
+                }
+            };
+}
@@ -0,0 +1,113 @@
+package in.abilng.springboot.retrofit.streaming;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.Flow;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Creates a Retrofit {@link CallAdapter.Factory} for methods returning {@code Flow.Publisher<T>} or, with Reactor
+ * on the classpath, {@code Flux<T>}, which decode a NDJSON or Server-Sent Events response as it arrives.
+ * <br/>
+ * Responses of type {@code text/event-stream} are read as events, and the data of each event is decoded; other
+ * responses are read as one element per line. Elements are decoded by the response body converter of their type,
+ * or kept as is for {@code String}.
+ * <br/>
+ * The response is a {@code Call<EventStreamBody>} adapted by the next call adapters: the circuit breaker records
+ * its outcome, but it is not retried since the body is consumed after the call completed. It must be the first
+ * call adapter factory, and the {@link #converterFactory()} must come before the other converter factories.
+ */
+public final class EventStreamCallAdapter extends CallAdapter.Factory {
+
+    private static final String FLUX = "reactor.core.publisher.Flux";
+
+    private EventStreamCallAdapter() {}
+
+    /**
+     * Create an event stream call adapter.
+     *
+     * @return a {@link CallAdapter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static EventStreamCallAdapter of() {
+        return new EventStreamCallAdapter();
+    }
+
+    /**
+     * Create the converter factory giving the unbuffered response body to event stream calls.
+     *
+     * @return a {@link Converter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static Converter.Factory converterFactory() {
+        return new EventStreamBodyConverterFactory();
+    }
+
+    /**
+     * Whether a method return type is an event stream.
+     *
+     * @param returnType the return type
+     * @return true for {@code Flow.Publisher<T>} and {@code Flux<T>}
+     */
+    public static boolean isEventStream(Type returnType) {
+        final Class<?> rawType = getRawType(returnType);
+        return returnType instanceof ParameterizedType
+                && (rawType == Flow.Publisher.class || FLUX.equals(rawType.getName()));
+    }
+
+    /**
+     * Whether a call returns the unbuffered body of an event stream.
+     *
+     * @param returnType the return type of the call
+     * @return true for {@code Call<EventStreamBody>}
+     */
+    public static boolean isEventStreamCall(Type returnType) {
+        return getRawType(returnType) == Call.class
+                && returnType instanceof ParameterizedType parameterizedType
+                && getParameterUpperBound(0, parameterizedType) == EventStreamBody.class;
+    }
+
+    @Override
+    public CallAdapter<?, ?> get(Type returnType, Annotation[] annotations, Retrofit retrofit) {
+        if (!isEventStream(returnType)) {
+            return retrofit.nextCallAdapter(this, returnType, annotations);
+        }
+        final Type elementType = getParameterUpperBound(0, (ParameterizedType) returnType);
+        @SuppressWarnings("unchecked")
+        final CallAdapter<Object, Call<EventStreamBody>> bodyAdapter =
+                (CallAdapter<Object, Call<EventStreamBody>>)
+                        retrofit.nextCallAdapter(this, EventStreamBody.CALL_TYPE, annotations);
+        final Converter<ResponseBody, ?> converter =
+                elementType == String.class ? null : retrofit.responseBodyConverter(elementType, annotations);
+        final boolean flux = getRawType(returnType) != Flow.Publisher.class;
+
+        return new CallAdapter<Object, Object>() {
+            @Override
+            public Type responseType() {
+                return bodyAdapter.responseType();
+            }
+
+            @Override
+            public Object adapt(Call<Object> call) {
+                final EventStreamPublisher<Object> publisher =
+                        new EventStreamPublisher<>(bodyAdapter.adapt(call), converter);
+                return flux ? ReactorAdapter.toFlux(publisher) : publisher;
+            }
+        };
+    }
+
+    /**
+     * Converter factory of {@link EventStreamBody}.
+     */
+    private static final class EventStreamBodyConverterFactory extends Converter.Factory {
+        @Override
+        public Converter<ResponseBody, ?> responseBodyConverter(
+                @NotNull Type type, @NotNull Annotation[] annotations, @NotNull Retrofit retrofit) {
+            return type == EventStreamBody.class ? EventStreamBody::new : null;
+        }
+    }
+}
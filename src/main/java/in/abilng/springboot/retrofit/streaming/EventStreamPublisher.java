@@ -0,0 +1,281 @@
+package in.abilng.springboot.retrofit.streaming;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Converter;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+/**
+ * Publisher of the elements of an event stream response.
+ * <br/>
+ * Each subscription sends a new call. Elements are read from the response body only while the subscriber has
+ * outstanding demand, so a slow subscriber holds the data in the socket buffers instead of the heap. Reading blocks,
+ * so it runs on a shared pool of daemon threads. Cancelling the subscription cancels the call, which closes the
+ * connection.
+ *
+ * @param <T> the element type
+ */
+final class EventStreamPublisher<T> implements Flow.Publisher<T> {
+
+    private static final MediaType EVENT_STREAM = MediaType.get("text/event-stream");
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private static final String DATA_FIELD = "data";
+
+    private final Call<EventStreamBody> call;
+
+    private final Converter<ResponseBody, ?> converter;
+
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    EventStreamPublisher(Call<EventStreamBody> call, Converter<ResponseBody, ?> converter) {
+        this.call = call;
+        this.converter = converter;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        final Call<EventStreamBody> subscriptionCall = subscribed.compareAndSet(false, true) ? call : call.clone();
+        subscriber.onSubscribe(new EventStreamSubscription(subscriptionCall, subscriber));
+    }
+
+    /**
+     * Subscription reading one element per unit of demand.
+     */
+    private final class EventStreamSubscription implements Flow.Subscription {
+
+        private final Call<EventStreamBody> call;
+
+        private final Flow.Subscriber<? super T> subscriber;
+
+        private final AtomicLong demand = new AtomicLong();
+
+        private final AtomicInteger pendingDrains = new AtomicInteger();
+
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        private volatile boolean cancelled;
+
+        private volatile EventReader reader;
+
+        private boolean done;
+
+        private EventStreamSubscription(Call<EventStreamBody> call, Flow.Subscriber<? super T> subscriber) {
+            this.call = call;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("request must be > 0, was " + n));
+                return;
+            }
+            demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            if (started.compareAndSet(false, true)) {
+                call.enqueue(
+                        new Callback<>() {
+                            @Override
+                            public void onResponse(Call<EventStreamBody> call, Response<EventStreamBody> response) {
+                                onConnected(response);
+                            }
+
+                            @Override
+                            public void onFailure(Call<EventStreamBody> call, Throwable throwable) {
+                                if (!cancelled) {
+                                    subscriber.onError(throwable);
+                                }
+                            }
+                        });
+            } else {
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            call.cancel();
+            drain();
+        }
+
+        private void onConnected(Response<EventStreamBody> response) {
+            if (!response.isSuccessful()) {
+                if (!cancelled) {
+                    subscriber.onError(new HttpException(response));
+                }
+                return;
+            }
+            final EventStreamBody body = response.body();
+            if (body == null || body.body() == null) {
+                if (!cancelled) {
+                    subscriber.onComplete();
+                }
+                return;
+            }
+            reader = new EventReader(body.body());
+            drain();
+        }
+
+        private void drain() {
+            if (pendingDrains.getAndIncrement() == 0) {
+                SingletonHolder.instance.execute(this::drainLoop);
+            }
+        }
+
+        /**
+         * Emits elements while there is demand, one thread at a time.
+         */
+        private void drainLoop() {
+            int missed = 1;
+            do {
+                final EventReader current = reader;
+                if (current != null && !done) {
+                    emit(current);
+                }
+                missed = pendingDrains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit(EventReader current) {
+            try {
+                while (!cancelled && demand.get() > 0) {
+                    final String data = current.next();
+                    if (data == null) {
+                        finish(current);
+                        subscriber.onComplete();
+                        return;
+                    }
+                    if (demand.get() != Long.MAX_VALUE) {
+                        demand.decrementAndGet();
+                    }
+                    subscriber.onNext(decode(data));
+                }
+            } catch (IOException | RuntimeException e) {
+                finish(current);
+                if (!cancelled) {
+                    subscriber.onError(e);
+                }
+                return;
+            }
+            if (cancelled) {
+                finish(current);
+            }
+        }
+
+        private void finish(EventReader current) {
+            done = true;
+            current.close();
+        }
+
+        @SuppressWarnings("unchecked")
+        private T decode(String data) throws IOException {
+            if (converter == null) {
+                return (T) data;
+            }
+            return (T) converter.convert(ResponseBody.create(data, JSON));
+        }
+    }
+
+    /**
+     * Reads the data of the next element from the body, a line or a Server-Sent Event.
+     */
+    private static final class EventReader {
+
+        private final ResponseBody body;
+
+        private final BufferedSource source;
+
+        private final boolean events;
+
+        private EventReader(ResponseBody body) {
+            this.body = body;
+            this.source = body.source();
+            final MediaType contentType = body.contentType();
+            this.events =
+                    contentType != null
+                            && EVENT_STREAM.type().equals(contentType.type())
+                            && EVENT_STREAM.subtype().equals(contentType.subtype());
+        }
+
+        /**
+         * Reads the next element.
+         *
+         * @return the data, null at the end of the stream
+         */
+        private String next() throws IOException {
+            return events ? nextEvent() : nextLine();
+        }
+
+        private String nextLine() throws IOException {
+            String line;
+            do {
+                line = source.readUtf8Line();
+            } while (line != null && line.isBlank());
+            return line;
+        }
+
+        /**
+         * The data of the next event, its data lines joined by new lines. Events without data are skipped,
+         * and an event not terminated by a blank line is discarded.
+         */
+        private String nextEvent() throws IOException {
+            StringBuilder data = null;
+            for (String line = source.readUtf8Line(); line != null; line = source.readUtf8Line()) {
+                if (line.isEmpty()) {
+                    if (data != null) {
+                        return data.toString();
+                    }
+                    continue;
+                }
+                final int colon = line.indexOf(':');
+                final String field = colon < 0 ? line : line.substring(0, colon);
+                if (DATA_FIELD.equals(field)) {
+                    String value = colon < 0 ? "" : line.substring(colon + 1);
+                    if (value.startsWith(" ")) {
+                        value = value.substring(1);
+                    }
+                    if (data == null) {
+                        data = new StringBuilder(value);
+                    } else {
+                        data.append('\n').append(value);
+                    }
+                }
+            }
+            return null;
+        }
+
+        private void close() {
+            body.close();
+        }
+    }
+
+    /**
+     * SingletonHolder for the pool of threads reading event streams.
+     */
+    private static class SingletonHolder {
+        /**
+         * static Singleton instance.
+         */
+        public static final ExecutorService instance =
+                Executors.newCachedThreadPool(
+                        runnable -> {
+                            final Thread thread = new Thread(runnable, "retrofit-event-stream");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+    }
+}
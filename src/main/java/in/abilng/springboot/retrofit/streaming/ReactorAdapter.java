@@ -0,0 +1,16 @@
+package in.abilng.springboot.retrofit.streaming;
+
+import java.util.concurrent.Flow;
+import reactor.adapter.JdkFlowAdapter;
+
+/**
+ * Adapts publishers to Reactor, only loaded when a method returns a {@code Flux}.
+ */
+final class ReactorAdapter {
+
+    private ReactorAdapter() {}
+
+    static Object toFlux(Flow.Publisher<?> publisher) {
+        return JdkFlowAdapter.flowPublisherToFlux(publisher);
+    }
+}
@@ -0,0 +1,178 @@
+package in.abilng.springboot.retrofit.timeout;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import in.abilng.springboot.retrofit.resilience4j.internal.DelegateCall;
+import in.abilng.springboot.retrofit.streaming.EventStreamCallAdapter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+/**
+ * Creates a Retrofit {@link CallAdapter.Factory} that sets the timeout of each call from the latency observed
+ * for its method: a multiple of the observed quantile, clamped between a minimum and a maximum.
+ * <br/>
+ * The timeout is applied through {@link Call#timeout()} to every attempt, so it must be the first call adapter
+ * factory for retried attempts to be covered. Until enough samples are observed the maximum is used. Event streams
+ * are not timed out, as the call timeout would also end the stream.
+ */
+public final class AdaptiveTimeoutCallAdapter extends CallAdapter.Factory {
+
+    private final double quantile;
+    private final double multiplier;
+    private final long minTimeoutMillis;
+    private final long maxTimeoutMillis;
+    private final long minSamples;
+    private final Duration window;
+
+    private AdaptiveTimeoutCallAdapter(
+            double quantile,
+            double multiplier,
+            Duration minTimeout,
+            Duration maxTimeout,
+            long minSamples,
+            Duration window) {
+        this.quantile = quantile;
+        this.multiplier = multiplier;
+        this.minTimeoutMillis = minTimeout.toMillis();
+        this.maxTimeoutMillis = maxTimeout.toMillis();
+        this.minSamples = minSamples;
+        this.window = window;
+    }
+
+    /**
+     * Create an adaptive timeout call adapter.
+     *
+     * @param quantile   the latency quantile, eg: 0.99
+     * @param multiplier the multiplier of the latency quantile
+     * @param minTimeout the minimum timeout
+     * @param maxTimeout the maximum timeout, also used until enough samples are observed
+     * @param minSamples the samples needed before adapting the timeout
+     * @param window     the window of observed latencies
+     * @return a {@link CallAdapter.Factory} that can be passed into the {@link Retrofit.Builder}
+     */
+    public static AdaptiveTimeoutCallAdapter of(
+            double quantile,
+            double multiplier,
+            Duration minTimeout,
+            Duration maxTimeout,
+            long minSamples,
+            Duration window) {
+        return new AdaptiveTimeoutCallAdapter(
+                quantile, multiplier, minTimeout, maxTimeout, minSamples, window);
+    }
+
+    @Override
+    public CallAdapter<?, ?> get(Type returnType, Annotation[] annotations, Retrofit retrofit) {
+        @SuppressWarnings("unchecked")
+        CallAdapter<Object, Object> nextAdapter =
+                (CallAdapter<Object, Object>) retrofit.nextCallAdapter(this, returnType, annotations);
+
+        // event streams are read after the call completed, for as long as the server sends events
+        if (EventStreamCallAdapter.isEventStreamCall(returnType)) {
+            return nextAdapter;
+        }
+
+        // one adapter per service method, so is the sketch
+        final LatencySketch sketch = new LatencySketch(window);
+
+        return new CallAdapter<Object, Object>() {
+            @Override
+            public Type responseType() {
+                return nextAdapter.responseType();
+            }
+
+            @Override
+            public Object adapt(Call<Object> call) {
+                return nextAdapter.adapt(new AdaptiveTimeoutCall<>(call, sketch));
+            }
+        };
+    }
+
+    /**
+     * Timeout of the next call of a method.
+     *
+     * @param sketch the latency sketch of the method
+     * @return the timeout in milliseconds
+     */
+    long timeoutMillis(LatencySketch sketch) {
+        if (sketch.count() < minSamples) {
+            return maxTimeoutMillis;
+        }
+        final long adaptive = (long) Math.ceil(sketch.quantile(quantile) * multiplier);
+        return Math.max(minTimeoutMillis, Math.min(maxTimeoutMillis, adaptive));
+    }
+
+    /**
+     * Call applying the adaptive timeout and recording its latency.
+     * Calls failing with an exception other than a timeout are not recorded.
+     *
+     * @param <T> the response type parameter
+     */
+    final class AdaptiveTimeoutCall<T> extends DelegateCall<T> {
+
+        private final LatencySketch sketch;
+
+        AdaptiveTimeoutCall(Call<T> delegate, LatencySketch sketch) {
+            super(delegate);
+            this.sketch = sketch;
+        }
+
+        @Override
+        public Response<T> execute() throws IOException {
+            delegate.timeout().timeout(timeoutMillis(sketch), TimeUnit.MILLISECONDS);
+            final long start = System.nanoTime();
+            try {
+                final Response<T> response = delegate.execute();
+                record(start);
+                return response;
+            } catch (InterruptedIOException e) {
+                record(start);
+                throw e;
+            }
+        }
+
+        @Override
+        public void enqueue(Callback<T> callback) {
+            delegate.timeout().timeout(timeoutMillis(sketch), TimeUnit.MILLISECONDS);
+            final long start = System.nanoTime();
+            delegate.enqueue(
+                    new Callback<T>() {
+                        @Override
+                        public void onResponse(Call<T> call, Response<T> response) {
+                            record(start);
+                            callback.onResponse(call, response);
+                        }
+
+                        @Override
+                        public void onFailure(Call<T> call, Throwable throwable) {
+                            if (throwable instanceof InterruptedIOException) {
+                                record(start);
+                            }
+                            callback.onFailure(call, throwable);
+                        }
+                    });
+        }
+
+        private void record(long start) {
+            sketch.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+
+        @Override
+        @SuppressWarnings({
+            "PMD.ProperCloneImplementation",
+            "PMD.CloneMethodReturnTypeMustMatchClassName"
+        })
+        @SuppressFBWarnings("CN_IDIOM_NO_SUPER_CALL")
+        public Call<T> clone() {
+            return new AdaptiveTimeoutCall<>(delegate.clone(), sketch);
+        }
+    }
+}
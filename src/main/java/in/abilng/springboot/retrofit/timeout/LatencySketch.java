@@ -0,0 +1,129 @@
+package in.abilng.springboot.retrofit.timeout;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streaming latency quantile sketch with logarithmic buckets.
+ * <br/>
+ * Latencies are counted in buckets growing by 10%, so quantiles are over-estimated by at most 10%.
+ * Samples are kept in two rotating windows, the quantile is computed over the current and the previous one,
+ * so the sketch follows changes of latency within two windows. Recording is lock-free and allocation-free.
+ */
+public final class LatencySketch {
+
+    private static final double GROWTH = 1.1;
+
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+
+    /**
+     * Buckets up to {@code 1.1^200} ms, about 5 days.
+     */
+    private static final int BUCKETS = 200;
+
+    private final long windowNanos;
+
+    private volatile Window current;
+
+    private volatile Window previous;
+
+    /**
+     * Instantiates a new Latency sketch.
+     *
+     * @param window the duration of a window
+     */
+    public LatencySketch(Duration window) {
+        this.windowNanos = window.toNanos();
+        final long now = System.nanoTime();
+        this.current = new Window(now);
+        this.previous = new Window(now);
+    }
+
+    /**
+     * Record a latency.
+     *
+     * @param millis the latency in milliseconds
+     */
+    public void record(long millis) {
+        window().record(bucket(millis));
+    }
+
+    /**
+     * Number of samples in the current and previous window.
+     *
+     * @return the count
+     */
+    public long count() {
+        final Window window = window();
+        return window.total.sum() + previous.total.sum();
+    }
+
+    /**
+     * Estimate a quantile of the latency in the current and previous window.
+     *
+     * @param quantile the quantile, between 0 and 1
+     * @return the latency in milliseconds, 0 if there is no sample
+     */
+    public long quantile(double quantile) {
+        final Window latest = window();
+        final Window earlier = previous;
+        final long total = latest.total.sum() + earlier.total.sum();
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += latest.counts.get(bucket) + earlier.counts.get(bucket);
+            if (seen >= rank) {
+                return upperBound(bucket);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    private Window window() {
+        final Window window = current;
+        final long now = System.nanoTime();
+        if (now - window.start < windowNanos) {
+            return window;
+        }
+        synchronized (this) {
+            if (current.equals(window)) {
+                previous = window;
+                current = new Window(now);
+            }
+            return current;
+        }
+    }
+
+    private static int bucket(long millis) {
+        return (int) Math.min(BUCKETS - 1, Math.ceil(Math.log(Math.max(1, millis)) / LOG_GROWTH));
+    }
+
+    private static long upperBound(int bucket) {
+        return (long) Math.ceil(Math.pow(GROWTH, bucket));
+    }
+
+    /**
+     * Samples of a window.
+     */
+    private static final class Window {
+
+        private final long start;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+        private final LongAdder total = new LongAdder();
+
+        private Window(long start) {
+            this.start = start;
+        }
+
+        private void record(int bucket) {
+            counts.incrementAndGet(bucket);
+            total.increment();
+        }
+    }
+}
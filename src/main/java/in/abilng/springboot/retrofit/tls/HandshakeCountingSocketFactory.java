@@ -0,0 +1,119 @@
+package in.abilng.springboot.retrofit.tls;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.atomic.LongAdder;
+import javax.net.ssl.HandshakeCompletedEvent;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * {@link SSLSocketFactory} counting the full and the resumed TLS handshakes of its sockets.
+ * <br/>
+ * A handshake is counted as resumed when its session was created before the socket, which holds for the
+ * abbreviated handshakes of TLS 1.2 and the pre-shared key handshakes of TLS 1.3, whose session keeps the creation
+ * time of the resumed one.
+ * <br/>
+ * Note: the JDK notifies each completed handshake on a new thread, so this factory is only installed when the
+ * handshakes are measured.
+ */
+public final class HandshakeCountingSocketFactory extends SSLSocketFactory {
+
+    private final SSLSocketFactory delegate;
+
+    private final LongAdder fullHandshakes = new LongAdder();
+
+    private final LongAdder resumedHandshakes = new LongAdder();
+
+    /**
+     * Instantiates a new Handshake counting socket factory.
+     *
+     * @param delegate the socket factory creating the sockets
+     */
+    public HandshakeCountingSocketFactory(SSLSocketFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Gets the number of full handshakes.
+     *
+     * @return the full handshake count
+     */
+    public long getFullHandshakeCount() {
+        return fullHandshakes.sum();
+    }
+
+    /**
+     * Gets the number of resumed handshakes.
+     *
+     * @return the resumed handshake count
+     */
+    public long getResumedHandshakeCount() {
+        return resumedHandshakes.sum();
+    }
+
+    @Override
+    public String[] getDefaultCipherSuites() {
+        return delegate.getDefaultCipherSuites();
+    }
+
+    @Override
+    public String[] getSupportedCipherSuites() {
+        return delegate.getSupportedCipherSuites();
+    }
+
+    @Override
+    public Socket createSocket(Socket socket, String host, int port, boolean autoClose) throws IOException {
+        return counting(delegate.createSocket(socket, host, port, autoClose));
+    }
+
+    @Override
+    public Socket createSocket(Socket socket, InputStream consumed, boolean autoClose) throws IOException {
+        return counting(delegate.createSocket(socket, consumed, autoClose));
+    }
+
+    @Override
+    public Socket createSocket() throws IOException {
+        return counting(delegate.createSocket());
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+        return counting(delegate.createSocket(host, port));
+    }
+
+    @Override
+    public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+        return counting(delegate.createSocket(host, port, localHost, localPort));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress host, int port) throws IOException {
+        return counting(delegate.createSocket(host, port));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort)
+            throws IOException {
+        return counting(delegate.createSocket(address, port, localAddress, localPort));
+    }
+
+    @SuppressWarnings("PMD.CloseResource")
+    private Socket counting(Socket socket) {
+        if (socket instanceof SSLSocket sslSocket) {
+            final long createdAt = System.currentTimeMillis();
+            sslSocket.addHandshakeCompletedListener(event -> onHandshake(event, createdAt));
+        }
+        return socket;
+    }
+
+    private void onHandshake(HandshakeCompletedEvent event, long socketCreatedAt) {
+        if (event.getSession().getCreationTime() < socketCreatedAt) {
+            resumedHandshakes.increment();
+        } else {
+            fullHandshakes.increment();
+        }
+    }
+}
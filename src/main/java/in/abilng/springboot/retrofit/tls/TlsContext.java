@@ -0,0 +1,13 @@
+package in.abilng.springboot.retrofit.tls;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.X509TrustManager;
+
+/**
+ * An SSL context shared by the Retrofit clients of the same TLS settings, with its trust manager as required by
+ * {@link okhttp3.OkHttpClient.Builder#sslSocketFactory(javax.net.ssl.SSLSocketFactory, X509TrustManager)}.
+ *
+ * @param sslContext   the SSL context
+ * @param trustManager the trust manager of the context
+ */
+public record TlsContext(SSLContext sslContext, X509TrustManager trustManager) {}
@@ -0,0 +1,98 @@
+package in.abilng.springboot.retrofit.tls;
+
+import in.abilng.springboot.retrofit.config.RetroFitProperties;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+import org.springframework.boot.ssl.SslBundle;
+import org.springframework.boot.ssl.SslBundles;
+
+/**
+ * Registry of the {@link TlsContext}s of the Retrofit clients.
+ * <br/>
+ * OkHttp creates an SSL context per client, so a connection to a host can not resume the TLS session of a
+ * connection of another client, or of a client rebuilt by a reconfiguration. The clients of the same SSL bundle and
+ * session settings share a context instead, so that sessions are resumed while they are cached.
+ */
+public class TlsContextRegistry {
+
+    private static final String DEFAULT_PROTOCOL = "TLS";
+
+    private final Map<Key, TlsContext> contexts = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the context of the given TLS settings, creating it if absent.
+     *
+     * @param tls        the TLS properties of the service
+     * @param sslBundles the SSL bundles, required when a bundle is set
+     * @return the TLS context
+     */
+    public TlsContext context(RetroFitProperties.TlsProperties tls, SslBundles sslBundles) {
+        return contexts.computeIfAbsent(
+                new Key(tls.getBundle(), tls.getSessionCacheSize(), tls.getSessionTimeout()),
+                key -> create(key, sslBundles));
+    }
+
+    private static TlsContext create(Key key, SslBundles sslBundles) {
+        try {
+            final SSLContext sslContext;
+            final TrustManager[] trustManagers;
+            if (key.bundle() == null) {
+                final TrustManagerFactory factory =
+                        TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+                factory.init((KeyStore) null);
+                trustManagers = factory.getTrustManagers();
+                sslContext = SSLContext.getInstance(DEFAULT_PROTOCOL);
+                sslContext.init(null, trustManagers, null);
+            } else {
+                if (sslBundles == null) {
+                    throw new IllegalStateException("SslBundles are required by the bundle " + key.bundle());
+                }
+                final SslBundle bundle = sslBundles.getBundle(key.bundle());
+                final KeyManager[] keyManagers = bundle.getManagers().getKeyManagers();
+                trustManagers = bundle.getManagers().getTrustManagers();
+                sslContext = SSLContext.getInstance(bundle.getProtocol());
+                sslContext.init(keyManagers, trustManagers, null);
+            }
+
+            final SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+            if (key.sessionCacheSize() != null) {
+                sessionContext.setSessionCacheSize(key.sessionCacheSize());
+            }
+            if (key.sessionTimeout() != null) {
+                sessionContext.setSessionTimeout(Math.toIntExact(key.sessionTimeout().toSeconds()));
+            }
+            return new TlsContext(sslContext, x509TrustManager(trustManagers));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to create the SSL context of " + key, e);
+        }
+    }
+
+    private static X509TrustManager x509TrustManager(TrustManager... trustManagers) {
+        return Arrays.stream(trustManagers)
+                .filter(X509TrustManager.class::isInstance)
+                .map(X509TrustManager.class::cast)
+                .findFirst()
+                .orElseThrow(
+                        () -> new IllegalStateException(
+                                "No X509TrustManager in " + Arrays.toString(trustManagers)));
+    }
+
+    /**
+     * The settings of a context.
+     *
+     * @param bundle           the SSL bundle name, null for the JVM trust store
+     * @param sessionCacheSize the session cache size, null for the JVM default
+     * @param sessionTimeout   the session timeout, null for the JVM default
+     */
+    private record Key(String bundle, Integer sessionCacheSize, Duration sessionTimeout) {}
+}
@@ -0,0 +1,597 @@
+package in.abilng.springboot.retrofit.transport;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.ProtocolException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.AsyncTimeout;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Pipe;
+import okio.Source;
+import okio.Timeout;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@link Call} of a {@link JdkHttpCallFactory}.
+ * <br/>
+ * The request goes through the application interceptors of the client, then is sent with the {@link HttpClient};
+ * the response body is streamed from it. The call ends once the response headers are received, while the call
+ * timeout runs until the response body is read or closed.
+ * <br/>
+ * Request bodies of a known length up to {@value #MAX_BUFFERED_BODY} bytes are buffered, the others are written
+ * to a pipe on the executor of the client dispatcher, so that one-shot and large bodies are not held in memory.
+ */
+@Slf4j
+final class JdkHttpCall implements Call {
+
+    /**
+     * Headers the {@link HttpClient} sets itself and does not accept.
+     */
+    private static final Set<String> RESTRICTED_HEADERS =
+            Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    /**
+     * Maximum length of a buffered request body.
+     */
+    private static final long MAX_BUFFERED_BODY = 64 * 1024;
+
+    /**
+     * Size of the pipe of a streamed request body.
+     */
+    private static final long PIPE_SIZE = 64 * 1024;
+
+    private final JdkHttpCallFactory factory;
+
+    private final Request originalRequest;
+
+    private final EventListener eventListener;
+
+    private final CallTimeout callTimeout = new CallTimeout();
+
+    private final AtomicBoolean executed = new AtomicBoolean();
+
+    private volatile boolean canceled;
+
+    private volatile CompletableFuture<HttpResponse<InputStream>> exchange;
+
+    private volatile Pipe requestPipe;
+
+    private volatile InputStream responseStream;
+
+    JdkHttpCall(JdkHttpCallFactory factory, Request request) {
+        this.factory = factory;
+        this.originalRequest = request;
+        final OkHttpClient client = factory.getClient();
+        this.callTimeout.timeout(client.callTimeoutMillis(), TimeUnit.MILLISECONDS);
+        this.eventListener = client.eventListenerFactory().create(this);
+    }
+
+    @NotNull
+    @Override
+    public Request request() {
+        return originalRequest;
+    }
+
+    @NotNull
+    @Override
+    public Response execute() throws IOException {
+        start();
+        return proceed();
+    }
+
+    @Override
+    public void enqueue(@NotNull Callback callback) {
+        start();
+        factory.getClient().dispatcher().executorService().execute(() -> respond(callback));
+    }
+
+    @Override
+    public void cancel() {
+        if (canceled) {
+            return;
+        }
+        canceled = true;
+        final CompletableFuture<HttpResponse<InputStream>> current = exchange;
+        if (current != null) {
+            current.cancel(true);
+        }
+        final Pipe pipe = requestPipe;
+        if (pipe != null) {
+            pipe.cancel();
+        }
+        closeQuietly(responseStream);
+        eventListener.canceled(this);
+    }
+
+    @Override
+    public boolean isExecuted() {
+        return executed.get();
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    @NotNull
+    @Override
+    public Timeout timeout() {
+        return callTimeout;
+    }
+
+    @NotNull
+    @Override
+    @SuppressFBWarnings("CN_IDIOM_NO_SUPER_CALL")
+    @SuppressWarnings("PMD.CloneMethodReturnTypeMustMatchClassName")
+    public Call clone() {
+        return factory.newCall(originalRequest);
+    }
+
+    @Override
+    public String toString() {
+        return "JdkHttpCall[" + originalRequest.method() + " " + originalRequest.url() + "]";
+    }
+
+    private void start() {
+        if (!executed.compareAndSet(false, true)) {
+            throw new IllegalStateException("Already Executed");
+        }
+        eventListener.callStart(this);
+    }
+
+    @SuppressWarnings("PMD.CloseResource")
+    private void respond(Callback callback) {
+        final Response response;
+        try {
+            response = proceed();
+        } catch (IOException e) {
+            callback.onFailure(this, e);
+            return;
+        } catch (RuntimeException | Error e) {
+            // like OkHttp, the callback is told the call failed and the dispatcher thread gets the error
+            cancel();
+            callback.onFailure(this, canceledDueTo(e));
+            throw e;
+        }
+        try {
+            callback.onResponse(this, response);
+        } catch (IOException e) {
+            log.warn("Callback failure for {}", this, e);
+        }
+    }
+
+    private Response proceed() throws IOException {
+        final OkHttpClient client = factory.getClient();
+        callTimeout.enter();
+        try {
+            final Response response =
+                    new Chain(
+                                    0,
+                                    originalRequest,
+                                    client.connectTimeoutMillis(),
+                                    client.readTimeoutMillis(),
+                                    client.writeTimeoutMillis())
+                            .proceed(originalRequest);
+            eventListener.callEnd(this);
+            return response;
+        } catch (IOException e) {
+            callTimeout.exit();
+            final IOException failure = callTimeout.reached ? timedOut(e) : e;
+            eventListener.callFailed(this, failure);
+            throw failure;
+        } catch (RuntimeException | Error e) {
+            callTimeout.exit();
+            eventListener.callFailed(this, canceledDueTo(e));
+            throw e;
+        }
+    }
+
+    private static IOException canceledDueTo(Throwable cause) {
+        final IOException canceled = new IOException("canceled due to " + cause);
+        canceled.addSuppressed(cause);
+        return canceled;
+    }
+
+    private static InterruptedIOException timedOut(IOException cause) {
+        if (cause instanceof InterruptedIOException interrupted && "timeout".equals(interrupted.getMessage())) {
+            return interrupted;
+        }
+        final InterruptedIOException timeout = new InterruptedIOException("timeout");
+        timeout.initCause(cause);
+        return timeout;
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        if (stream == null) {
+            return;
+        }
+        try {
+            stream.close();
+        } catch (IOException e) {
+            log.debug("Failed to close the response body", e);
+        }
+    }
+
+    private Response send(Request sent, int readTimeoutMillis, int writeTimeoutMillis) throws IOException {
+        if (canceled) {
+            throw new IOException("Canceled");
+        }
+        final HttpRequest.Builder builder = HttpRequest.newBuilder(sent.url().uri());
+        if (readTimeoutMillis > 0) {
+            builder.timeout(Duration.ofMillis(readTimeoutMillis));
+        }
+        final Headers headers = sent.headers();
+        for (int i = 0; i < headers.size(); i++) {
+            if (!RESTRICTED_HEADERS.contains(headers.name(i).toLowerCase(Locale.ROOT))) {
+                builder.header(headers.name(i), headers.value(i));
+            }
+        }
+        final RequestBody body = sent.body();
+        eventListener.requestHeadersStart(this);
+        if (body == null) {
+            builder.method(sent.method(), HttpRequest.BodyPublishers.noBody());
+            eventListener.requestHeadersEnd(this, sent);
+        } else {
+            final MediaType contentType = body.contentType();
+            if (contentType != null && sent.header("Content-Type") == null) {
+                builder.header("Content-Type", contentType.toString());
+            }
+            eventListener.requestHeadersEnd(this, sent);
+            builder.method(sent.method(), publisherOf(body, writeTimeoutMillis));
+        }
+
+        final long sentAt = System.currentTimeMillis();
+        final CompletableFuture<HttpResponse<InputStream>> future =
+                factory.getHttpClient().sendAsync(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        exchange = future;
+        if (canceled) {
+            future.cancel(true);
+        }
+        final HttpResponse<InputStream> response = await(future);
+        eventListener.responseHeadersStart(this);
+        final Response converted = convert(sent, response, sentAt, readTimeoutMillis);
+        eventListener.responseHeadersEnd(this, converted);
+        return converted;
+    }
+
+    /**
+     * Publisher of a request body, buffered when it is small, else streamed.
+     */
+    private HttpRequest.BodyPublisher publisherOf(RequestBody body, int writeTimeoutMillis) throws IOException {
+        if (body.isDuplex()) {
+            throw new ProtocolException("Duplex request bodies are not supported by the jdk engine");
+        }
+        final long contentLength = body.contentLength();
+        if (!body.isOneShot() && contentLength >= 0 && contentLength <= MAX_BUFFERED_BODY) {
+            eventListener.requestBodyStart(this);
+            try (Buffer buffer = new Buffer()) {
+                body.writeTo(buffer);
+                final long byteCount = buffer.size();
+                final HttpRequest.BodyPublisher buffered =
+                        HttpRequest.BodyPublishers.ofByteArray(buffer.readByteArray());
+                eventListener.requestBodyEnd(this, byteCount);
+                return buffered;
+            }
+        }
+        final HttpRequest.BodyPublisher streamed =
+                HttpRequest.BodyPublishers.ofInputStream(() -> stream(body, writeTimeoutMillis));
+        return contentLength < 0 ? streamed : HttpRequest.BodyPublishers.fromPublisher(streamed, contentLength);
+    }
+
+    /**
+     * Starts writing a request body to a pipe, each write bounded by the write timeout.
+     *
+     * @return the stream the body is read from
+     */
+    private InputStream stream(RequestBody body, int writeTimeoutMillis) {
+        final Pipe pipe = new Pipe(PIPE_SIZE);
+        pipe.sink().timeout().timeout(writeTimeoutMillis, TimeUnit.MILLISECONDS);
+        requestPipe = pipe;
+        if (canceled) {
+            pipe.cancel();
+        }
+        factory.getClient().dispatcher().executorService().execute(() -> write(body, pipe));
+        return Okio.buffer(pipe.source()).inputStream();
+    }
+
+    @SuppressWarnings("PMD.CloseResource")
+    private void write(RequestBody body, Pipe pipe) {
+        eventListener.requestBodyStart(this);
+        final long[] byteCount = new long[1];
+        final BufferedSink sink =
+                Okio.buffer(
+                        new ForwardingSink(pipe.sink()) {
+                            @Override
+                            public void write(@NotNull Buffer source, long count) throws IOException {
+                                super.write(source, count);
+                                byteCount[0] += count;
+                            }
+                        });
+        try {
+            body.writeTo(sink);
+            // closing the sink ends the body, so it is not closed when the body failed
+            sink.close();
+            eventListener.requestBodyEnd(this, byteCount[0]);
+        } catch (IOException e) {
+            pipe.cancel();
+            eventListener.requestFailed(this, e);
+        }
+    }
+
+    /**
+     * Waits for the response headers within the call timeout.
+     */
+    private HttpResponse<InputStream> await(CompletableFuture<HttpResponse<InputStream>> future) throws IOException {
+        long timeoutNanos = callTimeout.timeoutNanos();
+        if (callTimeout.hasDeadline()) {
+            final long remaining = callTimeout.deadlineNanoTime() - System.nanoTime();
+            timeoutNanos = timeoutNanos == 0 ? remaining : Math.min(timeoutNanos, remaining);
+        }
+        try {
+            return timeoutNanos == 0 ? future.get() : future.get(Math.max(timeoutNanos, 1), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new InterruptedIOException("timeout");
+        } catch (CancellationException e) {
+            throw new IOException("Canceled", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted");
+        } catch (ExecutionException e) {
+            throw failure(e.getCause());
+        }
+    }
+
+    /**
+     * The exception OkHttp throws for a failure of the {@link HttpClient}.
+     */
+    private static IOException failure(Throwable cause) {
+        if (cause instanceof HttpTimeoutException) {
+            final SocketTimeoutException timedOut = new SocketTimeoutException(cause.getMessage());
+            timedOut.initCause(cause);
+            return timedOut;
+        }
+        if (cause instanceof IOException ioException) {
+            return ioException;
+        }
+        if (cause instanceof CancellationException) {
+            // the exchange of a canceled call may fail with the cancellation instead of being canceled itself
+            return new IOException("Canceled", cause);
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        return new IOException(cause);
+    }
+
+    private Response convert(Request sent, HttpResponse<InputStream> response, long sentAt, int readTimeoutMillis) {
+        final Headers.Builder headers = new Headers.Builder();
+        response.headers()
+                .map()
+                .forEach(
+                        (name, values) -> {
+                            // pseudo headers of HTTP/2
+                            if (!name.startsWith(":")) {
+                                values.forEach(value -> headers.addUnsafeNonAscii(name, value));
+                            }
+                        });
+        final MediaType contentType =
+                response.headers().firstValue("Content-Type").map(MediaType::parse).orElse(null);
+        final long contentLength = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+        final HttpUrl url = HttpUrl.parse(response.uri().toString());
+        final InputStream stream = response.body();
+        responseStream = stream;
+        if (canceled) {
+            closeQuietly(stream);
+        }
+        // each read is bounded by the read timeout, by closing the stream once reached
+        final AsyncTimeout readTimeout =
+                new AsyncTimeout() {
+                    @Override
+                    protected void timedOut() {
+                        closeQuietly(stream);
+                    }
+                };
+        readTimeout.timeout(readTimeoutMillis, TimeUnit.MILLISECONDS);
+        return new Response.Builder()
+                .request(url == null || url.equals(sent.url()) ? sent : sent.newBuilder().url(url).build())
+                .protocol(response.version() == HttpClient.Version.HTTP_2 ? Protocol.HTTP_2 : Protocol.HTTP_1_1)
+                .code(response.statusCode())
+                .message("")
+                .headers(headers.build())
+                .body(
+                        ResponseBody.create(
+                                Okio.buffer(new BodySource(readTimeout.source(Okio.source(stream)))),
+                                contentType,
+                                contentLength))
+                .sentRequestAtMillis(sentAt)
+                .receivedResponseAtMillis(System.currentTimeMillis())
+                .build();
+    }
+
+    /**
+     * Call timeout, cancelling the call once reached.
+     */
+    private final class CallTimeout extends AsyncTimeout {
+
+        private volatile boolean reached;
+
+        @Override
+        protected void timedOut() {
+            reached = true;
+            cancel();
+        }
+    }
+
+    /**
+     * Source of the response body, ending the call timeout once the body is read or closed.
+     */
+    private final class BodySource extends ForwardingSource {
+
+        BodySource(Source delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public long read(@NotNull Buffer sink, long byteCount) throws IOException {
+            final long read;
+            try {
+                read = super.read(sink, byteCount);
+            } catch (IOException e) {
+                callTimeout.exit();
+                throw callTimeout.reached ? timedOut(e) : e;
+            }
+            if (read == -1) {
+                callTimeout.exit();
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                callTimeout.exit();
+            }
+        }
+    }
+
+    /**
+     * Chain of the application interceptors, ending with the request sent by the {@link HttpClient}.
+     */
+    private final class Chain implements Interceptor.Chain {
+
+        private final int index;
+
+        private final Request chainRequest;
+
+        private final int connectTimeout;
+
+        private final int readTimeout;
+
+        private final int writeTimeout;
+
+        Chain(
+                int index,
+                Request chainRequest,
+                int connectTimeout,
+                int readTimeout,
+                int writeTimeout) {
+            this.index = index;
+            this.chainRequest = chainRequest;
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+            this.writeTimeout = writeTimeout;
+        }
+
+        @NotNull
+        @Override
+        public Request request() {
+            return chainRequest;
+        }
+
+        @NotNull
+        @Override
+        public Response proceed(@NotNull Request next) throws IOException {
+            final List<Interceptor> interceptors = factory.getClient().interceptors();
+            if (index == interceptors.size()) {
+                return send(next, readTimeout, writeTimeout);
+            }
+            final Interceptor interceptor = interceptors.get(index);
+            final Response response =
+                    interceptor.intercept(
+                            new Chain(index + 1, next, connectTimeout, readTimeout, writeTimeout));
+            if (response == null) {
+                throw new IllegalStateException("interceptor " + interceptor + " returned null");
+            }
+            return response;
+        }
+
+        @Nullable
+        @Override
+        public Connection connection() {
+            return null;
+        }
+
+        @NotNull
+        @Override
+        public Call call() {
+            return JdkHttpCall.this;
+        }
+
+        @Override
+        public int connectTimeoutMillis() {
+            return connectTimeout;
+        }
+
+        @NotNull
+        @Override
+        public Interceptor.Chain withConnectTimeout(int timeout, @NotNull TimeUnit unit) {
+            return new Chain(index, chainRequest, millis(timeout, unit), readTimeout, writeTimeout);
+        }
+
+        @Override
+        public int readTimeoutMillis() {
+            return readTimeout;
+        }
+
+        @NotNull
+        @Override
+        public Interceptor.Chain withReadTimeout(int timeout, @NotNull TimeUnit unit) {
+            return new Chain(index, chainRequest, connectTimeout, millis(timeout, unit), writeTimeout);
+        }
+
+        @Override
+        public int writeTimeoutMillis() {
+            return writeTimeout;
+        }
+
+        @NotNull
+        @Override
+        public Interceptor.Chain withWriteTimeout(int timeout, @NotNull TimeUnit unit) {
+            return new Chain(index, chainRequest, connectTimeout, readTimeout, millis(timeout, unit));
+        }
+
+        private static int millis(int timeout, TimeUnit unit) {
+            return (int) unit.toMillis(timeout);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package in.abilng.springboot.retrofit.transport;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link Call.Factory} sending the calls of an {@link OkHttpClient} with a {@link HttpClient} of the JDK.
+ * <br/>
+ * The application interceptors and the event listener of the client are kept, the calls run them the same way
+ * as OkHttp does, while the network interceptors are not invoked, as there is no connection to intercept. The read
+ * timeout of the client bounds the wait for the response headers and each read of the response body, the call
+ * timeout the whole call including the body, and the write timeout each write of a streamed request body.
+ * Enqueued calls run on the executor of the client dispatcher, whose limits do not apply. Small request bodies are
+ * buffered before they are sent, one-shot and large ones are streamed; duplex bodies are not supported.
+ */
+public class JdkHttpCallFactory implements Call.Factory {
+
+    private final OkHttpClient client;
+
+    private final HttpClient httpClient;
+
+    /**
+     * Instantiates a new Jdk http call factory.
+     *
+     * @param client     the client whose interceptors, event listener, timeouts and dispatcher are used
+     * @param httpClient the client sending the requests
+     */
+    public JdkHttpCallFactory(OkHttpClient client, HttpClient httpClient) {
+        this.client = client;
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * Creates a builder of {@link HttpClient} with the connect timeout, redirect policy, proxy and HTTP version of
+     * a client.
+     *
+     * @param client the client
+     * @return the http client builder
+     */
+    public static HttpClient.Builder newHttpClientBuilder(OkHttpClient client) {
+        final HttpClient.Builder builder =
+                HttpClient.newBuilder()
+                        .followRedirects(
+                                client.followRedirects() ? HttpClient.Redirect.NORMAL : HttpClient.Redirect.NEVER)
+                        .version(
+                                client.protocols().contains(Protocol.HTTP_2)
+                                        ? HttpClient.Version.HTTP_2
+                                        : HttpClient.Version.HTTP_1_1);
+        if (client.connectTimeoutMillis() > 0) {
+            builder.connectTimeout(Duration.ofMillis(client.connectTimeoutMillis()));
+        }
+        final Proxy proxy = client.proxy();
+        if (proxy == null) {
+            builder.proxy(client.proxySelector());
+        } else if (proxy.type() == Proxy.Type.HTTP) {
+            builder.proxy(ProxySelector.of((InetSocketAddress) proxy.address()));
+        } else {
+            builder.proxy(HttpClient.Builder.NO_PROXY);
+        }
+        return builder;
+    }
+
+    @NotNull
+    @Override
+    public Call newCall(@NotNull Request request) {
+        return new JdkHttpCall(this, request);
+    }
+
+    /**
+     * Gets the client whose interceptors, event listener, timeouts and dispatcher are used.
+     *
+     * @return the client
+     */
+    public OkHttpClient getClient() {
+        return client;
+    }
+
+    /**
+     * Gets the client sending the requests.
+     *
+     * @return the http client
+     */
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+}
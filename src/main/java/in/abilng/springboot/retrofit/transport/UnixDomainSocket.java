@@ -0,0 +1,308 @@
+package in.abilng.springboot.retrofit.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+/**
+ * {@link Socket} over a Unix domain {@link SocketChannel}, whose {@code socket()} is not supported.
+ * <br/>
+ * The channel is non-blocking, and reads wait on a selector so that the read timeout is applied; OkHttp relies on
+ * it to check idle connections. Closing the socket wakes up blocked reads and writes. Options that only apply to
+ * TCP are ignored.
+ */
+final class UnixDomainSocket extends Socket {
+
+    private final Path path;
+
+    private final InputStream inputStream = new ChannelInputStream();
+
+    private final OutputStream outputStream = new ChannelOutputStream();
+
+    private volatile Connection connection;
+
+    private volatile InetSocketAddress remoteAddress;
+
+    private volatile int soTimeout;
+
+    private volatile boolean closed;
+
+    private volatile boolean inputShutdown;
+
+    private volatile boolean outputShutdown;
+
+    UnixDomainSocket(Path path) {
+        super();
+        this.path = path;
+    }
+
+    @Override
+    public void connect(SocketAddress endpoint) throws IOException {
+        connect(endpoint, 0);
+    }
+
+    /**
+     * Connects to the socket file; the endpoint is only kept as the remote address.
+     */
+    @Override
+    @SuppressWarnings("PMD.CloseResource")
+    public synchronized void connect(SocketAddress endpoint, int timeout) throws IOException {
+        if (closed) {
+            throw new SocketException("Socket is closed");
+        }
+        if (connection != null) {
+            throw new SocketException("Already connected");
+        }
+        final SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.connect(UnixDomainSocketAddress.of(path));
+            channel.configureBlocking(false);
+            final Selector readSelector = Selector.open();
+            channel.register(readSelector, SelectionKey.OP_READ);
+            final Selector writeSelector = Selector.open();
+            channel.register(writeSelector, SelectionKey.OP_WRITE);
+            connection = new Connection(channel, readSelector, writeSelector);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        if (endpoint instanceof InetSocketAddress address) {
+            remoteAddress = address;
+        }
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        requireConnection();
+        return inputStream;
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        requireConnection();
+        return outputStream;
+    }
+
+    @Override
+    public void setSoTimeout(int timeout) {
+        this.soTimeout = timeout;
+    }
+
+    @Override
+    public int getSoTimeout() {
+        return soTimeout;
+    }
+
+    @Override
+    public void setTcpNoDelay(boolean on) {
+        // not applicable to Unix domain sockets
+    }
+
+    @Override
+    public void setKeepAlive(boolean on) {
+        // not applicable to Unix domain sockets
+    }
+
+    @Override
+    public void setSoLinger(boolean on, int linger) {
+        // not applicable to Unix domain sockets
+    }
+
+    @Override
+    public InetAddress getInetAddress() {
+        final InetSocketAddress address = remoteAddress;
+        return address == null ? null : address.getAddress();
+    }
+
+    @Override
+    public int getPort() {
+        final InetSocketAddress address = remoteAddress;
+        return address == null ? 0 : address.getPort();
+    }
+
+    @Override
+    public SocketAddress getRemoteSocketAddress() {
+        return remoteAddress;
+    }
+
+    @Override
+    public SocketAddress getLocalSocketAddress() {
+        return null;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return connection != null;
+    }
+
+    @Override
+    public boolean isBound() {
+        return connection != null;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void shutdownInput() throws IOException {
+        requireConnection().channel().shutdownInput();
+        inputShutdown = true;
+    }
+
+    @Override
+    public void shutdownOutput() throws IOException {
+        requireConnection().channel().shutdownOutput();
+        outputShutdown = true;
+    }
+
+    @Override
+    public boolean isInputShutdown() {
+        return inputShutdown;
+    }
+
+    @Override
+    public boolean isOutputShutdown() {
+        return outputShutdown;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        final Connection current = connection;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "UnixDomainSocket[path=" + path + ", connected=" + isConnected() + ", closed=" + closed + "]";
+    }
+
+    private Connection requireConnection() throws SocketException {
+        final Connection current = connection;
+        if (closed) {
+            throw new SocketException("Socket is closed");
+        }
+        if (current == null) {
+            throw new SocketException("Socket is not connected");
+        }
+        return current;
+    }
+
+    /**
+     * The channel of a connected socket and the selectors waiting for it.
+     */
+    private record Connection(SocketChannel channel, Selector readSelector, Selector writeSelector) {
+
+        /**
+         * Waits until the channel is ready.
+         *
+         * @param selector the read or write selector
+         * @param timeout  the timeout in milliseconds, 0 to wait until ready or closed
+         * @return false when the timeout elapsed
+         */
+        boolean await(Selector selector, int timeout) throws IOException {
+            try {
+                final int ready = selector.select(timeout);
+                selector.selectedKeys().clear();
+                return ready > 0 || timeout == 0 || !channel.isOpen();
+            } catch (ClosedSelectorException e) {
+                throw new SocketException("Socket is closed");
+            }
+        }
+
+        @SuppressWarnings("PMD.UseTryWithResources")
+        void close() throws IOException {
+            try {
+                channel.close();
+            } finally {
+                // wakes up and deregisters the blocked reads and writes, which completes the close of the channel
+                readSelector.close();
+                writeSelector.close();
+            }
+        }
+    }
+
+    /**
+     * Input stream reading the channel within the read timeout.
+     */
+    private final class ChannelInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            final byte[] single = new byte[1];
+            final int read = read(single, 0, 1);
+            return read == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            final Connection current = requireConnection();
+            if (length == 0) {
+                return 0;
+            }
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+            while (true) {
+                final int read = current.channel().read(buffer);
+                if (read != 0) {
+                    return read;
+                }
+                if (!current.await(current.readSelector(), soTimeout)) {
+                    throw new SocketTimeoutException("Read timed out");
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            UnixDomainSocket.this.close();
+        }
+    }
+
+    /**
+     * Output stream writing the channel until all bytes are written.
+     */
+    private final class ChannelOutputStream extends OutputStream {
+
+        @Override
+        public void write(int value) throws IOException {
+            write(new byte[] {(byte) value}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            final Connection current = requireConnection();
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+            while (buffer.hasRemaining()) {
+                if (current.channel().write(buffer) == 0) {
+                    current.await(current.writeSelector(), 0);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            UnixDomainSocket.this.close();
+        }
+    }
+}
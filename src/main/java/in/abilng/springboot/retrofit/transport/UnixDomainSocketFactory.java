@@ -0,0 +1,79 @@
+package in.abilng.springboot.retrofit.transport;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.List;
+import javax.net.SocketFactory;
+import okhttp3.OkHttpClient;
+
+/**
+ * {@link SocketFactory} of sockets connected to a Unix domain socket, whatever address they are connected to.
+ * <br/>
+ * Set with {@link okhttp3.OkHttpClient.Builder#socketFactory}, so that a client reaches a local sidecar over the
+ * socket file instead of loopback TCP. The address the client resolves for the url is ignored, so the client
+ * should not resolve the host, nor use a proxy, see {@link #configure}.
+ */
+public final class UnixDomainSocketFactory extends SocketFactory {
+
+    private final Path path;
+
+    /**
+     * Instantiates a new Unix domain socket factory.
+     *
+     * @param path the path of the socket file
+     */
+    public UnixDomainSocketFactory(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Connects the clients of a builder to a Unix domain socket: sets this socket factory, resolves every host to
+     * the loopback address without a lookup, and disables proxies.
+     *
+     * @param builder the client builder
+     * @param path    the path of the socket file
+     * @return the client builder
+     */
+    public static OkHttpClient.Builder configure(OkHttpClient.Builder builder, Path path) {
+        final InetAddress loopback = InetAddress.getLoopbackAddress();
+        return builder.socketFactory(new UnixDomainSocketFactory(path))
+                .dns(hostname -> List.of(InetAddress.getByAddress(hostname, loopback.getAddress())))
+                .proxy(Proxy.NO_PROXY);
+    }
+
+    @Override
+    public Socket createSocket() {
+        return new UnixDomainSocket(path);
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+        return connected(InetSocketAddress.createUnresolved(host, port));
+    }
+
+    @Override
+    public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+        return connected(InetSocketAddress.createUnresolved(host, port));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress host, int port) throws IOException {
+        return connected(new InetSocketAddress(host, port));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort)
+            throws IOException {
+        return connected(new InetSocketAddress(address, port));
+    }
+
+    private Socket connected(InetSocketAddress address) throws IOException {
+        final Socket socket = new UnixDomainSocket(path);
+        socket.connect(address);
+        return socket;
+    }
+}
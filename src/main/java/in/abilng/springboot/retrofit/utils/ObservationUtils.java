@@ -1,15 +1,9 @@
 package in.abilng.springboot.retrofit.utils;
 
-import java.lang.annotation.Annotation;
-import java.util.Optional;
+import in.abilng.springboot.retrofit.core.MethodMetadata;
+import in.abilng.springboot.retrofit.core.MethodMetadataRegistry;
 import lombok.experimental.UtilityClass;
 import okhttp3.Request;
-import retrofit2.Invocation;
-import retrofit2.http.DELETE;
-import retrofit2.http.GET;
-import retrofit2.http.PATCH;
-import retrofit2.http.POST;
-import retrofit2.http.PUT;
 
 /**
  * The Observation utils.
@@ -24,19 +18,7 @@ public class ObservationUtils {
      * @return the uri
      */
     public static String getUri(Request request) {
-        return Optional.<String>empty()
-                .or(() -> getAnnotation(request, GET.class).map(GET::value))
-                .or(() -> getAnnotation(request, POST.class).map(POST::value))
-                .or(() -> getAnnotation(request, PUT.class).map(PUT::value))
-                .or(() -> getAnnotation(request, PATCH.class).map(PATCH::value))
-                .or(() -> getAnnotation(request, DELETE.class).map(DELETE::value))
-                .orElse("unknown");
-    }
-
-    private static <T extends Annotation> Optional<T> getAnnotation(
-            Request request, Class<T> annotationClass) {
-        return Optional.ofNullable(request.tag(Invocation.class))
-                .map(Invocation::method)
-                .map(method -> method.getAnnotation(annotationClass));
+        final MethodMetadata metadata = MethodMetadataRegistry.getInstance().get(request);
+        return metadata == null ? MethodMetadata.UNKNOWN : metadata.uriTemplate();
     }
 }
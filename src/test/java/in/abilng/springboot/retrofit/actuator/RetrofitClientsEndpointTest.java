@@ -0,0 +1,113 @@
+package in.abilng.springboot.retrofit.actuator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import in.abilng.springboot.retrofit.config.RetroFitProperties;
+import in.abilng.springboot.retrofit.core.RetrofitClientFactoryBean;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+import retrofit2.Call;
+import retrofit2.Retrofit;
+import retrofit2.converter.scalars.ScalarsConverterFactory;
+import retrofit2.http.GET;
+
+class RetrofitClientsEndpointTest {
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    private final MethodLatencyRecorder latencyRecorder = new MethodLatencyRecorder(Duration.ofMinutes(1));
+
+    private final ApplicationContext applicationContext = mock(ApplicationContext.class);
+
+    private interface TestApi {
+        @GET("/greeting")
+        Call<String> greeting();
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testListsClientState() throws IOException {
+        final RetroFitProperties.ServiceProperties properties = new RetroFitProperties.ServiceProperties();
+        properties.setBaseUrl(mockWebServer.url("/").toString());
+        final OkHttpClient.Builder builder = new OkHttpClient.Builder().readTimeout(Duration.ofSeconds(3));
+        latencyRecorder.customize("greeting", properties, builder);
+        final OkHttpClient client = builder.build();
+        final TestApi api =
+                new Retrofit.Builder()
+                        .baseUrl(mockWebServer.url("/"))
+                        .client(client)
+                        .addConverterFactory(ScalarsConverterFactory.create())
+                        .build()
+                        .create(TestApi.class);
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        api.greeting().execute();
+
+        final RetrofitClientFactoryBean factoryBean = mock(RetrofitClientFactoryBean.class);
+        when(factoryBean.getName()).thenReturn("greeting");
+        when(factoryBean.getProperties()).thenReturn(properties);
+        when(factoryBean.getActiveClient()).thenReturn(Optional.of(client));
+        when(factoryBean.getActiveCircuitBreaker()).thenReturn(Optional.of(CircuitBreaker.ofDefaults("greeting")));
+        when(factoryBean.getActiveRetry()).thenReturn(Optional.empty());
+        when(applicationContext.getBeansOfType(RetrofitClientFactoryBean.class))
+                .thenReturn(Map.of("&greeting", factoryBean));
+
+        final ClientSnapshot snapshot = endpoint(Duration.ofMinutes(1)).client("greeting");
+
+        assertThat(snapshot.baseUrl(), is(properties.getBaseUrl()));
+        assertThat(snapshot.timeouts().read(), is(Duration.ofSeconds(3)));
+        assertThat(snapshot.connectionPool().total(), is(1));
+        assertThat(snapshot.dispatcher().running(), is(0));
+        assertThat(snapshot.circuitBreaker().state(), is("CLOSED"));
+        assertThat(snapshot.retry(), is(nullValue()));
+        assertThat(snapshot.methods().get("greeting").count(), is(1L));
+        assertThat(snapshot.methods().get("greeting").p99(), greaterThan(0L));
+    }
+
+    @Test
+    public void testServesSnapshotWithinInterval() {
+        when(applicationContext.getBeansOfType(RetrofitClientFactoryBean.class)).thenReturn(Map.of());
+        final RetrofitClientsEndpoint endpoint = endpoint(Duration.ofMinutes(1));
+
+        final Map<String, ClientSnapshot> first = endpoint.clients();
+
+        assertThat(endpoint.clients(), sameInstance(first));
+        assertThat(endpoint.client("missing"), is(nullValue()));
+        verify(applicationContext, times(1)).getBeansOfType(RetrofitClientFactoryBean.class);
+    }
+
+    @Test
+    public void testTakesNewSnapshotAfterInterval() {
+        when(applicationContext.getBeansOfType(RetrofitClientFactoryBean.class)).thenReturn(Map.of());
+        final RetrofitClientsEndpoint endpoint = endpoint(Duration.ZERO);
+
+        endpoint.clients();
+        endpoint.clients();
+
+        verify(applicationContext, times(2)).getBeansOfType(RetrofitClientFactoryBean.class);
+    }
+
+    private RetrofitClientsEndpoint endpoint(Duration snapshotInterval) {
+        return new RetrofitClientsEndpoint(applicationContext, latencyRecorder, snapshotInterval);
+    }
+}
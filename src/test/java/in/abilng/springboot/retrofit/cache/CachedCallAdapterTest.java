@@ -0,0 +1,199 @@
+package in.abilng.springboot.retrofit.cache;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import in.abilng.springboot.retrofit.annotation.Cached;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.scalars.ScalarsConverterFactory;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.Path;
+
+class CachedCallAdapterTest {
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    private final ResponseObjectCache cache = new ResponseObjectCache("test", 1024 * 1024);
+
+    private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final Clock clock =
+            new Clock() {
+                @Override
+                public ZoneOffset getZone() {
+                    return ZoneOffset.UTC;
+                }
+
+                @Override
+                public Clock withZone(java.time.ZoneId zone) {
+                    return this;
+                }
+
+                @Override
+                public Instant instant() {
+                    return now;
+                }
+            };
+
+    private final TestApi api =
+            new Retrofit.Builder()
+                    .baseUrl(mockWebServer.url("/"))
+                    .client(new OkHttpClient.Builder().addInterceptor(new CacheRevalidationInterceptor(cache)).build())
+                    .addConverterFactory(ScalarsConverterFactory.create())
+                    .addCallAdapterFactory(CachedCallAdapter.of(cache, clock))
+                    .build()
+                    .create(TestApi.class);
+
+    private interface TestApi {
+        @GET("/greeting/{name}")
+        @Cached(ttl = "1m")
+        Call<String> greeting(@Path("name") String name);
+
+        @GET("/greeting/{name}")
+        Call<String> greetingWithoutCache(@Path("name") String name);
+
+        @GET("/greeting/{name}")
+        @Cached(ttl = "1m")
+        Call<String> greetingAs(@Path("name") String name, @Header("Authorization") String authorization);
+
+        @GET("/greeting/{name}")
+        @Cached(ttl = "1m")
+        Call<String> greetingIn(@Path("name") String name, @Header("Accept-Language") String language);
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testServesFreshResponseWithoutRequest() throws IOException {
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        final Response<String> first = api.greeting("a").execute();
+
+        now = now.plusSeconds(30);
+        final Response<String> second = api.greeting("a").execute();
+
+        assertThat(second.body(), sameInstance(first.body()));
+        assertThat(mockWebServer.getRequestCount(), is(1));
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void testKeysByRequest() throws IOException {
+        mockWebServer.enqueue(new MockResponse().setBody("Hello a"));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello b"));
+
+        assertThat(api.greeting("a").execute().body(), is("Hello a"));
+        assertThat(api.greeting("b").execute().body(), is("Hello b"));
+        assertThat(mockWebServer.getRequestCount(), is(2));
+    }
+
+    @Test
+    public void testRevalidatesStaleResponse() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("Hello"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+        final Response<String> first = api.greeting("a").execute();
+
+        now = now.plusSeconds(90);
+        final Response<String> revalidated = api.greeting("a").execute();
+
+        mockWebServer.takeRequest();
+        final RecordedRequest conditional = mockWebServer.takeRequest();
+        assertThat(conditional.getHeader("If-None-Match"), is("\"v1\""));
+        assertThat(revalidated.code(), is(200));
+        assertThat(revalidated.body(), sameInstance(first.body()));
+        assertThat(cache.getRevalidationCount(), is(1L));
+
+        now = now.plusSeconds(30);
+        assertThat(api.greeting("a").execute().body(), sameInstance(first.body()));
+        assertThat(mockWebServer.getRequestCount(), is(2));
+    }
+
+    @Test
+    public void testReplacesModifiedResponse() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("Hello"));
+        mockWebServer.enqueue(new MockResponse().setHeader("ETag", "\"v2\"").setBody("Hi"));
+        api.greeting("a").execute();
+
+        now = now.plusSeconds(90);
+
+        assertThat(api.greeting("a").execute().body(), is("Hi"));
+        assertThat(cache.getMissCount(), is(2L));
+    }
+
+    @Test
+    public void testDoesNotCacheWithoutAnnotation() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("Hello"));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        api.greetingWithoutCache("a").execute();
+        api.greetingWithoutCache("a").execute();
+
+        mockWebServer.takeRequest();
+        assertThat(mockWebServer.takeRequest().getHeader("If-None-Match"), is(nullValue()));
+        assertThat(mockWebServer.getRequestCount(), is(2));
+        assertThat(cache.getMissCount(), is(0L));
+    }
+
+    @Test
+    public void testKeysByAuthorization() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("Hello Ada"));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello Bob"));
+
+        assertThat(api.greetingAs("me", "Bearer ada").execute().body(), is("Hello Ada"));
+        assertThat(api.greetingAs("me", "Bearer bob").execute().body(), is("Hello Bob"));
+        assertThat(api.greetingAs("me", "Bearer ada").execute().body(), is("Hello Ada"));
+        assertThat(mockWebServer.getRequestCount(), is(2));
+        assertThat(cache.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void testServesVaryingResponseToSameHeaders() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setHeader("Vary", "Accept-Language").setBody("Hello"));
+        mockWebServer.enqueue(new MockResponse().setHeader("Vary", "Accept-Language").setBody("Bonjour"));
+
+        assertThat(api.greetingIn("a", "en").execute().body(), is("Hello"));
+        assertThat(api.greetingIn("a", "en").execute().body(), is("Hello"));
+        assertThat(api.greetingIn("a", "fr").execute().body(), is("Bonjour"));
+        assertThat(mockWebServer.getRequestCount(), is(2));
+    }
+
+    @Test
+    public void testDoesNotCacheNoStoreOrPrivateResponse() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setHeader("Cache-Control", "no-store").setBody("Hello"));
+        mockWebServer.enqueue(new MockResponse().setHeader("Cache-Control", "private, max-age=60").setBody("Hello"));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+
+        api.greeting("a").execute();
+        api.greeting("a").execute();
+        api.greeting("a").execute();
+
+        assertThat(mockWebServer.getRequestCount(), is(3));
+        assertThat(cache.getHitCount(), is(0L));
+    }
+
+    @Test
+    public void testWeighsBodyOfUnknownLengthAsRead() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setChunkedBody("Hello, chunked", 4));
+
+        final Response<String> response = api.greeting("a").execute();
+
+        assertThat(cache.get(response.raw().request()).weight(), is("Hello, chunked".length()));
+    }
+}
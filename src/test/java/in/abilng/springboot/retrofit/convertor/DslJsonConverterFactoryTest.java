@@ -0,0 +1,59 @@
+package in.abilng.springboot.retrofit.convertor;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.util.List;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import retrofit2.Call;
+import retrofit2.Retrofit;
+import retrofit2.http.Body;
+import retrofit2.http.POST;
+
+class DslJsonConverterFactoryTest {
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    private final TestApi api =
+            new Retrofit.Builder()
+                    .baseUrl(mockWebServer.url("/"))
+                    .addConverterFactory(DslJsonConverterFactory.create())
+                    .build()
+                    .create(TestApi.class);
+
+    private interface TestApi {
+        @POST("/greeting")
+        Call<Greeting> greet(@Body Greeting greeting);
+    }
+
+    public static class Greeting {
+        public String name;
+        public List<String> tags;
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("{\"name\":\"World\",\"tags\":[\"a\",\"b\"]}"));
+        final Greeting greeting = new Greeting();
+        greeting.name = "Hello";
+        greeting.tags = List.of("c");
+
+        final Greeting response = api.greet(greeting).execute().body();
+
+        final RecordedRequest request = mockWebServer.takeRequest();
+        assertThat(request.getHeader("Content-Type"), is("application/json; charset=UTF-8"));
+        assertThat(request.getBody().readUtf8(), is("{\"name\":\"Hello\",\"tags\":[\"c\"]}"));
+        assertThat(response.name, is("World"));
+        assertThat(response.tags, is(List.of("a", "b")));
+    }
+}
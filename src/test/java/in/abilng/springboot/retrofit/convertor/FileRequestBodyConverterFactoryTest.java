@@ -0,0 +1,100 @@
+package in.abilng.springboot.retrofit.convertor;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import retrofit2.Call;
+import retrofit2.Retrofit;
+import retrofit2.converter.jackson.JacksonConverterFactory;
+import retrofit2.http.Body;
+import retrofit2.http.Multipart;
+import retrofit2.http.POST;
+import retrofit2.http.Part;
+
+class FileRequestBodyConverterFactoryTest {
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    @TempDir
+    private Path directory;
+
+    private final TestApi api =
+            new Retrofit.Builder()
+                    .baseUrl(mockWebServer.url("/"))
+                    .addConverterFactory(FileRequestBodyConverterFactory.create())
+                    .addConverterFactory(JacksonConverterFactory.create())
+                    .build()
+                    .create(TestApi.class);
+
+    private interface TestApi {
+        @POST("/upload")
+        Call<Void> upload(@Body Path file);
+
+        @POST("/upload")
+        Call<Void> upload(@Body Supplier<InputStream> stream);
+
+        @Multipart
+        @POST("/upload")
+        Call<Void> uploadPart(@Part("file") File file);
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testFileBodyHasContentLength() throws Exception {
+        final Path file = Files.writeString(directory.resolve("file.bin"), "Hello World");
+        mockWebServer.enqueue(new MockResponse());
+        mockWebServer.enqueue(new MockResponse());
+
+        api.upload(file).execute();
+        api.uploadPart(file.toFile()).execute();
+
+        final RecordedRequest request = mockWebServer.takeRequest();
+        assertThat(request.getHeader("Content-Length"), is("11"));
+        assertThat(request.getBody().readUtf8(), is("Hello World"));
+        final RecordedRequest multipart = mockWebServer.takeRequest();
+        assertThat(multipart.getBody().readUtf8(), containsString("Hello World"));
+    }
+
+    @Test
+    public void testInputStreamBodyIsReplayable() throws Exception {
+        final AtomicInteger opened = new AtomicInteger();
+        final Supplier<InputStream> supplier =
+                () -> {
+                    opened.incrementAndGet();
+                    return new ByteArrayInputStream("Hello World".getBytes(StandardCharsets.UTF_8));
+                };
+        mockWebServer.enqueue(new MockResponse());
+        mockWebServer.enqueue(new MockResponse());
+
+        final Call<Void> call = api.upload(supplier);
+        call.execute();
+        call.clone().execute();
+
+        final RecordedRequest request = mockWebServer.takeRequest();
+        assertThat(request.getHeader("Content-Length"), is(nullValue()));
+        assertThat(request.getBody().readUtf8(), is("Hello World"));
+        assertThat(mockWebServer.takeRequest().getBody().readUtf8(), is("Hello World"));
+        assertThat(opened.get(), is(2));
+    }
+}
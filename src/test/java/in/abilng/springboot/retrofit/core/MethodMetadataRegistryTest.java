@@ -0,0 +1,80 @@
+package in.abilng.springboot.retrofit.core;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import in.abilng.springboot.retrofit.annotation.ObservationTag;
+import java.util.Map;
+import okhttp3.Request;
+import org.junit.jupiter.api.Test;
+import retrofit2.Call;
+import retrofit2.Retrofit;
+import retrofit2.converter.scalars.ScalarsConverterFactory;
+import retrofit2.http.GET;
+import retrofit2.http.POST;
+import retrofit2.http.Path;
+
+class MethodMetadataRegistryTest {
+
+    private final MethodMetadataRegistry registry = MethodMetadataRegistry.getInstance();
+
+    @ObservationTag(key = "team", value = "search")
+    private interface TestApi {
+
+        @GET("/books/{id}")
+        Call<String> get(@Path("id") String id);
+
+        @POST("/books")
+        @ObservationTag(key = "team", value = "catalog")
+        @ObservationTag(key = "tier", value = "write")
+        Call<String> create();
+    }
+
+    private interface OtherApi {
+        @GET("/other")
+        Call<String> other();
+    }
+
+    @Test
+    public void testRegisteredClient() throws Exception {
+        registry.register("library", TestApi.class);
+
+        MethodMetadata metadata = registry.get(TestApi.class.getMethod("get", String.class));
+        assertThat(metadata.clientName(), is("library"));
+        assertThat(metadata.methodName(), is("TestApi.get"));
+        assertThat(metadata.httpMethod(), is("GET"));
+        assertThat(metadata.uriTemplate(), is("/books/{id}"));
+        assertThat(metadata.tags(), is(Map.of("team", "search")));
+
+        metadata = registry.get(TestApi.class.getMethod("create"));
+        assertThat(metadata.httpMethod(), is("POST"));
+        assertThat(metadata.tags(), is(Map.of("team", "catalog", "tier", "write")));
+    }
+
+    @Test
+    public void testUnregisteredClientIsResolvedOnce() {
+        Request request =
+                new Retrofit.Builder()
+                        .baseUrl("https://example.com")
+                        .addConverterFactory(ScalarsConverterFactory.create())
+                        .build()
+                        .create(OtherApi.class)
+                        .other()
+                        .request();
+
+        MethodMetadata metadata = registry.get(request);
+        assertThat(metadata.clientName(), is(nullValue()));
+        assertThat(metadata.uriTemplate(), is("/other"));
+        assertThat(metadata.tags(), is(anEmptyMap()));
+        assertThat(registry.get(request), sameInstance(metadata));
+    }
+
+    @Test
+    public void testRequestNotCreatedByRetrofit() {
+        Request request = new Request.Builder().url("https://example.com/other").build();
+        assertThat(registry.get(request), is(nullValue()));
+    }
+}
@@ -0,0 +1,100 @@
+package in.abilng.springboot.retrofit.core;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import in.abilng.springboot.retrofit.resilience4j.RetryCallAdapter;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.scalars.ScalarsConverterFactory;
+import retrofit2.http.GET;
+
+class ReconfigurableCallFactoryTest {
+
+    private interface TestApi {
+        @GET("/greeting")
+        Call<String> greeting();
+    }
+
+    private MockWebServer server;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void testReconfiguredClientKeepsConnectionPool() throws Exception {
+        final OkHttpClient initial = new OkHttpClient.Builder().readTimeout(Duration.ofSeconds(10)).build();
+        final ReconfigurableCallFactory callFactory = new ReconfigurableCallFactory(initial);
+        final TestApi api = retrofit(callFactory, null).create(TestApi.class);
+
+        final Call<String> created = api.greeting();
+        final OkHttpClient reconfigured =
+                callFactory.reconfigure(client -> client.newBuilder().readTimeout(Duration.ofSeconds(1)).build());
+
+        server.enqueue(new MockResponse().setBody("hello"));
+        server.enqueue(new MockResponse().setBody("hello"));
+        assertThat(created.execute().body(), is("hello"));
+        assertThat(api.greeting().execute().body(), is("hello"));
+
+        assertThat(callFactory.getClient(), sameInstance(reconfigured));
+        assertThat(reconfigured.readTimeoutMillis(), is(1000));
+        assertThat(reconfigured.connectionPool(), sameInstance(initial.connectionPool()));
+        assertThat(reconfigured.dispatcher(), sameInstance(initial.dispatcher()));
+        assertThat(initial.connectionPool().connectionCount(), is(1));
+    }
+
+    @Test
+    public void testRetryReplacedForNewCalls() throws Exception {
+        final AtomicReference<Retry> retry = new AtomicReference<>();
+        final TestApi api =
+                retrofit(new ReconfigurableCallFactory(new OkHttpClient()), retry).create(TestApi.class);
+
+        server.enqueue(new MockResponse().setResponseCode(503));
+        assertThat(api.greeting().execute().code(), is(503));
+
+        retry.set(
+                Retry.of(
+                        "test",
+                        RetryConfig.<Response<?>>custom()
+                                .maxAttempts(2)
+                                .waitDuration(Duration.ofMillis(1))
+                                .retryOnResult(response -> response.code() >= 500)
+                                .build()));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("hello"));
+        assertThat(api.greeting().execute().body(), is("hello"));
+        assertThat(server.getRequestCount(), is(3));
+    }
+
+    private Retrofit retrofit(ReconfigurableCallFactory callFactory, AtomicReference<Retry> retry) {
+        final Retrofit.Builder builder =
+                new Retrofit.Builder()
+                        .baseUrl(server.url("/"))
+                        .callFactory(callFactory)
+                        .addConverterFactory(ScalarsConverterFactory.create());
+        if (retry != null) {
+            builder.addCallAdapterFactory(RetryCallAdapter.of(retry::get, null, null));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,181 @@
+package in.abilng.springboot.retrofit.dispatch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.scalars.ScalarsConverterFactory;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.Path;
+import retrofit2.http.Tag;
+
+class FairQueueDispatcherExecutorTest {
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    private interface TestApi {
+        @GET("/slow")
+        Call<String> slow();
+
+        @GET("/{path}")
+        Call<String> get(@Path("path") String path, @Tag FairQueueKey key);
+
+        @GET("/{path}")
+        Call<String> get(@Path("path") String path, @Header("X-Tenant-Id") String tenant);
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testKeysTakeTurns() throws Exception {
+        final FairQueueDispatcherExecutor executor =
+                new FairQueueDispatcherExecutor(1, 1, Map.of(), request -> request.header("X-Tenant-Id"));
+        final TestApi api = api(executor);
+        mockWebServer.enqueue(new MockResponse().setBody("slow").setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        for (int i = 0; i < 4; i++) {
+            mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        }
+
+        final CompletableFuture<Response<String>> slow = enqueue(api.slow());
+        assertThat(mockWebServer.takeRequest(5, TimeUnit.SECONDS).getPath(), is("/slow"));
+        final CompletableFuture<Response<String>> a1 = enqueue(api.get("a1", new FairQueueKey("a")));
+        final CompletableFuture<Response<String>> a2 = enqueue(api.get("a2", new FairQueueKey("a")));
+        final CompletableFuture<Response<String>> a3 = enqueue(api.get("a3", new FairQueueKey("a")));
+        final CompletableFuture<Response<String>> b1 = enqueue(api.get("b1", "b"));
+        assertThat(executor.getQueuedCount("a"), is(3));
+        CompletableFuture.allOf(slow, a1, a2, a3, b1).get(5, TimeUnit.SECONDS);
+
+        assertThat(mockWebServer.takeRequest().getPath(), is("/a1"));
+        assertThat(mockWebServer.takeRequest().getPath(), is("/b1"));
+        assertThat(mockWebServer.takeRequest().getPath(), is("/a2"));
+        assertThat(mockWebServer.takeRequest().getPath(), is("/a3"));
+        assertThat(executor.getQueuedCount(), is(0));
+    }
+
+    @Test
+    public void testWeightedKeyTakesLongerTurns() throws Exception {
+        final TestApi api = api(new FairQueueDispatcherExecutor(1, 1, Map.of("a", 2), request -> null));
+        mockWebServer.enqueue(new MockResponse().setBody("slow").setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        for (int i = 0; i < 5; i++) {
+            mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        }
+
+        final CompletableFuture<Response<String>> slow = enqueue(api.slow());
+        assertThat(mockWebServer.takeRequest(5, TimeUnit.SECONDS).getPath(), is("/slow"));
+        final CompletableFuture<Response<String>> b1 = enqueue(api.get("b1", new FairQueueKey("b")));
+        final CompletableFuture<Response<String>> b2 = enqueue(api.get("b2", new FairQueueKey("b")));
+        final CompletableFuture<Response<String>> a1 = enqueue(api.get("a1", new FairQueueKey("a")));
+        final CompletableFuture<Response<String>> a2 = enqueue(api.get("a2", new FairQueueKey("a")));
+        final CompletableFuture<Response<String>> a3 = enqueue(api.get("a3", new FairQueueKey("a")));
+        CompletableFuture.allOf(slow, b1, b2, a1, a2, a3).get(5, TimeUnit.SECONDS);
+
+        assertThat(mockWebServer.takeRequest().getPath(), is("/b1"));
+        assertThat(mockWebServer.takeRequest().getPath(), is("/a1"));
+        assertThat(mockWebServer.takeRequest().getPath(), is("/a2"));
+        assertThat(mockWebServer.takeRequest().getPath(), is("/b2"));
+        assertThat(mockWebServer.takeRequest().getPath(), is("/a3"));
+    }
+
+    @Test
+    public void testKeyIsLimitedToMaxRequestsPerKey() throws Exception {
+        final TestApi api = api(new FairQueueDispatcherExecutor(4, 1, Map.of(), request -> null));
+        mockWebServer.enqueue(new MockResponse().setBody("slow").setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+
+        final CompletableFuture<Response<String>> a1 = enqueue(api.get("a1", new FairQueueKey("a")));
+        assertThat(mockWebServer.takeRequest(5, TimeUnit.SECONDS).getPath(), is("/a1"));
+        final CompletableFuture<Response<String>> a2 = enqueue(api.get("a2", new FairQueueKey("a")));
+        final CompletableFuture<Response<String>> b1 = enqueue(api.get("b1", new FairQueueKey("b")));
+        CompletableFuture.allOf(a1, a2, b1).get(5, TimeUnit.SECONDS);
+
+        assertThat(mockWebServer.takeRequest().getPath(), is("/b1"));
+        assertThat(mockWebServer.takeRequest().getPath(), is("/a2"));
+    }
+
+    @Test
+    public void testDispatcherLeavesPerHostLimitToExecutor() {
+        final Dispatcher dispatcher =
+                new FairQueueDispatcherExecutor(8, 2, 2, Map.of(), request -> null).dispatcher();
+
+        assertThat(dispatcher.getMaxRequests(), is(8));
+        assertThat(dispatcher.getMaxRequestsPerHost(), is(8));
+    }
+
+    @Test
+    public void testKeysTakeTurnsAtPerHostLimit() throws Exception {
+        final FairQueueDispatcherExecutor executor = new FairQueueDispatcherExecutor(64, 5, 16, Map.of(), r -> null);
+        final TestApi api = api(executor);
+        for (int i = 0; i < 5; i++) {
+            // the slow calls end one after the other, each freeing a single slot of the host
+            mockWebServer.enqueue(
+                    new MockResponse().setBody("slow").setHeadersDelay(300 + 200L * i, TimeUnit.MILLISECONDS));
+        }
+        for (int i = 0; i < 6; i++) {
+            mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        }
+
+        final List<CompletableFuture<Response<String>>> calls = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            calls.add(enqueue(api.get("a" + i, new FairQueueKey("a"))));
+        }
+        for (int i = 0; i < 5; i++) {
+            mockWebServer.takeRequest(5, TimeUnit.SECONDS);
+        }
+        for (int i = 6; i <= 10; i++) {
+            calls.add(enqueue(api.get("a" + i, new FairQueueKey("a"))));
+        }
+        calls.add(enqueue(api.get("b1", new FairQueueKey("b"))));
+        assertThat(executor.getQueuedCount(), is(6));
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertThat(mockWebServer.takeRequest().getPath(), is("/a6"));
+        assertThat(mockWebServer.takeRequest().getPath(), is("/b1"));
+    }
+
+    private TestApi api(FairQueueDispatcherExecutor executor) {
+        return new Retrofit.Builder()
+                .baseUrl(mockWebServer.url("/"))
+                .addConverterFactory(ScalarsConverterFactory.create())
+                .callFactory(
+                        executor.callFactory(new OkHttpClient.Builder().dispatcher(executor.dispatcher()).build()))
+                .build()
+                .create(TestApi.class);
+    }
+
+    private static <T> CompletableFuture<Response<T>> enqueue(Call<T> call) {
+        CompletableFuture<Response<T>> future = new CompletableFuture<>();
+        call.enqueue(
+                new Callback<T>() {
+                    @Override
+                    public void onResponse(Call<T> call, Response<T> response) {
+                        future.complete(response);
+                    }
+
+                    @Override
+                    public void onFailure(Call<T> call, Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+                });
+        return future;
+    }
+}
@@ -0,0 +1,151 @@
+package in.abilng.springboot.retrofit.dispatch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+import in.abilng.springboot.retrofit.annotation.Priority;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.scalars.ScalarsConverterFactory;
+import retrofit2.http.GET;
+import retrofit2.http.Tag;
+
+class PriorityDispatcherExecutorTest {
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    private interface TestApi {
+        @GET("/slow")
+        Call<String> slow();
+
+        @GET("/background")
+        Call<String> background();
+
+        @GET("/user")
+        @Priority(10)
+        Call<String> user();
+
+        @GET("/tagged")
+        Call<String> tagged(@Tag CallPriority priority);
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testHigherPriorityIsDispatchedFirst() throws Exception {
+        final TestApi api = api(new PriorityDispatcherExecutor(1, null));
+        mockWebServer.enqueue(new MockResponse().setBody("slow").setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+
+        final CompletableFuture<Response<String>> slow = enqueue(api.slow());
+        assertThat(mockWebServer.takeRequest(5, TimeUnit.SECONDS).getPath(), is("/slow"));
+        final CompletableFuture<Response<String>> background = enqueue(api.background());
+        final CompletableFuture<Response<String>> tagged = enqueue(api.tagged(new CallPriority(5)));
+        final CompletableFuture<Response<String>> user = enqueue(api.user());
+        CompletableFuture.allOf(slow, background, tagged, user).get(5, TimeUnit.SECONDS);
+
+        assertThat(mockWebServer.takeRequest().getPath(), is("/user"));
+        assertThat(mockWebServer.takeRequest().getPath(), is("/tagged"));
+        assertThat(mockWebServer.takeRequest().getPath(), is("/background"));
+    }
+
+    @Test
+    public void testCallIsDroppedAfterQueueDeadline() throws Exception {
+        final TestApi api = api(new PriorityDispatcherExecutor(1, Duration.ofMillis(50)));
+        mockWebServer.enqueue(new MockResponse().setBody("slow").setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+
+        final CompletableFuture<Response<String>> slow = enqueue(api.slow());
+        final CompletableFuture<Response<String>> dropped = enqueue(api.background());
+
+        assertThat(slow.get(5, TimeUnit.SECONDS).body(), is("slow"));
+        final Throwable failure = dropped.handle((response, throwable) -> throwable).get(5, TimeUnit.SECONDS);
+        assertThat(failure, instanceOf(IOException.class));
+        assertThat(mockWebServer.getRequestCount(), is(1));
+    }
+
+    @Test
+    public void testDispatcherLeavesPerHostLimitToExecutor() {
+        final Dispatcher dispatcher = new PriorityDispatcherExecutor(8, 2, null).dispatcher();
+
+        assertThat(dispatcher.getMaxRequests(), is(8));
+        assertThat(dispatcher.getMaxRequestsPerHost(), is(8));
+    }
+
+    @Test
+    public void testHigherPriorityIsDispatchedFirstAtPerHostLimit() throws Exception {
+        final PriorityDispatcherExecutor executor = new PriorityDispatcherExecutor(64, 5, null);
+        final TestApi api = api(executor);
+        for (int i = 0; i < 5; i++) {
+            // the slow calls end one after the other, each freeing a single slot of the host
+            mockWebServer.enqueue(
+                    new MockResponse().setBody("slow").setHeadersDelay(300 + 200L * i, TimeUnit.MILLISECONDS));
+        }
+        for (int i = 0; i < 11; i++) {
+            mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        }
+
+        final List<CompletableFuture<Response<String>>> calls = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            calls.add(enqueue(api.slow()));
+        }
+        for (int i = 0; i < 5; i++) {
+            assertThat(mockWebServer.takeRequest(5, TimeUnit.SECONDS).getPath(), is("/slow"));
+        }
+        for (int i = 0; i < 10; i++) {
+            calls.add(enqueue(api.background()));
+        }
+        calls.add(enqueue(api.user()));
+        assertThat(executor.getQueuedCount(), is(11));
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertThat(mockWebServer.takeRequest().getPath(), is("/user"));
+    }
+
+    private TestApi api(PriorityDispatcherExecutor executor) {
+        return new Retrofit.Builder()
+                .baseUrl(mockWebServer.url("/"))
+                .addConverterFactory(ScalarsConverterFactory.create())
+                .callFactory(
+                        executor.callFactory(new OkHttpClient.Builder().dispatcher(executor.dispatcher()).build()))
+                .build()
+                .create(TestApi.class);
+    }
+
+    private static <T> CompletableFuture<Response<T>> enqueue(Call<T> call) {
+        CompletableFuture<Response<T>> future = new CompletableFuture<>();
+        call.enqueue(
+                new Callback<T>() {
+                    @Override
+                    public void onResponse(Call<T> call, Response<T> response) {
+                        future.complete(response);
+                    }
+
+                    @Override
+                    public void onFailure(Call<T> call, Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+                });
+        return future;
+    }
+}
@@ -0,0 +1,109 @@
+package in.abilng.springboot.retrofit.download;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.scalars.ScalarsConverterFactory;
+import retrofit2.http.GET;
+import retrofit2.http.Tag;
+
+class DownloadCallAdapterTest {
+
+    // sha-256 of "Hello World"
+    private static final String CHECKSUM = "a591a6d40bf420404a011733cfb7b190d62c65bf0bcda32b57b277d9ad9f146e";
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    @TempDir
+    private Path directory;
+
+    private final TestApi api =
+            new Retrofit.Builder()
+                    .baseUrl(mockWebServer.url("/"))
+                    .addConverterFactory(DownloadCallAdapter.converterFactory())
+                    .addConverterFactory(ScalarsConverterFactory.create())
+                    .addCallAdapterFactory(DownloadCallAdapter.of())
+                    .client(new OkHttpClient.Builder().addInterceptor(new DownloadRangeInterceptor()).build())
+                    .validateEagerly(true)
+                    .build()
+                    .create(TestApi.class);
+
+    private interface TestApi {
+        @GET("/file")
+        Call<Path> download(@Tag DownloadTarget target);
+
+        @GET("/file")
+        Call<Path> download();
+
+        @GET("/file")
+        Call<String> text();
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testDownloadToFile() throws IOException {
+        final Path file = directory.resolve("file.txt");
+        Files.writeString(file, "previous content");
+        mockWebServer.enqueue(new MockResponse().setBody("Hello World"));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello World"));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello World"));
+
+        final Response<Path> response =
+                api.download(DownloadTarget.to(file).verify("SHA-256", CHECKSUM)).execute();
+        assertThat(response.body(), is(file));
+        assertThat(Files.readString(file), is("Hello World"));
+
+        final Path temp = api.download().execute().body();
+        assertThat(Files.readString(temp), is("Hello World"));
+        Files.delete(temp);
+
+        assertThat(api.text().execute().body(), is("Hello World"));
+    }
+
+    @Test
+    public void testResumeWithRange() throws Exception {
+        final Path file = directory.resolve("file.txt");
+        Files.writeString(file, "Hello");
+        mockWebServer.enqueue(
+                new MockResponse()
+                        .setResponseCode(206)
+                        .setHeader("Content-Range", "bytes 5-10/11")
+                        .setBody(" World"));
+
+        api.download(DownloadTarget.to(file).resume().verify("SHA-256", CHECKSUM)).execute();
+
+        final RecordedRequest request = mockWebServer.takeRequest();
+        assertThat(request.getHeader("Range"), is("bytes=5-"));
+        assertThat(Files.readString(file, StandardCharsets.UTF_8), is("Hello World"));
+    }
+
+    @Test
+    public void testChecksumMismatchDeletesFile() {
+        final Path file = directory.resolve("file.txt");
+        mockWebServer.enqueue(new MockResponse().setBody("Hello Wrold"));
+
+        assertThrows(
+                IOException.class,
+                () -> api.download(DownloadTarget.to(file).verify("SHA-256", CHECKSUM)).execute());
+        assertThat(Files.exists(file), is(false));
+    }
+}
@@ -0,0 +1,246 @@
+package in.abilng.springboot.retrofit.fallback;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import in.abilng.springboot.retrofit.annotation.StaleFallback;
+import in.abilng.springboot.retrofit.resilience4j.CircuitBreakerCallAdapter;
+import in.abilng.springboot.retrofit.resilience4j.RetryCallAdapter;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.scalars.ScalarsConverterFactory;
+import retrofit2.http.Body;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.POST;
+
+class StaleFallbackCallAdapterTest {
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("test");
+
+    private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final Clock clock =
+            new Clock() {
+                @Override
+                public ZoneOffset getZone() {
+                    return ZoneOffset.UTC;
+                }
+
+                @Override
+                public Clock withZone(java.time.ZoneId zone) {
+                    return this;
+                }
+
+                @Override
+                public Instant instant() {
+                    return now;
+                }
+            };
+
+    private final TestApi api =
+            new Retrofit.Builder()
+                    .baseUrl(mockWebServer.url("/"))
+                    .addConverterFactory(ScalarsConverterFactory.create())
+                    .addCallAdapterFactory(CircuitBreakerCallAdapter.of(circuitBreaker))
+                    .addCallAdapterFactory(
+                            StaleFallbackCallAdapter.of(new StaleResponseStore(10), Duration.ofMinutes(1), clock))
+                    .build()
+                    .create(TestApi.class);
+
+    private final TestApi retried =
+            new Retrofit.Builder()
+                    .baseUrl(mockWebServer.url("/"))
+                    .addConverterFactory(ScalarsConverterFactory.create())
+                    .addCallAdapterFactory(
+                            RetryCallAdapter.of(
+                                    Retry.of(
+                                            "test",
+                                            RetryConfig.<Response<?>>custom()
+                                                    .maxAttempts(2)
+                                                    .waitDuration(Duration.ofMillis(10))
+                                                    .retryOnResult(response -> response.code() >= 500)
+                                                    .failAfterMaxAttempts(true)
+                                                    .build())))
+                    .addCallAdapterFactory(
+                            StaleFallbackCallAdapter.of(new StaleResponseStore(10), Duration.ofMinutes(1), clock))
+                    .build()
+                    .create(TestApi.class);
+
+    private interface TestApi {
+        @GET("/greeting")
+        @StaleFallback
+        Call<String> greeting();
+
+        @GET("/greeting")
+        @StaleFallback
+        Call<String> greetingAs(@Header("Authorization") String authorization);
+
+        @POST("/greeting")
+        @StaleFallback
+        Call<String> greet(@Body String name);
+
+        @GET("/greeting")
+        Call<String> greetingWithoutFallback();
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testServesStaleResponseWhenCircuitIsOpen() throws IOException {
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        final Response<String> fresh = api.greeting().execute();
+        assertThat(StaleFallbackCallAdapter.isStale(fresh), is(false));
+
+        circuitBreaker.transitionToForcedOpenState();
+        now = now.plusSeconds(30);
+        final Response<String> stale = api.greeting().execute();
+
+        assertThat(stale.body(), is("Hello"));
+        assertThat(StaleFallbackCallAdapter.isStale(stale), is(true));
+        assertThat(stale.headers().get("Age"), is("30"));
+        assertThrows(CallNotPermittedException.class, () -> api.greetingWithoutFallback().execute());
+    }
+
+    @Test
+    public void testServesStaleResponseOnServerErrorWithinMaxStale() throws IOException {
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        api.greeting().execute();
+
+        assertThat(api.greeting().execute().body(), is("Hello"));
+
+        now = now.plusSeconds(61);
+        assertThat(api.greeting().execute().code(), is(503));
+    }
+
+    @Test
+    public void testServesStaleResponseWhenRetriesAreExhausted() throws IOException {
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        retried.greeting().execute();
+
+        final Response<String> stale = retried.greeting().execute();
+
+        assertThat(stale.body(), is("Hello"));
+        assertThat(StaleFallbackCallAdapter.isStale(stale), is(true));
+        assertThat(mockWebServer.getRequestCount(), is(3));
+    }
+
+    @Test
+    public void testServesStaleResponseWhenEnqueuedRetriesAreExhausted() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        retried.greeting().execute();
+        final CompletableFuture<Response<String>> stale = new CompletableFuture<>();
+
+        retried.greeting()
+                .enqueue(
+                        new Callback<>() {
+                            @Override
+                            public void onResponse(Call<String> call, Response<String> response) {
+                                stale.complete(response);
+                            }
+
+                            @Override
+                            public void onFailure(Call<String> call, Throwable t) {
+                                stale.completeExceptionally(t);
+                            }
+                        });
+
+        assertThat(stale.get(5, TimeUnit.SECONDS).body(), is("Hello"));
+        assertThat(StaleFallbackCallAdapter.isStale(stale.get()), is(true));
+    }
+
+    @Test
+    public void testKeysByAuthorizationAndBody() throws IOException {
+        mockWebServer.enqueue(new MockResponse().setBody("Hello Ada"));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello Bob"));
+        api.greetingAs("Bearer ada").execute();
+        api.greet("Bob").execute();
+
+        circuitBreaker.transitionToForcedOpenState();
+
+        assertThat(api.greetingAs("Bearer ada").execute().body(), is("Hello Ada"));
+        assertThrows(CallNotPermittedException.class, () -> api.greetingAs("Bearer bob").execute());
+        assertThat(api.greet("Bob").execute().body(), is("Hello Bob"));
+        assertThrows(CallNotPermittedException.class, () -> api.greet("Ada").execute());
+    }
+
+    @Test
+    public void testEvictedEntriesAreSpilledToDisk(@TempDir Path directory) {
+        final StaleResponseStore store = new StaleResponseStore(1, directory, 10);
+        store.put("a", new StaleEntry("Hello", 200, "OK", List.of("Content-Type", "text/plain"), 0));
+        store.put("b", new StaleEntry("World", 200, "OK", List.of(), 0));
+
+        assertThat(store.size(), is(1));
+        assertThat(store.get("a").map(StaleEntry::body).orElse(null), is("Hello"));
+        assertThat(store.get("a").map(StaleEntry::headers).orElse(null), is(List.of("Content-Type", "text/plain")));
+        // spilled files are read on a restart
+        assertThat(new StaleResponseStore(1, directory, 10).get("a").isPresent(), is(true));
+    }
+
+    @Test
+    public void testSpilledEntriesDropCredentialHeaders(@TempDir Path directory) {
+        final StaleResponseStore store = new StaleResponseStore(1, directory, 10);
+        store.put(
+                "a",
+                new StaleEntry(
+                        "Hello",
+                        200,
+                        "OK",
+                        List.of("Set-Cookie", "session=1", "Content-Type", "text/plain", "WWW-Authenticate", "Basic"),
+                        0));
+        store.put("b", new StaleEntry("World", 200, "OK", List.of(), 0));
+
+        assertThat(store.get("a").map(StaleEntry::headers).orElse(null), is(List.of("Content-Type", "text/plain")));
+    }
+
+    @Test
+    public void testSpilledEntriesOnlyReadBackTheBodyType(@TempDir Path directory) {
+        final StaleResponseStore store = new StaleResponseStore(1, directory, 10);
+        // decoded bodies hold mutable lists
+        final Greeting greeting = new Greeting("Hello", new ArrayList<>(List.of("Ada")));
+        store.put("a", new StaleEntry(greeting, 200, "OK", List.of(), 0));
+        store.put("b", new StaleEntry(greeting, 200, "OK", List.of(), 0));
+        store.put("c", new StaleEntry("World", 200, "OK", List.of(), 0));
+
+        assertThat(store.get("a", Greeting.class).map(StaleEntry::body).orElse(null), is(greeting));
+        // a file holding any other class is rejected and removed
+        assertThat(store.get("b", String.class).isPresent(), is(false));
+        assertThat(store.get("b", Greeting.class).isPresent(), is(false));
+    }
+
+    record Greeting(String text, List<String> names) implements Serializable {}
+}
@@ -0,0 +1,154 @@
+package in.abilng.springboot.retrofit.fanout;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+import in.abilng.springboot.retrofit.resilience4j.RetryCallAdapter;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.scalars.ScalarsConverterFactory;
+import retrofit2.http.GET;
+import retrofit2.http.Path;
+
+class RetrofitFanOutTest {
+
+    private interface TestApi {
+        @GET("/books/{id}")
+        Call<String> book(@Path("id") int id);
+    }
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    private MockWebServer server;
+
+    private TestApi api;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(
+                new Dispatcher() {
+                    @NotNull
+                    @Override
+                    public MockResponse dispatch(@NotNull RecordedRequest request) throws InterruptedException {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        try {
+                            final String id = request.getPath().substring("/books/".length());
+                            if (id.startsWith("9")) {
+                                Thread.sleep(1000);
+                            } else {
+                                Thread.sleep(20);
+                            }
+                            return id.startsWith("5")
+                                    ? new MockResponse().setResponseCode(500)
+                                    : new MockResponse().setBody("book-" + id);
+                        } finally {
+                            running.decrementAndGet();
+                        }
+                    }
+                });
+        server.start();
+        api =
+                new Retrofit.Builder()
+                        .baseUrl(server.url("/"))
+                        .client(new OkHttpClient())
+                        .addConverterFactory(ScalarsConverterFactory.create())
+                        .build()
+                        .create(TestApi.class);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void testGatherWithBoundedConcurrency() {
+        final RetrofitFanOut fanOut = RetrofitFanOut.of(3, Duration.ofSeconds(10));
+
+        final FanOutResult<String> result = fanOut.gather(calls(10, 11, 12, 13, 14, 15, 16, 17, 50));
+
+        assertThat(result.isComplete(), is(true));
+        assertThat(result.quorumReached(), is(false));
+        assertThat(result.successes().size(), is(8));
+        assertThat(result.failures().get(0).index(), is(8));
+        assertThat(maxRunning.get(), lessThanOrEqualTo(3));
+    }
+
+    @Test
+    public void testQuorumCancelsRemainingCalls() {
+        final RetrofitFanOut fanOut = RetrofitFanOut.of(4, null);
+
+        final FanOutResult<String> result = fanOut.gather(calls(90, 91, 10, 11), 2);
+
+        assertThat(result.quorumReached(), is(true));
+        assertThat(result.isComplete(), is(false));
+        assertThat(result.successes(), containsInAnyOrder("book-10", "book-11"));
+    }
+
+    @Test
+    public void testDeadlineReturnsPartialResults() throws Exception {
+        final RetrofitFanOut fanOut = RetrofitFanOut.of(2, Duration.ofMillis(300));
+
+        final FanOutResult<String> result = fanOut.gather(calls(10, 90, 91, 11));
+
+        assertThat(result.isComplete(), is(false));
+        assertThat(result.successes(), is(List.of("book-10")));
+        // calls waiting for a permit are never sent
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertThat(server.getRequestCount(), lessThanOrEqualTo(3));
+    }
+
+    @Test
+    public void testOutcomeHoldsEnqueuedCallOfRetriedCall() {
+        final Retry retry =
+                Retry.of(
+                        "fan-out",
+                        RetryConfig.<Response<?>>custom()
+                                .maxAttempts(2)
+                                .waitDuration(Duration.ofMillis(10))
+                                .retryOnResult(response -> response.code() >= 500)
+                                .build());
+        final TestApi retried =
+                new Retrofit.Builder()
+                        .baseUrl(server.url("/"))
+                        .client(new OkHttpClient())
+                        .addConverterFactory(ScalarsConverterFactory.create())
+                        .addCallAdapterFactory(RetryCallAdapter.of(retry))
+                        .build()
+                        .create(TestApi.class);
+        final List<Call<String>> calls = List.of(retried.book(50), retried.book(10));
+
+        final FanOutResult<String> result = RetrofitFanOut.of(2, Duration.ofSeconds(10)).gather(calls);
+
+        assertThat(result.isComplete(), is(true));
+        assertThat(server.getRequestCount(), is(3));
+        assertThat(result.failures().get(0).call(), sameInstance(calls.get(0)));
+    }
+
+    private List<Call<String>> calls(int... ids) {
+        return IntStream.of(ids).mapToObj(api::book).toList();
+    }
+}
@@ -0,0 +1,79 @@
+package in.abilng.springboot.retrofit.interceptor;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import in.abilng.springboot.retrofit.config.RetroFitProperties;
+import java.io.IOException;
+import java.net.SocketException;
+import java.time.Duration;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import retrofit2.Call;
+import retrofit2.Retrofit;
+import retrofit2.converter.scalars.ScalarsConverterFactory;
+import retrofit2.http.GET;
+
+class FaultInjectionInterceptorTest {
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    private final RetroFitProperties.FaultInjectionProperties properties =
+            new RetroFitProperties.FaultInjectionProperties();
+
+    private final TestApi api =
+            new Retrofit.Builder()
+                    .baseUrl(mockWebServer.url("/"))
+                    .addConverterFactory(ScalarsConverterFactory.create())
+                    .client(
+                            new OkHttpClient.Builder()
+                                    .addInterceptor(new FaultInjectionInterceptor(properties))
+                                    .build())
+                    .build()
+                    .create(TestApi.class);
+
+    private interface TestApi {
+        @GET("/test")
+        Call<String> test();
+
+        @GET("/test")
+        Call<String> other();
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testErrorsAndResetsAreInjectedPerMethod() throws IOException {
+        properties.getDefaults().setErrorRate(1);
+        final RetroFitProperties.FaultProperties reset = new RetroFitProperties.FaultProperties();
+        reset.setResetRate(1);
+        properties.getMethods().put("other", reset);
+
+        assertThat(api.test().execute().code(), is(503));
+        assertThrows(SocketException.class, () -> api.other().execute());
+        assertThat(mockWebServer.getRequestCount(), is(0));
+    }
+
+    @Test
+    public void testLatencyAndTruncatedBodies() throws IOException {
+        properties.getDefaults().setLatencyRate(1);
+        properties.getDefaults().setLatencyMin(Duration.ofMillis(100));
+        properties.getDefaults().setLatencyMax(Duration.ofMillis(100));
+        properties.getDefaults().setTruncateRate(1);
+        mockWebServer.enqueue(new MockResponse().setBody("Hello World"));
+
+        final long start = System.nanoTime();
+        assertThrows(IOException.class, () -> api.test().execute());
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start).toMillis(), greaterThanOrEqualTo(100L));
+        assertThat(mockWebServer.getRequestCount(), is(1));
+    }
+}
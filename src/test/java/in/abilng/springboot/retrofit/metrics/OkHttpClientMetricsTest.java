@@ -0,0 +1,209 @@
+package in.abilng.springboot.retrofit.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+import in.abilng.springboot.retrofit.config.RetroFitProperties;
+import in.abilng.springboot.retrofit.tls.HandshakeCountingSocketFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OkHttpClientMetricsTest {
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private OkHttpClient client;
+
+    @BeforeEach
+    public void init() {
+        final OkHttpClientMetrics metrics = new OkHttpClientMetrics(() -> registry, sampleAll());
+        client = metrics.decorate("test", new OkHttpClient());
+        metrics.clientCreated("test", client);
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testQueueWaitIsRecordedForEnqueuedCallsOnly() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        final Request request = new Request.Builder().url(mockWebServer.url("/")).build();
+
+        client.newCall(request).execute().close();
+
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        client.newCall(request)
+                .enqueue(
+                        new Callback() {
+                            @Override
+                            public void onFailure(Call call, IOException e) {
+                                done.completeExceptionally(e);
+                            }
+
+                            @Override
+                            public void onResponse(Call call, Response response) {
+                                response.close();
+                                done.complete(null);
+                            }
+                        });
+        done.get(5, TimeUnit.SECONDS);
+
+        var timer =
+                registry.get("okhttp.dispatcher.queue.wait").tag(OkHttpClientMetrics.CLIENT_TAG, "test").timer();
+        assertThat(timer.count(), is(1L));
+    }
+
+    @Test
+    public void testKeepsListenerOfBuilder() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final OkHttpClient.Builder builder =
+                new OkHttpClient.Builder()
+                        .eventListener(
+                                new EventListener() {
+                                    @Override
+                                    public void callStart(Call call) {
+                                        events.add("callStart");
+                                    }
+
+                                    @Override
+                                    public void callEnd(Call call) {
+                                        events.add("callEnd");
+                                    }
+                                });
+        final OkHttpClient decorated =
+                new OkHttpClientMetrics(() -> registry, sampleAll())
+                        .decorate("test", builder.build());
+
+        try (Response response =
+                decorated.newCall(new Request.Builder().url(mockWebServer.url("/")).build()).execute()) {
+            assertThat(response.body().string(), is("Hello"));
+        }
+
+        assertThat(events, is(List.of("callStart", "callEnd")));
+    }
+
+    @Test
+    public void testCountsHandshakesOfTlsClients() {
+        var full =
+                registry.get("okhttp.tls.handshakes")
+                        .tags(OkHttpClientMetrics.CLIENT_TAG, "test", "resumed", "false")
+                        .functionCounter();
+
+        assertThat(client.sslSocketFactory(), instanceOf(HandshakeCountingSocketFactory.class));
+        assertThat(full.count(), is(0.0));
+    }
+
+    @Test
+    public void testDoesNotRetainCallsThatDoNotRun() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        final Request request = new Request.Builder().url(mockWebServer.url("/")).build();
+        final ClientEventListenerFactory listenerFactory = (ClientEventListenerFactory) client.eventListenerFactory();
+
+        for (int i = 0; i < 100; i++) {
+            client.newCall(request).request();
+        }
+        client.newCall(request).execute().close();
+
+        assertThat(listenerFactory.getRunningCount(), is(0));
+    }
+
+    @Test
+    public void testPoolAndDispatcherGauges() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+
+        client.newCall(new Request.Builder().url(mockWebServer.url("/")).build()).execute().close();
+
+        var total =
+                registry.get("okhttp.pool.connections")
+                        .tags(OkHttpClientMetrics.CLIENT_TAG, "test", "state", "total")
+                        .gauge();
+        var idle =
+                registry.get("okhttp.pool.connections")
+                        .tags(OkHttpClientMetrics.CLIENT_TAG, "test", "state", "idle")
+                        .gauge();
+        var queued =
+                registry.get("okhttp.dispatcher.calls")
+                        .tags(OkHttpClientMetrics.CLIENT_TAG, "test", "state", "queued")
+                        .gauge();
+        assertThat(total.value(), is(1.0));
+        assertThat(idle.value(), is(1.0));
+        assertThat(queued.value(), is(0.0));
+    }
+
+    @Test
+    public void testPhasesAndConnectionReuse() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        final Request request = new Request.Builder().url(mockWebServer.url("/")).build();
+
+        client.newCall(request).execute().close();
+        client.newCall(request).execute().close();
+
+        var connect =
+                registry.get("okhttp.phase")
+                        .tags(OkHttpClientMetrics.CLIENT_TAG, "test", "phase", "connect")
+                        .timer();
+        var ttfb =
+                registry.get("okhttp.phase").tags(OkHttpClientMetrics.CLIENT_TAG, "test", "phase", "ttfb").timer();
+        var reused =
+                registry.get("okhttp.connection.acquired")
+                        .tags(OkHttpClientMetrics.CLIENT_TAG, "test", "reused", "true")
+                        .counter();
+        assertThat(connect.count(), is(1L));
+        assertThat(ttfb.count(), is(2L));
+        assertThat(reused.count(), is(1.0));
+    }
+
+    @Test
+    public void testConnectionAcquireExcludesInterceptors() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        final OkHttpClient.Builder builder =
+                new OkHttpClient.Builder()
+                        .addInterceptor(
+                                chain -> {
+                                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(300));
+                                    return chain.proceed(chain.request());
+                                });
+        final OkHttpClient slow =
+                new OkHttpClientMetrics(() -> registry, sampleAll())
+                        .decorate("slow", builder.build());
+
+        slow.newCall(new Request.Builder().url(mockWebServer.url("/")).build()).execute().close();
+
+        var acquire =
+                registry.get("okhttp.phase")
+                        .tags(OkHttpClientMetrics.CLIENT_TAG, "slow", "phase", "connection.acquire")
+                        .timer();
+        assertThat(acquire.count(), is(1L));
+        assertThat(acquire.max(TimeUnit.MILLISECONDS) < 300, is(true));
+    }
+
+    private static RetroFitProperties.Metrics sampleAll() {
+        final RetroFitProperties.Metrics properties = new RetroFitProperties.Metrics();
+        properties.setPhaseSampleRate(1.0);
+        return properties;
+    }
+}
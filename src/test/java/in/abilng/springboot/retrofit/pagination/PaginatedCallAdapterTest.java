@@ -0,0 +1,122 @@
+package in.abilng.springboot.retrofit.pagination;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import in.abilng.springboot.retrofit.annotation.Paginated;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import retrofit2.HttpException;
+import retrofit2.Retrofit;
+import retrofit2.converter.jackson.JacksonConverterFactory;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.Query;
+
+class PaginatedCallAdapterTest {
+
+    public record BookPage(List<String> items, String next) implements Page<String> {}
+
+    private interface TestApi {
+        @GET("/books")
+        @Paginated
+        Stream<String> books(@Header("X-Tenant") String tenant);
+
+        @GET("/authors")
+        @Paginated(page = BookPage.class, cursorParam = "cursor", prefetch = 0)
+        Iterable<String> authors(@Query("limit") int limit);
+    }
+
+    private MockWebServer server;
+
+    private TestApi api;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        api =
+                new Retrofit.Builder()
+                        .baseUrl(server.url("/"))
+                        .addCallAdapterFactory(PaginatedCallAdapter.of())
+                        .addConverterFactory(JacksonConverterFactory.create())
+                        .validateEagerly(true)
+                        .build()
+                        .create(TestApi.class);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void testLinkHeaderPagesArePrefetched() throws Exception {
+        server.enqueue(
+                new MockResponse()
+                        .setBody("[\"a\",\"b\"]")
+                        .addHeader("Link", "</books?page=2>; rel=\"next\", </books?page=3>; rel=\"last\""));
+        server.enqueue(new MockResponse().setBody("[\"c\"]").addHeader("Link", "</books?page=3>; rel=\"next\""));
+        server.enqueue(new MockResponse().setBody("[]"));
+
+        try (Stream<String> books = api.books("acme")) {
+            assertThat(server.getRequestCount(), is(0));
+            final Iterator<String> iterator = books.iterator();
+            assertThat(iterator.next(), is("a"));
+            // the second page is fetched while the first one is consumed
+            final RecordedRequest first = server.takeRequest();
+            final RecordedRequest second = server.takeRequest();
+            assertThat(second.getPath(), is("/books?page=2"));
+            assertThat(second.getHeader("X-Tenant"), is("acme"));
+            assertThat(first.getPath(), is("/books"));
+
+            final List<String> rest = new ArrayList<>();
+            iterator.forEachRemaining(rest::add);
+            assertThat(rest, is(List.of("b", "c")));
+            assertThat(server.getRequestCount(), is(3));
+        }
+    }
+
+    @Test
+    public void testCursorPages() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"items\":[\"x\"],\"next\":\"c2\"}"));
+        server.enqueue(new MockResponse().setBody("{\"items\":[\"y\",\"z\"],\"next\":null}"));
+
+        final List<String> authors = new ArrayList<>();
+        api.authors(10).forEach(authors::add);
+
+        assertThat(authors, is(List.of("x", "y", "z")));
+        server.takeRequest();
+        assertThat(server.takeRequest().getPath(), is("/authors?limit=10&cursor=c2"));
+    }
+
+    @Test
+    public void testFailedPageIsThrown() {
+        server.enqueue(new MockResponse().setBody("[\"a\"]").addHeader("Link", "</books?page=2>; rel=\"next\""));
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        final Iterator<String> iterator = api.books("acme").iterator();
+        assertThat(iterator.next(), is("a"));
+        final HttpException exception = assertThrows(HttpException.class, iterator::hasNext);
+        assertThat(exception.code(), is(503));
+    }
+
+    @Test
+    public void testNextLink() {
+        assertThat(
+                PaginatedCallAdapter.nextLink(
+                        List.of("<https://api/x?p=1>; rel=\"prev\", <https://api/x?p=3>; rel=next")),
+                is("https://api/x?p=3"));
+        assertThat(PaginatedCallAdapter.nextLink(List.of("<https://api/x?p=1>; rel=\"prev\"")), nullValue());
+    }
+}
@@ -0,0 +1,126 @@
+package in.abilng.springboot.retrofit.propagation;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.scalars.ScalarsConverterFactory;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+
+class HeaderPropagationCallAdapterTest {
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    private TestApi api;
+    private MockHttpServletRequest mockRequestInContext;
+
+    private interface TestApi {
+        @GET("/test")
+        Call<String> test();
+
+        @GET("/test")
+        Call<String> testWithTenant(@Header("X-Tenant-Id") String tenant);
+    }
+
+    @BeforeEach
+    public void init() {
+        api =
+                new Retrofit.Builder()
+                        .baseUrl(mockWebServer.url("/"))
+                        .addConverterFactory(ScalarsConverterFactory.create())
+                        .addCallAdapterFactory(
+                                HeaderPropagationCallAdapter.of(
+                                        List.of("Authorization", "X-Tenant-Id"),
+                                        List.of(HeaderPropagationContext.resolver(), new ServletHeaderResolver())))
+                        .callFactory(new HeaderPropagatingCallFactory(new OkHttpClient()))
+                        .build()
+                        .create(TestApi.class);
+
+        mockRequestInContext = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(mockRequestInContext));
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        RequestContextHolder.resetRequestAttributes();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testHeadersAreCapturedForEnqueuedCall() throws Exception {
+        mockRequestInContext.addHeader("Authorization", "Bearer token");
+        mockRequestInContext.addHeader("X-Tenant-Id", "tenant-1");
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+
+        final Call<String> call = api.test();
+        RequestContextHolder.resetRequestAttributes();
+
+        final CompletableFuture<String> result = new CompletableFuture<>();
+        call.enqueue(
+                new Callback<>() {
+                    @Override
+                    public void onResponse(Call<String> call, Response<String> response) {
+                        result.complete(response.body());
+                    }
+
+                    @Override
+                    public void onFailure(Call<String> call, Throwable t) {
+                        result.completeExceptionally(t);
+                    }
+                });
+
+        assertThat(result.get(5, TimeUnit.SECONDS), is("Hello"));
+        var request = mockWebServer.takeRequest();
+        assertThat(request.getHeader("Authorization"), is("Bearer token"));
+        assertThat(request.getHeader("X-Tenant-Id"), is("tenant-1"));
+    }
+
+    @Test
+    public void testExplicitHeaderIsNotOverridden() throws Exception {
+        mockRequestInContext.addHeader("X-Tenant-Id", "tenant-1");
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+
+        api.testWithTenant("tenant-2").execute();
+
+        var request = mockWebServer.takeRequest();
+        assertThat(request.getHeaders().values("X-Tenant-Id"), is(List.of("tenant-2")));
+        assertThat(request.getHeader("Authorization"), is(nullValue()));
+    }
+
+    @Test
+    public void testHeadersFromPropagationContext() throws Exception {
+        RequestContextHolder.resetRequestAttributes();
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+
+        final Call<String> call;
+        final HeaderPropagationContext.Scope scope =
+                HeaderPropagationContext.bind(okhttp3.Headers.of("X-Tenant-Id", "tenant-3"));
+        try {
+            call = api.test();
+        } finally {
+            scope.close();
+        }
+        call.execute();
+
+        var request = mockWebServer.takeRequest();
+        assertThat(request.getHeader("X-Tenant-Id"), is("tenant-3"));
+    }
+}
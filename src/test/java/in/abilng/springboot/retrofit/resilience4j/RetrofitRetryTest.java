@@ -0,0 +1,262 @@
+package in.abilng.springboot.retrofit.resilience4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+import io.github.resilience4j.retry.MaxRetriesExceededException;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.scalars.ScalarsConverterFactory;
+import retrofit2.http.GET;
+
+class RetrofitRetryTest {
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    private TestApi api;
+
+    private Retry retry;
+
+    private interface TestApi {
+        @GET("/test")
+        Call<String> test();
+    }
+
+    @BeforeEach
+    public void init() throws IOException {
+        mockWebServer.start();
+        retry =
+                Retry.of(
+                        "test",
+                        RetryConfig.<Response<?>>custom()
+                                .maxAttempts(3)
+                                .intervalBiFunction(RetryAfter.intervalBiFunction(Duration.ofMillis(10)))
+                                .retryOnResult(response -> response.code() >= 500 || RetryAfter.isThrottled(response))
+                                .retryExceptions(IOException.class)
+                                .failAfterMaxAttempts(true)
+                                .build());
+        api =
+                new Retrofit.Builder()
+                        .baseUrl(mockWebServer.url("/"))
+                        .addConverterFactory(ScalarsConverterFactory.create())
+                        .addCallAdapterFactory(RetryCallAdapter.of(retry))
+                        .build()
+                        .create(TestApi.class);
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testEnqueueRetriesServerError() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+
+        Response<String> response = enqueue(api.test()).get(5, TimeUnit.SECONDS);
+
+        assertThat(response.body(), is("Hello"));
+        assertThat(mockWebServer.getRequestCount(), is(3));
+    }
+
+    @Test
+    public void testEnqueueFailsWhenAttemptsExhausted() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+
+        CompletableFuture<Response<String>> result = enqueue(api.test());
+
+        Throwable failure = result.handle((response, throwable) -> throwable).get(5, TimeUnit.SECONDS);
+        assertThat(failure, instanceOf(MaxRetriesExceededException.class));
+        assertThat(mockWebServer.getRequestCount(), is(3));
+    }
+
+    @Test
+    public void testExecuteRetriesServerError() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+
+        Response<String> response = api.test().execute();
+
+        assertThat(response.body(), is("Hello"));
+        assertThat(mockWebServer.getRequestCount(), is(2));
+    }
+
+    @Test
+    public void testExecuteFailsFastWhenBudgetExhausted() throws Exception {
+        final RetryBudget budget = RetryBudget.of("test", 0, 0, Duration.ofSeconds(10));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+
+        Response<String> response = withBudget(budget).test().execute();
+
+        assertThat(response.code(), is(503));
+        assertThat(mockWebServer.getRequestCount(), is(1));
+        assertThat(budget.getExhaustedCount(), is(1L));
+        assertThat(completedCalls(), is(1L));
+    }
+
+    @Test
+    public void testEnqueueRetriesWithinBudget() throws Exception {
+        final RetryBudget budget = RetryBudget.of("test", 1, 0, Duration.ofSeconds(10));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+
+        Response<String> response = enqueue(withBudget(budget).test()).get(5, TimeUnit.SECONDS);
+
+        // one first attempt deposits a single retry
+        assertThat(response.code(), is(503));
+        assertThat(mockWebServer.getRequestCount(), is(2));
+        assertThat(budget.getExhaustedCount(), is(1L));
+    }
+
+    @Test
+    public void testEnqueueHonoursRetryAfter() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "1"));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+
+        final long start = System.nanoTime();
+        Response<String> response = enqueue(api.test()).get(5, TimeUnit.SECONDS);
+
+        assertThat(response.body(), is("Hello"));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 1000, is(true));
+    }
+
+    @Test
+    public void testExecuteDoesNotWaitBeyondDeadline() throws Exception {
+        // within the max Retry-After, beyond the deadline
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "3"));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+
+        final Call<String> call = api.test();
+        call.timeout().timeout(2, TimeUnit.SECONDS);
+        Response<String> response = call.execute();
+
+        assertThat(response.code(), is(503));
+        assertThat(mockWebServer.getRequestCount(), is(1));
+    }
+
+    @Test
+    public void testExecuteDoesNotSpendBudgetBeyondDeadline() throws Exception {
+        final RetryBudget budget = RetryBudget.of("test", 1, 0, Duration.ofSeconds(10));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "3"));
+
+        final Call<String> call = withBudget(budget).test();
+        call.timeout().timeout(2, TimeUnit.SECONDS);
+        Response<String> response = call.execute();
+
+        assertThat(response.code(), is(503));
+        assertThat(budget.getAvailableRetries(), is(1L));
+        assertThat(budget.getExhaustedCount(), is(0L));
+    }
+
+    @Test
+    public void testExecuteReturnsThrottledResponseBeyondMaxRetryAfter() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "86400"));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+
+        Response<String> response = api.test().execute();
+
+        assertThat(response.code(), is(429));
+        assertThat(mockWebServer.getRequestCount(), is(1));
+        assertThat(completedCalls(), is(1L));
+    }
+
+    @Test
+    public void testEnqueueReturnsThrottledResponseBeyondMaxRetryAfter() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "2"));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        final TestApi capped =
+                new Retrofit.Builder()
+                        .baseUrl(mockWebServer.url("/"))
+                        .addConverterFactory(ScalarsConverterFactory.create())
+                        .addCallAdapterFactory(RetryCallAdapter.of(() -> retry, null, null, Duration.ofSeconds(1)))
+                        .build()
+                        .create(TestApi.class);
+
+        Response<String> response = enqueue(capped.test()).get(1, TimeUnit.SECONDS);
+
+        assertThat(response.code(), is(503));
+        assertThat(mockWebServer.getRequestCount(), is(1));
+        assertThat(completedCalls(), is(1L));
+    }
+
+    @Test
+    public void testThrottleGateHoldsAtMostMaxHold() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "86400"));
+        final ThrottleGate gate = new ThrottleGate(Duration.ofSeconds(1));
+
+        gate.onResponse(api.test().execute());
+
+        assertThat(gate.remainingMillis() <= 1000, is(true));
+        assertThat(gate.remainingMillis() > 0, is(true));
+    }
+
+    @Test
+    public void testParseRetryAfter() {
+        final Clock clock = Clock.fixed(Instant.parse("2015-10-21T07:28:00Z"), ZoneOffset.UTC);
+
+        assertThat(RetryAfter.parseMillis("120", clock), is(120_000L));
+        assertThat(RetryAfter.parseMillis("Wed, 21 Oct 2015 07:28:30 GMT", clock), is(30_000L));
+        assertThat(RetryAfter.parseMillis("Wed, 21 Oct 2015 07:27:00 GMT", clock), is(0L));
+        assertThat(RetryAfter.parseMillis("soon", clock), is(-1L));
+    }
+
+    /**
+     * Calls the retry context was completed for, whatever their outcome.
+     */
+    private long completedCalls() {
+        final Retry.Metrics metrics = retry.getMetrics();
+        return metrics.getNumberOfSuccessfulCallsWithoutRetryAttempt()
+                + metrics.getNumberOfSuccessfulCallsWithRetryAttempt()
+                + metrics.getNumberOfFailedCallsWithoutRetryAttempt()
+                + metrics.getNumberOfFailedCallsWithRetryAttempt();
+    }
+
+    private TestApi withBudget(RetryBudget budget) {
+        return new Retrofit.Builder()
+                .baseUrl(mockWebServer.url("/"))
+                .addConverterFactory(ScalarsConverterFactory.create())
+                .addCallAdapterFactory(RetryCallAdapter.of(retry, budget))
+                .build()
+                .create(TestApi.class);
+    }
+
+    private static <T> CompletableFuture<Response<T>> enqueue(Call<T> call) {
+        CompletableFuture<Response<T>> future = new CompletableFuture<>();
+        call.enqueue(
+                new Callback<T>() {
+                    @Override
+                    public void onResponse(Call<T> call, Response<T> response) {
+                        future.complete(response);
+                    }
+
+                    @Override
+                    public void onFailure(Call<T> call, Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+                });
+        return future;
+    }
+}
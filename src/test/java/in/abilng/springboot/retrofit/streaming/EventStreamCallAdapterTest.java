@@ -0,0 +1,147 @@
+package in.abilng.springboot.retrofit.streaming;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import in.abilng.springboot.retrofit.resilience4j.CircuitBreakerCallAdapter;
+import in.abilng.springboot.retrofit.resilience4j.RetryCallAdapter;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import retrofit2.HttpException;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.jackson.JacksonConverterFactory;
+import retrofit2.http.GET;
+
+class EventStreamCallAdapterTest {
+
+    public record Event(String name) {}
+
+    private interface TestApi {
+        @GET("/events")
+        Flow.Publisher<Event> events();
+
+        @GET("/sse")
+        Flux<String> messages();
+    }
+
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("test");
+
+    private MockWebServer server;
+
+    private TestApi api;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        api =
+                new Retrofit.Builder()
+                        .baseUrl(server.url("/"))
+                        .addCallAdapterFactory(EventStreamCallAdapter.of())
+                        .addCallAdapterFactory(
+                                RetryCallAdapter.of(
+                                        Retry.of(
+                                                "test",
+                                                RetryConfig.<Response<?>>custom()
+                                                        .maxAttempts(3)
+                                                        .waitDuration(Duration.ofMillis(1))
+                                                        .retryOnResult(response -> response.code() >= 500)
+                                                        .build())))
+                        .addCallAdapterFactory(CircuitBreakerCallAdapter.of(circuitBreaker))
+                        .addConverterFactory(EventStreamCallAdapter.converterFactory())
+                        .addConverterFactory(JacksonConverterFactory.create())
+                        .validateEagerly(true)
+                        .build()
+                        .create(TestApi.class);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void testLinesAreReadOnDemand() throws Exception {
+        server.enqueue(
+                new MockResponse()
+                        .setHeader("Content-Type", "application/x-ndjson")
+                        .setBody("{\"name\":\"a\"}\n\n{\"name\":\"b\"}\n{\"name\":\"c\"}\n"));
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        api.events().subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        assertThat(subscriber.signals.poll(5, TimeUnit.SECONDS), is(new Event("a")));
+        assertThat(subscriber.signals.poll(100, TimeUnit.MILLISECONDS), is((Object) null));
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertThat(subscriber.signals.poll(5, TimeUnit.SECONDS), is(new Event("b")));
+        assertThat(subscriber.signals.poll(5, TimeUnit.SECONDS), is(new Event("c")));
+        assertThat(subscriber.signals.poll(5, TimeUnit.SECONDS), is("complete"));
+        assertThat(circuitBreaker.getMetrics().getNumberOfSuccessfulCalls(), is(1));
+    }
+
+    @Test
+    public void testServerSentEvents() {
+        server.enqueue(
+                new MockResponse()
+                        .setHeader("Content-Type", "text/event-stream; charset=utf-8")
+                        .setBody(": comment\nevent: greeting\ndata: hello\ndata: world\n\nid: 2\n\ndata:bye\n\n"));
+
+        assertThat(api.messages().collectList().block(), is(List.of("hello\nworld", "bye")));
+    }
+
+    @Test
+    public void testFailedStreamIsNotRetried() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("late"));
+
+        final Exception exception = assertThrows(RuntimeException.class, () -> api.messages().blockLast());
+
+        assertThat(exception, instanceOf(HttpException.class));
+        assertThat(server.getRequestCount(), is(1));
+        assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls(), is(1));
+    }
+
+    private static final class RecordingSubscriber implements Flow.Subscriber<Event> {
+
+        private final BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+
+        private volatile Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Event item) {
+            signals.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            signals.add(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            signals.add("complete");
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package in.abilng.springboot.retrofit.timeout;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import in.abilng.springboot.retrofit.streaming.EventStreamCallAdapter;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+
+class AdaptiveTimeoutCallAdapterTest {
+
+    private interface TestApi {
+        @GET("/sse")
+        Flux<String> messages();
+    }
+
+    private final AdaptiveTimeoutCallAdapter adapter =
+            AdaptiveTimeoutCallAdapter.of(
+                    0.99, 3, Duration.ofMillis(100), Duration.ofSeconds(10), 100, Duration.ofMinutes(1));
+
+    @Test
+    public void testMaxTimeoutUntilEnoughSamples() {
+        final LatencySketch sketch = new LatencySketch(Duration.ofMinutes(1));
+        for (int i = 0; i < 99; i++) {
+            sketch.record(20);
+        }
+
+        assertThat(adapter.timeoutMillis(sketch), is(10_000L));
+    }
+
+    @Test
+    public void testTimeoutIsMultipleOfQuantile() {
+        final LatencySketch sketch = new LatencySketch(Duration.ofMinutes(1));
+        for (int i = 0; i < 990; i++) {
+            sketch.record(50);
+        }
+        for (int i = 0; i < 10; i++) {
+            sketch.record(200);
+        }
+
+        // p99 is 50ms within the 10% accuracy of the sketch
+        assertThat(sketch.quantile(0.99), greaterThanOrEqualTo(50L));
+        assertThat(sketch.quantile(0.99), lessThanOrEqualTo(55L));
+        assertThat(adapter.timeoutMillis(sketch), is(sketch.quantile(0.99) * 3));
+    }
+
+    @Test
+    public void testTimeoutIsClamped() {
+        final LatencySketch fast = new LatencySketch(Duration.ofMinutes(1));
+        final LatencySketch slow = new LatencySketch(Duration.ofMinutes(1));
+        for (int i = 0; i < 100; i++) {
+            fast.record(1);
+            slow.record(60_000);
+        }
+
+        assertThat(adapter.timeoutMillis(fast), is(100L));
+        assertThat(adapter.timeoutMillis(slow), is(10_000L));
+    }
+
+    @Test
+    public void testEventStreamIsNotTimedOut() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(
+                    new MockResponse()
+                            .setHeader("Content-Type", "text/event-stream")
+                            .setBody("data: a\n\ndata: b\n\ndata: c\n\n")
+                            .throttleBody(4, 50, TimeUnit.MILLISECONDS));
+            final TestApi api =
+                    new Retrofit.Builder()
+                            .baseUrl(server.url("/"))
+                            .addCallAdapterFactory(EventStreamCallAdapter.of())
+                            .addCallAdapterFactory(
+                                    AdaptiveTimeoutCallAdapter.of(
+                                            0.99,
+                                            3,
+                                            Duration.ofMillis(50),
+                                            Duration.ofMillis(100),
+                                            100,
+                                            Duration.ofMinutes(1)))
+                            .addConverterFactory(EventStreamCallAdapter.converterFactory())
+                            .build()
+                            .create(TestApi.class);
+
+            // the stream is read for about 300ms, past the 100ms timeout
+            assertThat(api.messages().collectList().block(), is(List.of("a", "b", "c")));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package in.abilng.springboot.retrofit.tls;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import in.abilng.springboot.retrofit.config.RetroFitProperties;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.ssl.DefaultSslBundleRegistry;
+import org.springframework.boot.ssl.SslBundle;
+import org.springframework.boot.ssl.jks.JksSslStoreBundle;
+import org.springframework.boot.ssl.jks.JksSslStoreDetails;
+
+class TlsContextRegistryTest {
+
+    private static final String PASSWORD = "changeit";
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    private final TlsContextRegistry registry = new TlsContextRegistry();
+
+    @TempDir
+    private Path directory;
+
+    @AfterEach
+    public void teardown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testSharesContextOfSameSettings() {
+        final RetroFitProperties.TlsProperties tls = new RetroFitProperties.TlsProperties();
+        tls.setSessionCacheSize(100);
+        final RetroFitProperties.TlsProperties same = new RetroFitProperties.TlsProperties();
+        same.setSessionCacheSize(100);
+        same.setCipherSuites(List.of("TLS_AES_128_GCM_SHA256"));
+        final RetroFitProperties.TlsProperties other = new RetroFitProperties.TlsProperties();
+        other.setSessionTimeout(Duration.ofMinutes(30));
+
+        final TlsContext context = registry.context(tls, null);
+
+        assertThat(registry.context(same, null), sameInstance(context));
+        assertThat(registry.context(other, null), not(sameInstance(context)));
+        assertThat(context.sslContext().getClientSessionContext().getSessionCacheSize(), is(100));
+        assertThat(registry.context(other, null).sslContext().getClientSessionContext().getSessionTimeout(), is(1800));
+    }
+
+    @Test
+    public void testResumesSessionOfEvictedConnection() throws Exception {
+        final Path keyStore = directory.resolve("server.p12");
+        final Process keytool =
+                new ProcessBuilder(
+                                Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+                                "-genkeypair", "-alias", "server", "-keyalg", "EC", "-dname", "CN=localhost",
+                                "-ext", "san=dns:localhost,ip:127.0.0.1", "-validity", "1",
+                                "-storetype", "PKCS12", "-keystore", keyStore.toString(),
+                                "-storepass", PASSWORD, "-keypass", PASSWORD)
+                        .inheritIO()
+                        .start();
+        assertThat(keytool.waitFor(), is(0));
+
+        final JksSslStoreDetails store = new JksSslStoreDetails("PKCS12", null, keyStore.toString(), PASSWORD);
+        final SslBundle bundle = SslBundle.of(new JksSslStoreBundle(store, store));
+        final KeyManagerFactory keyManagers = bundle.getManagers().getKeyManagerFactory();
+        final SSLContext serverContext = SSLContext.getInstance("TLS");
+        serverContext.init(keyManagers.getKeyManagers(), null, null);
+        mockWebServer.useHttps(serverContext.getSocketFactory(), false);
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello"));
+
+        final RetroFitProperties.TlsProperties tls = new RetroFitProperties.TlsProperties();
+        tls.setBundle("test");
+        final TlsContext context = registry.context(tls, new DefaultSslBundleRegistry("test", bundle));
+        final HandshakeCountingSocketFactory socketFactory =
+                new HandshakeCountingSocketFactory(context.sslContext().getSocketFactory());
+        final OkHttpClient client =
+                new OkHttpClient.Builder().sslSocketFactory(socketFactory, context.trustManager()).build();
+
+        get(client);
+        await().atMost(Duration.ofSeconds(5)).until(() -> socketFactory.getFullHandshakeCount() == 1);
+        client.connectionPool().evictAll();
+        get(client);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> socketFactory.getResumedHandshakeCount() == 1);
+        assertThat(socketFactory.getFullHandshakeCount(), is(1L));
+    }
+
+    private void get(OkHttpClient client) throws IOException {
+        try (Response response = client.newCall(new Request.Builder().url(mockWebServer.url("/")).build()).execute()) {
+            assertThat(response.body().string(), is("Hello"));
+        }
+    }
+}
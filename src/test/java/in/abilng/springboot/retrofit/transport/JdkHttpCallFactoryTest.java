@@ -0,0 +1,230 @@
+package in.abilng.springboot.retrofit.transport;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import okhttp3.EventListener;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.BufferedSink;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.scalars.ScalarsConverterFactory;
+import retrofit2.http.Body;
+import retrofit2.http.GET;
+import retrofit2.http.POST;
+
+class JdkHttpCallFactoryTest {
+
+    private interface TestApi {
+        @GET("/greeting")
+        Call<String> greeting();
+
+        @POST("/greeting")
+        Call<String> greet(@Body String name);
+    }
+
+    private final MockWebServer server = new MockWebServer();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void testSendsThroughInterceptors() throws Exception {
+        server.enqueue(new MockResponse().setBody("Hello Ada").setHeader("X-Served-By", "mock"));
+        final OkHttpClient client =
+                new OkHttpClient.Builder()
+                        .addInterceptor(
+                                chain -> chain.proceed(chain.request().newBuilder().header("X-Trace", "1").build()))
+                        .build();
+
+        final Response<String> response = api(client).greet("Ada").execute();
+
+        assertThat(response.body(), is("Hello Ada"));
+        assertThat(response.headers().get("X-Served-By"), is("mock"));
+        final RecordedRequest recorded = server.takeRequest();
+        assertThat(recorded.getMethod(), is("POST"));
+        assertThat(recorded.getHeader("X-Trace"), is("1"));
+        assertThat(recorded.getHeader("Content-Type"), startsWith("text/plain"));
+        assertThat(recorded.getBody().readUtf8(), is("Ada"));
+    }
+
+    @Test
+    public void testEnqueuesOnDispatcher() throws Exception {
+        server.enqueue(new MockResponse().setBody("Hello"));
+        final CompletableFuture<String> body = new CompletableFuture<>();
+
+        api(new OkHttpClient()).greeting()
+                .enqueue(
+                        new Callback<>() {
+                            @Override
+                            public void onResponse(Call<String> call, Response<String> response) {
+                                body.complete(response.body());
+                            }
+
+                            @Override
+                            public void onFailure(Call<String> call, Throwable t) {
+                                body.completeExceptionally(t);
+                            }
+                        });
+
+        assertThat(body.get(5, TimeUnit.SECONDS), is("Hello"));
+    }
+
+    @Test
+    public void testReportsInterceptorFailures() throws Exception {
+        final List<IOException> failures = new CopyOnWriteArrayList<>();
+        final OkHttpClient client =
+                new OkHttpClient.Builder()
+                        .addInterceptor(
+                                chain -> {
+                                    throw new IllegalStateException("boom");
+                                })
+                        .eventListener(
+                                new EventListener() {
+                                    @Override
+                                    public void callFailed(@NotNull okhttp3.Call call, @NotNull IOException ioe) {
+                                        failures.add(ioe);
+                                    }
+                                })
+                        .build();
+        final CompletableFuture<Throwable> failure = new CompletableFuture<>();
+
+        assertThrows(IllegalStateException.class, () -> api(client).greeting().execute());
+        api(client).greeting()
+                .enqueue(
+                        new Callback<>() {
+                            @Override
+                            public void onResponse(Call<String> call, Response<String> response) {
+                                failure.complete(null);
+                            }
+
+                            @Override
+                            public void onFailure(Call<String> call, Throwable t) {
+                                failure.complete(t);
+                            }
+                        });
+
+        final Throwable enqueued = failure.get(5, TimeUnit.SECONDS);
+        assertThat(enqueued instanceof IOException, is(true));
+        assertThat(enqueued.getMessage(), is("canceled due to java.lang.IllegalStateException: boom"));
+        assertThat(failures.size(), is(2));
+    }
+
+    @Test
+    public void testAppliesReadTimeout() {
+        server.enqueue(new MockResponse().setBody("Hello").setHeadersDelay(2, TimeUnit.SECONDS));
+        final OkHttpClient client = new OkHttpClient.Builder().readTimeout(Duration.ofMillis(200)).build();
+
+        assertThrows(SocketTimeoutException.class, () -> api(client).greeting().execute());
+    }
+
+    @Test
+    public void testAppliesCallTimeout() {
+        server.enqueue(new MockResponse().setBody("Hello").setHeadersDelay(2, TimeUnit.SECONDS));
+        final Call<String> call = api(new OkHttpClient.Builder().readTimeout(Duration.ZERO).build()).greeting();
+        call.timeout().timeout(200, TimeUnit.MILLISECONDS);
+
+        final InterruptedIOException timeout = assertThrows(InterruptedIOException.class, call::execute);
+        assertThat(timeout.getMessage(), is("timeout"));
+    }
+
+    @Test
+    public void testAppliesCallTimeoutToBody() {
+        server.enqueue(new MockResponse().setBody("Hello ".repeat(10)).throttleBody(1, 100, TimeUnit.MILLISECONDS));
+        final Call<String> call = api(new OkHttpClient.Builder().readTimeout(Duration.ZERO).build()).greeting();
+        call.timeout().timeout(300, TimeUnit.MILLISECONDS);
+
+        final InterruptedIOException timeout = assertThrows(InterruptedIOException.class, call::execute);
+        assertThat(timeout.getMessage(), is("timeout"));
+    }
+
+    @Test
+    public void testCancelClosesBody() throws Exception {
+        server.enqueue(new MockResponse().setBody("Hello ".repeat(10)).throttleBody(1, 100, TimeUnit.MILLISECONDS));
+        final OkHttpClient client = new OkHttpClient.Builder().readTimeout(Duration.ZERO).build();
+        final okhttp3.Call call =
+                new JdkHttpCallFactory(client, JdkHttpCallFactory.newHttpClientBuilder(client).build())
+                        .newCall(new Request.Builder().url(server.url("/greeting")).build());
+
+        try (okhttp3.Response response = call.execute()) {
+            CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS).execute(call::cancel);
+            final long start = System.nanoTime();
+            assertThrows(IOException.class, () -> response.body().string());
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 3000, is(true));
+        }
+    }
+
+    @Test
+    public void testStreamsLargeAndOneShotBodies() throws Exception {
+        server.enqueue(new MockResponse().setBody("Hello"));
+        server.enqueue(new MockResponse().setBody("Hello"));
+        final OkHttpClient client = new OkHttpClient();
+        final String large = "Ada ".repeat(50_000);
+        final RequestBody oneShot =
+                new RequestBody() {
+                    @Override
+                    public MediaType contentType() {
+                        return MediaType.get("text/plain");
+                    }
+
+                    @Override
+                    public void writeTo(@NotNull BufferedSink sink) throws IOException {
+                        sink.writeUtf8("Ada");
+                    }
+
+                    @Override
+                    public boolean isOneShot() {
+                        return true;
+                    }
+                };
+
+        assertThat(api(client).greet(large).execute().body(), is("Hello"));
+        try (okhttp3.Response response =
+                new JdkHttpCallFactory(client, JdkHttpCallFactory.newHttpClientBuilder(client).build())
+                        .newCall(new Request.Builder().url(server.url("/greeting")).post(oneShot).build())
+                        .execute()) {
+            assertThat(response.body().string(), is("Hello"));
+        }
+
+        assertThat(server.takeRequest().getBody().readUtf8(), is(large));
+        assertThat(server.takeRequest().getBody().readUtf8(), is("Ada"));
+    }
+
+    private TestApi api(OkHttpClient client) {
+        return new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .callFactory(new JdkHttpCallFactory(client, JdkHttpCallFactory.newHttpClientBuilder(client).build()))
+                .addConverterFactory(ScalarsConverterFactory.create())
+                .build()
+                .create(TestApi.class);
+    }
+}
@@ -0,0 +1,130 @@
+package in.abilng.springboot.retrofit.transport;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import retrofit2.Call;
+import retrofit2.Retrofit;
+import retrofit2.converter.scalars.ScalarsConverterFactory;
+import retrofit2.http.GET;
+
+class UnixDomainSocketFactoryTest {
+
+    @TempDir
+    private Path directory;
+
+    private ServerSocketChannel server;
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private interface TestApi {
+        @GET("/greeting")
+        Call<String> greeting();
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void testCallsOverUnixDomainSocket() throws IOException {
+        final TestApi api = api(start(true), Duration.ofSeconds(5));
+
+        assertThat(api.greeting().execute().body(), is("Hello"));
+        assertThat(api.greeting().execute().body(), is("Hello"));
+
+        assertThat(requests, is(List.of("GET /greeting HTTP/1.1 sidecar", "GET /greeting HTTP/1.1 sidecar")));
+        assertThat(connections.get(), is(1));
+    }
+
+    @Test
+    public void testAppliesReadTimeout() throws IOException {
+        final TestApi api = api(start(false), Duration.ofMillis(200));
+
+        assertThrows(SocketTimeoutException.class, () -> api.greeting().execute());
+    }
+
+    private TestApi api(Path socket, Duration readTimeout) {
+        final OkHttpClient client =
+                UnixDomainSocketFactory.configure(new OkHttpClient.Builder().readTimeout(readTimeout), socket).build();
+        return new Retrofit.Builder()
+                .baseUrl("http://sidecar/")
+                .client(client)
+                .addConverterFactory(ScalarsConverterFactory.create())
+                .build()
+                .create(TestApi.class);
+    }
+
+    /**
+     * Starts a stub HTTP/1.1 server on a socket file, answering the requests of each connection when respond.
+     */
+    private Path start(boolean respond) throws IOException {
+        final Path socket = directory.resolve("sidecar.sock");
+        server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socket));
+        final Thread acceptor =
+                new Thread(
+                        () -> {
+                            while (server.isOpen()) {
+                                try {
+                                    final SocketChannel channel = server.accept();
+                                    connections.incrementAndGet();
+                                    new Thread(() -> serve(channel, respond)).start();
+                                } catch (IOException e) {
+                                    return;
+                                }
+                            }
+                        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return socket;
+    }
+
+    private void serve(SocketChannel channel, boolean respond) {
+        try (channel) {
+            final BufferedReader reader =
+                    new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            final OutputStream output = Channels.newOutputStream(channel);
+            String requestLine;
+            while ((requestLine = reader.readLine()) != null) {
+                String host = null;
+                for (String header = reader.readLine(); !header.isEmpty(); header = reader.readLine()) {
+                    if (header.regionMatches(true, 0, "Host:", 0, 5)) {
+                        host = header.substring(5).trim();
+                    }
+                }
+                requests.add(requestLine + " " + host);
+                if (respond) {
+                    output.write("HTTP/1.1 200 OK\r\nContent-Length: 5\r\n\r\nHello".getBytes(StandardCharsets.UTF_8));
+                    output.flush();
+                }
+            }
+        } catch (IOException e) {
+            // the client closed the connection
+        }
+    }
+}
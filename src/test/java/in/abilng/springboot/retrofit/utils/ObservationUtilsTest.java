@@ -34,6 +34,15 @@ class ObservationUtilsTest {
 
         @DELETE("/test-put")
         Call<String> put();
+
+        @HEAD("/test-head")
+        Call<Void> head();
+
+        @OPTIONS("/test-options")
+        Call<String> options();
+
+        @HTTP(method = "QUERY", path = "/test-query/{id}")
+        Call<String> query(@Path("id") String id);
     }
 
     @BeforeEach
@@ -69,4 +78,16 @@ class ObservationUtilsTest {
         request = new Request.Builder().url("https://example.com/test-url").get().build();
         assertThat(ObservationUtils.getUri(request), is("unknown"));
     }
+
+    @Test
+    public void testGetUriOfOtherMethods() {
+        Request request = retrofit.create(TestApi.class).head().request();
+        assertThat(ObservationUtils.getUri(request), is("/test-head"));
+
+        request = retrofit.create(TestApi.class).options().request();
+        assertThat(ObservationUtils.getUri(request), is("/test-options"));
+
+        request = retrofit.create(TestApi.class).query("42").request();
+        assertThat(ObservationUtils.getUri(request), is("/test-query/{id}"));
+    }
 }